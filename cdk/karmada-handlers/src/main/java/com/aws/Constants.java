@@ -0,0 +1,60 @@
+package com.aws;
+
+// Names shared with the CDK app, which sets the same custom resource properties, environment variables and labels
+public class Constants {
+
+    static final String KARMADA_API_SECRET_ENV = "KARMADA_API_SECRET";
+    static final String CLUSTER_NAME_PROPERTY = "ClusterName";
+    static final String ENDPOINT_PROPERTY = "Endpoint";
+    static final String CERTIFICATE_AUTHORITY_PROPERTY = "CertificateAuthorityData";
+    static final String SYNC_MODE_PROPERTY = "SyncMode";
+    static final String PULL_SYNC_MODE = "Pull";
+    static final String SYNC_MODE_LABEL = "federated-k8s.aws/sync-mode";
+    static final String MANIFESTS_NAME_PROPERTY = "ManifestsName";
+    static final String MANIFESTS_PROPERTY = "Manifests";
+    static final String MANIFESTS_OWNER_ANNOTATION = "federated-k8s.aws/manifests";
+    static final String EKS_TOKEN_PREFIX = "k8s-aws-v1.";
+    static final String EKS_CLUSTER_ID_HEADER = "x-k8s-aws-id";
+    // The presigned STS call of an EKS token is valid this long
+    static final int EKS_TOKEN_EXPIRATION_SECONDS = 60;
+
+    static final String WEIGHT_CONTROLLER_LABEL = "federated-k8s.aws/weight-controller";
+    static final String WEIGHT_CONTROLLER_ENABLED = "enabled";
+    static final String WEIGHTS_UPDATED_ANNOTATION = "federated-k8s.aws/weights-updated-at";
+    static final String KARMADA_POLICY_API_PATH = "/apis/policy.karmada.io/v1alpha1";
+    static final String PROPAGATION_POLICIES_PATH = KARMADA_POLICY_API_PATH + "/propagationpolicies";
+    // Controlled weights add up to about this
+    static final int WEIGHT_SCALE = 100;
+    static final int WEIGHT_HYSTERESIS = 10;
+    static final int WEIGHT_MAX_STEP = 25;
+    static final int WEIGHT_UPDATE_INTERVAL = 5;
+    // Pending pods of a member that halve its weight
+    static final int WEIGHT_PENDING_PODS_HALF = 10;
+    // Lowest share of its weight a member keeps for slow api server probes, relative to the fastest member
+    static final double WEIGHT_MIN_LATENCY_FACTOR = 0.2;
+    static final String WEIGHT_HYSTERESIS_ENV = "WEIGHT_HYSTERESIS";
+    static final String WEIGHT_MAX_STEP_ENV = "WEIGHT_MAX_STEP";
+    static final String WEIGHT_UPDATE_INTERVAL_ENV = "WEIGHT_UPDATE_INTERVAL";
+    static final String WEIGHT_LATENCY_PROBE_ENV = "WEIGHT_LATENCY_PROBE";
+
+    // Objects karmadactl join creates, in the member cluster and in the Karmada control plane
+    static final String KARMADA_CLUSTER_NAMESPACE = "karmada-cluster";
+    static final String KARMADA_IMPERSONATOR = "karmada-impersonator";
+    static final String KARMADA_CONTROLLER_ROLE_PREFIX = "karmada-controller-manager:";
+    static final String KARMADA_CLUSTERS_PATH = "/apis/cluster.karmada.io/v1alpha1/clusters";
+    static final String NAMESPACES_PATH = "/api/v1/namespaces";
+    static final String CLUSTER_ROLES_PATH = "/apis/rbac.authorization.k8s.io/v1/clusterroles";
+    static final String CLUSTER_ROLE_BINDINGS_PATH = "/apis/rbac.authorization.k8s.io/v1/clusterrolebindings";
+    static final String RBAC_NAMESPACES_PATH = "/apis/rbac.authorization.k8s.io/v1/namespaces";
+
+    // Objects karmadactl register creates for karmada-agent in a Pull mode member
+    static final String KARMADA_AGENT = "karmada-agent";
+    static final String KARMADA_AGENT_ROLE_PREFIX = "karmada-agent:";
+    static final String KARMADA_AGENT_NAMESPACED_ROLE_SUFFIX = ":namespaced";
+    static final String KARMADA_EXECUTION_NAMESPACE_PREFIX = "karmada-es-";
+    static final String KARMADA_AGENT_NAMESPACE = "karmada-system";
+    static final String KARMADA_AGENT_KUBECONFIG = "karmada-kubeconfig";
+    static final String KARMADA_AGENT_CONTEXT = "karmada-apiserver";
+    static final int KARMADA_AGENT_REPLICAS = 2;
+    static final String AGENT_DEPLOYMENTS_PATH = "/apis/apps/v1/namespaces/" + KARMADA_AGENT_NAMESPACE + "/deployments";
+}
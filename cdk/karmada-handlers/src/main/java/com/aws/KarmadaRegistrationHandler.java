@@ -0,0 +1,480 @@
+package com.aws;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.SdkHttpRequest;
+import software.amazon.awssdk.http.auth.aws.signer.AwsV4HttpSigner;
+import software.amazon.awssdk.http.auth.spi.signer.HttpSigner;
+import software.amazon.awssdk.http.auth.spi.signer.SignedRequest;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.aws.Constants.*;
+import static com.aws.KubernetesApiClient.MAPPER;
+import static com.aws.KubernetesApiClient.OBJECT;
+
+// Custom resource handler that registers one member cluster to Karmada in Push mode, creating the same objects as karmadactl join,
+// or in Pull mode, installing karmada-agent in the member like karmadactl register, or applies a batch of Karmada manifests,
+// see ManifestBatcher.
+// onEvent only acknowledges the request, isComplete does the idempotent work once the management host has installed Karmada
+// and published its api server credentials, so CloudFormation registers all member clusters concurrently and shows their status.
+// Built with its dependencies into the karmada-handlers jar, the Lambda code asset of the CDK app.
+public class KarmadaRegistrationHandler {
+
+    private static final TypeReference<List<Map<String, Object>>> MANIFESTS = new TypeReference<>() {
+    };
+
+    private final Map<String, String> environment;
+    private final SecretsManagerClient secretsManager;
+    private final AwsCredentialsProvider credentialsProvider;
+    private final Clock clock;
+
+    public KarmadaRegistrationHandler() {
+        this(System.getenv(), secretsManager(), DefaultCredentialsProvider.create(), Clock.systemUTC());
+    }
+
+    KarmadaRegistrationHandler(Map<String, String> environment, SecretsManagerClient secretsManager,
+                               AwsCredentialsProvider credentialsProvider, Clock clock) {
+        this.environment = environment;
+        this.secretsManager = secretsManager;
+        this.credentialsProvider = credentialsProvider;
+        this.clock = clock;
+    }
+
+    public Map<String, Object> onEvent(Map<String, Object> event) {
+        Object physicalResourceId = "Create".equals(event.get("RequestType"))
+                ? properties(event).get(isManifests(event) ? MANIFESTS_NAME_PROPERTY : CLUSTER_NAME_PROPERTY) : event.get("PhysicalResourceId");
+        return Map.of("PhysicalResourceId", physicalResourceId);
+    }
+
+    public Map<String, Object> isComplete(Map<String, Object> event) {
+        boolean manifests = isManifests(event);
+        String name = (String) properties(event).get(manifests ? MANIFESTS_NAME_PROPERTY : CLUSTER_NAME_PROPERTY);
+        String work = (manifests ? "apply of " : "registration of ") + name;
+        try {
+            if (manifests) {
+                return result(applyManifests(event, name), name);
+            }
+            if ("Delete".equals(event.get("RequestType"))) {
+                return result(deregister((String) event.get("PhysicalResourceId"), properties(event)), name);
+            }
+            return result(register(name, properties(event)), name);
+        } catch (KubernetesApiClient.ApiException e) {
+            if (!e.isRetryable()) {
+                throw new IllegalStateException(Character.toUpperCase(work.charAt(0)) + work.substring(1) + " failed: " + e.getMessage(), e);
+            }
+            System.out.println("Retrying " + work + ": " + e.getMessage());
+            return result(false, name);
+        } catch (IOException e) {
+            System.out.println("Retrying " + work + ": " + e);
+            return result(false, name);
+        }
+    }
+
+    private boolean register(String clusterName, Map<String, Object> properties) throws IOException {
+        Map<String, Object> credentials = karmadaCredentials(secretsManager, environment.get(KARMADA_API_SECRET_ENV));
+        if (credentials == null) {
+            System.out.println("Waiting for the Karmada api server credentials in " + environment.get(KARMADA_API_SECRET_ENV));
+            return false;
+        }
+        KubernetesApiClient karmada = karmadaClient(credentials);
+        KubernetesApiClient member = memberClient(clusterName, properties);
+        if (isPull(properties)) {
+            return registerPull(karmada, member, clusterName, properties, credentials);
+        }
+
+        String serviceAccount = "karmada-" + clusterName;
+        String controllerToken = createServiceAccount(member, serviceAccount, KARMADA_CONTROLLER_ROLE_PREFIX + serviceAccount, allRules());
+        String impersonatorToken = createServiceAccount(member, KARMADA_IMPERSONATOR, KARMADA_IMPERSONATOR,
+                Arrays.asList(rule(List.of(""), List.of("users", "groups", "serviceaccounts"), List.of("impersonate"))));
+        if (controllerToken == null || impersonatorToken == null) {
+            System.out.println("Waiting for the service account tokens of " + clusterName);
+            return false;
+        }
+
+        karmada.create(NAMESPACES_PATH, object("v1", "Namespace", KARMADA_CLUSTER_NAMESPACE, null));
+        String secretsPath = NAMESPACES_PATH + "/" + KARMADA_CLUSTER_NAMESPACE + "/secrets";
+        karmada.apply(secretsPath, secret(clusterName, KARMADA_CLUSTER_NAMESPACE, Map.of("token", encode(controllerToken),
+                "caBundle", (String) properties.get(CERTIFICATE_AUTHORITY_PROPERTY))));
+        karmada.apply(secretsPath, secret(clusterName + "-impersonator", KARMADA_CLUSTER_NAMESPACE, Map.of("token", encode(impersonatorToken))));
+
+        Map<String, Object> cluster = object("cluster.karmada.io/v1alpha1", "Cluster", clusterName, null);
+        cluster.put("spec", Map.of("syncMode", "Push",
+                "apiEndpoint", properties.get(ENDPOINT_PROPERTY),
+                "secretRef", Map.of("namespace", KARMADA_CLUSTER_NAMESPACE, "name", clusterName),
+                "impersonatorSecretRef", Map.of("namespace", KARMADA_CLUSTER_NAMESPACE, "name", clusterName + "-impersonator")));
+        karmada.apply(KARMADA_CLUSTERS_PATH, cluster);
+        return isReady(karmada.get(KARMADA_CLUSTERS_PATH + "/" + clusterName));
+    }
+
+    // Pull mode as karmadactl register sets it up, with a service account token of the Karmada api server instead of
+    // a bootstrap token: karmada-agent in the member dials in to the Karmada api server, which never connects to the
+    // member. The Cluster object is created here so the agent only gets the rights of system:karmada:agent on its own
+    // cluster, see agentClusterRules. Its token is revoked with the service account on deregistration. The agent image
+    // is the one of the Karmada control plane
+    @SuppressWarnings("unchecked")
+    private boolean registerPull(KubernetesApiClient karmada, KubernetesApiClient member, String clusterName,
+                                 Map<String, Object> properties, Map<String, Object> credentials) throws IOException {
+        String agent = KARMADA_AGENT + "-" + clusterName;
+        String agentToken = createServiceAccount(karmada, agent, KARMADA_AGENT_ROLE_PREFIX + clusterName, agentClusterRules(clusterName));
+        String namespacedRole = KARMADA_AGENT_ROLE_PREFIX + clusterName + KARMADA_AGENT_NAMESPACED_ROLE_SUFFIX;
+        Map<String, Object> clusterRole = object("rbac.authorization.k8s.io/v1", "ClusterRole", namespacedRole, null);
+        clusterRole.put("rules", agentNamespacedRules());
+        karmada.apply(CLUSTER_ROLES_PATH, clusterRole);
+        for (String namespace : agentNamespaces(clusterName)) {
+            karmada.create(NAMESPACES_PATH, object("v1", "Namespace", namespace, null));
+            Map<String, Object> roleBinding = object("rbac.authorization.k8s.io/v1", "RoleBinding", agent, namespace);
+            roleBinding.put("roleRef", Map.of("apiGroup", "rbac.authorization.k8s.io", "kind", "ClusterRole", "name", namespacedRole));
+            roleBinding.put("subjects", List.of(Map.of("kind", "ServiceAccount", "name", agent, "namespace", KARMADA_CLUSTER_NAMESPACE)));
+            karmada.apply(RBAC_NAMESPACES_PATH + "/" + namespace + "/rolebindings", roleBinding);
+        }
+        if (agentToken == null || credentials.get("agentImage") == null) {
+            System.out.println("Waiting for the karmada-agent token and image of " + clusterName);
+            return false;
+        }
+
+        Map<String, Object> cluster = object("cluster.karmada.io/v1alpha1", "Cluster", clusterName, null);
+        // karmada-search leaves out the pull mode clusters by this label, it has no credentials for them
+        ((Map<String, Object>) cluster.get("metadata")).put("labels", Map.of(SYNC_MODE_LABEL, PULL_SYNC_MODE));
+        cluster.put("spec", Map.of("syncMode", PULL_SYNC_MODE, "apiEndpoint", properties.get(ENDPOINT_PROPERTY)));
+        karmada.create(KARMADA_CLUSTERS_PATH, cluster);
+
+        member.create(NAMESPACES_PATH, object("v1", "Namespace", KARMADA_AGENT_NAMESPACE, null));
+        String namespacePath = NAMESPACES_PATH + "/" + KARMADA_AGENT_NAMESPACE;
+        member.apply(namespacePath + "/secrets", secret(KARMADA_AGENT_KUBECONFIG, KARMADA_AGENT_NAMESPACE, Map.of(KARMADA_AGENT_KUBECONFIG,
+                encode(MAPPER.writeValueAsString(kubeconfig((String) credentials.get("server"), (String) credentials.get("caData"), agentToken))))));
+        member.create(namespacePath + "/serviceaccounts", object("v1", "ServiceAccount", KARMADA_AGENT, KARMADA_AGENT_NAMESPACE));
+        bindClusterRole(member, KARMADA_AGENT, allRules(), KARMADA_AGENT, KARMADA_AGENT_NAMESPACE);
+        member.apply(AGENT_DEPLOYMENTS_PATH, agentDeployment(clusterName, (String) properties.get(ENDPOINT_PROPERTY), (String) credentials.get("agentImage")));
+        return isReady(karmada.get(KARMADA_CLUSTERS_PATH + "/" + clusterName));
+    }
+
+    // Nothing to clean up when Karmada is already gone, the member cluster is deleted right after
+    private boolean deregister(String clusterName, Map<String, Object> properties) throws IOException {
+        KubernetesApiClient karmada = karmadaClient();
+        if (karmada == null) {
+            return true;
+        }
+        if (isPull(properties)) {
+            // a running agent would create the Cluster object again when it restarts
+            memberClient(clusterName, properties).delete(AGENT_DEPLOYMENTS_PATH + "/" + KARMADA_AGENT);
+            for (String namespace : agentNamespaces(clusterName)) {
+                karmada.delete(RBAC_NAMESPACES_PATH + "/" + namespace + "/rolebindings/" + KARMADA_AGENT + "-" + clusterName);
+            }
+            karmada.delete(CLUSTER_ROLES_PATH + "/" + KARMADA_AGENT_ROLE_PREFIX + clusterName + KARMADA_AGENT_NAMESPACED_ROLE_SUFFIX);
+            deleteServiceAccount(karmada, KARMADA_AGENT + "-" + clusterName, KARMADA_AGENT_ROLE_PREFIX + clusterName);
+        }
+        String clusterPath = KARMADA_CLUSTERS_PATH + "/" + clusterName;
+        karmada.delete(clusterPath);
+        String secretsPath = NAMESPACES_PATH + "/" + KARMADA_CLUSTER_NAMESPACE + "/secrets/";
+        karmada.delete(secretsPath + clusterName);
+        karmada.delete(secretsPath + clusterName + "-impersonator");
+        return karmada.get(clusterPath) == null;
+    }
+
+    // Applies the manifests in order, an update deletes the objects the previous manifests had and the new ones do not.
+    // Every object is annotated with the batch that applied it last, see deleteOwned
+    private boolean applyManifests(Map<String, Object> event, String name) throws IOException {
+        KubernetesApiClient karmada = karmadaClient();
+        boolean delete = "Delete".equals(event.get("RequestType"));
+        if (karmada == null) {
+            System.out.println("Waiting for the Karmada api server credentials in " + environment.get(KARMADA_API_SECRET_ENV));
+            return delete;
+        }
+        List<Map<String, Object>> manifests = manifests(properties(event));
+        if (delete) {
+            for (Map<String, Object> manifest : manifests) {
+                deleteOwned(karmada, manifest, name);
+            }
+            return true;
+        }
+        if (event.get("OldResourceProperties") != null) {
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> oldManifests = manifests((Map<String, Object>) event.get("OldResourceProperties"));
+            List<String> paths = manifests.stream().map(KarmadaRegistrationHandler::objectPath).collect(Collectors.toList());
+            for (Map<String, Object> oldManifest : oldManifests) {
+                if (!paths.contains(objectPath(oldManifest))) {
+                    deleteOwned(karmada, oldManifest, name);
+                }
+            }
+        }
+        for (Map<String, Object> manifest : manifests) {
+            annotations(manifest).put(MANIFESTS_OWNER_ANNOTATION, name);
+            karmada.apply(collectionPath(manifest), manifest);
+        }
+        return true;
+    }
+
+    // Leaves an object that another batch applied since, it moved there when the number of batches changed
+    private static void deleteOwned(KubernetesApiClient karmada, Map<String, Object> manifest, String name) throws IOException {
+        String path = objectPath(manifest);
+        Map<String, Object> existing = karmada.get(path);
+        Object owner = existing != null ? annotations(existing).get(MANIFESTS_OWNER_ANNOTATION) : null;
+        if (existing != null && (owner == null || owner.equals(name))) {
+            karmada.delete(path);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> annotations(Map<String, Object> object) {
+        Map<String, Object> metadata = (Map<String, Object>) object.get("metadata");
+        return (Map<String, Object>) metadata.computeIfAbsent("annotations", key -> new LinkedHashMap<String, Object>());
+    }
+
+    // Service account in karmada-cluster bound to its own cluster role, returns its long-lived token once the token
+    // controller filled it in. In the member for Push mode, in Karmada for the agent of a Pull mode member
+    @SuppressWarnings("unchecked")
+    private static String createServiceAccount(KubernetesApiClient client, String name, String roleName,
+                                               List<Map<String, Object>> rules) throws IOException {
+        String namespacePath = NAMESPACES_PATH + "/" + KARMADA_CLUSTER_NAMESPACE;
+        client.create(NAMESPACES_PATH, object("v1", "Namespace", KARMADA_CLUSTER_NAMESPACE, null));
+        client.create(namespacePath + "/serviceaccounts", object("v1", "ServiceAccount", name, KARMADA_CLUSTER_NAMESPACE));
+        Map<String, Object> tokenSecret = object("v1", "Secret", name, KARMADA_CLUSTER_NAMESPACE);
+        ((Map<String, Object>) tokenSecret.get("metadata")).put("annotations", Map.of("kubernetes.io/service-account.name", name));
+        tokenSecret.put("type", "kubernetes.io/service-account-token");
+        client.create(namespacePath + "/secrets", tokenSecret);
+        bindClusterRole(client, roleName, rules, name, KARMADA_CLUSTER_NAMESPACE);
+
+        Map<String, Object> secret = client.get(namespacePath + "/secrets/" + name);
+        Map<String, Object> data = secret != null ? (Map<String, Object>) secret.get("data") : null;
+        return data != null && data.get("token") != null ? new String(Base64.getDecoder().decode((String) data.get("token")), StandardCharsets.UTF_8) : null;
+    }
+
+    private static void deleteServiceAccount(KubernetesApiClient client, String name, String roleName) throws IOException {
+        String namespacePath = NAMESPACES_PATH + "/" + KARMADA_CLUSTER_NAMESPACE;
+        client.delete(CLUSTER_ROLE_BINDINGS_PATH + "/" + roleName);
+        client.delete(CLUSTER_ROLES_PATH + "/" + roleName);
+        client.delete(namespacePath + "/secrets/" + name);
+        client.delete(namespacePath + "/serviceaccounts/" + name);
+    }
+
+    private static void bindClusterRole(KubernetesApiClient client, String roleName, List<Map<String, Object>> rules,
+                                        String serviceAccount, String namespace) throws IOException {
+        Map<String, Object> clusterRole = object("rbac.authorization.k8s.io/v1", "ClusterRole", roleName, null);
+        clusterRole.put("rules", rules);
+        client.apply(CLUSTER_ROLES_PATH, clusterRole);
+        Map<String, Object> clusterRoleBinding = object("rbac.authorization.k8s.io/v1", "ClusterRoleBinding", roleName, null);
+        clusterRoleBinding.put("roleRef", Map.of("apiGroup", "rbac.authorization.k8s.io", "kind", "ClusterRole", "name", roleName));
+        clusterRoleBinding.put("subjects", List.of(Map.of("kind", "ServiceAccount", "name", serviceAccount, "namespace", namespace)));
+        client.apply(CLUSTER_ROLE_BINDINGS_PATH, clusterRoleBinding);
+    }
+
+    // Leader elected replicas, with the flags karmadactl register sets
+    static Map<String, Object> agentDeployment(String clusterName, String endpoint, String image) {
+        Map<String, Object> labels = Map.of("app", KARMADA_AGENT);
+        Map<String, Object> container = new LinkedHashMap<>();
+        container.put("name", KARMADA_AGENT);
+        container.put("image", image);
+        container.put("command", List.of("/bin/karmada-agent",
+                "--karmada-kubeconfig=/etc/kubeconfig/" + KARMADA_AGENT_KUBECONFIG,
+                "--karmada-context=" + KARMADA_AGENT_CONTEXT,
+                "--cluster-name=" + clusterName,
+                "--cluster-api-endpoint=" + endpoint,
+                "--cluster-status-update-frequency=10s",
+                // the agent has no rights on secrets in Karmada, which never connects to the member
+                "--report-secrets=None",
+                "--leader-elect-resource-namespace=" + KARMADA_AGENT_NAMESPACE));
+        container.put("volumeMounts", List.of(Map.of("name", "kubeconfig", "mountPath", "/etc/kubeconfig")));
+        Map<String, Object> deployment = object("apps/v1", "Deployment", KARMADA_AGENT, KARMADA_AGENT_NAMESPACE);
+        deployment.put("spec", Map.of("replicas", KARMADA_AGENT_REPLICAS,
+                "selector", Map.of("matchLabels", labels),
+                "template", Map.of("metadata", Map.of("labels", labels),
+                        "spec", Map.of("serviceAccountName", KARMADA_AGENT,
+                                "containers", List.of(container),
+                                "volumes", List.of(Map.of("name", "kubeconfig", "secret", Map.of("secretName", KARMADA_AGENT_KUBECONFIG)))))));
+        return deployment;
+    }
+
+    private static Map<String, Object> kubeconfig(String server, String caData, String token) {
+        return Map.of("apiVersion", "v1",
+                "kind", "Config",
+                "clusters", List.of(Map.of("name", KARMADA_AGENT_CONTEXT,
+                        "cluster", Map.of("server", server, "certificate-authority-data", caData != null ? caData : ""))),
+                "users", List.of(Map.of("name", KARMADA_AGENT, "user", Map.of("token", token))),
+                "contexts", List.of(Map.of("name", KARMADA_AGENT_CONTEXT,
+                        "context", Map.of("cluster", KARMADA_AGENT_CONTEXT, "user", KARMADA_AGENT))),
+                "current-context", KARMADA_AGENT_CONTEXT);
+    }
+
+    @SuppressWarnings("unchecked")
+    static boolean isReady(Map<String, Object> cluster) {
+        Map<String, Object> status = cluster != null ? (Map<String, Object>) cluster.get("status") : null;
+        List<Map<String, Object>> conditions = status != null ? (List<Map<String, Object>>) status.get("conditions") : null;
+        return conditions != null && conditions.stream()
+                .anyMatch(condition -> "Ready".equals(condition.get("type")) && "True".equals(condition.get("status")));
+    }
+
+    private KubernetesApiClient karmadaClient() throws IOException {
+        return karmadaClient(secretsManager, environment.get(KARMADA_API_SECRET_ENV));
+    }
+
+    // The management host stores {server, caData, token, agentImage} in Secrets Manager after karmada init.
+    // Null until then, the secret is created with a generated placeholder value
+    static Map<String, Object> karmadaCredentials(SecretsManagerClient secretsManager, String secretId) throws IOException {
+        String secretString;
+        try {
+            secretString = secretsManager.getSecretValue(request -> request.secretId(secretId)).secretString();
+        } catch (SdkException e) {
+            throw new IOException("Cannot read " + secretId + ": " + e.getMessage(), e);
+        }
+        Map<String, Object> credentials;
+        try {
+            credentials = secretString != null ? MAPPER.readValue(secretString, OBJECT) : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+        return credentials != null && credentials.get("server") != null && credentials.get("token") != null ? credentials : null;
+    }
+
+    static KubernetesApiClient karmadaClient(SecretsManagerClient secretsManager, String secretId) throws IOException {
+        Map<String, Object> credentials = karmadaCredentials(secretsManager, secretId);
+        return credentials != null ? karmadaClient(credentials) : null;
+    }
+
+    private static KubernetesApiClient karmadaClient(Map<String, Object> credentials) {
+        return new KubernetesApiClient((String) credentials.get("server"), (String) credentials.get("caData"), (String) credentials.get("token"));
+    }
+
+    private KubernetesApiClient memberClient(String clusterName, Map<String, Object> properties) {
+        return new KubernetesApiClient((String) properties.get(ENDPOINT_PROPERTY),
+                (String) properties.get(CERTIFICATE_AUTHORITY_PROPERTY), eksToken(clusterName));
+    }
+
+    private static boolean isPull(Map<String, Object> properties) {
+        return PULL_SYNC_MODE.equals(properties.get(SYNC_MODE_PROPERTY));
+    }
+
+    // One client per Lambda container, on the lighter HTTP client of the JDK
+    static SecretsManagerClient secretsManager() {
+        return SecretsManagerClient.builder()
+                .httpClient(UrlConnectionHttpClient.create())
+                .build();
+    }
+
+    // Same token as aws eks get-token: a presigned STS GetCallerIdentity URL bound to the cluster name
+    String eksToken(String clusterName) {
+        String region = environment.get("AWS_REGION");
+        SdkHttpRequest request = SdkHttpRequest.builder()
+                .method(SdkHttpMethod.GET)
+                .uri(URI.create("https://sts." + region + ".amazonaws.com/"))
+                .appendRawQueryParameter("Action", "GetCallerIdentity")
+                .appendRawQueryParameter("Version", "2011-06-15")
+                .putHeader(EKS_CLUSTER_ID_HEADER, clusterName)
+                .build();
+        SignedRequest signed = AwsV4HttpSigner.create().sign(signRequest -> signRequest
+                .identity(credentialsProvider.resolveCredentials())
+                .request(request)
+                .putProperty(AwsV4HttpSigner.SERVICE_SIGNING_NAME, "sts")
+                .putProperty(AwsV4HttpSigner.REGION_NAME, region)
+                .putProperty(AwsV4HttpSigner.AUTH_LOCATION, AwsV4HttpSigner.AuthLocation.QUERY_STRING)
+                .putProperty(AwsV4HttpSigner.EXPIRATION_DURATION, Duration.ofSeconds(EKS_TOKEN_EXPIRATION_SECONDS))
+                .putProperty(HttpSigner.SIGNING_CLOCK, clock));
+        String url = signed.request().getUri().toString();
+        return EKS_TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(url.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> properties(Map<String, Object> event) {
+        return (Map<String, Object>) event.getOrDefault("ResourceProperties", Map.of());
+    }
+
+    private static boolean isManifests(Map<String, Object> event) {
+        return properties(event).containsKey(MANIFESTS_PROPERTY);
+    }
+
+    private static List<Map<String, Object>> manifests(Map<String, Object> properties) throws JsonProcessingException {
+        return MAPPER.readValue((String) properties.get(MANIFESTS_PROPERTY), MANIFESTS);
+    }
+
+    // REST path of the kind, plural by the English rules the Karmada and Kubernetes kinds follow
+    @SuppressWarnings("unchecked")
+    static String collectionPath(Map<String, Object> manifest) {
+        String apiVersion = (String) manifest.get("apiVersion");
+        String kind = ((String) manifest.get("kind")).toLowerCase();
+        Object namespace = ((Map<String, Object>) manifest.get("metadata")).get("namespace");
+        return (apiVersion.contains("/") ? "/apis/" : "/api/") + apiVersion
+                + (namespace != null ? "/namespaces/" + namespace : "")
+                + "/" + (kind.endsWith("y") ? kind.substring(0, kind.length() - 1) + "ies" : kind + "s");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String objectPath(Map<String, Object> manifest) {
+        return collectionPath(manifest) + "/" + ((Map<String, Object>) manifest.get("metadata")).get("name");
+    }
+
+    private static Map<String, Object> result(boolean complete, String clusterName) {
+        return Map.of("IsComplete", complete, "Data", Map.of(CLUSTER_NAME_PROPERTY, clusterName != null ? clusterName : ""));
+    }
+
+    private static Map<String, Object> object(String apiVersion, String kind, String name, String namespace) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("name", name);
+        if (namespace != null) {
+            metadata.put("namespace", namespace);
+        }
+        Map<String, Object> object = new LinkedHashMap<>();
+        object.put("apiVersion", apiVersion);
+        object.put("kind", kind);
+        object.put("metadata", metadata);
+        return object;
+    }
+
+    private static Map<String, Object> secret(String name, String namespace, Map<String, String> data) {
+        Map<String, Object> secret = object("v1", "Secret", name, namespace);
+        secret.put("data", data);
+        return secret;
+    }
+
+    // What karmadactl register grants system:karmada:agent, narrowed to the Cluster object of this member. List and
+    // watch with resourceNames only match requests with a metadata.name field selector, which is how the agent reads it
+    private static List<Map<String, Object>> agentClusterRules(String clusterName) {
+        List<String> names = List.of(clusterName);
+        return Arrays.asList(
+                Map.of("apiGroups", List.of("cluster.karmada.io"), "resources", List.of("clusters"), "resourceNames", names,
+                        "verbs", List.of("get", "list", "watch", "update", "patch", "delete")),
+                Map.of("apiGroups", List.of("cluster.karmada.io"), "resources", List.of("clusters/status"), "resourceNames", names,
+                        "verbs", List.of("get", "update", "patch")));
+    }
+
+    // Bound in the namespaces of agentNamespaces only: the leader election lease, the cluster lease and the works and
+    // events of the execution namespace
+    private static List<Map<String, Object>> agentNamespacedRules() {
+        return Arrays.asList(
+                rule(List.of("coordination.k8s.io"), List.of("leases"), List.of("get", "list", "watch", "create", "update", "patch", "delete")),
+                rule(List.of("work.karmada.io"), List.of("works"), List.of("get", "list", "watch", "create", "update", "patch", "delete")),
+                rule(List.of("work.karmada.io"), List.of("works/status"), List.of("get", "update", "patch")),
+                rule(List.of("", "events.k8s.io"), List.of("events"), List.of("create", "update", "patch")));
+    }
+
+    private static List<String> agentNamespaces(String clusterName) {
+        return List.of(KARMADA_EXECUTION_NAMESPACE_PREFIX + clusterName, KARMADA_CLUSTER_NAMESPACE, KARMADA_AGENT_NAMESPACE);
+    }
+
+    private static List<Map<String, Object>> allRules() {
+        return Arrays.asList(rule(List.of("*"), List.of("*"), List.of("*")), Map.of("nonResourceURLs", List.of("*"), "verbs", List.of("get")));
+    }
+
+    private static Map<String, Object> rule(List<String> apiGroups, List<String> resources, List<String> verbs) {
+        return Map.of("apiGroups", apiGroups, "resources", resources, "verbs", verbs);
+    }
+
+    private static String encode(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
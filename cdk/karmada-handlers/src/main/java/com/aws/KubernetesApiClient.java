@@ -0,0 +1,173 @@
+package com.aws;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+// Bearer token client for the few Kubernetes REST calls the registration handler and the weight controller need,
+// on the HTTP client of the JDK. Objects are the maps Jackson reads and writes
+final class KubernetesApiClient {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+    static final TypeReference<Map<String, Object>> OBJECT = new TypeReference<>() {
+    };
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    private final HttpClient httpClient;
+    private final String server;
+    private final String token;
+
+    KubernetesApiClient(String server, String certificateAuthorityData, String token) {
+        this.server = server.endsWith("/") ? server.substring(0, server.length() - 1) : server;
+        this.token = token;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .sslContext(sslContext(certificateAuthorityData))
+                .build();
+    }
+
+    // Null when the object does not exist
+    Map<String, Object> get(String path) throws IOException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri(path)).GET(), path);
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        return MAPPER.readValue(check(response, path).body(), OBJECT);
+    }
+
+    // Leaves an existing object untouched
+    void create(String collectionPath, Map<String, Object> object) throws IOException {
+        HttpResponse<String> response = send(post(collectionPath, object), collectionPath);
+        if (response.statusCode() != 409) {
+            check(response, collectionPath);
+        }
+    }
+
+    // Creates the object or replaces an existing one with the same name
+    @SuppressWarnings("unchecked")
+    void apply(String collectionPath, Map<String, Object> object) throws IOException {
+        HttpResponse<String> response = send(post(collectionPath, object), collectionPath);
+        if (response.statusCode() != 409) {
+            check(response, collectionPath);
+            return;
+        }
+        Map<String, Object> metadata = (Map<String, Object>) object.get("metadata");
+        String path = collectionPath + "/" + metadata.get("name");
+        Map<String, Object> existing = get(path);
+        if (existing != null) {
+            metadata.put("resourceVersion", ((Map<String, Object>) existing.get("metadata")).get("resourceVersion"));
+        }
+        check(send(HttpRequest.newBuilder(uri(path)).PUT(body(object)).header("Content-Type", "application/json"), path), path);
+    }
+
+    // JSON merge patch, lists in the patch replace the existing ones and nulls remove fields
+    void patch(String path, Map<String, Object> patch) throws IOException {
+        check(send(HttpRequest.newBuilder(uri(path)).method("PATCH", body(patch))
+                .header("Content-Type", "application/merge-patch+json"), path), path);
+    }
+
+    // Round trip time of a successful GET, for endpoints that do not answer with JSON such as /readyz
+    Duration probe(String path) throws IOException {
+        long start = System.nanoTime();
+        check(send(HttpRequest.newBuilder(uri(path)).GET(), path), path);
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    void delete(String path) throws IOException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri(path)).DELETE(), path);
+        if (response.statusCode() != 404) {
+            check(response, path);
+        }
+    }
+
+    private HttpRequest.Builder post(String collectionPath, Map<String, Object> object) throws IOException {
+        return HttpRequest.newBuilder(uri(collectionPath)).POST(body(object)).header("Content-Type", "application/json");
+    }
+
+    private static HttpRequest.BodyPublisher body(Map<String, Object> object) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(object));
+    }
+
+    private URI uri(String path) {
+        return URI.create(server + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, String path) throws IOException {
+        try {
+            return httpClient.send(request.timeout(TIMEOUT)
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept", "application/json")
+                    .build(), HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling " + path);
+        }
+    }
+
+    private static HttpResponse<String> check(HttpResponse<String> response, String path) throws ApiException {
+        if (response.statusCode() / 100 != 2) {
+            throw new ApiException(response.statusCode(), response.request().method() + " " + path + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    // Trusts only the cluster CA when one is given, EKS and Karmada both use self-signed ones
+    private static SSLContext sslContext(String certificateAuthorityData) {
+        try {
+            if (certificateAuthorityData == null || certificateAuthorityData.isEmpty()) {
+                return SSLContext.getDefault();
+            }
+            KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+            keyStore.load(null, null);
+            int index = 0;
+            for (Certificate certificate : CertificateFactory.getInstance("X.509")
+                    .generateCertificates(new ByteArrayInputStream(Base64.getDecoder().decode(certificateAuthorityData)))) {
+                keyStore.setCertificateEntry("ca-" + index++, certificate);
+            }
+            TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(keyStore);
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+            return sslContext;
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalArgumentException("Invalid certificate authority data", e);
+        }
+    }
+
+    static final class ApiException extends IOException {
+
+        private final int statusCode;
+
+        ApiException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+
+        int getStatusCode() {
+            return statusCode;
+        }
+
+        // Authentication is eventually consistent right after aws-auth changes, so are conflicts and throttling
+        boolean isRetryable() {
+            return statusCode == 401 || statusCode == 403 || statusCode == 409 || statusCode == 429 || statusCode >= 500;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.aws;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.aws.Constants.*;
+
+// Sets the static weights of the PropagationPolicies labelled federated-k8s.aws/weight-controller=enabled from the
+// state of their member clusters: the CPU a member can still allocate, limited by its free memory, reduced by its
+// pending pods and by slower api server probes than the fastest member. Weights only change when one of them is off
+// by the hysteresis, by at most the max step and once per update interval, except that a member which is no longer
+// ready loses its weight right away. Runs every minute in a Lambda function, see WeightControllerHandler
+final class WeightController {
+
+    // What the controller knows of a member cluster, latency is -1 when it was not probed
+    static final class MemberSignals {
+        final String clusterName;
+        final boolean ready;
+        final long allocatableMilliCpu;
+        final long freeMilliCpu;
+        final long allocatableMemoryMiB;
+        final long freeMemoryMiB;
+        final int pendingPods;
+        final long latencyMillis;
+
+        MemberSignals(String clusterName, boolean ready, long allocatableMilliCpu, long freeMilliCpu,
+                      long allocatableMemoryMiB, long freeMemoryMiB, int pendingPods, long latencyMillis) {
+            this.clusterName = clusterName;
+            this.ready = ready;
+            this.allocatableMilliCpu = allocatableMilliCpu;
+            this.freeMilliCpu = freeMilliCpu;
+            this.allocatableMemoryMiB = allocatableMemoryMiB;
+            this.freeMemoryMiB = freeMemoryMiB;
+            this.pendingPods = pendingPods;
+            this.latencyMillis = latencyMillis;
+        }
+    }
+
+    private final KubernetesApiClient karmada;
+    private final Clock clock;
+    private final int hysteresis;
+    private final int maxStep;
+    private final Duration updateInterval;
+    private final boolean latencyProbe;
+
+    WeightController(KubernetesApiClient karmada, Clock clock, int hysteresis, int maxStep, Duration updateInterval, boolean latencyProbe) {
+        this.karmada = karmada;
+        this.clock = clock;
+        this.hysteresis = hysteresis;
+        this.maxStep = maxStep;
+        this.updateInterval = updateInterval;
+        this.latencyProbe = latencyProbe;
+    }
+
+    // Returns the namespace/name of the patched policies
+    @SuppressWarnings("unchecked")
+    List<String> reconcile() throws IOException {
+        // read once per run, the pending pods and the probes cost a call through the proxy per member
+        Map<String, MemberSignals> signals = readSignals();
+        List<String> patched = new ArrayList<>();
+        Map<String, Object> policies = karmada.get(PROPAGATION_POLICIES_PATH);
+        for (Map<String, Object> policy : policies != null ? (List<Map<String, Object>>) policies.get("items") : List.<Map<String, Object>>of()) {
+            Map<String, Object> metadata = (Map<String, Object>) policy.get("metadata");
+            Map<String, Object> labels = (Map<String, Object>) metadata.getOrDefault("labels", Map.of());
+            if (WEIGHT_CONTROLLER_ENABLED.equals(labels.get(WEIGHT_CONTROLLER_LABEL)) && reconcile(policy, signals)) {
+                patched.add(metadata.get("namespace") + "/" + metadata.get("name"));
+            }
+        }
+        return patched;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean reconcile(Map<String, Object> policy, Map<String, MemberSignals> signals) throws IOException {
+        Map<String, Object> metadata = (Map<String, Object>) policy.get("metadata");
+        Map<String, Object> spec = (Map<String, Object>) policy.getOrDefault("spec", Map.of());
+        Map<String, Object> placement = (Map<String, Object>) spec.getOrDefault("placement", Map.of());
+        Map<String, Object> affinity = (Map<String, Object>) placement.getOrDefault("clusterAffinity", Map.of());
+        List<String> clusterNames = (List<String>) affinity.get("clusterNames");
+        List<MemberSignals> members = new ArrayList<>();
+        signals.forEach((clusterName, member) -> {
+            if (clusterNames == null || clusterNames.contains(clusterName)) {
+                members.add(member);
+            }
+        });
+        Map<String, Integer> next = nextWeights(currentWeights(placement), targetWeights(members), hysteresis, maxStep,
+                intervalElapsed((Map<String, Object>) metadata.getOrDefault("annotations", Map.of())));
+        if (next == null) {
+            return false;
+        }
+        List<Map<String, Object>> staticWeightList = new ArrayList<>();
+        next.forEach((clusterName, weight) -> staticWeightList.add(Map.of(
+                "targetCluster", Map.of("clusterNames", List.of(clusterName)), "weight", weight)));
+        // a merge patch replaces the whole list, the null removes a dynamic weight set by hand
+        Map<String, Object> weightPreference = new LinkedHashMap<>();
+        weightPreference.put("staticWeightList", staticWeightList);
+        weightPreference.put("dynamicWeight", null);
+        karmada.patch(KARMADA_POLICY_API_PATH + "/namespaces/" + metadata.get("namespace") + "/propagationpolicies/" + metadata.get("name"),
+                Map.of("metadata", Map.of("annotations", Map.of(WEIGHTS_UPDATED_ANNOTATION, clock.instant().toString())),
+                        "spec", Map.of("placement", Map.of("replicaScheduling", Map.of(
+                                "replicaSchedulingType", "Divided",
+                                "replicaDivisionPreference", "Weighted",
+                                "weightPreference", weightPreference)))));
+        System.out.println("Set the weights of " + metadata.get("namespace") + "/" + metadata.get("name") + " to " + next);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Integer> currentWeights(Map<String, Object> placement) {
+        Map<String, Object> replicaScheduling = (Map<String, Object>) placement.getOrDefault("replicaScheduling", Map.of());
+        Map<String, Object> weightPreference = (Map<String, Object>) replicaScheduling.getOrDefault("weightPreference", Map.of());
+        Map<String, Integer> weights = new TreeMap<>();
+        for (Map<String, Object> staticWeight : (List<Map<String, Object>>) weightPreference.getOrDefault("staticWeightList", List.of())) {
+            Map<String, Object> targetCluster = (Map<String, Object>) staticWeight.getOrDefault("targetCluster", Map.of());
+            for (String clusterName : (List<String>) targetCluster.getOrDefault("clusterNames", List.of())) {
+                weights.put(clusterName, ((Number) staticWeight.get("weight")).intValue());
+            }
+        }
+        return weights;
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, MemberSignals> readSignals() throws IOException {
+        Map<String, MemberSignals> signals = new TreeMap<>();
+        Map<String, Object> clusters = karmada.get(KARMADA_CLUSTERS_PATH);
+        for (Map<String, Object> cluster : clusters != null ? (List<Map<String, Object>>) clusters.get("items") : List.<Map<String, Object>>of()) {
+            String name = (String) ((Map<String, Object>) cluster.get("metadata")).get("name");
+            Map<String, Object> spec = (Map<String, Object>) cluster.getOrDefault("spec", Map.of());
+            Map<String, Object> status = (Map<String, Object>) cluster.getOrDefault("status", Map.of());
+            Map<String, Object> summary = (Map<String, Object>) status.getOrDefault("resourceSummary", Map.of());
+            Map<String, Object> allocatable = (Map<String, Object>) summary.getOrDefault("allocatable", Map.of());
+            Map<String, Object> allocated = (Map<String, Object>) summary.getOrDefault("allocated", Map.of());
+            Map<String, Object> allocating = (Map<String, Object>) summary.getOrDefault("allocating", Map.of());
+            long allocatableMilliCpu = milliCpu(allocatable.get("cpu"));
+            long allocatableMemoryMiB = memoryMiB(allocatable.get("memory"));
+            boolean ready = KarmadaRegistrationHandler.isReady(cluster);
+            // the api server proxy of Karmada only reaches Push mode members
+            boolean push = "Push".equals(spec.get("syncMode"));
+            signals.put(name, new MemberSignals(name, ready,
+                    allocatableMilliCpu,
+                    allocatableMilliCpu - milliCpu(allocated.get("cpu")) - milliCpu(allocating.get("cpu")),
+                    allocatableMemoryMiB,
+                    allocatableMemoryMiB - memoryMiB(allocated.get("memory")) - memoryMiB(allocating.get("memory")),
+                    ready && push ? pendingPods(name) : 0,
+                    ready && push && latencyProbe ? probe(name) : -1));
+        }
+        return signals;
+    }
+
+    // Weights of the ready members in proportion to their scores, at least 1 each, adding up to about WEIGHT_SCALE.
+    // Members without any score left share equally
+    static Map<String, Integer> targetWeights(Collection<MemberSignals> members) {
+        long fastest = members.stream().filter(member -> member.ready && member.latencyMillis >= 0)
+                .mapToLong(member -> Math.max(1, member.latencyMillis)).min().orElse(-1);
+        Map<String, Double> scores = new TreeMap<>();
+        for (MemberSignals member : members) {
+            if (!member.ready) {
+                continue;
+            }
+            double freeMemoryAsMilliCpu = member.allocatableMemoryMiB > 0
+                    ? (double) member.freeMemoryMiB * member.allocatableMilliCpu / member.allocatableMemoryMiB : member.freeMilliCpu;
+            double score = Math.max(0, Math.min(member.freeMilliCpu, freeMemoryAsMilliCpu));
+            score *= (double) WEIGHT_PENDING_PODS_HALF / (WEIGHT_PENDING_PODS_HALF + member.pendingPods);
+            if (fastest > 0 && member.latencyMillis >= 0) {
+                score *= Math.max(WEIGHT_MIN_LATENCY_FACTOR, (double) fastest / Math.max(1, member.latencyMillis));
+            }
+            scores.put(member.clusterName, score);
+        }
+        double total = scores.values().stream().mapToDouble(Double::doubleValue).sum();
+        Map<String, Integer> weights = new TreeMap<>();
+        scores.forEach((clusterName, score) -> weights.put(clusterName, total > 0
+                ? Math.max(1, (int) Math.round(WEIGHT_SCALE * score / total)) : Math.max(1, WEIGHT_SCALE / scores.size())));
+        return weights;
+    }
+
+    // The weights to set, or null to keep the current ones. The current weights are scaled to WEIGHT_SCALE first,
+    // members missing from the target are dropped and the others move towards it by at most the max step
+    static Map<String, Integer> nextWeights(Map<String, Integer> current, Map<String, Integer> target, int hysteresis,
+                                            int maxStep, boolean intervalElapsed) {
+        if (target.isEmpty()) {
+            return null;
+        }
+        boolean dropped = current.keySet().stream().anyMatch(clusterName -> !target.containsKey(clusterName));
+        if (!dropped && !intervalElapsed) {
+            return null;
+        }
+        long currentTotal = current.entrySet().stream().filter(entry -> target.containsKey(entry.getKey()))
+                .mapToLong(entry -> entry.getValue()).sum();
+        Map<String, Integer> next = new TreeMap<>();
+        int largestChange = 0;
+        for (Map.Entry<String, Integer> entry : target.entrySet()) {
+            int scaled = currentTotal > 0
+                    ? (int) Math.round((double) WEIGHT_SCALE * current.getOrDefault(entry.getKey(), 0) / currentTotal) : 0;
+            int change = entry.getValue() - scaled;
+            largestChange = Math.max(largestChange, Math.abs(change));
+            next.put(entry.getKey(), Math.max(1, scaled + Math.max(-maxStep, Math.min(maxStep, change))));
+        }
+        if (!dropped && largestChange < hysteresis || next.equals(current)) {
+            return null;
+        }
+        return next;
+    }
+
+    private int pendingPods(String clusterName) {
+        try {
+            Map<String, Object> pods = karmada.get(proxyPath(clusterName) + "/api/v1/pods?fieldSelector=status.phase%3DPending");
+            return pods != null && pods.get("items") != null ? ((List<?>) pods.get("items")).size() : 0;
+        } catch (IOException e) {
+            System.out.println("Cannot count the pending pods of " + clusterName + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private long probe(String clusterName) {
+        try {
+            return karmada.probe(proxyPath(clusterName) + "/readyz").toMillis();
+        } catch (IOException e) {
+            System.out.println("Cannot probe " + clusterName + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static String proxyPath(String clusterName) {
+        return KARMADA_CLUSTERS_PATH + "/" + clusterName + "/proxy";
+    }
+
+    // CPU quantity such as 7910m or 8
+    static long milliCpu(Object quantity) {
+        if (quantity == null) {
+            return 0;
+        }
+        String value = quantity.toString();
+        if (value.endsWith("m")) {
+            return Long.parseLong(value.substring(0, value.length() - 1));
+        }
+        return new BigDecimal(value).movePointRight(3).setScale(0, RoundingMode.DOWN).longValueExact();
+    }
+
+    // Memory quantity such as 32Gi, 31941876Ki, 34G or a number of bytes
+    static long memoryMiB(Object quantity) {
+        if (quantity == null) {
+            return 0;
+        }
+        String value = quantity.toString();
+        Map<String, Long> units = new LinkedHashMap<>();
+        units.put("Ki", 1L << 10);
+        units.put("Mi", 1L << 20);
+        units.put("Gi", 1L << 30);
+        units.put("Ti", 1L << 40);
+        units.put("k", 1000L);
+        units.put("M", 1000_000L);
+        units.put("G", 1000_000_000L);
+        units.put("T", 1000_000_000_000L);
+        for (Map.Entry<String, Long> unit : units.entrySet()) {
+            if (value.endsWith(unit.getKey())) {
+                return new BigDecimal(value.substring(0, value.length() - unit.getKey().length()))
+                        .multiply(BigDecimal.valueOf(unit.getValue()))
+                        .divide(BigDecimal.valueOf(1L << 20), 0, RoundingMode.DOWN).longValueExact();
+            }
+        }
+        return new BigDecimal(value).divide(BigDecimal.valueOf(1L << 20), 0, RoundingMode.DOWN).longValueExact();
+    }
+
+    private boolean intervalElapsed(Map<String, Object> annotations) {
+        Object updatedAt = annotations.get(WEIGHTS_UPDATED_ANNOTATION);
+        if (updatedAt == null) {
+            return true;
+        }
+        try {
+            return !Instant.parse(updatedAt.toString()).plus(updateInterval).isAfter(clock.instant());
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.aws;
+
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// Scheduled Lambda handler of the weight controller, see WeightController. Reads the Karmada api server credentials
+// the same way as the registration handler and does nothing until the management host has published them
+public class WeightControllerHandler {
+
+    private final Map<String, String> environment;
+    private final SecretsManagerClient secretsManager;
+    private final Clock clock;
+
+    public WeightControllerHandler() {
+        this(System.getenv(), KarmadaRegistrationHandler.secretsManager(), Clock.systemUTC());
+    }
+
+    WeightControllerHandler(Map<String, String> environment, SecretsManagerClient secretsManager, Clock clock) {
+        this.environment = environment;
+        this.secretsManager = secretsManager;
+        this.clock = clock;
+    }
+
+    public Map<String, Object> handleRequest(Map<String, Object> event) throws IOException {
+        KubernetesApiClient karmada = KarmadaRegistrationHandler.karmadaClient(secretsManager, environment.get(KARMADA_API_SECRET_ENV));
+        if (karmada == null) {
+            System.out.println("Karmada is not installed yet");
+            return Map.of("Patched", List.of());
+        }
+        WeightController controller = new WeightController(karmada, clock,
+                Integer.parseInt(environment.getOrDefault(WEIGHT_HYSTERESIS_ENV, String.valueOf(WEIGHT_HYSTERESIS))),
+                Integer.parseInt(environment.getOrDefault(WEIGHT_MAX_STEP_ENV, String.valueOf(WEIGHT_MAX_STEP))),
+                Duration.ofMinutes(Integer.parseInt(environment.getOrDefault(WEIGHT_UPDATE_INTERVAL_ENV, String.valueOf(WEIGHT_UPDATE_INTERVAL)))),
+                Boolean.parseBoolean(environment.get(WEIGHT_LATENCY_PROBE_ENV)));
+        return Map.of("Patched", controller.reconcile());
+    }
+}
@@ -0,0 +1,171 @@
+package com.aws;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.aws.KubernetesApiClient.MAPPER;
+import static com.aws.KubernetesApiClient.OBJECT;
+
+// In-memory Kubernetes API server on a local port, envtest style without etcd: objects are stored by path, a
+// collection lists its direct children, or the objects of every namespace like /apis/<group>/<version>/<plural>, and
+// listeners see every created object, like controllers watching it. Stored objects are never mutated, updates and
+// JSON merge patches replace them with a changed copy
+final class FakeApiServer implements AutoCloseable {
+
+    static {
+        // Without it every small response waits for a delayed ACK, which would dominate the measured latencies
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final Map<String, Map<String, Object>> objects = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, Map<String, Object>>> createListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong resourceVersion = new AtomicLong();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final HttpServer server;
+
+    FakeApiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void onCreate(BiConsumer<String, Map<String, Object>> listener) {
+        createListeners.add(listener);
+    }
+
+    Map<String, Object> get(String path) {
+        return objects.get(path);
+    }
+
+    List<Map<String, Object>> list(String collectionPath) {
+        List<Map<String, Object>> items = objects.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(collectionPath + "/") && entry.getKey().indexOf('/', collectionPath.length() + 1) < 0)
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        if (!items.isEmpty()) {
+            return items;
+        }
+        int slash = collectionPath.lastIndexOf('/');
+        Pattern allNamespaces = Pattern.compile(Pattern.quote(collectionPath.substring(0, slash)) + "/namespaces/[^/]+"
+                + Pattern.quote(collectionPath.substring(slash)) + "/[^/]+");
+        return objects.entrySet().stream()
+                .filter(entry -> allNamespaces.matcher(entry.getKey()).matches())
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    void put(String path, Map<String, Object> object) {
+        objects.put(path, withResourceVersion(object));
+    }
+
+    void update(String path, Consumer<Map<String, Object>> change) {
+        objects.computeIfPresent(path, (key, object) -> {
+            Map<String, Object> copy = MAPPER.convertValue(object, OBJECT);
+            change.accept(copy);
+            return withResourceVersion(copy);
+        });
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> withResourceVersion(Map<String, Object> object) {
+        ((Map<String, Object>) object.get("metadata")).put("resourceVersion", String.valueOf(resourceVersion.incrementAndGet()));
+        return object;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        switch (exchange.getRequestMethod()) {
+            case "POST": {
+                Map<String, Object> object = MAPPER.readValue(body, OBJECT);
+                String objectPath = path + "/" + ((Map<String, Object>) object.get("metadata")).get("name");
+                if (objects.putIfAbsent(objectPath, withResourceVersion(object)) != null) {
+                    respond(exchange, 409, Map.of("reason", "AlreadyExists"));
+                    return;
+                }
+                respond(exchange, 201, object);
+                createListeners.forEach(listener -> listener.accept(objectPath, object));
+                return;
+            }
+            case "PUT": {
+                Map<String, Object> object = MAPPER.readValue(body, OBJECT);
+                put(path, object);
+                respond(exchange, 200, object);
+                return;
+            }
+            case "PATCH": {
+                Map<String, Object> patch = MAPPER.readValue(body, OBJECT);
+                update(path, object -> merge(object, patch));
+                Map<String, Object> patched = objects.get(path);
+                respond(exchange, patched != null ? 200 : 404, patched != null ? patched : Map.of());
+                return;
+            }
+            case "DELETE":
+                respond(exchange, objects.remove(path) != null ? 200 : 404, Map.of());
+                return;
+            default:
+                Map<String, Object> existing = objects.get(path);
+                if (existing != null) {
+                    respond(exchange, 200, existing);
+                    return;
+                }
+                List<Map<String, Object>> items = list(path);
+                respond(exchange, items.isEmpty() ? 404 : 200, items.isEmpty() ? Map.of() : Map.of("kind", "List", "items", items));
+        }
+    }
+
+    // RFC 7386: objects merge, anything else replaces and null removes
+    @SuppressWarnings("unchecked")
+    private static void merge(Map<String, Object> target, Map<String, Object> patch) {
+        patch.forEach((key, value) -> {
+            if (value == null) {
+                target.remove(key);
+            } else if (value instanceof Map && target.get(key) instanceof Map) {
+                merge((Map<String, Object>) target.get(key), (Map<String, Object>) value);
+            } else if (value instanceof Map) {
+                Map<String, Object> created = new LinkedHashMap<>();
+                merge(created, (Map<String, Object>) value);
+                target.put(key, created);
+            } else {
+                target.put(key, value);
+            }
+        });
+    }
+
+    private static void respond(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] response = MAPPER.writeValueAsBytes(body);
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+}
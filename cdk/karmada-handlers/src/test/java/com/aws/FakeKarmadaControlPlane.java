@@ -0,0 +1,137 @@
+package com.aws;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.aws.PropagationBenchmark.BINDINGS;
+import static com.aws.PropagationBenchmark.DEPLOYMENTS;
+import static com.aws.PropagationBenchmark.POLICIES;
+
+// Local stand-in for a Karmada control plane and its member clusters, so the propagation benchmark runs offline and
+// in CI. Timers with the given mean delays take the place of the scheduler, the execution controller applying the
+// works to the member api servers over HTTP and the member clusters starting the pods. Delays are exponentially
+// distributed above half their mean, like the long tail of a real control plane
+final class FakeKarmadaControlPlane implements AutoCloseable {
+
+    private final FakeApiServer karmada;
+    private final Map<String, FakeApiServer> members = new LinkedHashMap<>();
+    private final Map<String, KubernetesApiClient> memberClients = new LinkedHashMap<>();
+    private final ScheduledExecutorService controllers = Executors.newScheduledThreadPool(4);
+    private final Random random;
+    private final long schedulingMillis;
+    private final long applyMillis;
+    private final long readyMillis;
+
+    FakeKarmadaControlPlane(int memberCount, long schedulingMillis, long applyMillis, long readyMillis, long seed) throws IOException {
+        this.random = new Random(seed);
+        this.schedulingMillis = schedulingMillis;
+        this.applyMillis = applyMillis;
+        this.readyMillis = readyMillis;
+        this.karmada = new FakeApiServer();
+        karmada.onCreate((path, object) -> {
+            if ("Deployment".equals(object.get("kind"))) {
+                later(schedulingMillis, () -> schedule(metadata(object).get("namespace").toString(), metadata(object).get("name").toString()));
+            }
+        });
+        for (int i = 1; i <= memberCount; i++) {
+            String clusterName = "member-" + i;
+            FakeApiServer member = new FakeApiServer();
+            member.onCreate((path, object) -> later(readyMillis, () -> ready(clusterName, path)));
+            members.put(clusterName, member);
+            memberClients.put(clusterName, new KubernetesApiClient(member.getUrl(), "", "member-token"));
+        }
+    }
+
+    String getUrl() {
+        return karmada.getUrl();
+    }
+
+    List<String> getClusterNames() {
+        return new ArrayList<>(members.keySet());
+    }
+
+    @Override
+    public void close() {
+        controllers.shutdownNow();
+        karmada.close();
+        members.values().forEach(FakeApiServer::close);
+    }
+
+    // Divides the replicas equally between the clusters of the matching policy, or all of them
+    @SuppressWarnings("unchecked")
+    private void schedule(String namespace, String name) {
+        Map<String, Object> deployment = karmada.get(String.format(DEPLOYMENTS, namespace) + "/" + name);
+        if (deployment == null) {
+            return;
+        }
+        List<String> clusterNames = karmada.list(String.format(POLICIES, namespace)).stream()
+                .map(policy -> (Map<String, Object>) policy.get("spec"))
+                .filter(spec -> ((List<Map<String, Object>>) spec.get("resourceSelectors")).stream().anyMatch(selector -> name.equals(selector.get("name"))))
+                .map(spec -> (Map<String, Object>) ((Map<String, Object>) spec.get("placement")).getOrDefault("clusterAffinity", Map.of()))
+                .map(affinity -> (List<String>) affinity.get("clusterNames"))
+                .filter(names -> names != null && !names.isEmpty())
+                .findFirst()
+                .orElse(getClusterNames());
+        int replicas = ((Number) ((Map<String, Object>) deployment.get("spec")).get("replicas")).intValue();
+        Map<String, Integer> division = ReplicaDivision.byStaticWeight(replicas, clusterNames.stream().collect(Collectors.toMap(Function.identity(), clusterName -> 1)));
+
+        String bindingPath = String.format(BINDINGS, namespace) + "/" + name + "-deployment";
+        Map<String, Object> binding = new LinkedHashMap<>();
+        binding.put("apiVersion", "work.karmada.io/v1alpha2");
+        binding.put("kind", "ResourceBinding");
+        binding.put("metadata", new LinkedHashMap<>(Map.of("name", name + "-deployment", "namespace", namespace)));
+        binding.put("spec", Map.of("clusters", division.entrySet().stream()
+                .map(target -> Map.of("name", target.getKey(), "replicas", target.getValue()))
+                .collect(Collectors.toList())));
+        binding.put("status", Map.of("aggregatedStatus", new ArrayList<>()));
+        karmada.put(bindingPath, binding);
+        division.forEach((clusterName, clusterReplicas) -> later(applyMillis, () -> apply(bindingPath, deployment, clusterName, clusterReplicas)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(String bindingPath, Map<String, Object> deployment, String clusterName, int replicas) {
+        Map<String, Object> work = KubernetesApiClient.MAPPER.convertValue(deployment, KubernetesApiClient.OBJECT);
+        Map<String, Object> metadata = metadata(work);
+        metadata.remove("resourceVersion");
+        ((Map<String, Object>) work.get("spec")).put("replicas", replicas);
+        try {
+            memberClients.get(clusterName).create(String.format(DEPLOYMENTS, metadata.get("namespace")), work);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        karmada.update(bindingPath, binding -> ((List<Object>) ((Map<String, Object>) binding.get("status")).get("aggregatedStatus"))
+                .add(Map.of("clusterName", clusterName, "applied", Boolean.TRUE)));
+    }
+
+    // The member reports its pods ready and the status controller adds them to the Karmada deployment
+    @SuppressWarnings("unchecked")
+    private void ready(String clusterName, String path) {
+        Map<String, Object> memberDeployment = members.get(clusterName).get(path);
+        int replicas = ((Number) ((Map<String, Object>) memberDeployment.get("spec")).get("replicas")).intValue();
+        members.get(clusterName).update(path, deployment -> deployment.put("status", Map.of("readyReplicas", replicas)));
+        karmada.update(path, deployment -> {
+            Map<String, Object> status = (Map<String, Object>) deployment.computeIfAbsent("status", key -> new LinkedHashMap<>());
+            status.put("readyReplicas", ((Number) status.getOrDefault("readyReplicas", 0)).intValue() + replicas);
+        });
+    }
+
+    private void later(long meanMillis, Runnable controller) {
+        long delayMicros = meanMillis * 500 + (long) (-Math.log(1 - random.nextDouble()) * meanMillis * 500);
+        controllers.schedule(controller, delayMicros, TimeUnit.MICROSECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> metadata(Map<String, Object> object) {
+        return (Map<String, Object>) object.get("metadata");
+    }
+}
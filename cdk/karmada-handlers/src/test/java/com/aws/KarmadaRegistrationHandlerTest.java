@@ -0,0 +1,292 @@
+package com.aws;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.aws.KubernetesApiClient.MAPPER;
+import static com.aws.KubernetesApiClient.OBJECT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KarmadaRegistrationHandlerTest {
+
+    private final Map<String, Map<String, Object>> objects = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private SecretsManagerClient secretsManager;
+    private String secretString;
+    private KarmadaRegistrationHandler handler;
+
+    @BeforeEach
+    public void startFakeApiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+        secretsManager = SecretsManagerClient.builder()
+                .endpointOverride(URI.create(url("/")))
+                .region(Region.EU_WEST_2)
+                .credentialsProvider(credentials)
+                .httpClient(UrlConnectionHttpClient.create())
+                .build();
+        handler = new KarmadaRegistrationHandler(Map.of("KARMADA_API_SECRET", "karmada/apiserver", "AWS_REGION", "eu-west-2"),
+                secretsManager, credentials, Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    public void stopFakeApiServer() {
+        secretsManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testWaitsForKarmadaCredentials() {
+        secretString = "generated-placeholder";
+
+        assertEquals("karmada-member-1", handler.onEvent(event("Create")).get("PhysicalResourceId"));
+        assertEquals(Boolean.FALSE, handler.isComplete(event("Create")).get("IsComplete"));
+        assertTrue(objects.isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRegistersAndDeregistersMemberCluster() throws IOException {
+        secretString = MAPPER.writeValueAsString(Map.of("server", url("/karmada"), "token", "karmada-token"));
+
+        assertEquals(Boolean.TRUE, handler.isComplete(event("Create")).get("IsComplete"));
+
+        assertTrue(objects.containsKey("/member/apis/rbac.authorization.k8s.io/v1/clusterrolebindings/karmada-controller-manager:karmada-karmada-member-1"));
+        assertTrue(objects.containsKey("/member/apis/rbac.authorization.k8s.io/v1/clusterroles/karmada-impersonator"));
+        Map<String, Object> secret = objects.get("/karmada/api/v1/namespaces/karmada-cluster/secrets/karmada-member-1");
+        assertEquals(encode("token-karmada-karmada-member-1"), ((Map<String, Object>) secret.get("data")).get("token"));
+        Map<String, Object> spec = (Map<String, Object>) objects.get("/karmada/apis/cluster.karmada.io/v1alpha1/clusters/karmada-member-1").get("spec");
+        assertEquals(url("/member"), spec.get("apiEndpoint"));
+        assertEquals("Push", spec.get("syncMode"));
+        assertEquals(Map.of("namespace", "karmada-cluster", "name", "karmada-member-1-impersonator"), spec.get("impersonatorSecretRef"));
+
+        // a second poll replaces the existing objects instead of failing on conflicts
+        assertEquals(Boolean.TRUE, handler.isComplete(event("Update")).get("IsComplete"));
+
+        assertEquals(Boolean.TRUE, handler.isComplete(event("Delete")).get("IsComplete"));
+        assertNull(objects.get("/karmada/apis/cluster.karmada.io/v1alpha1/clusters/karmada-member-1"));
+        assertFalse(objects.containsKey("/karmada/api/v1/namespaces/karmada-cluster/secrets/karmada-member-1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAppliesManifestBatch() throws IOException {
+        secretString = MAPPER.writeValueAsString(Map.of("server", url("/karmada"), "token", "karmada-token"));
+        Map<String, Object> policy = Map.of("apiVersion", "policy.karmada.io/v1alpha1", "kind", "PropagationPolicy",
+                "metadata", Map.of("name", "nginx", "namespace", "default"),
+                "spec", Map.of("resourceSelectors", List.of(Map.of("apiVersion", "apps/v1", "kind", "Deployment", "name", "nginx")),
+                        "placement", Map.of("replicaScheduling", Map.of("replicaSchedulingType", "Duplicated"))));
+        Map<String, Object> federatedHpa = Map.of("apiVersion", "autoscaling.karmada.io/v1alpha1", "kind", "FederatedHPA",
+                "metadata", Map.of("name", "nginx", "namespace", "default"),
+                "spec", Map.of("scaleTargetRef", Map.of("apiVersion", "apps/v1", "kind", "Deployment", "name", "nginx"),
+                        "minReplicas", 2, "maxReplicas", 8));
+        String policyPath = "/karmada/apis/policy.karmada.io/v1alpha1/namespaces/default/propagationpolicies/nginx";
+        String federatedHpaPath = "/karmada/apis/autoscaling.karmada.io/v1alpha1/namespaces/default/federatedhpas/nginx";
+
+        Map<String, Object> create = manifestsEvent("Create", MAPPER.writeValueAsString(List.of(policy, federatedHpa)), null);
+        assertEquals("KarmadaManifests0", handler.onEvent(create).get("PhysicalResourceId"));
+        assertEquals(Boolean.TRUE, handler.isComplete(create).get("IsComplete"));
+        assertEquals(8, ((Number) ((Map<String, Object>) objects.get(federatedHpaPath).get("spec")).get("maxReplicas")).intValue());
+        assertTrue(objects.containsKey(policyPath));
+
+        // the update drops the FederatedHPA and replaces the policy
+        Map<String, Object> update = manifestsEvent("Update", MAPPER.writeValueAsString(List.of(policy)), MAPPER.writeValueAsString(List.of(policy, federatedHpa)));
+        assertEquals(Boolean.TRUE, handler.isComplete(update).get("IsComplete"));
+        assertFalse(objects.containsKey(federatedHpaPath));
+        assertTrue(objects.containsKey(policyPath));
+
+        assertEquals(Boolean.TRUE, handler.isComplete(manifestsEvent("Delete", MAPPER.writeValueAsString(List.of(policy)), null)).get("IsComplete"));
+        assertTrue(objects.isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLeavesObjectsAnotherBatchApplied() throws IOException {
+        secretString = MAPPER.writeValueAsString(Map.of("server", url("/karmada"), "token", "karmada-token"));
+        String policy = MAPPER.writeValueAsString(List.of(Map.of("apiVersion", "policy.karmada.io/v1alpha1", "kind", "PropagationPolicy",
+                "metadata", Map.of("name", "nginx", "namespace", "default"),
+                "spec", Map.of("resourceSelectors", List.of(Map.of("apiVersion", "apps/v1", "kind", "Deployment", "name", "nginx"))))));
+        String policyPath = "/karmada/apis/policy.karmada.io/v1alpha1/namespaces/default/propagationpolicies/nginx";
+        assertEquals(Boolean.TRUE, handler.isComplete(manifestsEvent("KarmadaManifests0", "Create", policy, null)).get("IsComplete"));
+
+        // with more batches the policy moves to another one, which applies it before the old batch is updated or deleted
+        assertEquals(Boolean.TRUE, handler.isComplete(manifestsEvent("KarmadaManifests1", "Create", policy, null)).get("IsComplete"));
+        assertEquals(Boolean.TRUE, handler.isComplete(manifestsEvent("KarmadaManifests0", "Update", "[]", policy)).get("IsComplete"));
+        assertEquals(Boolean.TRUE, handler.isComplete(manifestsEvent("KarmadaManifests0", "Delete", policy, null)).get("IsComplete"));
+        Map<String, Object> metadata = (Map<String, Object>) objects.get(policyPath).get("metadata");
+        assertEquals(Map.of("federated-k8s.aws/manifests", "KarmadaManifests1"), metadata.get("annotations"));
+
+        assertEquals(Boolean.TRUE, handler.isComplete(manifestsEvent("KarmadaManifests1", "Delete", policy, null)).get("IsComplete"));
+        assertFalse(objects.containsKey(policyPath));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInstallsKarmadaAgentInPullMode() throws IOException {
+        secretString = MAPPER.writeValueAsString(Map.of("server", url("/karmada"), "token", "karmada-token",
+                "agentImage", "docker.io/karmada/karmada-agent:v1.9.0"));
+        String clusterPath = "/karmada/apis/cluster.karmada.io/v1alpha1/clusters/karmada-member-1";
+        String deploymentPath = "/member/apis/apps/v1/namespaces/karmada-system/deployments/karmada-agent";
+
+        assertEquals(Boolean.TRUE, handler.isComplete(event("Create", "Pull")).get("IsComplete"));
+        assertEquals("Pull", ((Map<String, Object>) objects.get(clusterPath).get("spec")).get("syncMode"));
+        assertEquals(Map.of("federated-k8s.aws/sync-mode", "Pull"), ((Map<String, Object>) objects.get(clusterPath).get("metadata")).get("labels"));
+        Map<String, Object> template = (Map<String, Object>) ((Map<String, Object>) objects.get(deploymentPath).get("spec")).get("template");
+        Map<String, Object> container = ((List<Map<String, Object>>) ((Map<String, Object>) template.get("spec")).get("containers")).get(0);
+        assertEquals("docker.io/karmada/karmada-agent:v1.9.0", container.get("image"));
+        assertTrue(((List<String>) container.get("command")).contains("--cluster-name=karmada-member-1"));
+        String kubeconfig = (String) ((Map<String, Object>) objects.get("/member/api/v1/namespaces/karmada-system/secrets/karmada-kubeconfig")
+                .get("data")).get("karmada-kubeconfig");
+        Map<String, Object> config = MAPPER.readValue(Base64.getDecoder().decode(kubeconfig), OBJECT);
+        assertEquals(url("/karmada"), ((Map<String, Object>) ((List<Map<String, Object>>) config.get("clusters")).get(0).get("cluster")).get("server"));
+        assertEquals(Map.of("token", "token-karmada-agent-karmada-member-1"), ((List<Map<String, Object>>) config.get("users")).get(0).get("user"));
+
+        // the agent only gets its own Cluster object and its namespaces in Karmada
+        String agentRole = "/karmada/apis/rbac.authorization.k8s.io/v1/clusterroles/karmada-agent:karmada-member-1";
+        for (Map<String, Object> rule : (List<Map<String, Object>>) objects.get(agentRole).get("rules")) {
+            assertEquals(List.of("karmada-member-1"), rule.get("resourceNames"));
+        }
+        String rolebinding = "/karmada/apis/rbac.authorization.k8s.io/v1/namespaces/karmada-es-karmada-member-1/rolebindings/karmada-agent-karmada-member-1";
+        assertEquals("karmada-agent:karmada-member-1:namespaced", ((Map<String, Object>) objects.get(rolebinding).get("roleRef")).get("name"));
+
+        assertEquals(Boolean.TRUE, handler.isComplete(event("Delete", "Pull")).get("IsComplete"));
+        assertFalse(objects.containsKey(deploymentPath));
+        assertFalse(objects.containsKey(clusterPath));
+        assertFalse(objects.containsKey("/karmada/api/v1/namespaces/karmada-cluster/secrets/karmada-agent-karmada-member-1"));
+        assertFalse(objects.containsKey(agentRole));
+        assertFalse(objects.containsKey(rolebinding));
+    }
+
+    @Test
+    public void testEksToken() {
+        String token = handler.eksToken("karmada-member-1");
+
+        assertTrue(token.startsWith("k8s-aws-v1."), token);
+        String url = new String(Base64.getUrlDecoder().decode(token.substring("k8s-aws-v1.".length())), StandardCharsets.UTF_8);
+        assertTrue(url.startsWith("https://sts.eu-west-2.amazonaws.com/?"), url);
+        assertTrue(url.contains("Action=GetCallerIdentity&Version=2011-06-15"), url);
+        assertTrue(url.contains("X-Amz-Credential=AKIDEXAMPLE%2F20240101%2Feu-west-2%2Fsts%2Faws4_request"), url);
+        assertTrue(url.contains("X-Amz-Expires=60"), url);
+        assertTrue(url.contains("X-Amz-SignedHeaders=host%3Bx-k8s-aws-id"), url);
+        assertTrue(url.contains("X-Amz-Signature="), url);
+    }
+
+    private Map<String, Object> event(String requestType) {
+        return event(requestType, "Push");
+    }
+
+    private Map<String, Object> event(String requestType, String syncMode) {
+        return Map.of("RequestType", requestType,
+                "PhysicalResourceId", "karmada-member-1",
+                "ResourceProperties", Map.of("ClusterName", "karmada-member-1",
+                        "Endpoint", url("/member"),
+                        "CertificateAuthorityData", "",
+                        "SyncMode", syncMode)
+        );
+    }
+
+    private Map<String, Object> manifestsEvent(String requestType, String manifests, String oldManifests) {
+        return manifestsEvent("KarmadaManifests0", requestType, manifests, oldManifests);
+    }
+
+    private Map<String, Object> manifestsEvent(String name, String requestType, String manifests, String oldManifests) {
+        Map<String, Object> event = new HashMap<>(Map.of("RequestType", requestType,
+                "PhysicalResourceId", name,
+                "ResourceProperties", Map.of("ManifestsName", name, "Manifests", manifests)));
+        if (oldManifests != null) {
+            event.put("OldResourceProperties", Map.of("ManifestsName", name, "Manifests", oldManifests));
+        }
+        return event;
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static String encode(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Just enough of Secrets Manager and the Kubernetes API: objects are stored by path, the token
+    // controller fills in service account tokens and Karmada marks every cluster ready
+    @SuppressWarnings("unchecked")
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if ("secretsmanager.GetSecretValue".equals(exchange.getRequestHeaders().getFirst("X-Amz-Target"))) {
+            respond(exchange, 200, Map.of("SecretString", secretString));
+            return;
+        }
+        switch (exchange.getRequestMethod()) {
+            case "POST": {
+                Map<String, Object> object = MAPPER.readValue(body, OBJECT);
+                String name = (String) ((Map<String, Object>) object.get("metadata")).get("name");
+                if (objects.putIfAbsent(path + "/" + name, complete(object, name)) != null) {
+                    respond(exchange, 409, Map.of("reason", "AlreadyExists"));
+                } else {
+                    respond(exchange, 201, object);
+                }
+                return;
+            }
+            case "PUT":
+                Map<String, Object> object = MAPPER.readValue(body, OBJECT);
+                objects.put(path, complete(object, (String) ((Map<String, Object>) object.get("metadata")).get("name")));
+                respond(exchange, 200, object);
+                return;
+            case "DELETE":
+                respond(exchange, objects.remove(path) != null ? 200 : 404, Map.of());
+                return;
+            default:
+                Map<String, Object> existing = objects.get(path);
+                respond(exchange, existing != null ? 200 : 404, existing != null ? existing : Map.of());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> complete(Map<String, Object> object, String name) {
+        ((Map<String, Object>) object.get("metadata")).put("resourceVersion", "1");
+        if ("kubernetes.io/service-account-token".equals(object.get("type"))) {
+            object.put("data", Map.of("token", encode("token-" + name)));
+        }
+        if ("Cluster".equals(object.get("kind"))) {
+            object.put("status", Map.of("conditions", List.of(Map.of("type", "Ready", "status", "True"))));
+        }
+        return object;
+    }
+
+    private static void respond(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] response = MAPPER.writeValueAsBytes(body);
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+}
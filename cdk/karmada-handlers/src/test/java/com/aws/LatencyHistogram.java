@@ -0,0 +1,88 @@
+package com.aws;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Exact latency percentiles of a benchmark run, small enough to keep every sample. The distribution is written in the
+// HdrHistogram percentile format (.hgrm), so the usual HdrHistogram plotters read it
+final class LatencyHistogram {
+
+    private static final int TICKS_PER_HALF_DISTANCE = 5;
+
+    private long[] values = new long[64];
+    private int count;
+
+    synchronized void record(long valueMicros) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+        }
+        values[count++] = valueMicros;
+    }
+
+    synchronized int getCount() {
+        return count;
+    }
+
+    // Nearest rank, in milliseconds
+    synchronized double percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = sorted();
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.min(count, Math.max(1, rank)) - 1] / 1000.0;
+    }
+
+    synchronized double mean() {
+        return count == 0 ? 0 : Arrays.stream(values, 0, count).average().orElse(0) / 1000.0;
+    }
+
+    Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", getCount());
+        summary.put("meanMillis", round(mean()));
+        summary.put("p50Millis", round(percentile(50)));
+        summary.put("p90Millis", round(percentile(90)));
+        summary.put("p99Millis", round(percentile(99)));
+        summary.put("maxMillis", round(percentile(100)));
+        return summary;
+    }
+
+    // Values in milliseconds, percentiles halving the distance to 100% with five ticks each
+    synchronized String percentileDistribution() {
+        StringBuilder builder = new StringBuilder(String.format(Locale.ROOT, "%12s %14s %10s %14s%n%n", "Value", "Percentile", "TotalCount", "1/(1-Percentile)"));
+        long[] sorted = sorted();
+        for (int halves = 0; count > 0; halves++) {
+            double from = 1 - Math.pow(0.5, halves);
+            double step = (Math.pow(0.5, halves) - Math.pow(0.5, halves + 1)) / TICKS_PER_HALF_DISTANCE;
+            if (1 / (1 - from) > count) {
+                break;
+            }
+            for (int tick = 0; tick < TICKS_PER_HALF_DISTANCE; tick++) {
+                double quantile = from + tick * step;
+                int rank = Math.min(count, Math.max(1, (int) Math.ceil(quantile * count)));
+                builder.append(String.format(Locale.ROOT, "%12.3f %2.12f %10d %14.2f%n", sorted[rank - 1] / 1000.0, quantile, rank, 1 / (1 - quantile)));
+            }
+        }
+        if (count > 0) {
+            builder.append(String.format(Locale.ROOT, "%12.3f %2.12f %10d%n", sorted[count - 1] / 1000.0, 1.0, count));
+        }
+        double mean = mean();
+        double deviation = Math.sqrt(Arrays.stream(sorted).mapToDouble(value -> Math.pow(value / 1000.0 - mean, 2)).sum() / Math.max(1, count));
+        builder.append(String.format(Locale.ROOT, "#[Mean    = %12.3f, StdDeviation   = %12.3f]%n", mean, deviation));
+        builder.append(String.format(Locale.ROOT, "#[Max     = %12.3f, Total count    = %12d]%n", count == 0 ? 0 : sorted[count - 1] / 1000.0, count));
+        return builder.toString();
+    }
+
+    private long[] sorted() {
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
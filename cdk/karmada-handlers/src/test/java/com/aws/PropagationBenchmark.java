@@ -0,0 +1,215 @@
+package com.aws;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Creates a PropagationPolicy and a Deployment per workload on the Karmada api server at a fixed rate and measures
+// how long each workload takes from its create call until its ResourceBinding has clusters (scheduled), until every
+// member applied its work (applied) and until the Karmada deployment reports all replicas ready (ready). The
+// bindings and deployments are listed once per poll interval, which bounds the resolution of the measurements
+final class PropagationBenchmark {
+
+    enum Stage { SCHEDULED, APPLIED, READY }
+
+    static final String DEPLOYMENTS = "/apis/apps/v1/namespaces/%s/deployments";
+    static final String POLICIES = "/apis/policy.karmada.io/v1alpha1/namespaces/%s/propagationpolicies";
+    static final String BINDINGS = "/apis/work.karmada.io/v1alpha2/namespaces/%s/resourcebindings";
+
+    private final KubernetesApiClient karmada;
+    private final String namespace;
+    private final List<String> clusterNames;
+    private final int replicas;
+    private final Duration pollInterval;
+
+    // An empty cluster list propagates to every member cluster
+    PropagationBenchmark(KubernetesApiClient karmada, String namespace, List<String> clusterNames, int replicas, Duration pollInterval) {
+        this.karmada = karmada;
+        this.namespace = namespace;
+        this.clusterNames = clusterNames;
+        this.replicas = replicas;
+        this.pollInterval = pollInterval;
+    }
+
+    Result run(String prefix, int workloads, double workloadsPerSecond, Duration timeout) throws IOException, InterruptedException {
+        Map<String, Long> created = new ConcurrentHashMap<>();
+        Map<Stage, Map<String, Long>> reached = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            reached.put(stage, new ConcurrentHashMap<>());
+        }
+        List<IOException> failures = Collections.synchronizedList(new ArrayList<>());
+        ScheduledExecutorService creator = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        for (int i = 0; i < workloads; i++) {
+            String name = prefix + "-" + i;
+            creator.schedule(() -> {
+                try {
+                    karmada.create(String.format(POLICIES, namespace), policy(name));
+                    long createdAt = System.nanoTime();
+                    karmada.create(String.format(DEPLOYMENTS, namespace), deployment(name));
+                    created.put(name, createdAt);
+                } catch (IOException e) {
+                    failures.add(e);
+                }
+            }, (long) (i * 1_000_000 / workloadsPerSecond), TimeUnit.MICROSECONDS);
+        }
+
+        long deadline = start + timeout.toNanos();
+        try {
+            while (reached.get(Stage.READY).size() < workloads && failures.isEmpty() && System.nanoTime() < deadline) {
+                poll(prefix, created, reached);
+                Thread.sleep(pollInterval.toMillis());
+            }
+        } finally {
+            creator.shutdownNow();
+            creator.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+        return new Result(workloads, created, reached, start);
+    }
+
+    // Deletes the policies and deployments, Karmada removes their bindings and works
+    void cleanUp(String prefix, int workloads) throws IOException {
+        for (int i = 0; i < workloads; i++) {
+            karmada.delete(String.format(DEPLOYMENTS, namespace) + "/" + prefix + "-" + i);
+            karmada.delete(String.format(POLICIES, namespace) + "/" + prefix + "-" + i);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void poll(String prefix, Map<String, Long> created, Map<Stage, Map<String, Long>> reached) throws IOException {
+        long now = System.nanoTime();
+        for (Map<String, Object> binding : items(String.format(BINDINGS, namespace))) {
+            String name = ((Map<String, Object>) binding.get("metadata")).get("name").toString().replaceFirst("-deployment$", "");
+            if (!name.startsWith(prefix + "-") || !created.containsKey(name)) {
+                continue;
+            }
+            List<Object> targets = (List<Object>) ((Map<String, Object>) binding.getOrDefault("spec", Map.of())).getOrDefault("clusters", List.of());
+            List<Map<String, Object>> statuses = (List<Map<String, Object>>) ((Map<String, Object>) binding.getOrDefault("status", Map.of()))
+                    .getOrDefault("aggregatedStatus", List.of());
+            if (!targets.isEmpty()) {
+                reached.get(Stage.SCHEDULED).putIfAbsent(name, now);
+                if (statuses.stream().filter(status -> Boolean.TRUE.equals(status.get("applied"))).count() >= targets.size()) {
+                    reached.get(Stage.APPLIED).putIfAbsent(name, now);
+                }
+            }
+        }
+        for (Map<String, Object> deployment : items(String.format(DEPLOYMENTS, namespace))) {
+            String name = ((Map<String, Object>) deployment.get("metadata")).get("name").toString();
+            Object readyReplicas = ((Map<String, Object>) deployment.getOrDefault("status", Map.of())).get("readyReplicas");
+            // a binding that reached an earlier stage between the two lists is only seen at the next poll
+            if (created.containsKey(name) && readyReplicas instanceof Number && ((Number) readyReplicas).intValue() >= replicas) {
+                for (Stage stage : Stage.values()) {
+                    reached.get(stage).putIfAbsent(name, now);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> items(String collectionPath) throws IOException {
+        Map<String, Object> list = karmada.get(collectionPath);
+        return list == null ? List.of() : (List<Map<String, Object>>) list.getOrDefault("items", List.of());
+    }
+
+    private Map<String, Object> policy(String name) {
+        Map<String, Object> placement = new LinkedHashMap<>();
+        if (!clusterNames.isEmpty()) {
+            placement.put("clusterAffinity", Map.of("clusterNames", clusterNames));
+        }
+        placement.put("replicaScheduling", Map.of(
+                "replicaSchedulingType", "Divided",
+                "replicaDivisionPreference", "Weighted",
+                "weightPreference", Map.of("dynamicWeight", "AvailableReplicas")));
+        return Map.of("apiVersion", "policy.karmada.io/v1alpha1",
+                "kind", "PropagationPolicy",
+                "metadata", Map.of("name", name, "namespace", namespace),
+                "spec", Map.of(
+                        "resourceSelectors", List.of(Map.of("apiVersion", "apps/v1", "kind", "Deployment", "name", name)),
+                        "placement", placement));
+    }
+
+    private Map<String, Object> deployment(String name) {
+        Map<String, Object> labels = Map.of("app", name);
+        return Map.of("apiVersion", "apps/v1",
+                "kind", "Deployment",
+                "metadata", Map.of("name", name, "namespace", namespace, "labels", labels),
+                "spec", Map.of(
+                        "replicas", replicas,
+                        "selector", Map.of("matchLabels", labels),
+                        "template", Map.of(
+                                "metadata", Map.of("labels", labels),
+                                "spec", Map.of("containers", List.of(Map.of(
+                                        "name", "pause",
+                                        "image", "registry.k8s.io/pause:3.9",
+                                        "resources", Map.of("requests", Map.of("cpu", "10m", "memory", "16Mi"))))))));
+    }
+
+    static final class Result {
+
+        private final int workloads;
+        private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+        private final double durationSeconds;
+
+        private Result(int workloads, Map<String, Long> created, Map<Stage, Map<String, Long>> reached, long start) {
+            this.workloads = workloads;
+            long end = start;
+            for (Stage stage : Stage.values()) {
+                LatencyHistogram histogram = new LatencyHistogram();
+                for (Map.Entry<String, Long> entry : reached.get(stage).entrySet()) {
+                    histogram.record((entry.getValue() - created.get(entry.getKey())) / 1000);
+                    end = Math.max(end, entry.getValue());
+                }
+                histograms.put(stage, histogram);
+            }
+            this.durationSeconds = (end - start) / 1e9;
+        }
+
+        LatencyHistogram getHistogram(Stage stage) {
+            return histograms.get(stage);
+        }
+
+        // Ready workloads per second from the first create call to the last workload that turned ready
+        double getThroughput() {
+            return durationSeconds > 0 ? histograms.get(Stage.READY).getCount() / durationSeconds : 0;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("workloads", workloads);
+            report.put("durationSeconds", Math.round(durationSeconds * 1000) / 1000.0);
+            report.put("readyPerSecond", Math.round(getThroughput() * 1000) / 1000.0);
+            histograms.forEach((stage, histogram) -> report.put(stage.name().toLowerCase(), histogram.summary()));
+            return report;
+        }
+
+        // <name>.json with the summary and <name>-<stage>.hgrm with every latency distribution
+        void write(Path directory, String name) {
+            try {
+                Files.createDirectories(directory);
+                Files.write(directory.resolve(name + ".json"), KubernetesApiClient.MAPPER.writeValueAsBytes(toMap()));
+                for (Map.Entry<Stage, LatencyHistogram> histogram : histograms.entrySet()) {
+                    Files.write(directory.resolve(name + "-" + histogram.getKey().name().toLowerCase() + ".hgrm"),
+                            histogram.getValue().percentileDistribution().getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
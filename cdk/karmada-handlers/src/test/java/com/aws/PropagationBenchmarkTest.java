@@ -0,0 +1,91 @@
+package com.aws;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PropagationBenchmarkTest {
+
+    private static final Path REPORTS = Paths.get("target", "benchmark");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMeasuresEveryStage() throws Exception {
+        try (FakeKarmadaControlPlane controlPlane = new FakeKarmadaControlPlane(2, 20, 20, 20, 1)) {
+            PropagationBenchmark benchmark = new PropagationBenchmark(new KubernetesApiClient(controlPlane.getUrl(), "", "karmada-token"),
+                    "default", controlPlane.getClusterNames(), 4, Duration.ofMillis(2));
+
+            PropagationBenchmark.Result result = benchmark.run("test", 10, 100, Duration.ofSeconds(30));
+            result.write(REPORTS, "propagation-test");
+
+            double previousMedian = 0;
+            for (PropagationBenchmark.Stage stage : PropagationBenchmark.Stage.values()) {
+                LatencyHistogram histogram = result.getHistogram(stage);
+                assertEquals(10, histogram.getCount(), stage.name());
+                assertTrue(histogram.percentile(50) >= previousMedian, stage + " " + histogram.summary());
+                previousMedian = histogram.percentile(50);
+            }
+            // every stage waits at least half its mean delay of the fake control plane
+            assertTrue(result.getHistogram(PropagationBenchmark.Stage.READY).percentile(0) >= 30, result.toMap().toString());
+            assertTrue(result.getThroughput() > 0);
+
+            Map<String, Object> report = KubernetesApiClient.MAPPER.readValue(REPORTS.resolve("propagation-test.json").toFile(), KubernetesApiClient.OBJECT);
+            assertEquals(10, ((Number) ((Map<String, Object>) report.get("ready")).get("count")).intValue());
+            String distribution = new String(Files.readAllBytes(REPORTS.resolve("propagation-test-ready.hgrm")), StandardCharsets.UTF_8);
+            assertTrue(distribution.contains("#[Max     ="), distribution);
+
+            benchmark.cleanUp("test", 10);
+        }
+    }
+
+    // Against the fake control plane by default, or a real Karmada api server with
+    // -Dbenchmark.server=https://...:32443 -Dbenchmark.token=... [-Dbenchmark.ca=<base64 CA>] [-Dbenchmark.clusters=a,b]
+    // [-Dbenchmark.rate=5] [-Dbenchmark.replicas=2], run with: mvn test -Pbenchmark
+    @Tag("benchmark")
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 500})
+    public void benchmarkPropagation(int workloads) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("benchmark.rate", "20"));
+        int replicas = Integer.getInteger("benchmark.replicas", 2);
+        String server = System.getProperty("benchmark.server", "");
+        String prefix = "bench-" + workloads + "-" + Long.toString(System.currentTimeMillis(), 36);
+
+        FakeKarmadaControlPlane controlPlane = server.isEmpty() ? new FakeKarmadaControlPlane(3, 200, 300, 1500, workloads) : null;
+        try {
+            KubernetesApiClient karmada = controlPlane != null
+                    ? new KubernetesApiClient(controlPlane.getUrl(), "", "karmada-token")
+                    : new KubernetesApiClient(server, System.getProperty("benchmark.ca", ""), System.getProperty("benchmark.token", ""));
+            List<String> clusters = controlPlane != null ? controlPlane.getClusterNames() : clusters(System.getProperty("benchmark.clusters", ""));
+            PropagationBenchmark benchmark = new PropagationBenchmark(karmada, "default", clusters, replicas, Duration.ofMillis(200));
+
+            PropagationBenchmark.Result result = benchmark.run(prefix, workloads, rate, Duration.ofMinutes(15));
+            result.write(REPORTS, "propagation-" + workloads);
+            System.out.print("propagation " + KubernetesApiClient.MAPPER.writeValueAsString(result.toMap()) + System.lineSeparator());
+            benchmark.cleanUp(prefix, workloads);
+        } finally {
+            if (controlPlane != null) {
+                controlPlane.close();
+            }
+        }
+    }
+
+    private static List<String> clusters(String value) {
+        return value.isEmpty() ? Collections.emptyList() : Arrays.stream(value.split(",")).map(String::trim).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,76 @@
+package com.aws;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Model of the replica division of the Karmada scheduler for Divided placements, for the fake control plane and the
+// tests. Static weights divide by a fixed ratio, dynamic weights by the replicas each member can still run as its
+// karmada-scheduler-estimator reports them: the free resources of every node divided by the pod requests. Remainders
+// go to the heaviest clusters first, then by name. It is written after the scheduler, not run against it
+final class ReplicaDivision {
+
+    // Free resources of a node, or the requests of a single pod
+    static final class Resources {
+        final long milliCpu;
+        final long memoryMiB;
+        final long pods;
+
+        Resources(long milliCpu, long memoryMiB, long pods) {
+            this.milliCpu = milliCpu;
+            this.memoryMiB = memoryMiB;
+            this.pods = pods;
+        }
+    }
+
+    private ReplicaDivision() {
+    }
+
+    static int availableReplicas(List<Resources> freeNodeResources, Resources podRequests) {
+        long replicas = 0;
+        for (Resources node : freeNodeResources) {
+            replicas += Math.max(0, Math.min(node.pods / Math.max(1, podRequests.pods),
+                    Math.min(fit(node.milliCpu, podRequests.milliCpu), fit(node.memoryMiB, podRequests.memoryMiB))));
+        }
+        return (int) Math.min(Integer.MAX_VALUE, replicas);
+    }
+
+    static Map<String, Integer> byStaticWeight(int replicas, Map<String, Integer> weights) {
+        if (weights.values().stream().mapToLong(Integer::longValue).sum() <= 0) {
+            throw new IllegalArgumentException("At least one cluster needs a positive weight");
+        }
+        return takeByWeight(replicas, weights);
+    }
+
+    static Map<String, Integer> byAvailableReplicas(int replicas, Map<String, Integer> availableReplicas) {
+        long available = availableReplicas.values().stream().mapToLong(Integer::longValue).sum();
+        if (available < replicas) {
+            throw new IllegalStateException(String.format("Clusters available replicas %d are not enough to schedule %d replicas", available, replicas));
+        }
+        return takeByWeight(replicas, availableReplicas);
+    }
+
+    private static Map<String, Integer> takeByWeight(int replicas, Map<String, Integer> weights) {
+        long sum = weights.values().stream().mapToLong(Integer::longValue).sum();
+        Map<String, Integer> division = new TreeMap<>();
+        int remain = replicas;
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            int share = (int) ((long) replicas * weight.getValue() / sum);
+            division.put(weight.getKey(), share);
+            remain -= share;
+        }
+        List<String> clusters = new ArrayList<>(weights.keySet());
+        clusters.sort(Comparator.<String>comparingInt(weights::get).reversed().thenComparing(Comparator.naturalOrder()));
+        for (int i = 0; i < remain; i++) {
+            division.merge(clusters.get(i), 1, Integer::sum);
+        }
+        return division;
+    }
+
+    // A resource the pod does not request never limits the replicas
+    private static long fit(long free, long request) {
+        return request > 0 ? free / request : Long.MAX_VALUE;
+    }
+}
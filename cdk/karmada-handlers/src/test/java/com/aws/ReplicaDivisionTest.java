@@ -0,0 +1,83 @@
+package com.aws;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// These tests check the model of the scheduler in ReplicaDivision, which the benchmarks rely on, they do not verify the
+// division of a real Karmada control plane
+public class ReplicaDivisionTest {
+
+    private static final ReplicaDivision.Resources POD = new ReplicaDivision.Resources(500, 512, 1);
+
+    @Test
+    public void testAvailableReplicasFollowCapacity() {
+        int large = ReplicaDivision.availableReplicas(Collections.nCopies(3, new ReplicaDivision.Resources(4000, 8192, 20)), POD);
+        int small = ReplicaDivision.availableReplicas(List.of(new ReplicaDivision.Resources(2000, 4096, 20)), POD);
+        assertEquals(24, large);
+        assertEquals(4, small);
+        // pods and memory limit a node as much as cpu does
+        assertEquals(2, ReplicaDivision.availableReplicas(List.of(new ReplicaDivision.Resources(4000, 8192, 2)), POD));
+        assertEquals(1, ReplicaDivision.availableReplicas(List.of(new ReplicaDivision.Resources(4000, 1000, 20)), POD));
+
+        Map<String, Integer> dynamic = ReplicaDivision.byAvailableReplicas(14, Map.of("large", large, "small", small));
+        assertEquals(Map.of("large", 12, "small", 2), dynamic);
+        // equal static weights put more replicas on the small cluster than it can run
+        Map<String, Integer> equal = ReplicaDivision.byStaticWeight(14, Map.of("large", 1, "small", 1));
+        assertEquals(Map.of("large", 7, "small", 7), equal);
+        assertTrue(equal.get("small") > small);
+    }
+
+    @Test
+    public void testRemainderGoesToLargestCapacity() {
+        assertEquals(Map.of("a", 1, "b", 2, "c", 1), ReplicaDivision.byAvailableReplicas(4, Map.of("a", 5, "b", 6, "c", 5)));
+        assertEquals(Map.of("a", 2, "b", 1), ReplicaDivision.byStaticWeight(3, Map.of("a", 1, "b", 1)));
+    }
+
+    @Test
+    public void testInsufficientCapacity() {
+        assertThrows(IllegalStateException.class, () -> ReplicaDivision.byAvailableReplicas(30, Map.of("large", 24, "small", 4)));
+        assertThrows(IllegalArgumentException.class, () -> ReplicaDivision.byStaticWeight(3, Map.of("a", 0)));
+    }
+
+    // Synthetic member fleets: the division always places every replica, never beyond the capacity of a member and
+    // within one replica of the share of its capacity
+    @Test
+    public void testDivisionTracksCapacity() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            Map<String, Integer> available = new TreeMap<>();
+            int clusters = 2 + random.nextInt(4);
+            for (int c = 0; c < clusters; c++) {
+                List<ReplicaDivision.Resources> nodes = new ArrayList<>();
+                for (int n = random.nextInt(6); n > 0; n--) {
+                    nodes.add(new ReplicaDivision.Resources(random.nextInt(8000), random.nextInt(32768), random.nextInt(110)));
+                }
+                available.put("member-" + c, ReplicaDivision.availableReplicas(nodes, POD));
+            }
+            int capacity = available.values().stream().mapToInt(Integer::intValue).sum();
+            if (capacity == 0) {
+                continue;
+            }
+            int replicas = 1 + random.nextInt(capacity);
+
+            Map<String, Integer> division = ReplicaDivision.byAvailableReplicas(replicas, available);
+
+            assertEquals(replicas, division.values().stream().mapToInt(Integer::intValue).sum());
+            for (Map.Entry<String, Integer> share : division.entrySet()) {
+                int clusterCapacity = available.get(share.getKey());
+                assertTrue(share.getValue() <= clusterCapacity, division + " exceeds " + available);
+                assertTrue(Math.abs(share.getValue() - (double) replicas * clusterCapacity / capacity) <= 1, division + " for " + available);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.aws;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class WeightControllerTest {
+
+    private static final String CLUSTERS = "/apis/cluster.karmada.io/v1alpha1/clusters";
+    private static final String POLICIES = "/apis/policy.karmada.io/v1alpha1/namespaces/default/propagationpolicies";
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private FakeApiServer karmada;
+
+    @BeforeEach
+    public void startFakeApiServer() throws IOException {
+        karmada = new FakeApiServer();
+        karmada.put(CLUSTERS + "/member-1", cluster("member-1", true, "2", "8Gi"));
+        karmada.put(CLUSTERS + "/member-2", cluster("member-2", true, "6", "8Gi"));
+        karmada.put(POLICIES + "/nginx", policy("nginx", true));
+        karmada.put(POLICIES + "/static", policy("static", false));
+    }
+
+    @AfterEach
+    public void stopFakeApiServer() {
+        karmada.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSetsWeightsFromFreeCapacity() throws IOException {
+        assertEquals(List.of("default/nginx"), controller(NOW, 25).reconcile());
+
+        assertEquals(Map.of("member-1", 75, "member-2", 25), weights("nginx"));
+        Map<String, Object> metadata = (Map<String, Object>) karmada.get(POLICIES + "/nginx").get("metadata");
+        assertEquals(Map.of("federated-k8s.aws/weights-updated-at", NOW.toString()), metadata.get("annotations"));
+        assertEquals(Map.of("member-1", 1, "member-2", 1), weights("static"));
+
+        // within the update interval and then within the hysteresis
+        karmada.update(CLUSTERS + "/member-2", cluster -> cluster.putAll(cluster("member-2", true, "5", "8Gi")));
+        assertEquals(List.of(), controller(NOW.plusSeconds(60), 25).reconcile());
+        assertEquals(List.of(), controller(NOW.plusSeconds(600), 25).reconcile());
+    }
+
+    @Test
+    public void testPendingPodsAndLatencyLowerTheWeight() {
+        WeightController.MemberSignals member1 = new WeightController.MemberSignals("member-1", true, 8000, 4000, 32768, 16384, 0, 10);
+        WeightController.MemberSignals member2 = new WeightController.MemberSignals("member-2", true, 8000, 4000, 32768, 16384, 10, 10);
+        WeightController.MemberSignals member3 = new WeightController.MemberSignals("member-3", true, 8000, 4000, 32768, 16384, 0, 100);
+
+        assertEquals(Map.of("member-1", 59, "member-2", 29, "member-3", 12), WeightController.targetWeights(List.of(member1, member2, member3)));
+        // memory bound: half of the CPU is free but only a quarter of the memory
+        WeightController.MemberSignals member4 = new WeightController.MemberSignals("member-4", true, 8000, 4000, 32768, 8192, 0, -1);
+        WeightController.MemberSignals member5 = new WeightController.MemberSignals("member-5", false, 8000, 8000, 32768, 32768, 0, -1);
+        assertEquals(Map.of("member-1", 67, "member-4", 33), WeightController.targetWeights(List.of(member1, member4, member5)));
+    }
+
+    @Test
+    public void testWeightChangesAreDampedAndRateLimited() {
+        Map<String, Integer> target = Map.of("member-1", 75, "member-2", 25);
+
+        assertEquals(Map.of("member-1", 60, "member-2", 40), WeightController.nextWeights(Map.of("member-1", 1, "member-2", 1), target, 10, 10, true));
+        assertNull(WeightController.nextWeights(Map.of("member-1", 1, "member-2", 1), target, 10, 10, false));
+        assertNull(WeightController.nextWeights(Map.of("member-1", 70, "member-2", 30), target, 10, 25, true));
+        assertNull(WeightController.nextWeights(target, target, 1, 25, true));
+    }
+
+    @Test
+    public void testFailedMemberLosesItsWeightRightAway() throws IOException {
+        controller(NOW, 25).reconcile();
+        karmada.update(CLUSTERS + "/member-2", cluster -> cluster.putAll(cluster("member-2", false, "6", "8Gi")));
+
+        assertEquals(List.of("default/nginx"), controller(NOW.plusSeconds(60), 25).reconcile());
+        assertEquals(Map.of("member-1", 100), weights("nginx"));
+
+        // no ready member at all leaves the weights alone
+        karmada.update(CLUSTERS + "/member-1", cluster -> cluster.putAll(cluster("member-1", false, "2", "8Gi")));
+        assertEquals(List.of(), controller(NOW.plusSeconds(3600), 25).reconcile());
+    }
+
+    @Test
+    public void testQuantities() {
+        assertEquals(7910, WeightController.milliCpu("7910m"));
+        assertEquals(2500, WeightController.milliCpu("2.5"));
+        assertEquals(32768, WeightController.memoryMiB("32Gi"));
+        assertEquals(31193, WeightController.memoryMiB("31941876Ki"));
+        assertEquals(953, WeightController.memoryMiB("1G"));
+        assertEquals(1, WeightController.memoryMiB(String.valueOf(1L << 20)));
+    }
+
+    private WeightController controller(Instant now, int maxStep) {
+        return new WeightController(new KubernetesApiClient(karmada.getUrl(), "", "karmada-token"),
+                Clock.fixed(now, ZoneOffset.UTC), 10, maxStep, Duration.ofMinutes(5), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> weights(String policyName) {
+        Map<String, Object> placement = (Map<String, Object>) ((Map<String, Object>) karmada.get(POLICIES + "/" + policyName).get("spec")).get("placement");
+        Map<String, Object> weightPreference = (Map<String, Object>) ((Map<String, Object>) placement.get("replicaScheduling")).get("weightPreference");
+        Map<String, Integer> weights = new TreeMap<>();
+        for (Map<String, Object> staticWeight : (List<Map<String, Object>>) weightPreference.get("staticWeightList")) {
+            List<String> clusterNames = (List<String>) ((Map<String, Object>) staticWeight.get("targetCluster")).get("clusterNames");
+            weights.put(clusterNames.get(0), ((Number) staticWeight.get("weight")).intValue());
+        }
+        return weights;
+    }
+
+    // Weighted over both members with equal static weights, like PropagationPolicy.staticWeights of the CDK app
+    private static Map<String, Object> policy(String name, boolean controlledWeights) {
+        Map<String, Object> metadata = controlledWeights
+                ? Map.of("name", name, "namespace", "default", "labels", Map.of("federated-k8s.aws/weight-controller", "enabled"))
+                : Map.of("name", name, "namespace", "default");
+        List<Map<String, Object>> staticWeightList = List.of(
+                Map.of("targetCluster", Map.of("clusterNames", List.of("member-1")), "weight", 1),
+                Map.of("targetCluster", Map.of("clusterNames", List.of("member-2")), "weight", 1));
+        return KubernetesApiClient.MAPPER.convertValue(Map.of(
+                "apiVersion", "policy.karmada.io/v1alpha1",
+                "kind", "PropagationPolicy",
+                "metadata", metadata,
+                "spec", Map.of(
+                        "resourceSelectors", List.of(Map.of("apiVersion", "apps/v1", "kind", "Deployment", "name", name)),
+                        "placement", Map.of(
+                                "clusterAffinity", Map.of("clusterNames", List.of("member-1", "member-2")),
+                                "replicaScheduling", Map.of(
+                                        "replicaSchedulingType", "Divided",
+                                        "replicaDivisionPreference", "Weighted",
+                                        "weightPreference", Map.of("staticWeightList", staticWeightList))))), KubernetesApiClient.OBJECT);
+    }
+
+    // 8 CPUs and 32Gi allocatable, the api server proxy of a Push member serves no pods here
+    private static Map<String, Object> cluster(String name, boolean ready, String allocatedCpu, String allocatedMemory) {
+        return KubernetesApiClient.MAPPER.convertValue(Map.of(
+                "apiVersion", "cluster.karmada.io/v1alpha1",
+                "kind", "Cluster",
+                "metadata", Map.of("name", name),
+                "spec", Map.of("syncMode", "Push"),
+                "status", Map.of(
+                        "conditions", List.of(Map.of("type", "Ready", "status", ready ? "True" : "False")),
+                        "resourceSummary", Map.of(
+                                "allocatable", Map.of("cpu", "8", "memory", "32Gi"),
+                                "allocated", Map.of("cpu", allocatedCpu, "memory", allocatedMemory)))), KubernetesApiClient.OBJECT);
+    }
+}
@@ -0,0 +1,36 @@
+package com.aws;
+
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.aws.Constants.*;
+
+// The CDK app directory, the one with cdk.json, found from the compiled classes of the app rather than the working
+// directory, so synth and the tests resolve the files of this repository wherever they are started from
+final class AppDirectory {
+
+    private AppDirectory() {
+    }
+
+    static Path resolve(String relativePath) {
+        Path classes = classesLocation();
+        Path directory = classes;
+        while (directory != null && !Files.isRegularFile(directory.resolve(CDK_APP_FILE))) {
+            directory = directory.getParent();
+        }
+        if (directory == null) {
+            throw new IllegalStateException("No " + CDK_APP_FILE + " in " + classes + " or its parents, the app classes are outside the CDK app directory");
+        }
+        return directory.resolve(relativePath).normalize();
+    }
+
+    private static Path classesLocation() {
+        try {
+            return Paths.get(AppDirectory.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toAbsolutePath();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate the app classes", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.aws;
+
+public enum CapacityMode {
+    // Fixed size auto scaling group (default)
+    FIXED_ASG,
+    // Small fixed auto scaling group for system pods, elastic capacity provisioned by Karpenter
+    KARPENTER
+}
@@ -0,0 +1,71 @@
+package com.aws;
+
+import software.amazon.awscdk.RemovalPolicy;
+import software.amazon.awscdk.services.logs.ILogGroup;
+import software.amazon.awscdk.services.logs.LogGroup;
+import software.amazon.awscdk.services.logs.LogRetention;
+import software.amazon.awscdk.services.logs.RetentionDays;
+import software.constructs.Construct;
+
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// EKS writes the control plane logs to /aws/eks/<cluster>/cluster and creates the group without retention unless
+// it already exists. Clusters deployed before the logging profile already have that group, so it is not owned by the
+// stack: the log retention custom resource creates it when it is missing and only sets the retention otherwise
+final class ClusterLogging {
+
+    // By value, the declaration order of RetentionDays changes between aws-cdk-lib releases
+    private static final Map<Integer, RetentionDays> RETENTION_DAYS = Map.ofEntries(
+            Map.entry(1, RetentionDays.ONE_DAY),
+            Map.entry(3, RetentionDays.THREE_DAYS),
+            Map.entry(5, RetentionDays.FIVE_DAYS),
+            Map.entry(7, RetentionDays.ONE_WEEK),
+            Map.entry(14, RetentionDays.TWO_WEEKS),
+            Map.entry(30, RetentionDays.ONE_MONTH),
+            Map.entry(60, RetentionDays.TWO_MONTHS),
+            Map.entry(90, RetentionDays.THREE_MONTHS),
+            Map.entry(120, RetentionDays.FOUR_MONTHS),
+            Map.entry(150, RetentionDays.FIVE_MONTHS),
+            Map.entry(180, RetentionDays.SIX_MONTHS),
+            Map.entry(365, RetentionDays.ONE_YEAR),
+            Map.entry(400, RetentionDays.THIRTEEN_MONTHS),
+            Map.entry(545, RetentionDays.EIGHTEEN_MONTHS),
+            Map.entry(731, RetentionDays.TWO_YEARS),
+            Map.entry(1096, RetentionDays.THREE_YEARS),
+            Map.entry(1827, RetentionDays.FIVE_YEARS),
+            Map.entry(2192, RetentionDays.SIX_YEARS),
+            Map.entry(2557, RetentionDays.SEVEN_YEARS),
+            Map.entry(2922, RetentionDays.EIGHT_YEARS),
+            Map.entry(3288, RetentionDays.NINE_YEARS),
+            Map.entry(3653, RetentionDays.TEN_YEARS));
+
+    private ClusterLogging() {
+    }
+
+    static LogRetention configure(Construct scope, String clusterName, LoggingProfile loggingProfile, int retentionDays) {
+        if (loggingProfile.getLogTypes().isEmpty()) {
+            return null;
+        }
+        String logGroupName = "/aws/eks/" + clusterName + "/cluster";
+        LogRetention logRetention = LogRetention.Builder.create(scope, CLUSTER_LOG_GROUP)
+                .logGroupName(logGroupName)
+                .retention(retention(retentionDays))
+                .removalPolicy(RemovalPolicy.RETAIN)
+                .build();
+        if (loggingProfile.isAuditArchive()) {
+            ILogGroup logGroup = LogGroup.fromLogGroupName(scope, CLUSTER_LOG_GROUP + "Imported", logGroupName);
+            LogArchive.of(scope).archiveAuditLog(scope, logGroup, clusterName).getNode().addDependency(logRetention);
+        }
+        return logRetention;
+    }
+
+    static RetentionDays retention(int retentionDays) {
+        RetentionDays retention = RETENTION_DAYS.get(retentionDays);
+        if (retention == null) {
+            throw new IllegalArgumentException(LOG_RETENTION_DAYS_CONTEXT + " " + retentionDays + " is not one of " + LOG_RETENTION_DAYS_LIST);
+        }
+        return retention;
+    }
+}
@@ -1,11 +1,8 @@
 package com.aws;
 
-import software.amazon.awscdk.services.ec2.InstanceClass;
-import software.amazon.awscdk.services.ec2.InstanceSize;
-import software.amazon.awscdk.services.eks.KubernetesVersion;
-
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 public class Constants {
 
@@ -13,6 +10,29 @@ public class Constants {
     static final String KARMADA_PUBLIC_1 = "karmada-public-1";
     static final String KARMADA_PRIVATE_1 = "karmada-private-1";
     static final String KARMADA_CIDR_BLOCK = "10.1.0.0/16";
+    static final int PUBLIC_SUBNET_MASK = 20;
+    static final int PRIVATE_SUBNET_MASK = 24;
+    static final int NAT_GATEWAYS = 1;
+    static final int AVAILABILITY_ZONES_NUM = 3;
+    // AWS reserves the first four and the last address of every subnet
+    static final int SUBNET_RESERVED_IPS = 5;
+    // An m5.large with the VPC CNI holds up to 3 ENIs with 10 addresses each
+    static final int NODE_IP_ADDRESSES = 30;
+    // With prefix delegation every ENI gets /28 prefixes of 16 addresses instead of single secondary addresses
+    static final int PREFIX_IP_ADDRESSES = 16;
+    // Kubelet max pods with prefix delegation, the EKS recommendation for nodes with fewer than 30 vCPUs
+    static final int MAX_PODS = 110;
+    static final int MAX_PODS_LIMIT = 250;
+    // Every batch is one kubectl apply and one provider invocation, the kubectl provider defaults to 1 GiB
+    static final int MANIFEST_BATCHES = 4;
+    static final int MAX_MANIFEST_BATCHES = 50;
+    static final int KUBECTL_MEMORY = 1024;
+    static final int MIN_KUBECTL_MEMORY = 256;
+    static final int MAX_KUBECTL_MEMORY = 10240;
+    // Carrier-grade NAT range, routable inside the VPC only and free of overlaps with the VPC CIDRs
+    static final String POD_CIDR_BLOCK = "100.64.0.0/16";
+    static final String POD_CIDR = "PodCidr";
+    static final String POD_SUBNET = "PodSubnet";
 
     static final String REGION_AZA = "a";
     static final String REGION_AZB = "b";
@@ -20,6 +40,7 @@ public class Constants {
 
     static final String KARMADA_SG = "karmada-sg";
     static final int TCP_PORT = 32443;
+    static final int KARMADA_API_PORT = 5443;
     static final int HTTPS_PORT = 443;
     static final int HTTP_PORT = 80;
     static final String KARMADA_CLUSTER = "karmada-eks-cluster-parent";
@@ -27,7 +48,6 @@ public class Constants {
     static final String MASTERS_ROLE = "MastersRole";
 
 
-    static final String OPEN_ID_CONNECT_PROVIDER = "OpenIdConnectProvider";
     static final String EKS_CLUSTER_ADDON_ROLE = "EKSClusterAddonRole";
     static final String AMAZON_EBSCSI_DRIVER_POLICY = "AmazonEBSCSIDriverPolicy";
     static final String ARN_AWS_IAM_AWS_POLICY_SERVICE_ROLE_AMAZON_EBSCSIDRIVER_POLICY = "arn:aws:iam::aws:policy/service-role/AmazonEBSCSIDriverPolicy";
@@ -35,16 +55,56 @@ public class Constants {
     static final String EBS_CSI_ADDON = "ebs-csi-addon";
     static final String OVERWRITE = "OVERWRITE";
     static final String EKS_BUILD_VERSION = "v1.21.0-eksbuild.1";
+    static final String VPC_CNI = "vpc-cni";
+    static final String VPC_CNI_ADDON = "vpc-cni-addon";
+    static final String ENI_CONFIGS = "eni-configs";
+    static final String ZONE_LABEL = "topology.kubernetes.io/zone";
 
     static final String KARMADA_EKSASG = "KarmadaEKSASG";
     static final String CHILD_EKSASG = "ClildEKSASG";
     static final String KUBECTL_LAYER = "kubectlLayer";
-    static final String KUBECTL_LAYER_1 = "kubectlLayer1";
     static final String KARMADA_MANAGEMENT_HOST = "KarmadaManagementHost";
-    static final KubernetesVersion KUBERNETES_VERSION = KubernetesVersion.V1_28;
+    static final int KARMADA_NODES_NUM = 3;
+    static final int KARPENTER_BASE_NODES_NUM = 2;
+    static final String KUBERNETES_VERSION = "1.28";
+    static final String MEMBER_KUBERNETES_VERSION = "1.27";
+    static final String NODE_INSTANCE_TYPE = "m5.large";
+    // Room for the images of the Karmada and workload pods, the EKS optimized AMI snapshot alone takes 20 GiB
+    static final int NODE_ROOT_VOLUME_SIZE = 30;
+    static final int NODE_ROOT_VOLUME_MIN_SIZE = 20;
+    // gp3 baseline throughput in MiB/s, up to a quarter of the 3000 baseline IOPS
+    static final int NODE_ROOT_VOLUME_THROUGHPUT = 125;
+    static final int NODE_ROOT_VOLUME_MAX_THROUGHPUT = 750;
+    static final String BOTTLEROCKET_IMAGE_PARAMETER = "/aws/service/bottlerocket/aws-k8s-%s/%s/latest/image_id";
+    static final String WARM_POOL_JOIN_SCRIPT = "/var/lib/cloud/scripts/per-boot/eks-join.sh";
+    static final String WARM_POOL_OUTPUT = "WarmPoolCapacity";
+    static final int MEMBER_NODES_NUM = 3;
+    static final int MEMBER_MAX_NODES_NUM = 6;
+    // Spot pools of the member node groups, several instance types of the same size so one pool running out does not stall them
+    static final List<String> MEMBER_SPOT_INSTANCE_TYPES = Arrays.asList("m5.large", "m5a.large", "m5d.large", "m6i.large", "m6a.large");
+    // On-demand nodes of every member node group, below the spot ones
+    static final int MEMBER_ON_DEMAND_BASE = 1;
+    // Bounds of the failover seconds, the management host splits them into detection, eviction and toleration
+    static final int MIN_FAILOVER_SECONDS = 20;
+    static final int MAX_FAILOVER_SECONDS = 600;
+    static final String MANAGEMENT_HOST_INSTANCE_TYPE = "t3.micro";
+    static final int MANAGEMENT_HOST_ROOT_VOLUME_SIZE = 10;
 
 
     static final String KARMADA_EC_2_EKS_SG = "karmada-ec2-eks-sg";
+    static final String MANAGEMENT_HOST_BOOT_HANDLE = "ManagementHostBootHandle";
+    static final String MANAGEMENT_HOST_BOOT = "ManagementHostBoot";
+    static final String MANAGEMENT_HOST_BOOT_OUTPUT = "ManagementHostBootSeconds";
+    // Relative to the CDK app directory, the one with cdk.json
+    static final String MANAGEMENT_HOST_SCRIPTS_PATH = "../../eks-karmada-deploy";
+    static final String CDK_APP_FILE = "cdk.json";
+    static final String ASSET_SCRIPTS_DIR = "/home/ec2-user/eks-karmada-deploy";
+    static final String GIT_CLONE_SCRIPTS_DIR = "/home/ec2-user/eks-karmada-project/eks-karmada-deploy";
+    static final String TOOLS_DIR = "/opt/karmada-tools";
+    static final String CHECKSUMS_FILE = ".sha256sums";
+    static final List<String> MANAGEMENT_HOST_TOOLS_LIST = Arrays.asList("aws", "jq", "kubectl", "kubectl-karmada", "eksctl");
+    static final String MANAGEMENT_HOST_BOOT_TIMEOUT = "PT30M";
+    static final String CFN_INIT_DONE_FILE = "/var/lib/cfn-init-done";
     static final String SSH_ACCESS = "SSH Access";
     static final String CLUSTER_ID = "karmada-kubernetes";
     static final String ADMINISTRATOR_ACCESS = "AdministratorAccess";
@@ -53,16 +113,263 @@ public class Constants {
     static final String EKS_LIST = "eks:List*";
     static final String STS_ASSUME_ROLE = "sts:AssumeRole";
     static final String DEVICE_PATH = "/dev/xvda";
-    static final InstanceClass INSTANCE_CLASS = InstanceClass.M5;
-    static final InstanceSize INSTANCE_SIZE = InstanceSize.LARGE;
 
     static final String CHILD_CLUSTERNESTED_STACK_ID = "childClusternestedStackId";
-    static final String CHILD_CLUSTER = "child-eks-cluster";
+    static final String CHILD_CLUSTER = "karmada-eks-cluster-member";
     static final String MASTERS_ROLE_CHILD_CLUSTER = "MastersRoleChildCluster";
+    static final String CHILD_SG = "karmada-member-sg";
+    static final String MANAGEMENT_HOST_MEMBER_ACCESS = "ManagementHostMemberAccess";
+    static final String MEMBER_REGION_STACK = "SolutionGuidanceFederatedK8SMembers";
+    static final String MEMBER_REGION_CLUSTER = "karmada-member";
+    static final String MEMBER_REGION_CIDR_FORMAT = "10.%d.0.0/16";
+    static final int MEMBER_REGION_CIDR_FIRST_OCTET = 100;
+    static final String MEMBER_PARAMETER_PATH = "/karmada/members";
+    static final String MEMBER_CLUSTER_OUTPUT = "MemberCluster";
+    static final int DEFAULT_MEMBER_CLUSTER_COUNT = 2;
+
+    static final String KARMADA_REGISTRATION = "KarmadaRegistration";
+    static final String KARMADA_REGISTRATION_PROVIDER = "KarmadaRegistrationProvider";
+    static final String KARMADA_REGISTRATION_ROLE = "KarmadaRegistrationRole";
+    static final String KARMADA_REGISTRATION_RESOURCE_TYPE = "Custom::KarmadaRegistration";
+    static final String KARMADA_API_SECRET = "KarmadaApiSecret";
+    static final String KARMADA_API_SECRET_NAME = "karmada/apiserver";
+    static final String KARMADA_API_SECRET_ENV = "KARMADA_API_SECRET";
+    static final String CLUSTER_NAME_PROPERTY = "ClusterName";
+    static final String ENDPOINT_PROPERTY = "Endpoint";
+    static final String CERTIFICATE_AUTHORITY_PROPERTY = "CertificateAuthorityData";
+    static final String SYNC_MODE_PROPERTY = "SyncMode";
+    static final String PUSH_SYNC_MODE = "Push";
+    static final String PULL_SYNC_MODE = "Pull";
+    static final String IMAGE_CACHE = "ImageCache";
+    static final String IMAGE_CACHE_K8S_PREFIX = "k8s";
+    static final String IMAGE_CACHE_ECR_PUBLIC_PREFIX = "ecr-public";
+    static final String IMAGE_CACHE_QUAY_PREFIX = "quay";
+    static final String IMAGE_CACHE_DOCKER_HUB_PREFIX = "docker-hub";
+    static final List<String> IMAGE_CACHE_PULL_POLICIES_LIST = Arrays.asList("ecr:CreateRepository", "ecr:BatchImportUpstreamImage");
+    static final String PRE_PULL = "image-pre-pull";
+    static final String PRE_PULL_BUSYBOX_IMAGE = "public.ecr.aws/docker/library/busybox:1.36-musl";
+    static final String PRE_PULL_PAUSE_IMAGE = "registry.k8s.io/pause:3.9";
+    // Room in GiB per hot image on the node volume, kubelet removes unused images above 85% disk usage
+    static final int PRE_PULL_IMAGE_SIZE = 1;
+    static final int IMAGE_GC_HIGH_THRESHOLD_PERCENT = 85;
+    static final String KARMADA_MANIFESTS = "KarmadaManifests";
+    static final String NAMESPACES_BATCH = "Namespaces";
+    static final String KARMADA_MANIFESTS_RESOURCE_TYPE = "Custom::KarmadaManifests";
+    static final String MANIFESTS_NAME_PROPERTY = "ManifestsName";
+    static final String MANIFESTS_PROPERTY = "Manifests";
+    static final String SECRETS_MANAGER_GET_POLICY = "secretsmanager:GetSecretValue";
+    // Shaded jar of the karmada-handlers module, the Lambda code of the registration provider and the weight controller
+    static final String KARMADA_HANDLERS_JAR = "../karmada-handlers/target/karmada-handlers.jar";
+    static final String KARMADA_REGISTRATION_HANDLER = "com.aws.KarmadaRegistrationHandler";
+    static final String WEIGHT_CONTROLLER_HANDLER = "com.aws.WeightControllerHandler::handleRequest";
+    static final String SECRETS_MANAGER_PUT_POLICY = "secretsmanager:PutSecretValue";
+    static final String WEIGHT_CONTROLLER = "WeightController";
+    static final String WEIGHT_CONTROLLER_ROLE = "WeightControllerRole";
+    static final String WEIGHT_CONTROLLER_SCHEDULE = "WeightControllerSchedule";
+    static final String WEIGHT_CONTROLLER_LABEL = "federated-k8s.aws/weight-controller";
+    static final String WEIGHT_CONTROLLER_ENABLED = "enabled";
+    static final String CLUSTER_NOT_READY_TAINT = "cluster.karmada.io/not-ready";
+    static final String CLUSTER_UNREACHABLE_TAINT = "cluster.karmada.io/unreachable";
+    // Controlled weights add up to about this
+    static final int WEIGHT_SCALE = 100;
+    static final int WEIGHT_HYSTERESIS = 10;
+    static final int WEIGHT_MAX_STEP = 25;
+    static final int WEIGHT_UPDATE_INTERVAL = 5;
+    static final int MAX_WEIGHT_UPDATE_INTERVAL = 60;
+    static final String WEIGHT_HYSTERESIS_ENV = "WEIGHT_HYSTERESIS";
+    static final String WEIGHT_MAX_STEP_ENV = "WEIGHT_MAX_STEP";
+    static final String WEIGHT_UPDATE_INTERVAL_ENV = "WEIGHT_UPDATE_INTERVAL";
+    static final String WEIGHT_LATENCY_PROBE_ENV = "WEIGHT_LATENCY_PROBE";
+
+    static final String KARMADA_NAMESPACE = "karmada-system";
+    static final String KARMADA_APISERVER = "karmada-apiserver";
+    static final String KARMADA_API_LOAD_BALANCER = "KarmadaApiLoadBalancer";
+    static final String KARMADA_API_LOAD_BALANCER_NAME = "karmada-lb";
+    static final String KARMADA_API_LOAD_BALANCER_SG = "karmada-lb-sg";
+    static final String KARMADA_API_TARGET_GROUP = "KarmadaApiTargetGroup";
+    static final String KARMADA_API_LISTENER = "KarmadaApiListener";
+    static final String KARMADA_API_ADDRESS = "KarmadaApiAddress";
+    static final String KARMADA_API_DNS_OUTPUT = "KarmadaApiServerDnsName";
+    static final String KARMADA_API_ADDRESSES_OUTPUT = "KarmadaApiServerAddresses";
+    static final String KARMADA_API_ALLOWED_CIDR = "0.0.0.0/0";
+    static final int KARMADA_API_HEALTH_CHECK_INTERVAL = 10;
+    static final int KARMADA_API_HEALTH_CHECK_THRESHOLD = 2;
+    static final int KARMADA_API_DEREGISTRATION_DELAY = 30;
+    static final String POD_READINESS_GATE_LABEL = "elbv2.k8s.aws/pod-readiness-gate-inject";
+
+    static final String LOAD_BALANCER_CONTROLLER = "aws-load-balancer-controller";
+    static final String LOAD_BALANCER_CONTROLLER_SERVICE_ACCOUNT = "LoadBalancerControllerServiceAccount";
+    static final String LOAD_BALANCER_CONTROLLER_NAMESPACE = "kube-system";
+    static final String LOAD_BALANCER_CONTROLLER_REPOSITORY = "https://aws.github.io/eks-charts";
+    static final String LOAD_BALANCER_CONTROLLER_VERSION = "1.7.1";
+    static final List<String> LOAD_BALANCER_CONTROLLER_DESCRIBE_POLICIES_LIST = Arrays.asList("elasticloadbalancing:DescribeLoadBalancers",
+            "elasticloadbalancing:DescribeListeners",
+            "elasticloadbalancing:DescribeTags",
+            "elasticloadbalancing:DescribeTargetGroups",
+            "elasticloadbalancing:DescribeTargetHealth",
+            "ec2:DescribeAvailabilityZones",
+            "ec2:DescribeInstances",
+            "ec2:DescribeNetworkInterfaces",
+            "ec2:DescribeSecurityGroups",
+            "ec2:DescribeSubnets",
+            "ec2:DescribeVpcs");
+    static final List<String> LOAD_BALANCER_CONTROLLER_TARGET_POLICIES_LIST = Arrays.asList("elasticloadbalancing:RegisterTargets",
+            "elasticloadbalancing:DeregisterTargets");
+
+    static final String KARMADA_OBSERVABILITY = "KarmadaObservability";
+    static final String METRICS_COLLECTOR = "karmada-metrics-collector";
+    static final String METRICS_COLLECTOR_SERVICE_ACCOUNT = "MetricsCollectorServiceAccount";
+    static final String METRICS_COLLECTOR_IMAGE = "public.ecr.aws/aws-observability/aws-otel-collector:v0.40.0";
+    static final String METRICS_COLLECTOR_CONFIG_FILE = "collector.json";
+    static final String METRICS_PROMETHEUS = "prometheus";
+    static final String METRICS_PROMETHEUS_IMAGE = "quay.io/prometheus/prometheus:v2.53.1";
+    static final String METRICS_PROMETHEUS_CONFIG_FILE = "prometheus.json";
+    static final String METRICS_PROMETHEUS_RULES_FILE = "rules.json";
+    static final int METRICS_PROMETHEUS_PORT = 9090;
+    static final String METRICS_RATE_WINDOW = "5m";
+    static final String METRICS_LOG_GROUP = "MetricsLogGroup";
+    static final String METRICS_LOG_GROUP_NAME = "/aws/karmada/metrics";
+    static final String METRICS_NAMESPACE = "Karmada";
+    static final String METRICS_DASHBOARD = "KarmadaDashboard";
+    static final String METRICS_SCRAPE_INTERVAL = "30s";
+    static final String KARMADA_CERT_SECRET = "karmada-cert";
+    static final String ETCD_CERT_SECRET = "etcd-cert";
+    static final int KARMADA_CONTROLLER_METRICS_PORT = 8080;
+    static final int KARMADA_SCHEDULER_METRICS_PORT = 10351;
+    static final int ETCD_CLIENT_PORT = 2379;
+    static final String APISERVER_LATENCY_METRIC = "apiserver_request_duration_seconds";
+    static final String ETCD_FSYNC_METRIC = "etcd_disk_wal_fsync_duration_seconds";
+    static final String ETCD_COMMIT_METRIC = "etcd_disk_backend_commit_duration_seconds";
+    static final String ETCD_LEADER_CHANGES_METRIC = "etcd_server_leader_changes_seen_total";
+    static final String SCHEDULER_PENDING_METRIC = "karmada_scheduler_pending_bindings";
+    static final String SCHEDULER_LATENCY_METRIC = "karmada_scheduler_e2e_scheduling_duration_seconds";
+    static final String CLUSTER_SYNC_METRIC = "cluster_sync_status_duration_seconds";
+    static final String CLUSTER_READY_METRIC = "cluster_ready_state";
+    // gauges the Prometheus recording rules of the collector compute from the metrics above
+    static final String P99_SUFFIX = "_p99";
+    static final String MAX_SUFFIX = "_max";
+    static final String MIN_SUFFIX = "_min";
+    static final String LEADER_CHANGES_SUFFIX = "_15m";
+    static final int KARMADA_API_LATENCY_P99_MS = 1000;
+    static final int ETCD_FSYNC_P99_MS = 10;
+    static final int ETCD_COMMIT_P99_MS = 25;
+    static final int ETCD_LEADER_CHANGES = 1;
+    static final List<String> METRICS_LOG_POLICIES_LIST = Arrays.asList("logs:CreateLogStream",
+            "logs:DescribeLogStreams",
+            "logs:PutLogEvents");
+
+    static final String ETCD_NODEGROUP = "KarmadaEtcdNodegroup";
+    static final String ETCD_NODE_LABEL_KEY = "karmada.io/etcd";
+    static final String ETCD_NODE_LABEL_VALUE = "true";
+    static final String ETCD_STORAGE_CLASS = "ebs-sc-etcd";
+    static final String EBS_STORAGE_CLASS = "ebs-sc";
+    static final String ETCD_INSTANCE_TYPE = "m5.large";
+    static final int ETCD_NODES_NUM = 3;
+    static final String ETCD_VOLUME_TYPE = "gp3";
+    static final int ETCD_VOLUME_IOPS = 6000;
+    static final int ETCD_VOLUME_THROUGHPUT = 250;
+
+    static final String KARPENTER = "karpenter";
+    static final String KARPENTER_CAPACITY = "KarpenterCapacity";
+    static final String KARPENTER_NAMESPACE = "karpenter";
+    static final String KARPENTER_SERVICE_ACCOUNT = "KarpenterServiceAccount";
+    static final String KARPENTER_NODE_ROLE = "KarpenterNodeRole";
+    static final String KARPENTER_NODE_CLASS = "karmada-node-class";
+    static final String KARPENTER_NODE_POOL = "karmada-node-pool";
+    static final String KARPENTER_REPOSITORY = "oci://public.ecr.aws/karpenter/karpenter";
+    static final String KARPENTER_VERSION = "0.35.0";
+    static final String KARPENTER_CPU_LIMIT = "200";
+    static final String KARPENTER_ETCD_NODE_POOL = "karmada-etcd-node-pool";
+    static final String KARPENTER_ETCD_CPU_LIMIT = "32";
+    static final String KARPENTER_ON_DEMAND = "on-demand";
+    static final List<String> KARPENTER_INSTANCE_FAMILIES = Arrays.asList("m5", "m6i", "m6g", "m7g");
+    static final List<String> KARPENTER_CAPACITY_TYPES = Arrays.asList("spot", "on-demand");
+    static final List<String> KARPENTER_NODE_POLICIES_LIST = Arrays.asList("AmazonEKSWorkerNodePolicy",
+            "AmazonEKS_CNI_Policy",
+            "AmazonEC2ContainerRegistryReadOnly",
+            "AmazonSSMManagedInstanceCore");
+    static final List<String> KARPENTER_CONTROLLER_POLICIES_LIST = Arrays.asList("ec2:CreateFleet",
+            "ec2:CreateLaunchTemplate",
+            "ec2:CreateTags",
+            "ec2:DeleteLaunchTemplate",
+            "ec2:RunInstances",
+            "ec2:TerminateInstances",
+            "ec2:DescribeAvailabilityZones",
+            "ec2:DescribeImages",
+            "ec2:DescribeInstances",
+            "ec2:DescribeInstanceTypeOfferings",
+            "ec2:DescribeInstanceTypes",
+            "ec2:DescribeLaunchTemplates",
+            "ec2:DescribeSecurityGroups",
+            "ec2:DescribeSpotPriceHistory",
+            "ec2:DescribeSubnets",
+            "ssm:GetParameter",
+            "pricing:GetProducts",
+            "iam:GetInstanceProfile",
+            "iam:CreateInstanceProfile",
+            "iam:TagInstanceProfile",
+            "iam:AddRoleToInstanceProfile",
+            "iam:RemoveRoleFromInstanceProfile",
+            "iam:DeleteInstanceProfile");
+
+    static final String MEMBER_AUTOSCALING = "MemberAutoscaling";
+    static final String METRICS_SERVER = "metrics-server";
+    static final String METRICS_SERVER_REPOSITORY = "https://kubernetes-sigs.github.io/metrics-server/";
+    static final String METRICS_SERVER_VERSION = "3.12.1";
+    static final String METRICS_SERVER_IMAGE = "registry.k8s.io/metrics-server/metrics-server";
+    static final String CLUSTER_AUTOSCALER = "cluster-autoscaler";
+    static final String CLUSTER_AUTOSCALER_SERVICE_ACCOUNT = "ClusterAutoscalerServiceAccount";
+    static final String CLUSTER_AUTOSCALER_REPOSITORY = "https://kubernetes.github.io/autoscaler";
+    static final String CLUSTER_AUTOSCALER_VERSION = "9.37.0";
+    static final String CLUSTER_AUTOSCALER_IMAGE = "registry.k8s.io/autoscaling/cluster-autoscaler";
+    // Cluster Autoscaler minor versions follow the Kubernetes minor version
+    static final Map<String, String> CLUSTER_AUTOSCALER_IMAGE_TAGS = Map.of("1.27", "v1.27.3", "1.28", "v1.28.2", "1.29", "v1.29.0");
+    static final String CLUSTER_AUTOSCALER_TAG_PREFIX = "k8s.io/cluster-autoscaler/";
+    static final List<String> CLUSTER_AUTOSCALER_DESCRIBE_POLICIES_LIST = Arrays.asList("autoscaling:DescribeAutoScalingGroups",
+            "autoscaling:DescribeAutoScalingInstances",
+            "autoscaling:DescribeLaunchConfigurations",
+            "autoscaling:DescribeScalingActivities",
+            "autoscaling:DescribeTags",
+            "autoscaling:DescribeWarmPool",
+            "ec2:DescribeImages",
+            "ec2:DescribeInstanceTypes",
+            "ec2:DescribeLaunchTemplateVersions",
+            "ec2:GetInstanceTypesFromInstanceRequirements",
+            "eks:DescribeNodegroup");
+    static final List<String> CLUSTER_AUTOSCALER_SCALE_POLICIES_LIST = Arrays.asList("autoscaling:SetDesiredCapacity",
+            "autoscaling:TerminateInstanceInAutoScalingGroup");
+    static final String CHILD_LAUNCH_TEMPLATE = "ChildLaunchTemplate";
+    static final String CHILD_NODE_ROLE = "ChildNodeRole";
+    static final String GENERATE_LAUNCH_TEMPLATE_FLAG = "@aws-cdk/aws-autoscaling:generateLaunchTemplateInsteadOfLaunchConfig";
+    static final String NODE_TERMINATION_HANDLER = "aws-node-termination-handler";
+    static final String NODE_TERMINATION_HANDLER_REPOSITORY = "https://aws.github.io/eks-charts";
+    static final String NODE_TERMINATION_HANDLER_VERSION = "0.21.0";
+    static final String NODE_TERMINATION_HANDLER_IMAGE = "public.ecr.aws/aws-ec2/aws-node-termination-handler";
 
     static final String USER_DATA_FILE = "userdata.txt";
     static final String MASTER_ROLE_ARN = "MASTER_ROLE_ARN";
     static final String DEPLOYMENT_REGION = "REGION";
+    static final String MEMBER_CLUSTER_NUM = "MEMBER_CLUSTER_NUM";
+    static final String ETCD_NODE_SELECTOR = "ETCD_NODE_SELECTOR";
+    static final String ETCD_STORAGE_CLASS_NAME = "ETCD_STORAGE_CLASS_NAME";
+    static final String MEMBER_REGIONS = "MEMBER_REGIONS";
+    static final String REGISTRATION_MODE = "REGISTRATION_MODE";
+    static final String KARMADA_API_SECRET_ID = "KARMADA_API_SECRET_ID";
+    static final String MANAGEMENT_HOST_BOOTSTRAP = "MANAGEMENT_HOST_BOOTSTRAP";
+    static final String CFN_INIT = "CFN_INIT";
+    static final String BOOT_SIGNAL_URL = "BOOT_SIGNAL_URL";
+    static final String SCRIPTS_DIR = "SCRIPTS_DIR";
+    static final String UTILS_OPTION = "UTILS_OPTION";
+    static final String KARMADA_LB = "KARMADA_LB";
+    static final String KARMADA_LB_ADDRESSES = "KARMADA_LB_ADDRESSES";
+    static final String SEARCH_RESOURCES_KEY = "SEARCH_RESOURCES";
+    static final String SEARCH_BACKEND_ADDRESSES = "SEARCH_BACKEND_ADDRESSES";
+    static final String SEARCH_BACKEND_SECRET = "SEARCH_BACKEND_SECRET";
+    static final String IMAGE_CACHE_REGISTRY = "IMAGE_CACHE_REGISTRY";
+    static final String DOCKER_HUB_MIRROR = "DOCKER_HUB_MIRROR";
+    static final String FEDERATED_HPA_OPTION = "FEDERATED_HPA_OPTION";
+    static final String FAILOVER_SECONDS = "FAILOVER_SECONDS";
+    static final List<String> USER_DATA_KEYS = Arrays.asList(MASTER_ROLE_ARN, DEPLOYMENT_REGION, MEMBER_CLUSTER_NUM);
 
     static final String MANAGEMENT_HOST_ROLE = "ManagementHostRole";
     static final String EC2_SERVICE_PRINCIPAL = "ec2.amazonaws.com";
@@ -72,6 +379,7 @@ public class Constants {
             "ec2:DescribeRouteTables",
             "ec2:DescribeInternetGateways",
             "ec2:DescribeSubnets");
+    static final List<String> SSM_POLICIES_LIST = Arrays.asList("ssm:GetParameter", "ssm:GetParametersByPath");
     static final List<String> S3_POLICIES_LIST = Arrays.asList("s3:*");
     static final List<String> IAM_POLICIES_LIST = Arrays.asList("eks:ListClusters",
             "iam:GetRole",
@@ -99,7 +407,105 @@ public class Constants {
     static final String CDK_DEFAULT_ACCOUNT = "CDK_DEFAULT_ACCOUNT";
     static final String CDK_DEFAULT_ACCOUNT1 = "CDK_DEFAULT_REGION";
 
+    // Configuration keys, read from the JSON file given with -c configFile=<path> and then from the CDK context
+    static final String CONFIG_FILE_CONTEXT = "configFile";
+    static final String KUBERNETES_VERSION_CONTEXT = "kubernetesVersion";
+    static final String MEMBER_KUBERNETES_VERSION_CONTEXT = "memberKubernetesVersion";
+    static final String VPC_CIDR_CONTEXT = "vpcCidr";
+    static final String PUBLIC_SUBNET_MASK_CONTEXT = "publicSubnetMask";
+    static final String PRIVATE_SUBNET_MASK_CONTEXT = "privateSubnetMask";
+    static final String NAT_GATEWAYS_CONTEXT = "natGateways";
+    static final String NETWORK_PROFILE_CONTEXT = "networkProfile";
+    static final String NODE_INSTANCE_TYPE_CONTEXT = "nodeInstanceType";
+    static final String NODES_NUM_CONTEXT = "nodesNum";
+    static final String NODE_ROOT_VOLUME_SIZE_CONTEXT = "nodeRootVolumeSize";
+    static final String MEMBER_CLUSTER_COUNT_CONTEXT = "memberClusterCount";
+    static final String MEMBER_INSTANCE_TYPE_CONTEXT = "memberInstanceType";
+    static final String MEMBER_NODES_NUM_CONTEXT = "memberNodesNum";
+    static final String MEMBER_REGIONS_CONTEXT = "memberRegions";
+    static final String MANAGEMENT_HOST_INSTANCE_TYPE_CONTEXT = "managementHostInstanceType";
+    static final String MANAGEMENT_HOST_ROOT_VOLUME_SIZE_CONTEXT = "managementHostRootVolumeSize";
+    static final String CAPACITY_MODE_CONTEXT = "capacityMode";
+    static final String KARPENTER_INSTANCE_FAMILIES_CONTEXT = "karpenterInstanceFamilies";
+    static final String KARPENTER_CAPACITY_TYPES_CONTEXT = "karpenterCapacityTypes";
+    static final String ETCD_NODEGROUP_CONTEXT = "etcdNodeGroup";
+    static final String ETCD_INSTANCE_TYPE_CONTEXT = "etcdInstanceType";
+    static final String ETCD_NODES_NUM_CONTEXT = "etcdNodesNum";
+    static final String ETCD_VOLUME_TYPE_CONTEXT = "etcdVolumeType";
+    static final String ETCD_VOLUME_IOPS_CONTEXT = "etcdVolumeIops";
+    static final String ETCD_VOLUME_THROUGHPUT_CONTEXT = "etcdVolumeThroughput";
+    static final String REGISTRATION_MODE_CONTEXT = "registrationMode";
+    static final String MANAGEMENT_HOST_BOOTSTRAP_CONTEXT = "managementHostBootstrap";
+    static final String MANAGEMENT_HOST_IMAGE_ID_CONTEXT = "managementHostImageId";
+    static final String MANAGEMENT_HOST_TOOLS_PATH_CONTEXT = "managementHostToolsPath";
+    static final String MANAGEMENT_HOST_SCRIPTS_PATH_CONTEXT = "managementHostScriptsPath";
+    static final String KARMADA_API_ALLOWED_CIDR_CONTEXT = "karmadaApiAllowedCidr";
+    static final String OBSERVABILITY_CONTEXT = "observability";
+    static final String KARMADA_API_LATENCY_P99_MS_CONTEXT = "karmadaApiLatencyP99Ms";
+    static final String ETCD_FSYNC_P99_MS_CONTEXT = "etcdFsyncP99Ms";
+    static final String ETCD_COMMIT_P99_MS_CONTEXT = "etcdCommitP99Ms";
+    static final String ETCD_LEADER_CHANGES_CONTEXT = "etcdLeaderChanges";
+    static final String LOGGING_PROFILE_CONTEXT = "loggingProfile";
+    static final String LOG_RETENTION_DAYS_CONTEXT = "logRetentionDays";
+    static final String FLOW_LOG_AGGREGATION_MINUTES_CONTEXT = "flowLogAggregationMinutes";
+    static final String SEARCH_RESOURCES_CONTEXT = "searchResources";
+    static final String SEARCH_BACKEND_ADDRESSES_CONTEXT = "searchBackendAddresses";
+    static final String SEARCH_BACKEND_SECRET_CONTEXT = "searchBackendSecret";
+    static final String POD_NETWORKING_CONTEXT = "podNetworking";
+    static final String POD_CIDR_CONTEXT = "podCidr";
+    static final String MAX_PODS_CONTEXT = "maxPods";
+    static final String NODE_IMAGE_CONTEXT = "nodeImage";
+    static final String NODE_ROOT_VOLUME_THROUGHPUT_CONTEXT = "nodeRootVolumeThroughput";
+    static final String WARM_POOL_SIZE_CONTEXT = "warmPoolSize";
+    static final String WARM_POOL_STATE_CONTEXT = "warmPoolState";
+    static final String MANIFEST_BATCHES_CONTEXT = "manifestBatches";
+    static final String KUBECTL_MEMORY_CONTEXT = "kubectlMemory";
+    static final String IMAGE_CACHE_CONTEXT = "imageCache";
+    static final String DOCKER_HUB_SECRET_ARN_CONTEXT = "dockerHubSecretArn";
+    static final String PRE_PULL_IMAGES_CONTEXT = "prePullImages";
+    static final String MEMBER_AUTOSCALING_CONTEXT = "memberAutoscaling";
+    static final String MEMBER_MAX_NODES_NUM_CONTEXT = "memberMaxNodesNum";
+    static final String WEIGHT_CONTROLLER_CONTEXT = "weightController";
+    static final String WEIGHT_HYSTERESIS_CONTEXT = "weightHysteresis";
+    static final String WEIGHT_MAX_STEP_CONTEXT = "weightMaxStep";
+    static final String WEIGHT_UPDATE_INTERVAL_CONTEXT = "weightUpdateInterval";
+    static final String WEIGHT_LATENCY_PROBE_CONTEXT = "weightLatencyProbe";
+    static final String MEMBER_SPOT_CONTEXT = "memberSpot";
+    static final String MEMBER_SPOT_INSTANCE_TYPES_CONTEXT = "memberSpotInstanceTypes";
+    static final String MEMBER_ON_DEMAND_BASE_CONTEXT = "memberOnDemandBase";
+    static final String FAILOVER_SECONDS_CONTEXT = "failoverSeconds";
+
     static final String FLOW_LOG_CLOUD_WATCH = "FlowLogCloudWatch";
+    static final String FLOW_LOG_S3 = "FlowLogS3";
+    static final String FLOW_LOG_GROUP = "FlowLogGroup";
+    static final String FLOW_LOG_PREFIX = "flow-logs/";
+    static final int FLOW_LOG_AGGREGATION_MINUTES = 10;
+    static final String CLUSTER_LOG_GROUP = "ClusterLogGroup";
+    static final int LOG_RETENTION_DAYS = 30;
+    static final List<Integer> LOG_RETENTION_DAYS_LIST = Arrays.asList(1, 3, 5, 7, 14, 30, 60, 90, 120, 150, 180, 365, 400,
+            545, 731, 1096, 1827, 2192, 2557, 2922, 3288, 3653);
+    // apiVersion/kind of the resources karmada-search caches from every member cluster
+    static final List<String> SEARCH_RESOURCES = Arrays.asList("apps/v1/Deployment", "v1/Pod");
+    static final String SEARCH_RESOURCE_PATTERN = "([a-z0-9.-]+/)?v[0-9][a-z0-9]*/[A-Z][A-Za-z0-9]*";
+    static final String LOG_ARCHIVE = "LogArchive";
+    static final String LOG_ARCHIVE_BUCKET = "LogArchiveBucket";
+    static final String LOG_ARCHIVE_DELIVERY_ROLE = "LogArchiveDeliveryRole";
+    static final String LOG_ARCHIVE_SUBSCRIPTION_ROLE = "LogArchiveSubscriptionRole";
+    static final String AUDIT_LOG_DELIVERY_STREAM = "AuditLogDeliveryStream";
+    static final String AUDIT_LOG_SUBSCRIPTION = "AuditLogSubscription";
+    static final String AUDIT_LOG_FILTER_PATTERN = "{ $.kind = \"Event\" }";
+    static final String AUDIT_LOG_PREFIX = "audit/";
+    static final String HOURLY_PARTITIONS = "year=!{timestamp:yyyy}/month=!{timestamp:MM}/day=!{timestamp:dd}/hour=!{timestamp:HH}/";
+    static final int AUDIT_LOG_BUFFER_SECONDS = 300;
+    static final int AUDIT_LOG_BUFFER_MB = 128;
+    static final int LOG_ARCHIVE_INFREQUENT_ACCESS_DAYS = 30;
+    static final String TOPOLOGY_PARAMETER = "TopologyParameter";
+    static final String TOPOLOGY_PARAMETER_NAME = "/karmada/topology";
+    static final String VPC_ID_OUTPUT = "VpcId";
+    static final String PUBLIC_SUBNET_OUTPUT = "PublicSubnet";
+    static final String PRIVATE_SUBNET_OUTPUT = "PrivateSubnet";
+    static final String S3_GATEWAY_ENDPOINT = "S3GatewayEndpoint";
+    static final String INTERFACE_ENDPOINT = "InterfaceEndpoint";
 
     //Suppressions
     static final String AWS_SOLUTIONS_IAM_4 = "AwsSolutions-IAM4";
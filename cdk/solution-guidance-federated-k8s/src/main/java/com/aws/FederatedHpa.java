@@ -0,0 +1,65 @@
+package com.aws;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// FederatedHPA scaling a propagated workload on the aggregated metrics of all member clusters, the propagation
+// policy of the workload divides the replicas it sets. Needs metrics-server in the member clusters, see memberAutoscaling
+public final class FederatedHpa extends KarmadaPolicy {
+
+    private Map<String, Object> scaleTargetRef;
+    private int minReplicas = 1;
+    private int maxReplicas;
+    private int cpuUtilization;
+
+    private FederatedHpa(String name, String namespace) {
+        super("autoscaling.karmada.io/v1alpha1", "FederatedHPA", name, namespace);
+    }
+
+    public static FederatedHpa namespaced(String name, String namespace) {
+        return new FederatedHpa(name, namespace);
+    }
+
+    public FederatedHpa scaleTarget(String apiVersion, String kind, String name) {
+        this.scaleTargetRef = Map.of("apiVersion", apiVersion, "kind", kind, "name", name);
+        return this;
+    }
+
+    public FederatedHpa replicas(int minReplicas, int maxReplicas) {
+        this.minReplicas = minReplicas;
+        this.maxReplicas = maxReplicas;
+        return this;
+    }
+
+    // Average CPU utilization of the pods, in percent of their requests
+    public FederatedHpa cpuUtilization(int cpuUtilization) {
+        this.cpuUtilization = cpuUtilization;
+        return this;
+    }
+
+    @Override
+    void validate(List<String> errors) {
+        if (scaleTargetRef == null) {
+            errors.add("a scale target is required");
+        }
+        if (minReplicas < 1 || maxReplicas < minReplicas) {
+            errors.add("replicas must satisfy 1 <= min <= max, got " + minReplicas + " and " + maxReplicas);
+        }
+        if (cpuUtilization < 1) {
+            errors.add("cpu utilization must be positive");
+        }
+    }
+
+    @Override
+    Map<String, Object> spec() {
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("scaleTargetRef", scaleTargetRef);
+        spec.put("minReplicas", minReplicas);
+        spec.put("maxReplicas", maxReplicas);
+        spec.put("metrics", List.of(Map.of("type", "Resource", "resource", Map.of(
+                "name", "cpu",
+                "target", Map.of("type", "Utilization", "averageUtilization", cpuUtilization)))));
+        return spec;
+    }
+}
@@ -0,0 +1,118 @@
+package com.aws;
+
+import software.amazon.awscdk.Aws;
+import software.amazon.awscdk.services.ecr.CfnPullThroughCacheRule;
+import software.amazon.awscdk.services.iam.Effect;
+import software.amazon.awscdk.services.iam.IRole;
+import software.amazon.awscdk.services.iam.PolicyStatement;
+import software.constructs.Construct;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// ECR pull through cache rules of one region, so nodes pull public images from ECR in their own region instead of
+// the internet. Docker Hub needs credentials, a Secrets Manager secret in the region of the rule, so its images are
+// only cached in the deployment region and member regions pull them from there
+final class ImageCache extends Construct {
+
+    // upstream registry host -> repository prefix of the cached images
+    private static final Map<String, String> UPSTREAM_PREFIXES = new LinkedHashMap<>(Map.of(
+            "registry.k8s.io", IMAGE_CACHE_K8S_PREFIX,
+            "public.ecr.aws", IMAGE_CACHE_ECR_PUBLIC_PREFIX,
+            "quay.io", IMAGE_CACHE_QUAY_PREFIX));
+
+    ImageCache(Construct scope, String id, String dockerHubSecretArn) {
+        super(scope, id);
+        UPSTREAM_PREFIXES.forEach((upstream, prefix) -> CfnPullThroughCacheRule.Builder.create(this, prefix)
+                .ecrRepositoryPrefix(prefix)
+                .upstreamRegistryUrl(upstream)
+                .build());
+        if (!dockerHubSecretArn.isEmpty()) {
+            CfnPullThroughCacheRule.Builder.create(this, IMAGE_CACHE_DOCKER_HUB_PREFIX)
+                    .ecrRepositoryPrefix(IMAGE_CACHE_DOCKER_HUB_PREFIX)
+                    .upstreamRegistry("docker-hub")
+                    .upstreamRegistryUrl("registry-1.docker.io")
+                    .credentialArn(dockerHubSecretArn)
+                    .build();
+        }
+    }
+
+    static String registry(String region) {
+        return Aws.ACCOUNT_ID + ".dkr.ecr." + region + "." + Aws.URL_SUFFIX;
+    }
+
+    // The cached image of the given image, or the image itself when its registry is not cached. An empty region
+    // leaves every image as it is, an empty Docker Hub region leaves Docker Hub images as they are
+    static String rewrite(String image, String region, String dockerHubRegion) {
+        if (region.isEmpty()) {
+            return image;
+        }
+        int slash = image.indexOf('/');
+        String host = slash > 0 ? image.substring(0, slash) : "";
+        // a first path segment without a dot, a colon or localhost is a Docker Hub namespace
+        boolean registryHost = host.contains(".") || host.contains(":") || host.equals("localhost");
+        if (registryHost && UPSTREAM_PREFIXES.containsKey(host)) {
+            return registry(region) + "/" + UPSTREAM_PREFIXES.get(host) + image.substring(slash);
+        }
+        if (dockerHubRegion.isEmpty() || registryHost && !host.equals("docker.io")) {
+            return image;
+        }
+        String repository = host.equals("docker.io") ? image.substring(slash + 1) : image;
+        return registry(dockerHubRegion) + "/" + IMAGE_CACHE_DOCKER_HUB_PREFIX + "/"
+                + (repository.contains("/") ? repository : "library/" + repository);
+    }
+
+    // The first pull of an image through a cache rule creates its repository and imports the image
+    static void grantPullThrough(IRole role) {
+        List<String> repositories = new ArrayList<>();
+        for (String prefix : Arrays.asList(IMAGE_CACHE_K8S_PREFIX, IMAGE_CACHE_ECR_PUBLIC_PREFIX, IMAGE_CACHE_QUAY_PREFIX, IMAGE_CACHE_DOCKER_HUB_PREFIX)) {
+            repositories.add("arn:" + Aws.PARTITION + ":ecr:*:" + Aws.ACCOUNT_ID + ":repository/" + prefix + "/*");
+        }
+        role.addToPrincipalPolicy(PolicyStatement.Builder.create()
+                .effect(Effect.ALLOW)
+                .actions(IMAGE_CACHE_PULL_POLICIES_LIST)
+                .resources(repositories)
+                .build());
+    }
+
+    // Keeps the hot images on every node: an init container per image runs a static busybox copied from the first
+    // one, which works for images without a shell, and a pause container keeps the pod and its images in use
+    static Map<String, Object> prePullDaemonSet(List<String> images, String region, String dockerHubRegion) {
+        Map<String, Object> volumeMount = Map.of("name", PRE_PULL, "mountPath", "/" + PRE_PULL);
+        Map<String, Object> resources = Map.of("requests", Map.of("cpu", "1m", "memory", "8Mi"), "limits", Map.of("memory", "32Mi"));
+        List<Map<String, Object>> initContainers = new ArrayList<>();
+        initContainers.add(Map.of("name", "busybox",
+                "image", rewrite(PRE_PULL_BUSYBOX_IMAGE, region, dockerHubRegion),
+                "command", Arrays.asList("cp", "/bin/busybox", "/" + PRE_PULL + "/busybox"),
+                "resources", resources,
+                "volumeMounts", List.of(volumeMount)));
+        for (int i = 0; i < images.size(); i++) {
+            initContainers.add(Map.of("name", "image-" + i,
+                    "image", rewrite(images.get(i), region, dockerHubRegion),
+                    "command", Arrays.asList("/" + PRE_PULL + "/busybox", "true"),
+                    "resources", resources,
+                    "volumeMounts", List.of(volumeMount)));
+        }
+        Map<String, Object> labels = Map.of("app", PRE_PULL);
+        return Map.of(
+                "apiVersion", "apps/v1",
+                "kind", "DaemonSet",
+                "metadata", Map.of("name", PRE_PULL, "namespace", "kube-system"),
+                "spec", Map.of(
+                        "selector", Map.of("matchLabels", labels),
+                        "template", Map.of(
+                                "metadata", Map.of("labels", labels),
+                                "spec", Map.of(
+                                        "initContainers", initContainers,
+                                        "containers", List.of(Map.of("name", "pause",
+                                                "image", rewrite(PRE_PULL_PAUSE_IMAGE, region, dockerHubRegion),
+                                                "resources", resources)),
+                                        "volumes", List.of(Map.of("name", PRE_PULL, "emptyDir", Map.of())),
+                                        "tolerations", List.of(Map.of("operator", "Exists"))))));
+    }
+}
@@ -0,0 +1,209 @@
+package com.aws;
+
+import io.github.cdklabs.cdknag.NagPackSuppression;
+import io.github.cdklabs.cdknag.NagSuppressions;
+import software.amazon.awscdk.Duration;
+import software.amazon.awscdk.Fn;
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.services.ec2.CfnEIP;
+import software.amazon.awscdk.services.ec2.ISubnet;
+import software.amazon.awscdk.services.ec2.Peer;
+import software.amazon.awscdk.services.ec2.Port;
+import software.amazon.awscdk.services.ec2.SecurityGroup;
+import software.amazon.awscdk.services.ec2.SecurityGroupProps;
+import software.amazon.awscdk.services.ec2.SubnetSelection;
+import software.amazon.awscdk.services.ec2.SubnetType;
+import software.amazon.awscdk.services.ec2.Vpc;
+import software.amazon.awscdk.services.eks.Cluster;
+import software.amazon.awscdk.services.eks.HelmChart;
+import software.amazon.awscdk.services.eks.HelmChartOptions;
+import software.amazon.awscdk.services.eks.KubernetesManifest;
+import software.amazon.awscdk.services.eks.ServiceAccount;
+import software.amazon.awscdk.services.eks.ServiceAccountOptions;
+import software.amazon.awscdk.services.elasticloadbalancingv2.BaseNetworkListenerProps;
+import software.amazon.awscdk.services.elasticloadbalancingv2.CfnLoadBalancer;
+import software.amazon.awscdk.services.elasticloadbalancingv2.HealthCheck;
+import software.amazon.awscdk.services.elasticloadbalancingv2.NetworkLoadBalancer;
+import software.amazon.awscdk.services.elasticloadbalancingv2.NetworkTargetGroup;
+import software.amazon.awscdk.services.elasticloadbalancingv2.Protocol;
+import software.amazon.awscdk.services.elasticloadbalancingv2.TargetType;
+import software.amazon.awscdk.services.iam.Effect;
+import software.amazon.awscdk.services.iam.PolicyStatement;
+import software.constructs.Construct;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.aws.Constants.*;
+
+// Internet facing NLB in front of the Karmada api server with an Elastic IP per availability zone. The AWS Load Balancer
+// Controller binds the karmada-apiserver service endpoints to the target group, so traffic reaches the pods without a kube-proxy hop
+public class KarmadaApiLoadBalancer extends Construct {
+
+    private final NetworkLoadBalancer loadBalancer;
+    private final NetworkTargetGroup targetGroup;
+    private final List<CfnEIP> addresses = new ArrayList<>();
+    private final KubernetesManifest namespace;
+
+    public KarmadaApiLoadBalancer(Construct scope, String id, Cluster cluster, Vpc vpc, SecurityGroup clusterSecurityGroup, String allowedCidr) {
+        super(scope, id);
+
+        SecurityGroup securityGroup = createSecurityGroup(vpc, allowedCidr);
+        clusterSecurityGroup.addIngressRule(Peer.securityGroupId(securityGroup.getSecurityGroupId()), Port.tcp(KARMADA_API_PORT), SG_DESCRIPTION);
+        this.loadBalancer = createLoadBalancer(vpc, securityGroup);
+        this.targetGroup = createTargetGroup(vpc);
+        loadBalancer.addListener(KARMADA_API_LISTENER, BaseNetworkListenerProps.builder()
+                .port(TCP_PORT)
+                .protocol(Protocol.TCP)
+                .defaultTargetGroups(Arrays.asList(targetGroup))
+                .build());
+
+        this.namespace = cluster.addManifest(KARMADA_NAMESPACE, Map.of(
+                "apiVersion", "v1",
+                "kind", "Namespace",
+                // Api server pods only turn ready once they are healthy targets, so rolling updates never drop the last one
+                "metadata", Map.of("name", KARMADA_NAMESPACE, "labels", Map.of(POD_READINESS_GATE_LABEL, "enabled"))));
+        HelmChart controllerChart = createControllerChart(cluster, vpc);
+        KubernetesManifest targetGroupBinding = cluster.addManifest(KARMADA_API_TARGET_GROUP, Map.of(
+                "apiVersion", "elbv2.k8s.aws/v1beta1",
+                "kind", "TargetGroupBinding",
+                "metadata", Map.of("name", KARMADA_APISERVER, "namespace", KARMADA_NAMESPACE),
+                // The service is created later by karmada init, the controller binds it as soon as it exists
+                "spec", Map.of(
+                        "serviceRef", Map.of("name", KARMADA_APISERVER, "port", KARMADA_API_PORT),
+                        "targetGroupARN", targetGroup.getTargetGroupArn(),
+                        "targetType", "ip")));
+        targetGroupBinding.getNode().addDependency(namespace);
+        targetGroupBinding.getNode().addDependency(controllerChart);
+    }
+
+    public NetworkLoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public NetworkTargetGroup getTargetGroup() {
+        return targetGroup;
+    }
+
+    public KubernetesManifest getNamespace() {
+        return namespace;
+    }
+
+    public String getDnsName() {
+        return loadBalancer.getLoadBalancerDnsName();
+    }
+
+    // Comma separated, one per availability zone
+    public String getAddresses() {
+        return Fn.join(",", addresses.stream().map(CfnEIP::getAttrPublicIp).collect(Collectors.toList()));
+    }
+
+    private SecurityGroup createSecurityGroup(Vpc vpc, String allowedCidr) {
+        SecurityGroup securityGroup = new SecurityGroup(this, KARMADA_API_LOAD_BALANCER_SG, SecurityGroupProps.builder()
+                .vpc(vpc)
+                .securityGroupName(KARMADA_API_LOAD_BALANCER_SG)
+                .allowAllOutbound(Boolean.TRUE)
+                .build());
+        securityGroup.addIngressRule(Peer.ipv4(allowedCidr), Port.tcp(TCP_PORT), SG_DESCRIPTION);
+        NagSuppressions.addResourceSuppressions(securityGroup,
+                Arrays.asList(NagPackSuppression.builder()
+                        .id(AWS_SOLUTIONS_EC_23)
+                        .reason(AWS_SOLUTIONS_EC2_23_SUPPRESSION)
+                        .build()));
+        return securityGroup;
+    }
+
+    private NetworkLoadBalancer createLoadBalancer(Vpc vpc, SecurityGroup securityGroup) {
+        NetworkLoadBalancer networkLoadBalancer = NetworkLoadBalancer.Builder.create(this, KARMADA_API_LOAD_BALANCER)
+                .vpc(vpc)
+                .loadBalancerName(KARMADA_API_LOAD_BALANCER_NAME)
+                .internetFacing(Boolean.TRUE)
+                .crossZoneEnabled(Boolean.TRUE)
+                .securityGroups(Arrays.asList(securityGroup))
+                .vpcSubnets(SubnetSelection.builder().subnetType(SubnetType.PUBLIC).build())
+                .build();
+
+        // Subnet mappings instead of subnets, to pin an Elastic IP in every availability zone
+        List<Object> subnetMappings = new ArrayList<>();
+        List<ISubnet> subnets = vpc.selectSubnets(SubnetSelection.builder().subnetType(SubnetType.PUBLIC).build()).getSubnets();
+        for (int i = 0; i < subnets.size(); i++) {
+            CfnEIP address = CfnEIP.Builder.create(this, KARMADA_API_ADDRESS + (i + 1))
+                    .domain("vpc")
+                    .build();
+            addresses.add(address);
+            subnetMappings.add(CfnLoadBalancer.SubnetMappingProperty.builder()
+                    .subnetId(subnets.get(i).getSubnetId())
+                    .allocationId(address.getAttrAllocationId())
+                    .build());
+        }
+        CfnLoadBalancer cfnLoadBalancer = (CfnLoadBalancer) networkLoadBalancer.getNode().getDefaultChild();
+        cfnLoadBalancer.addPropertyDeletionOverride("Subnets");
+        cfnLoadBalancer.setSubnetMappings(subnetMappings);
+
+        NagSuppressions.addResourceSuppressions(networkLoadBalancer,
+                Arrays.asList(NagPackSuppression.builder()
+                        .id("AwsSolutions-ELB2")
+                        .reason("The Karmada api server logs every request in its audit log")
+                        .build()));
+        return networkLoadBalancer;
+    }
+
+    private NetworkTargetGroup createTargetGroup(Vpc vpc) {
+        NetworkTargetGroup networkTargetGroup = NetworkTargetGroup.Builder.create(this, KARMADA_API_TARGET_GROUP)
+                .vpc(vpc)
+                .port(KARMADA_API_PORT)
+                .protocol(Protocol.TCP)
+                .targetType(TargetType.IP)
+                // Short health checks and deregistration take a failed or replaced api server out within seconds
+                .healthCheck(HealthCheck.builder()
+                        .protocol(Protocol.TCP)
+                        .interval(Duration.seconds(KARMADA_API_HEALTH_CHECK_INTERVAL))
+                        .healthyThresholdCount(KARMADA_API_HEALTH_CHECK_THRESHOLD)
+                        .unhealthyThresholdCount(KARMADA_API_HEALTH_CHECK_THRESHOLD)
+                        .build())
+                .deregistrationDelay(Duration.seconds(KARMADA_API_DEREGISTRATION_DELAY))
+                .build();
+        // Long running watches are closed with the deregistered target and reconnect to a healthy one
+        networkTargetGroup.setAttribute("deregistration_delay.connection_termination.enabled", "true");
+        return networkTargetGroup;
+    }
+
+    private HelmChart createControllerChart(Cluster cluster, Vpc vpc) {
+        ServiceAccount serviceAccount = cluster.addServiceAccount(LOAD_BALANCER_CONTROLLER_SERVICE_ACCOUNT, ServiceAccountOptions.builder()
+                .name(LOAD_BALANCER_CONTROLLER)
+                .namespace(LOAD_BALANCER_CONTROLLER_NAMESPACE)
+                .build());
+        serviceAccount.addToPrincipalPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(ALL_RESOURCES_LIST)
+                .actions(LOAD_BALANCER_CONTROLLER_DESCRIBE_POLICIES_LIST)
+                .build());
+        // Target group bindings are the only load balancers this controller manages
+        serviceAccount.addToPrincipalPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(targetGroup.getTargetGroupArn()))
+                .actions(LOAD_BALANCER_CONTROLLER_TARGET_POLICIES_LIST)
+                .build());
+
+        HelmChart chart = cluster.addHelmChart(LOAD_BALANCER_CONTROLLER, HelmChartOptions.builder()
+                .chart(LOAD_BALANCER_CONTROLLER)
+                .repository(LOAD_BALANCER_CONTROLLER_REPOSITORY)
+                .version(LOAD_BALANCER_CONTROLLER_VERSION)
+                .namespace(LOAD_BALANCER_CONTROLLER_NAMESPACE)
+                .values(Map.of(
+                        "clusterName", cluster.getClusterName(),
+                        "region", Stack.of(this).getRegion(),
+                        "vpcId", vpc.getVpcId(),
+                        "serviceAccount", Map.of("create", Boolean.FALSE, "name", LOAD_BALANCER_CONTROLLER),
+                        // Services are not load balanced by this controller, its webhook must not gate the karmada init services
+                        "enableServiceMutatorWebhook", Boolean.FALSE))
+                .build());
+        chart.getNode().addDependency(serviceAccount);
+        return chart;
+    }
+}
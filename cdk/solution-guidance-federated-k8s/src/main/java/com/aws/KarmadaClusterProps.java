@@ -1,13 +1,62 @@
 package com.aws;
 
 import software.amazon.awscdk.NestedStackProps;
+import software.amazon.awscdk.services.autoscaling.PoolState;
 import software.amazon.awscdk.services.ec2.Vpc;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
 public class KarmadaClusterProps implements NestedStackProps {
 
     private Vpc vpc;
     private String region;
     private String accountId;
+    private CapacityMode capacityMode = CapacityMode.FIXED_ASG;
+    private List<String> karpenterInstanceFamilies = KARPENTER_INSTANCE_FAMILIES;
+    private List<String> karpenterCapacityTypes = KARPENTER_CAPACITY_TYPES;
+    private boolean etcdNodeGroup;
+    private String etcdInstanceType = ETCD_INSTANCE_TYPE;
+    private int etcdNodesNum = ETCD_NODES_NUM;
+    private String etcdVolumeType = ETCD_VOLUME_TYPE;
+    private int etcdVolumeIops = ETCD_VOLUME_IOPS;
+    private int etcdVolumeThroughput = ETCD_VOLUME_THROUGHPUT;
+    private String kubernetesVersion = KUBERNETES_VERSION;
+    private String vpcCidr = KARMADA_CIDR_BLOCK;
+    private String nodeInstanceType = NODE_INSTANCE_TYPE;
+    private int nodesNum = KARMADA_NODES_NUM;
+    private int nodeRootVolumeSize = NODE_ROOT_VOLUME_SIZE;
+    private String managementHostRoleName;
+    private RegistrationMode registrationMode = RegistrationMode.SCRIPT;
+    private List<String> memberRegions = Collections.emptyList();
+    private String karmadaApiAllowedCidr = KARMADA_API_ALLOWED_CIDR;
+    private boolean observability;
+    private int karmadaApiLatencyP99Ms = KARMADA_API_LATENCY_P99_MS;
+    private int etcdFsyncP99Ms = ETCD_FSYNC_P99_MS;
+    private int etcdCommitP99Ms = ETCD_COMMIT_P99_MS;
+    private int etcdLeaderChanges = ETCD_LEADER_CHANGES;
+    private LoggingProfile loggingProfile = LoggingProfile.FULL;
+    private int logRetentionDays = LOG_RETENTION_DAYS;
+    private String searchBackendSecret = "";
+    private PodNetworking podNetworking = PodNetworking.SECONDARY_IP;
+    private int maxPods = MAX_PODS;
+    private Map<String, String> podSubnets = Collections.emptyMap();
+    private NodeImage nodeImage = NodeImage.AMAZON_LINUX_2;
+    private int nodeRootVolumeThroughput = NODE_ROOT_VOLUME_THROUGHPUT;
+    private int warmPoolSize;
+    private PoolState warmPoolState = PoolState.STOPPED;
+    private List<Map<String, Object>> karmadaManifests = Collections.emptyList();
+    private int manifestBatches = MANIFEST_BATCHES;
+    private int kubectlMemory = KUBECTL_MEMORY;
+    private boolean imageCache;
+    private boolean weightController;
+    private int weightHysteresis = WEIGHT_HYSTERESIS;
+    private int weightMaxStep = WEIGHT_MAX_STEP;
+    private int weightUpdateInterval = WEIGHT_UPDATE_INTERVAL;
+    private boolean weightLatencyProbe;
 
     public KarmadaClusterProps vpc(Vpc vpc) {
         this.vpc = vpc;
@@ -24,6 +73,216 @@ public class KarmadaClusterProps implements NestedStackProps {
         return this;
     }
 
+    public KarmadaClusterProps capacityMode(CapacityMode capacityMode) {
+        this.capacityMode = capacityMode;
+        return this;
+    }
+
+    public KarmadaClusterProps karpenterInstanceFamilies(List<String> karpenterInstanceFamilies) {
+        this.karpenterInstanceFamilies = karpenterInstanceFamilies;
+        return this;
+    }
+
+    public KarmadaClusterProps karpenterCapacityTypes(List<String> karpenterCapacityTypes) {
+        this.karpenterCapacityTypes = karpenterCapacityTypes;
+        return this;
+    }
+
+    public KarmadaClusterProps etcdNodeGroup(boolean etcdNodeGroup) {
+        this.etcdNodeGroup = etcdNodeGroup;
+        return this;
+    }
+
+    public KarmadaClusterProps etcdInstanceType(String etcdInstanceType) {
+        this.etcdInstanceType = etcdInstanceType;
+        return this;
+    }
+
+    public KarmadaClusterProps etcdNodesNum(int etcdNodesNum) {
+        this.etcdNodesNum = etcdNodesNum;
+        return this;
+    }
+
+    public KarmadaClusterProps etcdVolumeType(String etcdVolumeType) {
+        this.etcdVolumeType = etcdVolumeType;
+        return this;
+    }
+
+    public KarmadaClusterProps etcdVolumeIops(int etcdVolumeIops) {
+        this.etcdVolumeIops = etcdVolumeIops;
+        return this;
+    }
+
+    public KarmadaClusterProps etcdVolumeThroughput(int etcdVolumeThroughput) {
+        this.etcdVolumeThroughput = etcdVolumeThroughput;
+        return this;
+    }
+
+    public KarmadaClusterProps kubernetesVersion(String kubernetesVersion) {
+        this.kubernetesVersion = kubernetesVersion;
+        return this;
+    }
+
+    public KarmadaClusterProps vpcCidr(String vpcCidr) {
+        this.vpcCidr = vpcCidr;
+        return this;
+    }
+
+    public KarmadaClusterProps nodeInstanceType(String nodeInstanceType) {
+        this.nodeInstanceType = nodeInstanceType;
+        return this;
+    }
+
+    public KarmadaClusterProps nodesNum(int nodesNum) {
+        this.nodesNum = nodesNum;
+        return this;
+    }
+
+    public KarmadaClusterProps nodeRootVolumeSize(int nodeRootVolumeSize) {
+        this.nodeRootVolumeSize = nodeRootVolumeSize;
+        return this;
+    }
+
+    public KarmadaClusterProps managementHostRoleName(String managementHostRoleName) {
+        this.managementHostRoleName = managementHostRoleName;
+        return this;
+    }
+
+    public KarmadaClusterProps memberRegions(List<String> memberRegions) {
+        this.memberRegions = memberRegions;
+        return this;
+    }
+
+    public KarmadaClusterProps registrationMode(RegistrationMode registrationMode) {
+        this.registrationMode = registrationMode;
+        return this;
+    }
+
+    public KarmadaClusterProps karmadaApiAllowedCidr(String karmadaApiAllowedCidr) {
+        this.karmadaApiAllowedCidr = karmadaApiAllowedCidr;
+        return this;
+    }
+
+    public KarmadaClusterProps observability(boolean observability) {
+        this.observability = observability;
+        return this;
+    }
+
+    public KarmadaClusterProps karmadaApiLatencyP99Ms(int karmadaApiLatencyP99Ms) {
+        this.karmadaApiLatencyP99Ms = karmadaApiLatencyP99Ms;
+        return this;
+    }
+
+    public KarmadaClusterProps etcdFsyncP99Ms(int etcdFsyncP99Ms) {
+        this.etcdFsyncP99Ms = etcdFsyncP99Ms;
+        return this;
+    }
+
+    public KarmadaClusterProps etcdCommitP99Ms(int etcdCommitP99Ms) {
+        this.etcdCommitP99Ms = etcdCommitP99Ms;
+        return this;
+    }
+
+    public KarmadaClusterProps etcdLeaderChanges(int etcdLeaderChanges) {
+        this.etcdLeaderChanges = etcdLeaderChanges;
+        return this;
+    }
+
+    public KarmadaClusterProps loggingProfile(LoggingProfile loggingProfile) {
+        this.loggingProfile = loggingProfile;
+        return this;
+    }
+
+    public KarmadaClusterProps logRetentionDays(int logRetentionDays) {
+        this.logRetentionDays = logRetentionDays;
+        return this;
+    }
+
+    public KarmadaClusterProps searchBackendSecret(String searchBackendSecret) {
+        this.searchBackendSecret = searchBackendSecret;
+        return this;
+    }
+
+    public KarmadaClusterProps podNetworking(PodNetworking podNetworking) {
+        this.podNetworking = podNetworking;
+        return this;
+    }
+
+    public KarmadaClusterProps maxPods(int maxPods) {
+        this.maxPods = maxPods;
+        return this;
+    }
+
+    public KarmadaClusterProps podSubnets(Map<String, String> podSubnets) {
+        this.podSubnets = podSubnets;
+        return this;
+    }
+
+    public KarmadaClusterProps nodeImage(NodeImage nodeImage) {
+        this.nodeImage = nodeImage;
+        return this;
+    }
+
+    public KarmadaClusterProps nodeRootVolumeThroughput(int nodeRootVolumeThroughput) {
+        this.nodeRootVolumeThroughput = nodeRootVolumeThroughput;
+        return this;
+    }
+
+    public KarmadaClusterProps warmPoolSize(int warmPoolSize) {
+        this.warmPoolSize = warmPoolSize;
+        return this;
+    }
+
+    public KarmadaClusterProps warmPoolState(PoolState warmPoolState) {
+        this.warmPoolState = warmPoolState;
+        return this;
+    }
+
+    public KarmadaClusterProps karmadaManifests(List<Map<String, Object>> karmadaManifests) {
+        this.karmadaManifests = karmadaManifests;
+        return this;
+    }
+
+    public KarmadaClusterProps manifestBatches(int manifestBatches) {
+        this.manifestBatches = manifestBatches;
+        return this;
+    }
+
+    public KarmadaClusterProps kubectlMemory(int kubectlMemory) {
+        this.kubectlMemory = kubectlMemory;
+        return this;
+    }
+
+    public KarmadaClusterProps imageCache(boolean imageCache) {
+        this.imageCache = imageCache;
+        return this;
+    }
+
+    public KarmadaClusterProps weightController(boolean weightController) {
+        this.weightController = weightController;
+        return this;
+    }
+
+    public KarmadaClusterProps weightHysteresis(int weightHysteresis) {
+        this.weightHysteresis = weightHysteresis;
+        return this;
+    }
+
+    public KarmadaClusterProps weightMaxStep(int weightMaxStep) {
+        this.weightMaxStep = weightMaxStep;
+        return this;
+    }
+
+    public KarmadaClusterProps weightUpdateInterval(int weightUpdateInterval) {
+        this.weightUpdateInterval = weightUpdateInterval;
+        return this;
+    }
+
+    public KarmadaClusterProps weightLatencyProbe(boolean weightLatencyProbe) {
+        this.weightLatencyProbe = weightLatencyProbe;
+        return this;
+    }
+
     public Vpc getVpc() {
         return vpc;
     }
@@ -35,4 +294,172 @@ public class KarmadaClusterProps implements NestedStackProps {
     public String getAccountId() {
         return accountId;
     }
+
+    public CapacityMode getCapacityMode() {
+        return capacityMode;
+    }
+
+    public List<String> getKarpenterInstanceFamilies() {
+        return karpenterInstanceFamilies;
+    }
+
+    public List<String> getKarpenterCapacityTypes() {
+        return karpenterCapacityTypes;
+    }
+
+    public boolean isEtcdNodeGroup() {
+        return etcdNodeGroup;
+    }
+
+    public String getEtcdInstanceType() {
+        return etcdInstanceType;
+    }
+
+    public int getEtcdNodesNum() {
+        return etcdNodesNum;
+    }
+
+    public String getEtcdVolumeType() {
+        return etcdVolumeType;
+    }
+
+    public int getEtcdVolumeIops() {
+        return etcdVolumeIops;
+    }
+
+    public int getEtcdVolumeThroughput() {
+        return etcdVolumeThroughput;
+    }
+
+    public String getKubernetesVersion() {
+        return kubernetesVersion;
+    }
+
+    public String getVpcCidr() {
+        return vpcCidr;
+    }
+
+    public String getNodeInstanceType() {
+        return nodeInstanceType;
+    }
+
+    public int getNodesNum() {
+        return nodesNum;
+    }
+
+    public int getNodeRootVolumeSize() {
+        return nodeRootVolumeSize;
+    }
+
+    public String getManagementHostRoleName() {
+        return managementHostRoleName;
+    }
+
+    public List<String> getMemberRegions() {
+        return memberRegions;
+    }
+
+    public RegistrationMode getRegistrationMode() {
+        return registrationMode;
+    }
+
+    public String getKarmadaApiAllowedCidr() {
+        return karmadaApiAllowedCidr;
+    }
+
+    public boolean isObservability() {
+        return observability;
+    }
+
+    public int getKarmadaApiLatencyP99Ms() {
+        return karmadaApiLatencyP99Ms;
+    }
+
+    public int getEtcdFsyncP99Ms() {
+        return etcdFsyncP99Ms;
+    }
+
+    public int getEtcdCommitP99Ms() {
+        return etcdCommitP99Ms;
+    }
+
+    public int getEtcdLeaderChanges() {
+        return etcdLeaderChanges;
+    }
+
+    public LoggingProfile getLoggingProfile() {
+        return loggingProfile;
+    }
+
+    public int getLogRetentionDays() {
+        return logRetentionDays;
+    }
+
+    public String getSearchBackendSecret() {
+        return searchBackendSecret;
+    }
+
+    public PodNetworking getPodNetworking() {
+        return podNetworking;
+    }
+
+    public int getMaxPods() {
+        return maxPods;
+    }
+
+    public Map<String, String> getPodSubnets() {
+        return podSubnets;
+    }
+
+    public NodeImage getNodeImage() {
+        return nodeImage;
+    }
+
+    public int getNodeRootVolumeThroughput() {
+        return nodeRootVolumeThroughput;
+    }
+
+    public int getWarmPoolSize() {
+        return warmPoolSize;
+    }
+
+    public PoolState getWarmPoolState() {
+        return warmPoolState;
+    }
+
+    public List<Map<String, Object>> getKarmadaManifests() {
+        return karmadaManifests;
+    }
+
+    public int getManifestBatches() {
+        return manifestBatches;
+    }
+
+    public int getKubectlMemory() {
+        return kubectlMemory;
+    }
+
+    public boolean isImageCache() {
+        return imageCache;
+    }
+
+    public boolean isWeightController() {
+        return weightController;
+    }
+
+    public int getWeightHysteresis() {
+        return weightHysteresis;
+    }
+
+    public int getWeightMaxStep() {
+        return weightMaxStep;
+    }
+
+    public int getWeightUpdateInterval() {
+        return weightUpdateInterval;
+    }
+
+    public boolean isWeightLatencyProbe() {
+        return weightLatencyProbe;
+    }
 }
@@ -2,23 +2,24 @@ package com.aws;
 
 import io.github.cdklabs.cdknag.NagPackSuppression;
 import io.github.cdklabs.cdknag.NagSuppressions;
-import org.jetbrains.annotations.NotNull;
+import software.amazon.awscdk.ArnComponents;
+import software.amazon.awscdk.ArnFormat;
+import software.amazon.awscdk.CfnOutput;
 import software.amazon.awscdk.NestedStack;
-import software.amazon.awscdk.lambdalayer.kubectl.KubectlLayer;
+import software.amazon.awscdk.Size;
 import software.amazon.awscdk.services.autoscaling.AutoScalingGroup;
-import software.amazon.awscdk.services.autoscaling.BlockDevice;
-import software.amazon.awscdk.services.autoscaling.BlockDeviceVolume;
-import software.amazon.awscdk.services.autoscaling.EbsDeviceVolumeType;
 import software.amazon.awscdk.services.autoscaling.UpdatePolicy;
-import software.amazon.awscdk.services.autoscaling.EbsDeviceOptions;
 import software.amazon.awscdk.services.ec2.*;
-import software.amazon.awscdk.services.eks.OpenIdConnectProvider;
 import software.amazon.awscdk.services.eks.*;
 import software.amazon.awscdk.services.iam.*;
+import software.amazon.awscdk.services.logs.LogRetention;
+import software.amazon.awscdk.services.secretsmanager.ReplicaRegion;
+import software.amazon.awscdk.services.secretsmanager.Secret;
 import software.constructs.Construct;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.aws.Constants.*;
 
@@ -27,6 +28,11 @@ public class KarmadaClusterStack extends NestedStack {
     private Cluster karmadaCluster;
     private Role managementHostRole;
     private String mastersRoleARN;
+    private String etcdNodeSelector;
+    private String etcdStorageClassName;
+    private String karmadaApiSecretName = "";
+    private KarmadaApiLoadBalancer karmadaApiLoadBalancer;
+    private KarmadaObservability karmadaObservability;
 
     public KarmadaClusterStack(Construct scope, String id) {
         this(scope, id, null);
@@ -37,9 +43,37 @@ public class KarmadaClusterStack extends NestedStack {
 
         Role mastersRole = createMastersRole();
         this.mastersRoleARN = mastersRole.getRoleArn();
-        final SecurityGroup securityGroup = createSecurityGroup(props.getVpc());
-        this.karmadaCluster = createEKSCluster(KARMADA_CLUSTER, props.getVpc(), securityGroup, mastersRole);
-        this.managementHostRole = createManagementHostRole(karmadaCluster, mastersRole, props.getRegion(), props.getAccountId());
+        final SecurityGroup securityGroup = createSecurityGroup(props.getVpc(), props.getVpcCidr());
+        this.karmadaCluster = createEKSCluster(KARMADA_CLUSTER, props, securityGroup, mastersRole);
+        this.karmadaApiLoadBalancer = createKarmadaApiLoadBalancer(karmadaCluster, props, securityGroup);
+        if (props.isObservability()) {
+            this.karmadaObservability = new KarmadaObservability(this, KARMADA_OBSERVABILITY, karmadaCluster,
+                    karmadaApiLoadBalancer.getNamespace(), props);
+        }
+        this.etcdNodeSelector = getEtcdNodeSelector(props);
+        this.etcdStorageClassName = props.isEtcdNodeGroup() ? ETCD_STORAGE_CLASS : EBS_STORAGE_CLASS;
+        this.managementHostRole = createManagementHostRole(karmadaCluster, mastersRole, props);
+        grantTopologyAccess(managementHostRole, getRegion());
+        props.getMemberRegions().forEach(memberRegion -> grantMemberRegionAccess(managementHostRole, memberRegion));
+        if (!props.getSearchBackendSecret().isEmpty()) {
+            grantSearchBackendSecretAccess(managementHostRole, props.getSearchBackendSecret());
+        }
+        if (props.getRegistrationMode().isCustomResource()) {
+            createKarmadaApiSecret(managementHostRole, props);
+            this.karmadaApiSecretName = KARMADA_API_SECRET_NAME;
+        }
+        if (!props.getKarmadaManifests().isEmpty()) {
+            // Only the custom resource registration modes publish the api server credentials to CloudFormation
+            if (!props.getRegistrationMode().isCustomResource()) {
+                throw new IllegalArgumentException("Karmada policies need " + REGISTRATION_MODE_CONTEXT + " "
+                        + RegistrationMode.CUSTOM_RESOURCE + " or " + RegistrationMode.PULL);
+            }
+            new ManifestBatcher(props.getManifestBatches()).addAll(props.getKarmadaManifests()).applyToKarmada(this, KARMADA_MANIFESTS);
+        }
+        if (props.isWeightController()) {
+            new KarmadaWeightController(this, WEIGHT_CONTROLLER, props.getWeightHysteresis(), props.getWeightMaxStep(),
+                    props.getWeightUpdateInterval(), props.isWeightLatencyProbe());
+        }
 
         NagSuppressions.addStackSuppressions(this,
                 Arrays.asList(NagPackSuppression.builder().id("AwsSolutions-EKS1").reason("AwsSolutions-EKS1 Suppression").build()));
@@ -59,6 +93,35 @@ public class KarmadaClusterStack extends NestedStack {
         return mastersRoleARN;
     }
 
+    public String getEtcdNodeSelector() {
+        return etcdNodeSelector;
+    }
+
+    public String getKarmadaApiSecretName() {
+        return karmadaApiSecretName;
+    }
+
+    public KarmadaApiLoadBalancer getKarmadaApiLoadBalancer() {
+        return karmadaApiLoadBalancer;
+    }
+
+    public KarmadaObservability getKarmadaObservability() {
+        return karmadaObservability;
+    }
+
+    public String getEtcdStorageClassName() {
+        return etcdStorageClassName;
+    }
+
+    private static String getEtcdNodeSelector(KarmadaClusterProps props) {
+        // The etcd node group and the etcd NodePool of Karpenter label their nodes alike, the fixed node group keeps
+        // no label and Karpenter capacity may be spot or consolidated away
+        if (props.isEtcdNodeGroup() || props.getCapacityMode() == CapacityMode.KARPENTER) {
+            return ETCD_NODE_LABEL_KEY + "=" + ETCD_NODE_LABEL_VALUE;
+        }
+        return "";
+    }
+
     private Role createMastersRole() {
         Role mastersRole = Role.Builder.create(this, MASTERS_ROLE)
                 .assumedBy(new ServicePrincipal(EKS_AMAZONAWS_COM))
@@ -73,17 +136,43 @@ public class KarmadaClusterStack extends NestedStack {
         return mastersRole;
     }
 
-    private Cluster createEKSCluster(final String clusterName, final Vpc vpc, final SecurityGroup securityGroup, Role mastersRole) {
-        Cluster cluster = createCluster(clusterName, vpc, securityGroup, mastersRole);
+    private Cluster createEKSCluster(final String clusterName, final KarmadaClusterProps props, final SecurityGroup securityGroup, Role mastersRole) {
+        final Vpc vpc = props.getVpc();
+        Cluster cluster = createCluster(clusterName, props, securityGroup, mastersRole);
         updateMastersRole(mastersRole, cluster);
-        cluster.connectAutoScalingGroupCapacity(createEKSAutoScalingGroup(vpc, securityGroup), AutoScalingGroupOptions
-                .builder()
-                .build());
+        CfnAddon vpcCniAddon = VpcCni.configure(this, cluster, props.getPodNetworking(), props.getPodSubnets(),
+                Arrays.asList(cluster.getClusterSecurityGroupId(), securityGroup.getSecurityGroupId()));
+        AutoScalingGroup eksAsg = createEKSAutoScalingGroup(vpc, securityGroup, props);
+        NodeCapacity.connect(cluster, eksAsg, props.getNodeImage(), props.getPodNetworking(), props.getMaxPods(),
+                props.getWarmPoolSize(), props.getWarmPoolState());
+        if (props.isImageCache()) {
+            ImageCache.grantPullThrough(eksAsg.getRole());
+        }
+        if (props.getCapacityMode() == CapacityMode.KARPENTER) {
+            KarpenterCapacity karpenterCapacity = new KarpenterCapacity(this, KARPENTER_CAPACITY, cluster, vpc, securityGroup,
+                    props.getKarpenterInstanceFamilies(), props.getKarpenterCapacityTypes(),
+                    props.getPodNetworking().isPrefixDelegation() ? props.getMaxPods() : 0,
+                    props.getNodeImage(), props.getNodeRootVolumeSize(), props.getNodeRootVolumeThroughput());
+            if (props.isImageCache()) {
+                ImageCache.grantPullThrough(karpenterCapacity.getNodeRole());
+            }
+        }
+        Nodegroup etcdNodegroup = props.isEtcdNodeGroup() ? createEtcdNodegroup(cluster, vpc, props) : null;
+        if (vpcCniAddon != null) {
+            eksAsg.getNode().addDependency(vpcCniAddon);
+            if (etcdNodegroup != null) {
+                etcdNodegroup.getNode().addDependency(vpcCniAddon);
+            }
+        }
 
         OpenIdConnectPrincipal principal = createOpenIDPrincipal(cluster);
         Role role = createClusterAddonRole(principal);
         CfnAddon ebsAddon = createEBSAddon(cluster, role);
         addManifest(cluster);
+        // The provisioned etcd volumes only pay off on the dedicated etcd nodes, otherwise etcd keeps the default class
+        if (props.isEtcdNodeGroup()) {
+            addEtcdStorageClass(cluster, props);
+        }
 
         return cluster;
     }
@@ -109,14 +198,26 @@ public class KarmadaClusterStack extends NestedStack {
         return role;
     }
 
+    // The cluster provider is shared with the service accounts of the cluster, IAM allows one provider per issuer
     private OpenIdConnectPrincipal createOpenIDPrincipal(Cluster cluster) {
-        OpenIdConnectProvider provider = OpenIdConnectProvider.Builder.create(this, OPEN_ID_CONNECT_PROVIDER)
-                .url(cluster.getClusterOpenIdConnectIssuerUrl())
-                .build();
-        OpenIdConnectPrincipal principal = new OpenIdConnectPrincipal(provider);
+        OpenIdConnectPrincipal principal = new OpenIdConnectPrincipal(cluster.getOpenIdConnectProvider());
         return principal;
     }
 
+    private KarmadaApiLoadBalancer createKarmadaApiLoadBalancer(Cluster cluster, KarmadaClusterProps props, SecurityGroup securityGroup) {
+        KarmadaApiLoadBalancer apiLoadBalancer = new KarmadaApiLoadBalancer(this, KARMADA_API_LOAD_BALANCER, cluster,
+                props.getVpc(), securityGroup, props.getKarmadaApiAllowedCidr());
+        CfnOutput.Builder.create(this, KARMADA_API_DNS_OUTPUT)
+                .description("Karmada api server DNS name, it resolves to the addresses of all availability zones")
+                .value(apiLoadBalancer.getDnsName())
+                .build();
+        CfnOutput.Builder.create(this, KARMADA_API_ADDRESSES_OUTPUT)
+                .description("Karmada api server Elastic IP addresses, one per availability zone")
+                .value(apiLoadBalancer.getAddresses())
+                .build();
+        return apiLoadBalancer;
+    }
+
     private void updateMastersRole(Role mastersRole, Cluster cluster) {
         mastersRole.addManagedPolicy(ManagedPolicy.fromAwsManagedPolicyName(ADMINISTRATOR_ACCESS));
         mastersRole.addToPolicy(PolicyStatement.Builder.create()
@@ -126,24 +227,25 @@ public class KarmadaClusterStack extends NestedStack {
         mastersRole.grantAssumeRole(cluster.getAdminRole());
     }
 
-    private Cluster createCluster(String clusterName, Vpc vpc, SecurityGroup securityGroup, Role mastersRole) {
+    private Cluster createCluster(String clusterName, KarmadaClusterProps props, SecurityGroup securityGroup, Role mastersRole) {
         Cluster cluster = Cluster.Builder.create(this, clusterName)
                 .clusterName(clusterName)
-                .vpc(vpc)
+                .vpc(props.getVpc())
                 .securityGroup(securityGroup)
-                .version(KUBERNETES_VERSION)
-                .kubectlLayer(new KubectlLayer(this, KUBECTL_LAYER))
-                .defaultCapacityInstance(InstanceType.of(INSTANCE_CLASS, INSTANCE_SIZE))
+                .version(KubernetesVersion.of(props.getKubernetesVersion()))
+                .kubectlLayer(SharedKubectlLayer.of(this))
+                .kubectlMemory(Size.mebibytes(props.getKubectlMemory()))
+                .defaultCapacityInstance(new InstanceType(props.getNodeInstanceType()))
                 .defaultCapacityType(DefaultCapacityType.NODEGROUP)
-                .clusterLogging(Arrays.asList(ClusterLoggingTypes.API,
-                        ClusterLoggingTypes.AUDIT,
-                        ClusterLoggingTypes.AUTHENTICATOR,
-                        ClusterLoggingTypes.CONTROLLER_MANAGER,
-                        ClusterLoggingTypes.SCHEDULER))
+                .clusterLogging(props.getLoggingProfile().getLogTypes())
                 .defaultCapacity(0)
                 .mastersRole(mastersRole)
                 .outputMastersRoleArn(Boolean.TRUE)
                 .build();
+        LogRetention logRetention = ClusterLogging.configure(this, clusterName, props.getLoggingProfile(), props.getLogRetentionDays());
+        if (logRetention != null) {
+            cluster.getNode().addDependency(logRetention);
+        }
         NagSuppressions.addResourceSuppressions(cluster,
                 Arrays.asList(NagPackSuppression.builder()
                         .id("AwsSolutions-EKS1")
@@ -153,41 +255,76 @@ public class KarmadaClusterStack extends NestedStack {
         return cluster;
     }
 
-    private AutoScalingGroup createEKSAutoScalingGroup(Vpc vpc, SecurityGroup securityGroup) {
+    private AutoScalingGroup createEKSAutoScalingGroup(Vpc vpc, SecurityGroup securityGroup, KarmadaClusterProps props) {
         AutoScalingGroup eksAsg = AutoScalingGroup.Builder
                 .create(this, KARMADA_EKSASG)
                 .autoScalingGroupName(KARMADA_EKSASG)
                 .vpc(vpc)
                 .securityGroup(securityGroup)
                 .vpcSubnets(SubnetSelection.builder().subnetType(SubnetType.PUBLIC).build())
-                .blockDevices(Arrays.asList(getBlockDevice()))
-                .minCapacity(3)
-                .maxCapacity(3)
-                .instanceType(
-                        InstanceType.of(INSTANCE_CLASS, INSTANCE_SIZE))
-                .machineImage(EksOptimizedImage.Builder
-                        .create()
-                        .kubernetesVersion(KUBERNETES_VERSION.getVersion())
-                        .nodeType(NodeType.STANDARD)
-                        .build())
+                .blockDevices(Arrays.asList(NodeCapacity.dataVolume(props.getNodeImage(), props.getNodeRootVolumeSize(),
+                        props.getNodeRootVolumeThroughput())))
+                .minCapacity(props.getNodesNum())
+                // scale out into the warm pool
+                .maxCapacity(props.getNodesNum() + props.getWarmPoolSize())
+                .instanceType(new InstanceType(props.getNodeInstanceType()))
+                .machineImage(NodeCapacity.machineImage(props.getNodeImage(), props.getKubernetesVersion(), props.getNodeInstanceType()))
                 .updatePolicy(UpdatePolicy.rollingUpdate())
                 .build();
         return eksAsg;
     }
 
-    @NotNull
-    private static BlockDevice getBlockDevice() {
-        return BlockDevice.builder().deviceName(DEVICE_PATH).volume(BlockDeviceVolume.ebs(10, EbsDeviceOptions.builder()
-                .volumeType(EbsDeviceVolumeType.GP3)
-                .encrypted(Boolean.TRUE)
-                .build())).build();
+    private Nodegroup createEtcdNodegroup(Cluster cluster, Vpc vpc, KarmadaClusterProps props) {
+        // One etcd node per availability zone. karmada init can neither set etcd tolerations nor render them from its
+        // config file, so a hard taint would keep etcd pending; the soft taint keeps other pods away while the node
+        // selector places etcd
+        return cluster.addNodegroupCapacity(ETCD_NODEGROUP, NodegroupOptions.builder()
+                .nodegroupName(ETCD_NODEGROUP)
+                .instanceTypes(Arrays.asList(new InstanceType(props.getEtcdInstanceType())))
+                .capacityType(CapacityType.ON_DEMAND)
+                .minSize(props.getEtcdNodesNum())
+                .maxSize(props.getEtcdNodesNum())
+                .desiredSize(props.getEtcdNodesNum())
+                .subnets(SubnetSelection.builder()
+                        .subnetType(SubnetType.PRIVATE_WITH_EGRESS)
+                        .availabilityZones(vpc.getAvailabilityZones())
+                        .build())
+                .labels(Map.of(ETCD_NODE_LABEL_KEY, ETCD_NODE_LABEL_VALUE))
+                .taints(Arrays.asList(TaintSpec.builder()
+                        .key(ETCD_NODE_LABEL_KEY)
+                        .value(ETCD_NODE_LABEL_VALUE)
+                        .effect(TaintEffect.PREFER_NO_SCHEDULE)
+                        .build()))
+                .build());
+    }
+
+    private void addEtcdStorageClass(Cluster cluster, KarmadaClusterProps props) {
+        // Provisioned IOPS and throughput keep the etcd fsync latency low; throughput only applies to gp3
+        Map<String, Object> parameters = ETCD_VOLUME_TYPE.equals(props.getEtcdVolumeType())
+                ? Map.of("type", props.getEtcdVolumeType(),
+                "iops", String.valueOf(props.getEtcdVolumeIops()),
+                "throughput", String.valueOf(props.getEtcdVolumeThroughput()),
+                "encrypted", "true")
+                : Map.of("type", props.getEtcdVolumeType(),
+                "iops", String.valueOf(props.getEtcdVolumeIops()),
+                "encrypted", "true");
+        Map<String, Object> storageClass = Map.of(
+                "apiVersion", "storage.k8s.io/v1",
+                "kind", "StorageClass",
+                "metadata", Map.of("name", ETCD_STORAGE_CLASS),
+                "provisioner", "ebs.csi.aws.com",
+                "volumeBindingMode", "WaitForFirstConsumer",
+                "allowVolumeExpansion", Boolean.TRUE,
+                "parameters", parameters);
+
+        cluster.addManifest(ETCD_STORAGE_CLASS, storageClass);
     }
 
     private void addManifest(Cluster cluster) {
         Map<String, Object> deployment = Map.of(
                 "apiVersion", "storage.k8s.io/v1",
                 "kind", "StorageClass",
-                "metadata", Map.of("name", "ebs-sc"),
+                "metadata", Map.of("name", EBS_STORAGE_CLASS),
                 "provisioner", "ebs.csi.aws.com",
                 "volumeBindingMode", "WaitForFirstConsumer",
                 "parameters", Map.of(
@@ -196,8 +333,13 @@ public class KarmadaClusterStack extends NestedStack {
         cluster.addManifest(CLUSTER_ID, deployment);
     }
 
-    private Role createManagementHostRole(Cluster cluster, Role mastersRole, String region, String accountId) {
-        Role bastionHostLinuxRole = Role.Builder.create(this, MANAGEMENT_HOST_ROLE).assumedBy(new ServicePrincipal(EC2_SERVICE_PRINCIPAL)).build();
+    private Role createManagementHostRole(Cluster cluster, Role mastersRole, KarmadaClusterProps props) {
+        final String region = props.getRegion();
+        final String accountId = props.getAccountId();
+        Role bastionHostLinuxRole = Role.Builder.create(this, MANAGEMENT_HOST_ROLE)
+                .roleName(props.getManagementHostRoleName())
+                .assumedBy(new ServicePrincipal(EC2_SERVICE_PRINCIPAL))
+                .build();
         mastersRole.getAssumeRolePolicy().
                 addStatements(createPolicyStatementforBastionHostLinuxRolePermission(bastionHostLinuxRole.getRoleArn()));
         bastionHostLinuxRole.addToPolicy(PolicyStatement.Builder
@@ -245,6 +387,92 @@ public class KarmadaClusterStack extends NestedStack {
         return bastionHostLinuxRole;
     }
 
+    // Member clusters in other regions map the role in their own stacks, here it only gets the EKS and SSM access
+    // to register them, so that no stack references another region
+    private void grantMemberRegionAccess(Role bastionHostLinuxRole, String memberRegion) {
+        grantTopologyAccess(bastionHostLinuxRole, memberRegion);
+        bastionHostLinuxRole.addToPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(formatArn(ArnComponents.builder()
+                        .service("eks")
+                        .region(memberRegion)
+                        .resource("cluster")
+                        .resourceName(MEMBER_REGION_CLUSTER + "-" + memberRegion + "-*")
+                        .build())))
+                .actions(EKS_POLICIES_LIST)
+                .build());
+        bastionHostLinuxRole.addToPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(formatArn(ArnComponents.builder()
+                                .service("ssm")
+                                .region(memberRegion)
+                                .resource("parameter")
+                                .resourceName(MEMBER_PARAMETER_PATH.substring(1))
+                                .build()),
+                        formatArn(ArnComponents.builder()
+                                .service("ssm")
+                                .region(memberRegion)
+                                .resource("parameter")
+                                .resourceName(MEMBER_PARAMETER_PATH.substring(1) + "/*")
+                                .build())))
+                .actions(SSM_POLICIES_LIST)
+                .build());
+    }
+
+    // The topology parameter is written by the parent stack and the member region stacks, naming it here keeps
+    // this stack free of references to them
+    private void grantTopologyAccess(Role bastionHostLinuxRole, String region) {
+        bastionHostLinuxRole.addToPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(formatArn(ArnComponents.builder()
+                        .service("ssm")
+                        .region(region)
+                        .resource("parameter")
+                        .resourceName(TOPOLOGY_PARAMETER_NAME.substring(1))
+                        .build())))
+                .actions(SSM_POLICIES_LIST)
+                .build());
+    }
+
+    // Credentials of an existing OpenSearch cluster, the management host copies them to the karmada-search backend secret
+    private void grantSearchBackendSecretAccess(Role bastionHostLinuxRole, String secretName) {
+        bastionHostLinuxRole.addToPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(formatArn(ArnComponents.builder()
+                        .service("secretsmanager")
+                        .resource("secret")
+                        .resourceName(secretName + "-??????")
+                        .arnFormat(ArnFormat.COLON_RESOURCE_NAME)
+                        .build())))
+                .actions(Arrays.asList(SECRETS_MANAGER_GET_POLICY))
+                .build());
+    }
+
+    // Written by the management host once Karmada is up and read by the registration custom resources,
+    // replicated to the member regions so that their handlers read it locally
+    private void createKarmadaApiSecret(Role bastionHostLinuxRole, KarmadaClusterProps props) {
+        Secret karmadaApiSecret = Secret.Builder.create(this, KARMADA_API_SECRET)
+                .secretName(KARMADA_API_SECRET_NAME)
+                .description("Karmada api server endpoint, CA and registration token")
+                .replicaRegions(props.getMemberRegions().stream()
+                        .map(memberRegion -> ReplicaRegion.builder().region(memberRegion).build())
+                        .collect(Collectors.toList()))
+                .build();
+        bastionHostLinuxRole.addToPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(karmadaApiSecret.getSecretArn()))
+                .actions(Arrays.asList(SECRETS_MANAGER_PUT_POLICY))
+                .build());
+        NagSuppressions.addResourceSuppressions(karmadaApiSecret,
+                Arrays.asList(NagPackSuppression.builder().id("AwsSolutions-SMG4")
+                        .reason("The token is issued by the Karmada api server and rotated by redeploying the management host").build()));
+    }
+
     private PolicyStatement createPolicyStatementforBastionHostLinuxRolePermission(String bastionHostLinuxRoleArn) {
         return PolicyStatement.Builder.
                 create().
@@ -253,20 +481,14 @@ public class KarmadaClusterStack extends NestedStack {
                 build();
     }
 
-    private SecurityGroup createSecurityGroup(Vpc vpc) {
+    private SecurityGroup createSecurityGroup(Vpc vpc, String vpcCidr) {
         SecurityGroup karmadaClusterSecurityGroup = new SecurityGroup(this, KARMADA_SG, SecurityGroupProps.builder()
                 .vpc(vpc)
                 .securityGroupName(KARMADA_SG)
                 .allowAllOutbound(Boolean.TRUE)
                 .build());
-        karmadaClusterSecurityGroup.addIngressRule(Peer.anyIpv4(), Port.tcp(TCP_PORT), SG_DESCRIPTION);
-        karmadaClusterSecurityGroup.addIngressRule(Peer.ipv4(KARMADA_CIDR_BLOCK), Port.tcp(HTTPS_PORT), SG_DESCRIPTION);
-
-        NagSuppressions.addResourceSuppressions(karmadaClusterSecurityGroup,
-                Arrays.asList(NagPackSuppression.builder()
-                        .id(AWS_SOLUTIONS_EC_23)
-                        .reason(AWS_SOLUTIONS_EC2_23_SUPPRESSION)
-                        .build()));
+        // The Karmada api server is only reachable through its load balancer, see KarmadaApiLoadBalancer
+        karmadaClusterSecurityGroup.addIngressRule(Peer.ipv4(vpcCidr), Port.tcp(HTTPS_PORT), SG_DESCRIPTION);
         return karmadaClusterSecurityGroup;
     }
 }
@@ -0,0 +1,301 @@
+package com.aws;
+
+import software.amazon.awscdk.Duration;
+import software.amazon.awscdk.RemovalPolicy;
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.services.cloudwatch.Alarm;
+import software.amazon.awscdk.services.cloudwatch.ComparisonOperator;
+import software.amazon.awscdk.services.cloudwatch.CreateAlarmOptions;
+import software.amazon.awscdk.services.cloudwatch.Dashboard;
+import software.amazon.awscdk.services.cloudwatch.GraphWidget;
+import software.amazon.awscdk.services.cloudwatch.HorizontalAnnotation;
+import software.amazon.awscdk.services.cloudwatch.IMetric;
+import software.amazon.awscdk.services.cloudwatch.MathExpression;
+import software.amazon.awscdk.services.cloudwatch.Metric;
+import software.amazon.awscdk.services.cloudwatch.MetricOptions;
+import software.amazon.awscdk.services.cloudwatch.TreatMissingData;
+import software.amazon.awscdk.services.eks.Cluster;
+import software.amazon.awscdk.services.eks.KubernetesManifest;
+import software.amazon.awscdk.services.eks.ServiceAccount;
+import software.amazon.awscdk.services.eks.ServiceAccountOptions;
+import software.amazon.awscdk.services.iam.Effect;
+import software.amazon.awscdk.services.iam.PolicyStatement;
+import software.amazon.awscdk.services.logs.LogGroup;
+import software.amazon.awscdk.services.logs.RetentionDays;
+import software.constructs.Construct;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// Control plane metrics of the Karmada api server, etcd, scheduler and controller manager. A Prometheus container in
+// the collector pod scrapes their endpoints and turns the latency histograms into p99 gauges with recording rules, the
+// ADOT collector next to it publishes only these gauges to CloudWatch as embedded metric format logs. The exporter
+// writes histograms as statistic sets, from which CloudWatch computes no percentiles, so the alarms are on the gauges
+public class KarmadaObservability extends Construct {
+
+    private final Dashboard dashboard;
+    private final List<Alarm> alarms = new ArrayList<>();
+
+    public KarmadaObservability(Construct scope, String id, Cluster cluster, KubernetesManifest namespace, KarmadaClusterProps props) {
+        super(scope, id);
+
+        LogGroup logGroup = LogGroup.Builder.create(this, METRICS_LOG_GROUP)
+                .logGroupName(METRICS_LOG_GROUP_NAME)
+                .retention(RetentionDays.ONE_MONTH)
+                .removalPolicy(RemovalPolicy.DESTROY)
+                .build();
+        createCollector(cluster, namespace, logGroup);
+
+        Metric apiLatency = metric(APISERVER_LATENCY_METRIC + P99_SUFFIX);
+        Metric fsyncLatency = metric(ETCD_FSYNC_METRIC + P99_SUFFIX);
+        Metric commitLatency = metric(ETCD_COMMIT_METRIC + P99_SUFFIX);
+        Metric leaderChanges = metric(ETCD_LEADER_CHANGES_METRIC + LEADER_CHANGES_SUFFIX);
+        alarms.add(latencyAlarm("KarmadaApiServerLatencyP99", apiLatency, props.getKarmadaApiLatencyP99Ms(),
+                "Karmada api server p99 request latency, watches excluded"));
+        alarms.add(latencyAlarm("EtcdWalFsyncLatencyP99", fsyncLatency, props.getEtcdFsyncP99Ms(),
+                "Karmada etcd p99 WAL fsync duration of the slowest member"));
+        alarms.add(latencyAlarm("EtcdBackendCommitLatencyP99", commitLatency, props.getEtcdCommitP99Ms(),
+                "Karmada etcd p99 backend commit duration of the slowest member"));
+        alarms.add(leaderChanges.createAlarm(this, "EtcdLeaderChanges", CreateAlarmOptions.builder()
+                .alarmDescription("Karmada etcd leader changes in 15 minutes")
+                .threshold(props.getEtcdLeaderChanges())
+                .comparisonOperator(ComparisonOperator.GREATER_THAN_OR_EQUAL_TO_THRESHOLD)
+                .evaluationPeriods(1)
+                .treatMissingData(TreatMissingData.NOT_BREACHING)
+                .build()));
+
+        this.dashboard = Dashboard.Builder.create(this, METRICS_DASHBOARD)
+                .dashboardName(METRICS_DASHBOARD)
+                .build();
+        dashboard.addWidgets(
+                graph("Karmada api server p99 latency (s)", Arrays.asList(apiLatency), props.getKarmadaApiLatencyP99Ms()),
+                graph("etcd p99 WAL fsync (s)", Arrays.asList(fsyncLatency), props.getEtcdFsyncP99Ms()),
+                graph("etcd p99 backend commit (s)", Arrays.asList(commitLatency), props.getEtcdCommitP99Ms()));
+        dashboard.addWidgets(
+                GraphWidget.Builder.create().title("etcd leader changes in 15 minutes").left(Arrays.asList(leaderChanges)).build(),
+                GraphWidget.Builder.create().title("Karmada scheduler")
+                        .left(Arrays.asList(metric(SCHEDULER_PENDING_METRIC + MAX_SUFFIX)))
+                        .right(Arrays.asList(metric(SCHEDULER_LATENCY_METRIC + P99_SUFFIX)))
+                        .build(),
+                GraphWidget.Builder.create().title("Member cluster status sync p99 (s)")
+                        .left(Arrays.asList(memberClusters(CLUSTER_SYNC_METRIC + P99_SUFFIX, "Maximum")))
+                        .right(Arrays.asList(memberClusters(CLUSTER_READY_METRIC + MIN_SUFFIX, "Minimum")))
+                        .build());
+    }
+
+    public Dashboard getDashboard() {
+        return dashboard;
+    }
+
+    public List<Alarm> getAlarms() {
+        return alarms;
+    }
+
+    private void createCollector(Cluster cluster, KubernetesManifest namespace, LogGroup logGroup) {
+        ServiceAccount serviceAccount = cluster.addServiceAccount(METRICS_COLLECTOR_SERVICE_ACCOUNT, ServiceAccountOptions.builder()
+                .name(METRICS_COLLECTOR)
+                .namespace(KARMADA_NAMESPACE)
+                .build());
+        serviceAccount.getNode().addDependency(namespace);
+        serviceAccount.addToPrincipalPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(logGroup.getLogGroupArn()))
+                .actions(METRICS_LOG_POLICIES_LIST)
+                .build());
+
+        Stack stack = Stack.of(this);
+        Map<String, Object> labels = Map.of("app", METRICS_COLLECTOR);
+        Map<String, Object> configVolume = Map.of("name", "config", "mountPath", "/conf");
+        KubernetesManifest collector = cluster.addManifest(METRICS_COLLECTOR,
+                Map.of("apiVersion", "rbac.authorization.k8s.io/v1",
+                        "kind", "Role",
+                        "metadata", Map.of("name", METRICS_COLLECTOR, "namespace", KARMADA_NAMESPACE),
+                        "rules", List.of(Map.of("apiGroups", List.of(""), "resources", List.of("pods"), "verbs", List.of("get", "list", "watch")))),
+                Map.of("apiVersion", "rbac.authorization.k8s.io/v1",
+                        "kind", "RoleBinding",
+                        "metadata", Map.of("name", METRICS_COLLECTOR, "namespace", KARMADA_NAMESPACE),
+                        "roleRef", Map.of("apiGroup", "rbac.authorization.k8s.io", "kind", "Role", "name", METRICS_COLLECTOR),
+                        "subjects", List.of(Map.of("kind", "ServiceAccount", "name", METRICS_COLLECTOR, "namespace", KARMADA_NAMESPACE))),
+                Map.of("apiVersion", "v1",
+                        "kind", "ConfigMap",
+                        "metadata", Map.of("name", METRICS_COLLECTOR, "namespace", KARMADA_NAMESPACE),
+                        "data", Map.of(METRICS_COLLECTOR_CONFIG_FILE, stack.toJsonString(collectorConfig()),
+                                METRICS_PROMETHEUS_CONFIG_FILE, stack.toJsonString(prometheusConfig()),
+                                METRICS_PROMETHEUS_RULES_FILE, stack.toJsonString(recordingRules()))),
+                Map.of("apiVersion", "apps/v1",
+                        "kind", "Deployment",
+                        "metadata", Map.of("name", METRICS_COLLECTOR, "namespace", KARMADA_NAMESPACE),
+                        "spec", Map.of("replicas", 1,
+                                "selector", Map.of("matchLabels", labels),
+                                "template", Map.of("metadata", Map.of("labels", labels),
+                                        "spec", Map.of("serviceAccountName", METRICS_COLLECTOR,
+                                                "containers", List.of(
+                                                        Map.of("name", METRICS_PROMETHEUS,
+                                                                "image", METRICS_PROMETHEUS_IMAGE,
+                                                                // an hour of samples is enough for the rate windows of the rules
+                                                                "args", List.of("--config.file=/conf/" + METRICS_PROMETHEUS_CONFIG_FILE,
+                                                                        "--storage.tsdb.path=/prometheus",
+                                                                        "--storage.tsdb.retention.time=1h",
+                                                                        "--web.listen-address=127.0.0.1:" + METRICS_PROMETHEUS_PORT),
+                                                                "resources", Map.of("requests", Map.of("cpu", "100m", "memory", "256Mi"),
+                                                                        "limits", Map.of("memory", "512Mi")),
+                                                                "volumeMounts", List.of(configVolume,
+                                                                        Map.of("name", METRICS_PROMETHEUS, "mountPath", "/prometheus"),
+                                                                        Map.of("name", KARMADA_CERT_SECRET, "mountPath", "/certs/karmada", "readOnly", Boolean.TRUE),
+                                                                        Map.of("name", ETCD_CERT_SECRET, "mountPath", "/certs/etcd", "readOnly", Boolean.TRUE))),
+                                                        Map.of("name", METRICS_COLLECTOR,
+                                                                "image", METRICS_COLLECTOR_IMAGE,
+                                                                "args", List.of("--config=/conf/" + METRICS_COLLECTOR_CONFIG_FILE),
+                                                                "resources", Map.of("requests", Map.of("cpu", "100m", "memory", "256Mi"),
+                                                                        "limits", Map.of("memory", "512Mi")),
+                                                                "livenessProbe", Map.of("httpGet", Map.of("path", "/", "port", 13133)),
+                                                                "volumeMounts", List.of(configVolume))),
+                                                // The certificates are created later by karmada init, Prometheus starts without them
+                                                "volumes", List.of(Map.of("name", "config", "configMap", Map.of("name", METRICS_COLLECTOR)),
+                                                        Map.of("name", METRICS_PROMETHEUS, "emptyDir", Map.of()),
+                                                        Map.of("name", KARMADA_CERT_SECRET, "secret", Map.of("secretName", KARMADA_CERT_SECRET, "optional", Boolean.TRUE)),
+                                                        Map.of("name", ETCD_CERT_SECRET, "secret", Map.of("secretName", ETCD_CERT_SECRET, "optional", Boolean.TRUE))))))));
+        collector.getNode().addDependency(serviceAccount);
+    }
+
+    // Scrapes the Karmada components and evaluates the recording rules
+    static Map<String, Object> prometheusConfig() {
+        Map<String, Object> karmadaTls = Map.of("ca_file", "/certs/karmada/ca.crt",
+                "cert_file", "/certs/karmada/karmada.crt",
+                "key_file", "/certs/karmada/karmada.key",
+                "server_name", KARMADA_APISERVER + "." + KARMADA_NAMESPACE + ".svc.cluster.local");
+        Map<String, Object> etcdTls = Map.of("ca_file", "/certs/etcd/etcd-ca.crt",
+                "cert_file", "/certs/etcd/etcd-client.crt",
+                "key_file", "/certs/etcd/etcd-client.key",
+                "server_name", "etcd-client." + KARMADA_NAMESPACE + ".svc.cluster.local");
+        return Map.of("global", Map.of("scrape_interval", METRICS_SCRAPE_INTERVAL, "evaluation_interval", METRICS_SCRAPE_INTERVAL),
+                "rule_files", List.of("/conf/" + METRICS_PROMETHEUS_RULES_FILE),
+                "scrape_configs", List.of(
+                        scrapeJob(KARMADA_APISERVER, KARMADA_API_PORT, karmadaTls, APISERVER_LATENCY_METRIC),
+                        scrapeJob("etcd", ETCD_CLIENT_PORT, etcdTls, ETCD_FSYNC_METRIC, ETCD_COMMIT_METRIC, ETCD_LEADER_CHANGES_METRIC),
+                        scrapeJob("karmada-scheduler", KARMADA_SCHEDULER_METRICS_PORT, null, SCHEDULER_PENDING_METRIC, SCHEDULER_LATENCY_METRIC),
+                        scrapeJob("karmada-controller-manager", KARMADA_CONTROLLER_METRICS_PORT, null, CLUSTER_SYNC_METRIC, CLUSTER_READY_METRIC)));
+    }
+
+    // The gauges published to CloudWatch. The p99 of etcd is the one of its slowest member, every member counts the
+    // same leader change so the largest count is the number of changes
+    static Map<String, Object> recordingRules() {
+        List<Object> rules = List.of(
+                rule(APISERVER_LATENCY_METRIC + P99_SUFFIX, p99(APISERVER_LATENCY_METRIC, "verb!~\"WATCH|CONNECT\"", "")),
+                rule(ETCD_FSYNC_METRIC + P99_SUFFIX, "max(" + p99(ETCD_FSYNC_METRIC, "", "pod") + ")"),
+                rule(ETCD_COMMIT_METRIC + P99_SUFFIX, "max(" + p99(ETCD_COMMIT_METRIC, "", "pod") + ")"),
+                rule(ETCD_LEADER_CHANGES_METRIC + LEADER_CHANGES_SUFFIX, "max(increase(" + ETCD_LEADER_CHANGES_METRIC + "[15m]))"),
+                rule(SCHEDULER_PENDING_METRIC + MAX_SUFFIX, "max(" + SCHEDULER_PENDING_METRIC + ")"),
+                rule(SCHEDULER_LATENCY_METRIC + P99_SUFFIX, p99(SCHEDULER_LATENCY_METRIC, "", "")),
+                rule(CLUSTER_SYNC_METRIC + P99_SUFFIX, p99(CLUSTER_SYNC_METRIC, "", "member_cluster")),
+                rule(CLUSTER_READY_METRIC + MIN_SUFFIX, "min by (member_cluster) (" + CLUSTER_READY_METRIC + ")"));
+        return Map.of("groups", List.of(Map.of("name", METRICS_NAMESPACE, "rules", rules)));
+    }
+
+    // Reads the recorded gauges back from Prometheus, they are untyped and the exporter writes them as plain values
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> collectorConfig() {
+        List<String> recorded = new ArrayList<>();
+        for (Object rule : (List<Object>) ((Map<String, Object>) ((List<Object>) recordingRules().get("groups")).get(0)).get("rules")) {
+            recorded.add((String) ((Map<String, Object>) rule).get("record"));
+        }
+        Map<String, Object> federateJob = Map.of("job_name", "federate",
+                "scrape_interval", "60s",
+                "honor_labels", Boolean.TRUE,
+                "metrics_path", "/federate",
+                "params", Map.of("match[]", List.of("{__name__=~\"" + String.join("|", recorded) + "\"}")),
+                "static_configs", List.of(Map.of("targets", List.of("127.0.0.1:" + METRICS_PROMETHEUS_PORT))));
+        List<String> memberClusterMetrics = List.of(CLUSTER_SYNC_METRIC + P99_SUFFIX, CLUSTER_READY_METRIC + MIN_SUFFIX);
+        List<String> clusterMetrics = new ArrayList<>(recorded);
+        clusterMetrics.removeAll(memberClusterMetrics);
+        Map<String, Object> exporter = Map.of("namespace", METRICS_NAMESPACE,
+                "log_group_name", METRICS_LOG_GROUP_NAME,
+                "dimension_rollup_option", "NoDimensionRollup",
+                "metric_declarations", List.of(
+                        Map.of("dimensions", List.of(List.of("ClusterName")), "metric_name_selectors", clusterMetrics),
+                        Map.of("dimensions", List.of(List.of("ClusterName", "member_cluster")), "metric_name_selectors", memberClusterMetrics)));
+        return Map.of("extensions", Map.of("health_check", Map.of()),
+                "receivers", Map.of("prometheus", Map.of("config", Map.of("scrape_configs", List.of(federateJob)))),
+                "processors", Map.of("batch/metrics", Map.of("timeout", "60s")),
+                "exporters", Map.of("awsemf", exporter),
+                "service", Map.of("extensions", List.of("health_check"),
+                        "pipelines", Map.of("metrics", Map.of("receivers", List.of("prometheus"),
+                                "processors", List.of("batch/metrics"),
+                                "exporters", List.of("awsemf")))));
+    }
+
+    private static String p99(String histogram, String selector, String by) {
+        return "histogram_quantile(0.99, sum by (" + (by.isEmpty() ? "" : by + ", ") + "le) (rate(" + histogram + "_bucket"
+                + (selector.isEmpty() ? "" : "{" + selector + "}") + "[" + METRICS_RATE_WINDOW + "])))";
+    }
+
+    private static Map<String, Object> rule(String record, String expression) {
+        return Map.of("record", record, "expr", expression, "labels", Map.of("ClusterName", KARMADA_CLUSTER));
+    }
+
+    // One job per Karmada component, found by the app label of its pods and filtered down to the published metrics
+    private static Map<String, Object> scrapeJob(String app, int port, Map<String, Object> tls, String... metrics) {
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("job_name", app);
+        job.put("scrape_interval", METRICS_SCRAPE_INTERVAL);
+        job.put("scheme", tls != null ? "https" : "http");
+        if (tls != null) {
+            job.put("tls_config", tls);
+        }
+        job.put("kubernetes_sd_configs", List.of(Map.of("role", "pod", "namespaces", Map.of("names", List.of(KARMADA_NAMESPACE)))));
+        job.put("relabel_configs", List.of(
+                Map.of("source_labels", List.of("__meta_kubernetes_pod_label_app"), "regex", app, "action", "keep"),
+                Map.of("source_labels", List.of("__meta_kubernetes_pod_ip"), "target_label", "__address__", "replacement", "$1:" + port),
+                Map.of("source_labels", List.of("__meta_kubernetes_pod_name"), "target_label", "pod")));
+        job.put("metric_relabel_configs", List.of(Map.of(
+                "source_labels", List.of("__name__"),
+                "regex", "(" + String.join("|", metrics) + ")(_bucket|_sum|_count)?",
+                "action", "keep")));
+        return job;
+    }
+
+    // The largest value of a gauge in the period
+    private static Metric metric(String metricName) {
+        return Metric.Builder.create()
+                .namespace(METRICS_NAMESPACE)
+                .metricName(metricName)
+                .dimensionsMap(Map.of("ClusterName", KARMADA_CLUSTER))
+                .statistic("Maximum")
+                .period(Duration.minutes(1))
+                .build();
+    }
+
+    private static IMetric memberClusters(String metricName, String statistic) {
+        return MathExpression.Builder.create()
+                .expression("SEARCH('{" + METRICS_NAMESPACE + ",ClusterName,member_cluster} MetricName=\"" + metricName + "\"', '"
+                        + statistic + "', 60)")
+                .period(Duration.minutes(1))
+                .build();
+    }
+
+    // Three slow minutes out of five, so a single slow compaction or snapshot does not page
+    private Alarm latencyAlarm(String id, Metric metric, int thresholdMs, String description) {
+        return metric.createAlarm(this, id, CreateAlarmOptions.builder()
+                .alarmDescription(description + " above " + thresholdMs + " ms")
+                .threshold(thresholdMs / 1000.0)
+                .comparisonOperator(ComparisonOperator.GREATER_THAN_THRESHOLD)
+                .evaluationPeriods(5)
+                .datapointsToAlarm(3)
+                .treatMissingData(TreatMissingData.NOT_BREACHING)
+                .build());
+    }
+
+    private static GraphWidget graph(String title, List<IMetric> metrics, int thresholdMs) {
+        return GraphWidget.Builder.create()
+                .title(title)
+                .left(metrics)
+                .leftAnnotations(Arrays.asList(HorizontalAnnotation.builder().value(thresholdMs / 1000.0).label("alarm").build()))
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.aws;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Typed Karmada objects for CDK apps, validated when they are rendered to the manifest the Karmada api server gets.
+// The policy name ends up in the labels of the propagated resources, so it must be a DNS label
+public abstract class KarmadaPolicy {
+
+    private static final Pattern DNS_LABEL = Pattern.compile("[a-z0-9]([-a-z0-9]{0,61}[a-z0-9])?");
+
+    private final String apiVersion;
+    private final String kind;
+    private final String name;
+    private final String namespace;
+    private final List<Map<String, Object>> resourceSelectors = new ArrayList<>();
+    private final Map<String, String> labels = new LinkedHashMap<>();
+
+    KarmadaPolicy(String apiVersion, String kind, String name, String namespace) {
+        this.apiVersion = apiVersion;
+        this.kind = kind;
+        this.name = name;
+        this.namespace = namespace;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Null for cluster scoped policies
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public final Map<String, Object> toManifest() {
+        List<String> errors = new ArrayList<>();
+        if (name == null || !DNS_LABEL.matcher(name).matches()) {
+            errors.add("name " + name + " must be a DNS label");
+        }
+        if (namespace != null && !DNS_LABEL.matcher(namespace).matches()) {
+            errors.add("namespace " + namespace + " must be a DNS label");
+        }
+        validate(errors);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid " + kind + " " + name + ": " + String.join("; ", errors));
+        }
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("name", name);
+        if (namespace != null) {
+            metadata.put("namespace", namespace);
+        }
+        if (!labels.isEmpty()) {
+            metadata.put("labels", labels);
+        }
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("apiVersion", apiVersion);
+        manifest.put("kind", kind);
+        manifest.put("metadata", metadata);
+        manifest.put("spec", spec());
+        return manifest;
+    }
+
+    abstract void validate(List<String> errors);
+
+    abstract Map<String, Object> spec();
+
+    void addResourceSelector(String apiVersion, String kind, String name) {
+        Map<String, Object> selector = new LinkedHashMap<>();
+        selector.put("apiVersion", apiVersion);
+        selector.put("kind", kind);
+        if (name != null) {
+            selector.put("name", name);
+        }
+        if (namespace != null) {
+            selector.put("namespace", namespace);
+        }
+        resourceSelectors.add(selector);
+    }
+
+    void addLabel(String key, String value) {
+        labels.put(key, value);
+    }
+
+    List<Map<String, Object>> getResourceSelectors() {
+        return resourceSelectors;
+    }
+
+    void validateResourceSelectors(List<String> errors) {
+        if (resourceSelectors.isEmpty()) {
+            errors.add("at least one resource selector is required");
+        }
+        resourceSelectors.stream()
+                .filter(selector -> selector.get("apiVersion") == null || selector.get("kind") == null)
+                .forEach(selector -> errors.add("resource selector " + selector + " needs an apiVersion and a kind"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.aws;
+
+import io.github.cdklabs.cdknag.NagPackSuppression;
+import io.github.cdklabs.cdknag.NagSuppressions;
+import software.amazon.awscdk.ArnComponents;
+import software.amazon.awscdk.ArnFormat;
+import software.amazon.awscdk.Duration;
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.customresources.Provider;
+import software.amazon.awscdk.services.iam.*;
+import software.amazon.awscdk.services.lambda.Code;
+import software.amazon.awscdk.services.lambda.Function;
+import software.amazon.awscdk.services.lambda.Runtime;
+import software.constructs.Construct;
+import software.constructs.IConstruct;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// One registration provider per top level stack, shared by the member clusters of the nested stacks below it.
+// The handler code is the karmada-handlers jar, see KarmadaRegistrationHandler in that module
+final class KarmadaRegistrationProvider extends Construct {
+
+    private final Role role;
+    private final Provider provider;
+
+    private KarmadaRegistrationProvider(Stack scope) {
+        super(scope, KARMADA_REGISTRATION_PROVIDER);
+        this.role = Role.Builder.create(this, KARMADA_REGISTRATION_ROLE)
+                .assumedBy(new ServicePrincipal("lambda.amazonaws.com"))
+                .managedPolicies(Arrays.asList(ManagedPolicy.fromAwsManagedPolicyName("service-role/AWSLambdaBasicExecutionRole")))
+                .build();
+        role.addToPolicy(PolicyStatement.Builder.create()
+                .effect(Effect.ALLOW)
+                .actions(Arrays.asList(SECRETS_MANAGER_GET_POLICY))
+                .resources(Arrays.asList(scope.formatArn(ArnComponents.builder()
+                        .service("secretsmanager")
+                        .resource("secret")
+                        .resourceName(KARMADA_API_SECRET_NAME + "-*")
+                        .arnFormat(ArnFormat.COLON_RESOURCE_NAME)
+                        .build())))
+                .build());
+
+        Code code = handlersCode();
+        this.provider = Provider.Builder.create(this, "Provider")
+                .onEventHandler(createFunction("OnEvent", "onEvent", code))
+                .isCompleteHandler(createFunction("IsComplete", "isComplete", code))
+                // Karmada is installed by the management host, which boots concurrently with the member clusters
+                .queryInterval(Duration.seconds(30))
+                .totalTimeout(Duration.hours(2))
+                .build();
+
+        NagSuppressions.addResourceSuppressions(this,
+                Arrays.asList(NagPackSuppression.builder().id(AWS_SOLUTIONS_IAM_4).reason(AWS_SOLUTIONS_IAM_4_SUPPRESSION).build(),
+                        NagPackSuppression.builder().id(AWS_SOLUTIONS_IAM_5).reason(SUPPRESS_IN_ROLES_FOR_THE_SAKE_OF_SIMPLICITY).build(),
+                        NagPackSuppression.builder().id("AwsSolutions-L1").reason("The handler targets the Java version of the app").build()), Boolean.TRUE);
+    }
+
+    static KarmadaRegistrationProvider of(Construct scope) {
+        Stack rootStack = Stack.of(scope);
+        while (rootStack.getNestedStackParent() != null) {
+            rootStack = rootStack.getNestedStackParent();
+        }
+        IConstruct provider = rootStack.getNode().tryFindChild(KARMADA_REGISTRATION_PROVIDER);
+        return provider != null ? (KarmadaRegistrationProvider) provider : new KarmadaRegistrationProvider(rootStack);
+    }
+
+    IRole getRole() {
+        return role;
+    }
+
+    String getServiceToken() {
+        return provider.getServiceToken();
+    }
+
+    private Function createFunction(String id, String method, Code code) {
+        return Function.Builder.create(this, id)
+                .runtime(Runtime.JAVA_11)
+                .handler(KARMADA_REGISTRATION_HANDLER + "::" + method)
+                .code(code)
+                .role(role)
+                .memorySize(512)
+                .timeout(Duration.minutes(1))
+                .environment(Map.of(KARMADA_API_SECRET_ENV, KARMADA_API_SECRET_NAME))
+                .build();
+    }
+
+    // mvn builds the jar before it compiles this app, see the exec plugin in pom.xml
+    static Code handlersCode() {
+        Path jar = AppDirectory.resolve(KARMADA_HANDLERS_JAR);
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("No " + jar + ", build it with mvn package in the cdk directory");
+        }
+        return Code.fromAsset(jar.toString());
+    }
+}
@@ -0,0 +1,73 @@
+package com.aws;
+
+import io.github.cdklabs.cdknag.NagPackSuppression;
+import io.github.cdklabs.cdknag.NagSuppressions;
+import software.amazon.awscdk.ArnComponents;
+import software.amazon.awscdk.ArnFormat;
+import software.amazon.awscdk.Duration;
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.services.events.Rule;
+import software.amazon.awscdk.services.events.Schedule;
+import software.amazon.awscdk.services.events.targets.LambdaFunction;
+import software.amazon.awscdk.services.iam.*;
+import software.amazon.awscdk.services.lambda.Function;
+import software.amazon.awscdk.services.lambda.Runtime;
+import software.constructs.Construct;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// Runs the weight controller every minute with the Karmada api server credentials the management host publishes,
+// see WeightController in the karmada-handlers module. The code is the same jar as the registration provider
+final class KarmadaWeightController extends Construct {
+
+    private final Function function;
+
+    KarmadaWeightController(Construct scope, String id, int hysteresis, int maxStep, int updateInterval, boolean latencyProbe) {
+        super(scope, id);
+        Role role = Role.Builder.create(this, WEIGHT_CONTROLLER_ROLE)
+                .assumedBy(new ServicePrincipal("lambda.amazonaws.com"))
+                .managedPolicies(Arrays.asList(ManagedPolicy.fromAwsManagedPolicyName("service-role/AWSLambdaBasicExecutionRole")))
+                .build();
+        role.addToPolicy(PolicyStatement.Builder.create()
+                .effect(Effect.ALLOW)
+                .actions(Arrays.asList(SECRETS_MANAGER_GET_POLICY))
+                .resources(Arrays.asList(Stack.of(this).formatArn(ArnComponents.builder()
+                        .service("secretsmanager")
+                        .resource("secret")
+                        .resourceName(KARMADA_API_SECRET_NAME + "-*")
+                        .arnFormat(ArnFormat.COLON_RESOURCE_NAME)
+                        .build())))
+                .build());
+
+        this.function = Function.Builder.create(this, WEIGHT_CONTROLLER)
+                .runtime(Runtime.JAVA_11)
+                .handler(WEIGHT_CONTROLLER_HANDLER)
+                .code(KarmadaRegistrationProvider.handlersCode())
+                .role(role)
+                .memorySize(512)
+                .timeout(Duration.seconds(50))
+                .environment(Map.of(KARMADA_API_SECRET_ENV, KARMADA_API_SECRET_NAME,
+                        WEIGHT_HYSTERESIS_ENV, String.valueOf(hysteresis),
+                        WEIGHT_MAX_STEP_ENV, String.valueOf(maxStep),
+                        WEIGHT_UPDATE_INTERVAL_ENV, String.valueOf(updateInterval),
+                        WEIGHT_LATENCY_PROBE_ENV, String.valueOf(latencyProbe)))
+                .build();
+        // every minute picks up a failed member quickly, the update interval spaces out the other weight changes
+        Rule.Builder.create(this, WEIGHT_CONTROLLER_SCHEDULE)
+                .schedule(Schedule.rate(Duration.minutes(1)))
+                .targets(Arrays.asList(LambdaFunction.Builder.create(function).retryAttempts(0).build()))
+                .build();
+
+        NagSuppressions.addResourceSuppressions(this,
+                Arrays.asList(NagPackSuppression.builder().id(AWS_SOLUTIONS_IAM_4).reason(AWS_SOLUTIONS_IAM_4_SUPPRESSION).build(),
+                        NagPackSuppression.builder().id(AWS_SOLUTIONS_IAM_5).reason(SUPPRESS_IN_ROLES_FOR_THE_SAKE_OF_SIMPLICITY).build(),
+                        NagPackSuppression.builder().id("AwsSolutions-L1").reason("The handler targets the Java version of the app").build()), Boolean.TRUE);
+    }
+
+    Function getFunction() {
+        return function;
+    }
+}
@@ -0,0 +1,194 @@
+package com.aws;
+
+import software.amazon.awscdk.services.ec2.ISubnet;
+import software.amazon.awscdk.services.ec2.SecurityGroup;
+import software.amazon.awscdk.services.ec2.SubnetSelection;
+import software.amazon.awscdk.services.ec2.SubnetType;
+import software.amazon.awscdk.services.ec2.Vpc;
+import software.amazon.awscdk.services.eks.AwsAuthMapping;
+import software.amazon.awscdk.services.eks.Cluster;
+import software.amazon.awscdk.services.eks.HelmChart;
+import software.amazon.awscdk.services.eks.HelmChartOptions;
+import software.amazon.awscdk.services.eks.KubernetesManifest;
+import software.amazon.awscdk.services.eks.ServiceAccount;
+import software.amazon.awscdk.services.eks.ServiceAccountOptions;
+import software.amazon.awscdk.services.iam.Effect;
+import software.amazon.awscdk.services.iam.ManagedPolicy;
+import software.amazon.awscdk.services.iam.PolicyStatement;
+import software.amazon.awscdk.services.iam.Role;
+import software.amazon.awscdk.services.iam.ServicePrincipal;
+import software.constructs.Construct;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.aws.Constants.*;
+
+// Karpenter controller (IRSA), node role and the NodePools/EC2NodeClass that provision elastic capacity for the Karmada parent
+// cluster. Karmada etcd gets its own on-demand NodePool whose nodes are never disrupted voluntarily
+public class KarpenterCapacity extends Construct {
+
+    private final Role nodeRole;
+    private final HelmChart karpenterChart;
+
+    public KarpenterCapacity(Construct scope, String id, Cluster cluster, Vpc vpc, SecurityGroup securityGroup,
+                             List<String> instanceFamilies, List<String> capacityTypes, int maxPods,
+                             NodeImage nodeImage, int volumeSize, int volumeThroughput) {
+        super(scope, id);
+
+        this.nodeRole = createNodeRole(cluster);
+        KubernetesManifest namespace = cluster.addManifest(KARPENTER_NAMESPACE, Map.of(
+                "apiVersion", "v1",
+                "kind", "Namespace",
+                "metadata", Map.of("name", KARPENTER_NAMESPACE)));
+        ServiceAccount serviceAccount = createControllerServiceAccount(cluster, nodeRole);
+        serviceAccount.getNode().addDependency(namespace);
+        this.karpenterChart = createKarpenterChart(cluster, serviceAccount);
+
+        KubernetesManifest nodeClass = cluster.addManifest(KARPENTER_NODE_CLASS, createNodeClass(vpc, cluster, securityGroup, nodeImage, volumeSize, volumeThroughput));
+        nodeClass.getNode().addDependency(karpenterChart);
+        KubernetesManifest nodePool = cluster.addManifest(KARPENTER_NODE_POOL, createNodePool(instanceFamilies, capacityTypes, maxPods));
+        nodePool.getNode().addDependency(nodeClass);
+        KubernetesManifest etcdNodePool = cluster.addManifest(KARPENTER_ETCD_NODE_POOL, createEtcdNodePool(instanceFamilies, maxPods));
+        etcdNodePool.getNode().addDependency(nodeClass);
+    }
+
+    public Role getNodeRole() {
+        return nodeRole;
+    }
+
+    public HelmChart getKarpenterChart() {
+        return karpenterChart;
+    }
+
+    private Role createNodeRole(Cluster cluster) {
+        Role role = Role.Builder.create(this, KARPENTER_NODE_ROLE)
+                .assumedBy(new ServicePrincipal(EC2_SERVICE_PRINCIPAL))
+                .managedPolicies(KARPENTER_NODE_POLICIES_LIST.stream()
+                        .map(ManagedPolicy::fromAwsManagedPolicyName)
+                        .collect(Collectors.toList()))
+                .build();
+        // Nodes launched by Karpenter join the cluster with this role
+        cluster.getAwsAuth().addRoleMapping(role, AwsAuthMapping.builder()
+                .username("system:node:{{EC2PrivateDNSName}}")
+                .groups(Arrays.asList("system:bootstrappers", "system:nodes"))
+                .build());
+        return role;
+    }
+
+    private ServiceAccount createControllerServiceAccount(Cluster cluster, Role nodeRole) {
+        ServiceAccount serviceAccount = cluster.addServiceAccount(KARPENTER_SERVICE_ACCOUNT, ServiceAccountOptions.builder()
+                .name(KARPENTER)
+                .namespace(KARPENTER_NAMESPACE)
+                .build());
+        serviceAccount.addToPrincipalPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(ALL_RESOURCES_LIST)
+                .actions(KARPENTER_CONTROLLER_POLICIES_LIST)
+                .build());
+        serviceAccount.addToPrincipalPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(nodeRole.getRoleArn()))
+                .actions(Arrays.asList("iam:PassRole"))
+                .build());
+        serviceAccount.addToPrincipalPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(cluster.getClusterArn()))
+                .actions(Arrays.asList("eks:DescribeCluster"))
+                .build());
+        return serviceAccount;
+    }
+
+    private HelmChart createKarpenterChart(Cluster cluster, ServiceAccount serviceAccount) {
+        HelmChart chart = cluster.addHelmChart(KARPENTER, HelmChartOptions.builder()
+                .chart(KARPENTER)
+                .repository(KARPENTER_REPOSITORY)
+                .version(KARPENTER_VERSION)
+                .namespace(KARPENTER_NAMESPACE)
+                .createNamespace(Boolean.FALSE)
+                .values(Map.of(
+                        "settings", Map.of("clusterName", cluster.getClusterName()),
+                        "serviceAccount", Map.of("create", Boolean.FALSE, "name", KARPENTER)))
+                .build());
+        chart.getNode().addDependency(serviceAccount);
+        return chart;
+    }
+
+    private Map<String, Object> createNodeClass(Vpc vpc, Cluster cluster, SecurityGroup securityGroup, NodeImage nodeImage,
+                                                int volumeSize, int volumeThroughput) {
+        List<ISubnet> subnets = vpc.selectSubnets(SubnetSelection.builder().subnetType(SubnetType.PRIVATE_WITH_EGRESS).build()).getSubnets();
+        return Map.of(
+                "apiVersion", "karpenter.k8s.aws/v1beta1",
+                "kind", "EC2NodeClass",
+                "metadata", Map.of("name", KARPENTER_NODE_CLASS),
+                "spec", Map.of(
+                        "amiFamily", nodeImage.getKarpenterAmiFamily(),
+                        "role", nodeRole.getRoleName(),
+                        "subnetSelectorTerms", subnets.stream()
+                                .map(subnet -> Map.of("id", subnet.getSubnetId()))
+                                .collect(Collectors.toList()),
+                        "securityGroupSelectorTerms", Arrays.asList(
+                                Map.of("id", cluster.getClusterSecurityGroupId()),
+                                Map.of("id", securityGroup.getSecurityGroupId())),
+                        "blockDeviceMappings", Arrays.asList(Map.of(
+                                "deviceName", nodeImage.getDataDevice(),
+                                "ebs", Map.of("volumeSize", volumeSize + "Gi", "volumeType", "gp3", "throughput", volumeThroughput,
+                                        "encrypted", Boolean.TRUE)))));
+    }
+
+    // maxPods 0 keeps the max pods of the instance type
+    private Map<String, Object> createNodePool(List<String> instanceFamilies, List<String> capacityTypes, int maxPods) {
+        return Map.of(
+                "apiVersion", "karpenter.sh/v1beta1",
+                "kind", "NodePool",
+                "metadata", Map.of("name", KARPENTER_NODE_POOL),
+                "spec", Map.of(
+                        "template", Map.of("spec", nodeSpec(instanceFamilies, capacityTypes, maxPods)),
+                        "limits", Map.of("cpu", KARPENTER_CPU_LIMIT),
+                        "disruption", Map.of("consolidationPolicy", "WhenUnderutilized", "expireAfter", "720h")));
+    }
+
+    // Nodes labeled for the etcd node selector. Consolidation would move the etcd members of a busy cluster, so
+    // empty nodes are kept and the zero node budget also stops drift and expiry, only interruptions remain
+    private Map<String, Object> createEtcdNodePool(List<String> instanceFamilies, int maxPods) {
+        return Map.of(
+                "apiVersion", "karpenter.sh/v1beta1",
+                "kind", "NodePool",
+                "metadata", Map.of("name", KARPENTER_ETCD_NODE_POOL),
+                "spec", Map.of(
+                        "template", Map.of(
+                                "metadata", Map.of("labels", Map.of(ETCD_NODE_LABEL_KEY, ETCD_NODE_LABEL_VALUE)),
+                                "spec", nodeSpec(instanceFamilies, Arrays.asList(KARPENTER_ON_DEMAND), maxPods)),
+                        "limits", Map.of("cpu", KARPENTER_ETCD_CPU_LIMIT),
+                        "disruption", Map.of(
+                                "consolidationPolicy", "WhenEmpty",
+                                "consolidateAfter", "Never",
+                                "expireAfter", "Never",
+                                "budgets", Arrays.asList(Map.of("nodes", "0")))));
+    }
+
+    private static Map<String, Object> nodeSpec(List<String> instanceFamilies, List<String> capacityTypes, int maxPods) {
+        Map<String, Object> nodeSpec = new LinkedHashMap<>();
+        nodeSpec.put("nodeClassRef", Map.of("name", KARPENTER_NODE_CLASS));
+        nodeSpec.put("requirements", Arrays.asList(
+                requirement("karpenter.k8s.aws/instance-family", instanceFamilies),
+                requirement("karpenter.sh/capacity-type", capacityTypes),
+                // Graviton families (e.g. m6g) need arm64 nodes
+                requirement("kubernetes.io/arch", Arrays.asList("amd64", "arm64")),
+                requirement("kubernetes.io/os", Arrays.asList("linux"))));
+        if (maxPods > 0) {
+            nodeSpec.put("kubelet", Map.of("maxPods", maxPods));
+        }
+        return nodeSpec;
+    }
+
+    private static Map<String, Object> requirement(String key, List<String> values) {
+        return Map.of("key", key, "operator", "In", "values", values);
+    }
+}
@@ -0,0 +1,137 @@
+package com.aws;
+
+import io.github.cdklabs.cdknag.NagPackSuppression;
+import io.github.cdklabs.cdknag.NagSuppressions;
+import software.amazon.awscdk.Duration;
+import software.amazon.awscdk.RemovalPolicy;
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.services.iam.Effect;
+import software.amazon.awscdk.services.iam.Policy;
+import software.amazon.awscdk.services.iam.PolicyStatement;
+import software.amazon.awscdk.services.iam.Role;
+import software.amazon.awscdk.services.iam.ServicePrincipal;
+import software.amazon.awscdk.services.kinesisfirehose.CfnDeliveryStream;
+import software.amazon.awscdk.services.logs.CfnSubscriptionFilter;
+import software.amazon.awscdk.services.logs.ILogGroup;
+import software.amazon.awscdk.services.s3.BlockPublicAccess;
+import software.amazon.awscdk.services.s3.Bucket;
+import software.amazon.awscdk.services.s3.BucketEncryption;
+import software.amazon.awscdk.services.s3.LifecycleRule;
+import software.amazon.awscdk.services.s3.StorageClass;
+import software.amazon.awscdk.services.s3.Transition;
+import software.constructs.Construct;
+import software.constructs.IConstruct;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.aws.Constants.*;
+
+// One log archive bucket per top level stack, shared by the clusters of the nested stacks below it and by the VPC flow
+// logs. Each cluster gets its own delivery stream, so that the objects are partitioned by cluster and by hour
+final class LogArchive extends Construct {
+
+    private final Bucket bucket;
+    private final Role deliveryRole;
+    private final Role subscriptionRole;
+
+    private LogArchive(Stack scope) {
+        super(scope, LOG_ARCHIVE);
+        this.bucket = Bucket.Builder.create(this, LOG_ARCHIVE_BUCKET)
+                .encryption(BucketEncryption.S3_MANAGED)
+                .blockPublicAccess(BlockPublicAccess.BLOCK_ALL)
+                .enforceSsl(Boolean.TRUE)
+                .lifecycleRules(Arrays.asList(LifecycleRule.builder()
+                        .transitions(Arrays.asList(Transition.builder()
+                                .storageClass(StorageClass.INFREQUENT_ACCESS)
+                                .transitionAfter(Duration.days(LOG_ARCHIVE_INFREQUENT_ACCESS_DAYS))
+                                .build()))
+                        .build()))
+                .removalPolicy(RemovalPolicy.RETAIN)
+                .build();
+        this.deliveryRole = Role.Builder.create(this, LOG_ARCHIVE_DELIVERY_ROLE)
+                .assumedBy(new ServicePrincipal("firehose.amazonaws.com"))
+                .build();
+        bucket.grantWrite(deliveryRole);
+        this.subscriptionRole = Role.Builder.create(this, LOG_ARCHIVE_SUBSCRIPTION_ROLE)
+                .assumedBy(new ServicePrincipal("logs.amazonaws.com"))
+                .build();
+
+        NagSuppressions.addResourceSuppressions(this,
+                Arrays.asList(NagPackSuppression.builder().id("AwsSolutions-S1").reason("The bucket holds access and audit logs itself").build(),
+                        NagPackSuppression.builder().id(AWS_SOLUTIONS_IAM_5).reason(SUPPRESS_IN_ROLES_FOR_THE_SAKE_OF_SIMPLICITY).build()), Boolean.TRUE);
+    }
+
+    static LogArchive of(Construct scope) {
+        Stack rootStack = Stack.of(scope);
+        while (rootStack.getNestedStackParent() != null) {
+            rootStack = rootStack.getNestedStackParent();
+        }
+        IConstruct archive = rootStack.getNode().tryFindChild(LOG_ARCHIVE);
+        return archive != null ? (LogArchive) archive : new LogArchive(rootStack);
+    }
+
+    Bucket getBucket() {
+        return bucket;
+    }
+
+    // Audit events only: the api server, authenticator and controller logs of the same group are plain text.
+    // CloudWatch Logs delivers gzipped batches of events, Firehose unpacks them to one JSON event per line and
+    // compresses whole buffers again
+    CfnSubscriptionFilter archiveAuditLog(Construct scope, ILogGroup logGroup, String clusterName) {
+        List<Object> processors = Arrays.asList(
+                processor("Decompression", "CompressionFormat", "GZIP"),
+                processor("CloudWatchLogProcessing", "DataMessageExtraction", "true"),
+                processor("AppendDelimiterToRecord", "Delimiter", "\\n"));
+        CfnDeliveryStream deliveryStream = CfnDeliveryStream.Builder.create(scope, AUDIT_LOG_DELIVERY_STREAM)
+                .deliveryStreamType("DirectPut")
+                .deliveryStreamEncryptionConfigurationInput(CfnDeliveryStream.DeliveryStreamEncryptionConfigurationInputProperty.builder()
+                        .keyType("AWS_OWNED_CMK")
+                        .build())
+                .extendedS3DestinationConfiguration(CfnDeliveryStream.ExtendedS3DestinationConfigurationProperty.builder()
+                        .bucketArn(bucket.getBucketArn())
+                        .roleArn(deliveryRole.getRoleArn())
+                        .prefix(AUDIT_LOG_PREFIX + "cluster=" + clusterName + "/" + HOURLY_PARTITIONS)
+                        .errorOutputPrefix(AUDIT_LOG_PREFIX + "errors/!{firehose:error-output-type}/" + HOURLY_PARTITIONS)
+                        .compressionFormat("GZIP")
+                        .bufferingHints(CfnDeliveryStream.BufferingHintsProperty.builder()
+                                .intervalInSeconds(AUDIT_LOG_BUFFER_SECONDS)
+                                .sizeInMBs(AUDIT_LOG_BUFFER_MB)
+                                .build())
+                        .processingConfiguration(CfnDeliveryStream.ProcessingConfigurationProperty.builder()
+                                .enabled(Boolean.TRUE)
+                                .processors(processors)
+                                .build())
+                        .build())
+                .build();
+        deliveryStream.getNode().addDependency(deliveryRole);
+
+        // Attached from the cluster stack, the shared role must not depend on the delivery streams of the nested stacks
+        Policy subscriptionPolicy = Policy.Builder.create(scope, AUDIT_LOG_SUBSCRIPTION + "Policy")
+                .roles(Arrays.asList(subscriptionRole))
+                .statements(Arrays.asList(PolicyStatement.Builder.create()
+                        .effect(Effect.ALLOW)
+                        .actions(Arrays.asList("firehose:PutRecord", "firehose:PutRecordBatch"))
+                        .resources(Arrays.asList(deliveryStream.getAttrArn()))
+                        .build()))
+                .build();
+        CfnSubscriptionFilter subscriptionFilter = CfnSubscriptionFilter.Builder.create(scope, AUDIT_LOG_SUBSCRIPTION)
+                .logGroupName(logGroup.getLogGroupName())
+                .filterPattern(AUDIT_LOG_FILTER_PATTERN)
+                .destinationArn(deliveryStream.getAttrArn())
+                .roleArn(subscriptionRole.getRoleArn())
+                .build();
+        subscriptionFilter.getNode().addDependency(subscriptionPolicy);
+        return subscriptionFilter;
+    }
+
+    private static CfnDeliveryStream.ProcessorProperty processor(String type, String parameterName, String parameterValue) {
+        return CfnDeliveryStream.ProcessorProperty.builder()
+                .type(type)
+                .parameters(Arrays.asList(CfnDeliveryStream.ProcessorParameterProperty.builder()
+                        .parameterName(parameterName)
+                        .parameterValue(parameterValue)
+                        .build()))
+                .build();
+    }
+}
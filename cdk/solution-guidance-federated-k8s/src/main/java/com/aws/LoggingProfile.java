@@ -0,0 +1,38 @@
+package com.aws;
+
+import software.amazon.awscdk.services.eks.ClusterLoggingTypes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public enum LoggingProfile {
+    // All five control plane log types in CloudWatch (default)
+    FULL(false, ClusterLoggingTypes.API, ClusterLoggingTypes.AUDIT, ClusterLoggingTypes.AUTHENTICATOR,
+            ClusterLoggingTypes.CONTROLLER_MANAGER, ClusterLoggingTypes.SCHEDULER),
+    // Everything but the audit log, which is most of the volume
+    NO_AUDIT(false, ClusterLoggingTypes.API, ClusterLoggingTypes.AUTHENTICATOR,
+            ClusterLoggingTypes.CONTROLLER_MANAGER, ClusterLoggingTypes.SCHEDULER),
+    // All five log types, the audit log is also delivered through Firehose to S3 in compressed, hourly partitioned
+    // batches for bulk analysis, and the VPC flow logs go to the same bucket instead of CloudWatch
+    AUDIT_ARCHIVE(true, ClusterLoggingTypes.API, ClusterLoggingTypes.AUDIT, ClusterLoggingTypes.AUTHENTICATOR,
+            ClusterLoggingTypes.CONTROLLER_MANAGER, ClusterLoggingTypes.SCHEDULER),
+    // No control plane logs
+    NONE(false);
+
+    private final boolean auditArchive;
+    private final List<ClusterLoggingTypes> logTypes;
+
+    LoggingProfile(boolean auditArchive, ClusterLoggingTypes... logTypes) {
+        this.auditArchive = auditArchive;
+        this.logTypes = Collections.unmodifiableList(Arrays.asList(logTypes));
+    }
+
+    public boolean isAuditArchive() {
+        return auditArchive;
+    }
+
+    public List<ClusterLoggingTypes> getLogTypes() {
+        return logTypes;
+    }
+}
@@ -0,0 +1,8 @@
+package com.aws;
+
+public enum ManagementHostBootstrap {
+    // yum update, git clone of this repository and tool downloads at every boot (default)
+    GIT_CLONE,
+    // Scripts and optional tools shipped as versioned CDK assets, checksum verified by cfn-init
+    S3_ASSET
+}
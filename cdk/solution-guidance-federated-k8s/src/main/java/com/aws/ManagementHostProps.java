@@ -5,12 +5,35 @@ import software.amazon.awscdk.services.ec2.Vpc;
 import software.amazon.awscdk.services.eks.Cluster;
 import software.amazon.awscdk.services.iam.Role;
 
+import static com.aws.Constants.*;
+
 public class ManagementHostProps implements NestedStackProps {
     private Vpc vpc;
     private String mastersRoleARN;
     private Role managementHostRole;
     private String region;
     private Cluster cluster;
+    private int memberClusterCount;
+    private String etcdNodeSelector = "";
+    private String etcdStorageClassName = EBS_STORAGE_CLASS;
+    private String instanceType = MANAGEMENT_HOST_INSTANCE_TYPE;
+    private int rootVolumeSize = MANAGEMENT_HOST_ROOT_VOLUME_SIZE;
+    private String memberRegions = "";
+    private RegistrationMode registrationMode = RegistrationMode.SCRIPT;
+    private String karmadaApiSecretId = "";
+    private ManagementHostBootstrap bootstrap = ManagementHostBootstrap.GIT_CLONE;
+    private String imageId = "";
+    private String toolsPath = "";
+    private String karmadaApiDnsName = "";
+    private String karmadaApiAddresses = "";
+    private String searchResources = "";
+    private String searchBackendAddresses = "";
+    private String searchBackendSecret = "";
+    private String imageCacheRegistry = "";
+    private String dockerHubMirror = "";
+    private boolean federatedHpa;
+    private int failoverSeconds;
+    private String scriptsPath = "";
 
     public ManagementHostProps vpc(Vpc vpc) {
         this.vpc = vpc;
@@ -37,6 +60,111 @@ public class ManagementHostProps implements NestedStackProps {
         return this;
     }
 
+    public ManagementHostProps memberClusterCount(int memberClusterCount) {
+        this.memberClusterCount = memberClusterCount;
+        return this;
+    }
+
+    public ManagementHostProps etcdNodeSelector(String etcdNodeSelector) {
+        this.etcdNodeSelector = etcdNodeSelector;
+        return this;
+    }
+
+    public ManagementHostProps etcdStorageClassName(String etcdStorageClassName) {
+        this.etcdStorageClassName = etcdStorageClassName;
+        return this;
+    }
+
+    public ManagementHostProps instanceType(String instanceType) {
+        this.instanceType = instanceType;
+        return this;
+    }
+
+    public ManagementHostProps rootVolumeSize(int rootVolumeSize) {
+        this.rootVolumeSize = rootVolumeSize;
+        return this;
+    }
+
+    public ManagementHostProps memberRegions(String memberRegions) {
+        this.memberRegions = memberRegions;
+        return this;
+    }
+
+    public ManagementHostProps registrationMode(RegistrationMode registrationMode) {
+        this.registrationMode = registrationMode;
+        return this;
+    }
+
+    public ManagementHostProps karmadaApiSecretId(String karmadaApiSecretId) {
+        this.karmadaApiSecretId = karmadaApiSecretId;
+        return this;
+    }
+
+    public ManagementHostProps bootstrap(ManagementHostBootstrap bootstrap) {
+        this.bootstrap = bootstrap;
+        return this;
+    }
+
+    public ManagementHostProps imageId(String imageId) {
+        this.imageId = imageId;
+        return this;
+    }
+
+    public ManagementHostProps toolsPath(String toolsPath) {
+        this.toolsPath = toolsPath;
+        return this;
+    }
+
+    public ManagementHostProps karmadaApiDnsName(String karmadaApiDnsName) {
+        this.karmadaApiDnsName = karmadaApiDnsName;
+        return this;
+    }
+
+    public ManagementHostProps karmadaApiAddresses(String karmadaApiAddresses) {
+        this.karmadaApiAddresses = karmadaApiAddresses;
+        return this;
+    }
+
+    public ManagementHostProps searchResources(String searchResources) {
+        this.searchResources = searchResources;
+        return this;
+    }
+
+    public ManagementHostProps searchBackendAddresses(String searchBackendAddresses) {
+        this.searchBackendAddresses = searchBackendAddresses;
+        return this;
+    }
+
+    public ManagementHostProps searchBackendSecret(String searchBackendSecret) {
+        this.searchBackendSecret = searchBackendSecret;
+        return this;
+    }
+
+    public ManagementHostProps imageCacheRegistry(String imageCacheRegistry) {
+        this.imageCacheRegistry = imageCacheRegistry;
+        return this;
+    }
+
+    public ManagementHostProps dockerHubMirror(String dockerHubMirror) {
+        this.dockerHubMirror = dockerHubMirror;
+        return this;
+    }
+
+    public ManagementHostProps federatedHpa(boolean federatedHpa) {
+        this.federatedHpa = federatedHpa;
+        return this;
+    }
+
+    public ManagementHostProps failoverSeconds(int failoverSeconds) {
+        this.failoverSeconds = failoverSeconds;
+        return this;
+    }
+
+    public ManagementHostProps scriptsPath(String scriptsPath) {
+        this.scriptsPath = scriptsPath;
+        return this;
+    }
+
     public Vpc getVpc() {
         return vpc;
     }
@@ -56,4 +184,88 @@ public class ManagementHostProps implements NestedStackProps {
     public Cluster getCluster() {
         return cluster;
     }
+
+    public int getMemberClusterCount() {
+        return memberClusterCount;
+    }
+
+    public String getEtcdNodeSelector() {
+        return etcdNodeSelector;
+    }
+
+    public String getEtcdStorageClassName() {
+        return etcdStorageClassName;
+    }
+
+    public String getInstanceType() {
+        return instanceType;
+    }
+
+    public int getRootVolumeSize() {
+        return rootVolumeSize;
+    }
+
+    public String getMemberRegions() {
+        return memberRegions;
+    }
+
+    public RegistrationMode getRegistrationMode() {
+        return registrationMode;
+    }
+
+    public String getKarmadaApiSecretId() {
+        return karmadaApiSecretId;
+    }
+
+    public ManagementHostBootstrap getBootstrap() {
+        return bootstrap;
+    }
+
+    public String getImageId() {
+        return imageId;
+    }
+
+    public String getToolsPath() {
+        return toolsPath;
+    }
+
+    public String getKarmadaApiDnsName() {
+        return karmadaApiDnsName;
+    }
+
+    public String getKarmadaApiAddresses() {
+        return karmadaApiAddresses;
+    }
+
+    public String getSearchResources() {
+        return searchResources;
+    }
+
+    public String getSearchBackendAddresses() {
+        return searchBackendAddresses;
+    }
+
+    public String getSearchBackendSecret() {
+        return searchBackendSecret;
+    }
+
+    public String getImageCacheRegistry() {
+        return imageCacheRegistry;
+    }
+
+    public String getDockerHubMirror() {
+        return dockerHubMirror;
+    }
+
+    public boolean isFederatedHpa() {
+        return federatedHpa;
+    }
+
+    public int getFailoverSeconds() {
+        return failoverSeconds;
+    }
+
+    public String getScriptsPath() {
+        return scriptsPath;
+    }
 }
@@ -2,19 +2,33 @@ package com.aws;
 
 import io.github.cdklabs.cdknag.NagPackSuppression;
 import io.github.cdklabs.cdknag.NagSuppressions;
+import software.amazon.awscdk.CfnCreationPolicy;
+import software.amazon.awscdk.CfnOutput;
+import software.amazon.awscdk.CfnResourceSignal;
+import software.amazon.awscdk.CfnWaitCondition;
+import software.amazon.awscdk.CfnWaitConditionHandle;
+import software.amazon.awscdk.Duration;
+import software.amazon.awscdk.Fn;
 import software.amazon.awscdk.NestedStack;
+import software.amazon.awscdk.Token;
 import software.amazon.awscdk.services.ec2.*;
 import software.amazon.awscdk.services.eks.Cluster;
 import software.amazon.awscdk.services.iam.Role;
 import software.constructs.Construct;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.URL;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.aws.Constants.*;
 
@@ -26,28 +40,42 @@ public class ManagementHostStack extends NestedStack {
 
     public ManagementHostStack(Construct scope, String id, ManagementHostProps props) {
         super(scope, id, props);
-        createKarmadaManagementHost(props.getVpc(), props.getManagementHostRole(), props.getMastersRoleARN(), props.getCluster(), props.getRegion());
+        createKarmadaManagementHost(props);
     }
 
-    private void createKarmadaManagementHost(Vpc vpc, Role managementHostRole, String mastersRoleArn, Cluster karmadaCluster, String region) {
-
-        SecurityGroup securityGroup = createBastionHostLinuxSecurityGroup(vpc);
-        Instance bastionHostLinux = createBastionHostLinux(vpc, managementHostRole, getMultipartUserData(mastersRoleArn, region), securityGroup);
-        bastionHostLinux.getNode().addDependency(karmadaCluster);
+    private void createKarmadaManagementHost(ManagementHostProps props) {
+
+        SecurityGroup securityGroup = createBastionHostLinuxSecurityGroup(props.getVpc());
+        MultipartUserData multipartUserData = getMultipartUserData();
+        Instance bastionHostLinux = createBastionHostLinux(props, multipartUserData, securityGroup);
+        bastionHostLinux.getNode().addDependency(props.getCluster());
+
+        // The instance is created before its user data so that cfn-init can target it
+        String cfnInit = props.getBootstrap() == ManagementHostBootstrap.S3_ASSET ? attachCloudFormationInit(bastionHostLinux, props) : "";
+        CfnWaitConditionHandle bootHandle = new CfnWaitConditionHandle(this, MANAGEMENT_HOST_BOOT_HANDLE);
+        multipartUserData.addCommands(getUserDataFromFile(props, cfnInit, bootHandle.getRef()));
+        CfnWaitCondition boot = CfnWaitCondition.Builder.create(this, MANAGEMENT_HOST_BOOT)
+                .handle(bootHandle.getRef())
+                .timeout(String.valueOf(Duration.parse(MANAGEMENT_HOST_BOOT_TIMEOUT).toSeconds()))
+                .count(1)
+                .build();
+        boot.getNode().addDependency(bastionHostLinux);
+        // The wait condition data is {"boot":"<seconds>"}, keyed by the UniqueId of the signal
+        CfnOutput.Builder.create(this, MANAGEMENT_HOST_BOOT_OUTPUT)
+                .description("Seconds from the management host boot until it was ready to deploy Karmada")
+                .value(Fn.select(3, Fn.split("\"", Token.asString(boot.getAttrData()))))
+                .build();
 //        updateBastionHostLinuxRoleForEKSAccess(cluster, bastionHostLinux, mastersRole);
     }
 
-    private Instance createBastionHostLinux(Vpc vpc, Role managementHostRole, MultipartUserData multipartUserData, SecurityGroup securityGroup) {
+    private Instance createBastionHostLinux(ManagementHostProps props, MultipartUserData multipartUserData, SecurityGroup securityGroup) {
         Instance bastionHostLinux = Instance.Builder.create(this, KARMADA_MANAGEMENT_HOST)
-                .vpc(vpc)
+                .vpc(props.getVpc())
                 .instanceName(KARMADA_MANAGEMENT_HOST)
-                .instanceType(InstanceType.of(InstanceClass.T3, InstanceSize.MICRO))
-                .machineImage(MachineImage.latestAmazonLinux2023(
-                        AmazonLinux2023ImageSsmParameterProps.builder().
-                                userData(multipartUserData).
-                                build()))
+                .instanceType(new InstanceType(props.getInstanceType()))
+                .machineImage(getMachineImage(props, multipartUserData))
                 .blockDevices(Arrays.asList(BlockDevice.builder()
-                        .volume(BlockDeviceVolume.ebs(10, EbsDeviceOptions.builder()
+                        .volume(BlockDeviceVolume.ebs(props.getRootVolumeSize(), EbsDeviceOptions.builder()
                                 .encrypted(Boolean.TRUE)
                                 .build()))
                         .deviceName(DEVICE_PATH)
@@ -57,7 +85,7 @@ public class ManagementHostStack extends NestedStack {
                         .subnetType(SubnetType.PUBLIC)
                         .build())
                 .securityGroup(securityGroup)
-                .role(managementHostRole)
+                .role(props.getManagementHostRole())
                 .build();
         bastionHostLinux.getNode().addDependency();
 
@@ -88,39 +116,125 @@ public class ManagementHostStack extends NestedStack {
         return securityGroup;
     }
 
-    private MultipartUserData getMultipartUserData(String masterRoleArn, String region) {
-        MultipartUserData multipartUserData = new MultipartUserData();
-        UserData userData = getUserDataFromFile(masterRoleArn, region);
+    // A pre-built image already has the tools, Amazon Linux 2023 gets them from the tools asset or the deployment script
+    private static IMachineImage getMachineImage(ManagementHostProps props, MultipartUserData multipartUserData) {
+        if (!props.getImageId().isEmpty()) {
+            return MachineImage.genericLinux(Map.of(props.getRegion(), props.getImageId()),
+                    GenericLinuxImageProps.builder().userData(multipartUserData).build());
+        }
+        return MachineImage.latestAmazonLinux2023(AmazonLinux2023ImageSsmParameterProps.builder()
+                .userData(multipartUserData)
+                .build());
+    }
 
-        multipartUserData.addUserDataPart(userData, MultipartBody.SHELL_SCRIPT, true);
+    private MultipartUserData getMultipartUserData() {
+        MultipartUserData multipartUserData = new MultipartUserData();
+        multipartUserData.addUserDataPart(UserData.forLinux(), MultipartBody.SHELL_SCRIPT, true);
         return multipartUserData;
     }
 
-    private UserData getUserDataFromFile(String masterRoleArn, String region) {
-        UserData userData = UserData.forLinux();
+    private String getUserDataFromFile(ManagementHostProps props, String cfnInit, String bootSignalUrl) {
+        UserDataTemplate userDataTemplate = UserDataTemplate.fromResource(USER_DATA_FILE, USER_DATA_KEYS);
+        boolean toolsInstalled = !props.getImageId().isEmpty() || !props.getToolsPath().isEmpty();
+        return userDataTemplate.render(Map.ofEntries(
+                Map.entry(MASTER_ROLE_ARN, props.getMastersRoleARN()),
+                Map.entry(DEPLOYMENT_REGION, props.getRegion()),
+                Map.entry(MEMBER_CLUSTER_NUM, String.valueOf(props.getMemberClusterCount())),
+                Map.entry(ETCD_NODE_SELECTOR, props.getEtcdNodeSelector()),
+                Map.entry(ETCD_STORAGE_CLASS_NAME, props.getEtcdStorageClassName()),
+                Map.entry(MEMBER_REGIONS, props.getMemberRegions()),
+                Map.entry(REGISTRATION_MODE, props.getRegistrationMode().name()),
+                Map.entry(KARMADA_API_SECRET_ID, props.getKarmadaApiSecretId()),
+                Map.entry(MANAGEMENT_HOST_BOOTSTRAP, props.getBootstrap().name()),
+                Map.entry(CFN_INIT, cfnInit),
+                Map.entry(BOOT_SIGNAL_URL, bootSignalUrl),
+                Map.entry(SCRIPTS_DIR, props.getBootstrap() == ManagementHostBootstrap.S3_ASSET ? ASSET_SCRIPTS_DIR : GIT_CLONE_SCRIPTS_DIR),
+                Map.entry(UTILS_OPTION, toolsInstalled ? "-z " : ""),
+                Map.entry(KARMADA_LB, props.getKarmadaApiDnsName()),
+                Map.entry(KARMADA_LB_ADDRESSES, props.getKarmadaApiAddresses()),
+                Map.entry(SEARCH_RESOURCES_KEY, props.getSearchResources()),
+                Map.entry(SEARCH_BACKEND_ADDRESSES, props.getSearchBackendAddresses()),
+                Map.entry(SEARCH_BACKEND_SECRET, props.getSearchBackendSecret()),
+                Map.entry(IMAGE_CACHE_REGISTRY, props.getImageCacheRegistry()),
+                Map.entry(DOCKER_HUB_MIRROR, props.getDockerHubMirror()),
+                Map.entry(FEDERATED_HPA_OPTION, props.isFederatedHpa() ? "-A " : ""),
+                Map.entry(FAILOVER_SECONDS, String.valueOf(props.getFailoverSeconds()))));
+    }
 
-        File file = getFileForUserData();
+    // Scripts and tools come from versioned assets and every file is checked against the digests taken at synth time.
+    // cfn-signal reports the result, so the stack fails fast on a broken bootstrap instead of leaving a half set up host
+    private String attachCloudFormationInit(Instance bastionHostLinux, ManagementHostProps props) {
+        Path scriptsPath = props.getScriptsPath().isEmpty() ? AppDirectory.resolve(MANAGEMENT_HOST_SCRIPTS_PATH) : Paths.get(props.getScriptsPath());
+        if (!Files.isDirectory(scriptsPath)) {
+            throw new IllegalStateException("Management host scripts not found in " + scriptsPath.toAbsolutePath()
+                    + ", set -c " + MANAGEMENT_HOST_SCRIPTS_PATH_CONTEXT + "=<eks-karmada-deploy directory>");
+        }
+        List<InitElement> elements = new ArrayList<>(Arrays.asList(
+                InitSource.fromAsset(ASSET_SCRIPTS_DIR, scriptsPath.toString()),
+                InitFile.fromString(ASSET_SCRIPTS_DIR + "/" + CHECKSUMS_FILE, checksums(scriptsPath)),
+                InitCommand.shellCommand("sha256sum --quiet --strict -c " + CHECKSUMS_FILE + " && chown -R ec2-user:ec2-user .",
+                        InitCommandOptions.builder().key("10-verify-scripts").cwd(ASSET_SCRIPTS_DIR).build())));
+        if (!props.getToolsPath().isEmpty()) {
+            Path toolsPath = Paths.get(props.getToolsPath());
+            elements.addAll(Arrays.asList(
+                    InitSource.fromAsset(TOOLS_DIR, toolsPath.toString()),
+                    InitFile.fromString(TOOLS_DIR + "/" + CHECKSUMS_FILE, checksums(toolsPath)),
+                    InitCommand.shellCommand("sha256sum --quiet --strict -c " + CHECKSUMS_FILE
+                                    + " && find . -type f ! -name " + CHECKSUMS_FILE + " -exec install -m 0755 {} /usr/local/bin/ \\;",
+                            InitCommandOptions.builder().key("20-install-tools").cwd(TOOLS_DIR).build())));
+        }
+        if (!props.getImageId().isEmpty() || !props.getToolsPath().isEmpty()) {
+            elements.add(InitCommand.shellCommand("command -v " + String.join(" ", MANAGEMENT_HOST_TOOLS_LIST) + " > /dev/null",
+                    InitCommandOptions.builder().key("30-check-tools").env(Map.of("PATH", "/usr/local/bin:/usr/bin:/bin")).build()));
+        }
+        // cfn-init stops at the first failed command, the user data checks this file since the signal hides the status
+        elements.add(InitCommand.shellCommand("touch " + CFN_INIT_DONE_FILE, InitCommandOptions.builder().key("99-done").build()));
+
+        CfnInstance cfnInstance = (CfnInstance) bastionHostLinux.getNode().getDefaultChild();
+        UserData initUserData = UserData.forLinux();
+        CloudFormationInit.fromElements(elements.toArray(new InitElement[0])).attach(cfnInstance, AttachInitOptions.builder()
+                .instanceRole(props.getManagementHostRole())
+                .platform(OperatingSystemType.LINUX)
+                .userData(initUserData)
+                .signalResource(cfnInstance)
+                .build());
+        cfnInstance.getCfnOptions().setCreationPolicy(CfnCreationPolicy.builder()
+                .resourceSignal(CfnResourceSignal.builder().count(1).timeout(MANAGEMENT_HOST_BOOT_TIMEOUT).build())
+                .build());
+        // Drop the shebang, the commands go in the middle of the user data template
+        String rendered = initUserData.render();
+        return rendered.substring(rendered.indexOf('\n') + 1)
+                + "\n[[ -f " + CFN_INIT_DONE_FILE + " ]] || BOOT_FAILURE=\"cfn-init failed, see /var/log/cfn-init.log\"";
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String lineMasterRoleARN = line.contains(MASTER_ROLE_ARN) ? line.replace(MASTER_ROLE_ARN, masterRoleArn) : line;
-                String lineFinal = lineMasterRoleARN.contains(DEPLOYMENT_REGION) ? lineMasterRoleARN.replace(DEPLOYMENT_REGION, region) : lineMasterRoleARN;
-                userData.addCommands(lineFinal);
-            }
+    // sha256sum -c format, relative to the directory
+    static String checksums(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return files.filter(Files::isRegularFile)
+                    .sorted()
+                    .map(file -> hex(digest.digest(readAllBytes(file))) + "  " + directory.relativize(file).toString().replace('\\', '/'))
+                    .collect(Collectors.joining("\n", "", "\n"));
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-
-        return userData;
     }
 
-    private File getFileForUserData() {
-        URL resource = getClass().getClassLoader().getResource(USER_DATA_FILE);
+    private static byte[] readAllBytes(Path file) {
         try {
-            return new File(resource.toURI());
-        } catch (URISyntaxException e) {
-            throw new RuntimeException(e);
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
         }
+        return builder.toString();
     }
 }
@@ -0,0 +1,92 @@
+package com.aws;
+
+import software.amazon.awscdk.CustomResource;
+import software.amazon.awscdk.Stack;
+import software.constructs.Construct;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static com.aws.Constants.*;
+
+// Applies many Karmada manifests with a fixed number of custom resources instead of one per manifest, every batch is
+// one provider invocation that applies its manifests in order. Namespaces go first in a batch of their own that the
+// other batches wait for, the other batches run concurrently. A manifest stays in the same batch when others are added
+// or removed, an update deletes the objects its batch no longer has and they must not have moved to another one
+final class ManifestBatcher {
+
+    private final int batches;
+    private final List<Map<String, Object>> namespaces = new ArrayList<>();
+    private final List<Map<String, Object>> manifests = new ArrayList<>();
+
+    ManifestBatcher(int batches) {
+        this.batches = batches;
+    }
+
+    ManifestBatcher add(Map<String, Object> manifest) {
+        ("Namespace".equals(manifest.get("kind")) ? namespaces : manifests).add(manifest);
+        return this;
+    }
+
+    ManifestBatcher addAll(Collection<Map<String, Object>> manifests) {
+        manifests.forEach(this::add);
+        return this;
+    }
+
+    List<Map<String, Object>> getNamespaces() {
+        return namespaces;
+    }
+
+    // Batch by the hash of the object identity, some may be empty
+    List<List<Map<String, Object>>> getBatches() {
+        List<List<Map<String, Object>>> result = new ArrayList<>();
+        for (int i = 0; i < batches; i++) {
+            result.add(new ArrayList<>());
+        }
+        manifests.forEach(manifest -> result.get(Math.floorMod(key(manifest).hashCode(), batches)).add(manifest));
+        return result;
+    }
+
+    // String.hashCode is specified, so a synth on any JVM picks the same batch
+    @SuppressWarnings("unchecked")
+    static String key(Map<String, Object> manifest) {
+        Map<String, Object> metadata = (Map<String, Object>) manifest.getOrDefault("metadata", Map.of());
+        return manifest.get("apiVersion") + "/" + manifest.get("kind") + "/" + metadata.get("namespace") + "/" + metadata.get("name");
+    }
+
+    // Through the registration provider, which reads the Karmada api server credentials the management host publishes
+    List<CustomResource> applyToKarmada(Construct scope, String id) {
+        KarmadaRegistrationProvider provider = KarmadaRegistrationProvider.of(scope);
+        return apply((index, batch) -> CustomResource.Builder.create(scope, id + index)
+                .serviceToken(provider.getServiceToken())
+                .resourceType(KARMADA_MANIFESTS_RESOURCE_TYPE)
+                // as a JSON string, CloudFormation would turn the numbers and booleans of the manifests into strings
+                .properties(Map.of(MANIFESTS_NAME_PROPERTY, id + index,
+                        MANIFESTS_PROPERTY, Stack.of(scope).toJsonString(batch)))
+                .build());
+    }
+
+    // The id of a batch is its index, or NAMESPACES_BATCH for the namespaces, and an empty batch is not applied
+    private <T extends Construct> List<T> apply(BiFunction<String, List<Map<String, Object>>, T> applyBatch) {
+        List<T> applied = new ArrayList<>();
+        T namespaceBatch = namespaces.isEmpty() ? null : applyBatch.apply(NAMESPACES_BATCH, namespaces);
+        if (namespaceBatch != null) {
+            applied.add(namespaceBatch);
+        }
+        List<List<Map<String, Object>>> batchList = getBatches();
+        for (int i = 0; i < batchList.size(); i++) {
+            if (batchList.get(i).isEmpty()) {
+                continue;
+            }
+            T batch = applyBatch.apply(String.valueOf(i), batchList.get(i));
+            if (namespaceBatch != null) {
+                batch.getNode().addDependency(namespaceBatch);
+            }
+            applied.add(batch);
+        }
+        return applied;
+    }
+}
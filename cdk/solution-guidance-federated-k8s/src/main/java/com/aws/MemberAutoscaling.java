@@ -0,0 +1,89 @@
+package com.aws;
+
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.Tags;
+import software.amazon.awscdk.services.autoscaling.AutoScalingGroup;
+import software.amazon.awscdk.services.eks.Cluster;
+import software.amazon.awscdk.services.eks.HelmChart;
+import software.amazon.awscdk.services.eks.HelmChartOptions;
+import software.amazon.awscdk.services.eks.ServiceAccount;
+import software.amazon.awscdk.services.eks.ServiceAccountOptions;
+import software.amazon.awscdk.services.iam.Effect;
+import software.amazon.awscdk.services.iam.PolicyStatement;
+import software.constructs.Construct;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// metrics-server and Cluster Autoscaler (IRSA) of a member cluster. The Karmada FederatedHPA scales the replicas of a
+// workload on the metrics-server metrics of all members and Cluster Autoscaler grows the node group underneath
+public class MemberAutoscaling extends Construct {
+
+    private final HelmChart metricsServerChart;
+    private final HelmChart clusterAutoscalerChart;
+
+    public MemberAutoscaling(Construct scope, String id, Cluster cluster, String clusterName, AutoScalingGroup autoScalingGroup,
+                             String kubernetesVersion, String imageCacheRegion, String dockerHubCacheRegion) {
+        super(scope, id);
+
+        this.metricsServerChart = cluster.addHelmChart(METRICS_SERVER, HelmChartOptions.builder()
+                .chart(METRICS_SERVER)
+                .repository(METRICS_SERVER_REPOSITORY)
+                .version(METRICS_SERVER_VERSION)
+                .namespace("kube-system")
+                .values(Map.of("image", Map.of("repository", ImageCache.rewrite(METRICS_SERVER_IMAGE, imageCacheRegion, dockerHubCacheRegion))))
+                .build());
+
+        // Cluster Autoscaler discovers the node group by these tags
+        Tags.of(autoScalingGroup).add(CLUSTER_AUTOSCALER_TAG_PREFIX + "enabled", "true");
+        Tags.of(autoScalingGroup).add(CLUSTER_AUTOSCALER_TAG_PREFIX + clusterName, "owned");
+        ServiceAccount serviceAccount = createServiceAccount(cluster, autoScalingGroup);
+        this.clusterAutoscalerChart = cluster.addHelmChart(CLUSTER_AUTOSCALER, HelmChartOptions.builder()
+                .chart(CLUSTER_AUTOSCALER)
+                .repository(CLUSTER_AUTOSCALER_REPOSITORY)
+                .version(CLUSTER_AUTOSCALER_VERSION)
+                .namespace("kube-system")
+                .values(Map.of(
+                        "cloudProvider", "aws",
+                        "awsRegion", Stack.of(this).getRegion(),
+                        "autoDiscovery", Map.of("clusterName", clusterName),
+                        "image", Map.of(
+                                "repository", ImageCache.rewrite(CLUSTER_AUTOSCALER_IMAGE, imageCacheRegion, dockerHubCacheRegion),
+                                "tag", CLUSTER_AUTOSCALER_IMAGE_TAGS.getOrDefault(kubernetesVersion, "v" + kubernetesVersion + ".0")),
+                        "rbac", Map.of("serviceAccount", Map.of("create", Boolean.FALSE, "name", CLUSTER_AUTOSCALER)),
+                        "extraArgs", Map.of("expander", "least-waste")))
+                .build());
+        clusterAutoscalerChart.getNode().addDependency(serviceAccount);
+    }
+
+    public HelmChart getMetricsServerChart() {
+        return metricsServerChart;
+    }
+
+    public HelmChart getClusterAutoscalerChart() {
+        return clusterAutoscalerChart;
+    }
+
+    private ServiceAccount createServiceAccount(Cluster cluster, AutoScalingGroup autoScalingGroup) {
+        ServiceAccount serviceAccount = cluster.addServiceAccount(CLUSTER_AUTOSCALER_SERVICE_ACCOUNT, ServiceAccountOptions.builder()
+                .name(CLUSTER_AUTOSCALER)
+                .namespace("kube-system")
+                .build());
+        serviceAccount.addToPrincipalPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(ALL_RESOURCES_LIST)
+                .actions(CLUSTER_AUTOSCALER_DESCRIBE_POLICIES_LIST)
+                .build());
+        // only the node group of this cluster
+        serviceAccount.addToPrincipalPolicy(PolicyStatement.Builder
+                .create()
+                .effect(Effect.ALLOW)
+                .resources(Arrays.asList(autoScalingGroup.getAutoScalingGroupArn()))
+                .actions(CLUSTER_AUTOSCALER_SCALE_POLICIES_LIST)
+                .build());
+        return serviceAccount;
+    }
+}
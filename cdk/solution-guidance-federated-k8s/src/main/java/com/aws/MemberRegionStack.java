@@ -0,0 +1,115 @@
+package com.aws;
+
+import io.github.cdklabs.cdknag.NagPackSuppression;
+import io.github.cdklabs.cdknag.NagSuppressions;
+import software.amazon.awscdk.CfnOutput;
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.services.ec2.Vpc;
+import software.amazon.awscdk.services.eks.Cluster;
+import software.amazon.awscdk.services.iam.FromRoleNameOptions;
+import software.amazon.awscdk.services.iam.IRole;
+import software.amazon.awscdk.services.iam.Role;
+import software.amazon.awscdk.services.ssm.StringParameter;
+import software.constructs.Construct;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// VPC and member clusters of one member region. The management host role is imported by name and nothing
+// references the parent stack, so every region deploys in parallel with it. The management host discovers
+// the member clusters through the SSM parameters published here.
+public class MemberRegionStack extends Stack {
+
+    private final Vpc vpc;
+    private final List<SolutionGuidanceFederatedK8SNestedStack> memberClusterStacks = new ArrayList<>();
+
+    public MemberRegionStack(final Construct parent, final String id, final MemberRegionStackProps props) {
+        super(parent, id, props);
+
+        final SolutionConfig config = props.getConfig();
+        final String memberRegion = props.getMemberRegion();
+        final String vpcCidr = config.getMemberRegionCidr(memberRegion);
+        this.vpc = SolutionVpc.create(this, vpcCidr, memberRegion, config);
+        SolutionVpc.publishTopology(this, vpc, vpcCidr, Collections.emptyMap());
+        final Map<String, String> podSubnets = config.getPodNetworking().isCustomNetworking()
+                ? SolutionVpc.createPodSubnets(this, vpc, config) : Collections.emptyMap();
+        IRole managementHostRole = Role.fromRoleName(this, MANAGEMENT_HOST_ROLE, props.getManagementHostRoleName(),
+                FromRoleNameOptions.builder().mutable(Boolean.FALSE).build());
+
+        if (config.isImageCache()) {
+            new ImageCache(this, IMAGE_CACHE, "");
+        }
+
+        for (int i = 1; i <= config.getMemberClusterCount(); i++) {
+            final String clusterName = MEMBER_REGION_CLUSTER + "-" + memberRegion + "-" + i;
+            ResourceNestedStackProps resourceNestedStackProps = new ResourceNestedStackProps()
+                    .clusterName(clusterName)
+                    .vpc(vpc)
+                    .vpcCidr(vpcCidr)
+                    .kubernetesVersion(config.getMemberKubernetesVersion())
+                    .instanceType(config.getMemberInstanceType())
+                    .nodesNum(config.getMemberNodesNum())
+                    .autoscaling(config.isMemberAutoscaling())
+                    .maxNodesNum(config.getMemberMaxNodesNum())
+                    .spot(config.isMemberSpot())
+                    .spotInstanceTypes(config.getMemberSpotInstanceTypes())
+                    .onDemandBase(config.getMemberOnDemandBase())
+                    .nodeRootVolumeSize(config.getNodeVolumeSize())
+                    .nodeImage(config.getNodeImage())
+                    .nodeRootVolumeThroughput(config.getNodeRootVolumeThroughput())
+                    .warmPoolSize(config.getWarmPoolSize())
+                    .warmPoolState(config.getWarmPoolState())
+                    .kubectlMemory(config.getKubectlMemory())
+                    .managementHostRole(managementHostRole)
+                    .registrationMode(config.getRegistrationMode())
+                    .loggingProfile(config.getLoggingProfile())
+                    .logRetentionDays(config.getLogRetentionDays())
+                    .podNetworking(config.getPodNetworking())
+                    .maxPods(config.getMaxPods())
+                    .imageCacheRegion(config.isImageCache() ? memberRegion : "")
+                    .dockerHubCacheRegion(props.getDockerHubCacheRegion())
+                    .prePullImages(config.getPrePullImages())
+                    .podSubnets(podSubnets);
+            SolutionGuidanceFederatedK8SNestedStack memberClusterStack = new SolutionGuidanceFederatedK8SNestedStack(this, CHILD_CLUSTERNESTED_STACK_ID + i, resourceNestedStackProps);
+            publishMemberCluster(i, clusterName, memberRegion, memberClusterStack);
+            memberClusterStacks.add(memberClusterStack);
+        }
+        NodeCapacity.outputWarmPools(this, config.getWarmPoolSize(), config.getWarmPoolState(), memberClusterStacks.size());
+
+        NagSuppressions.addStackSuppressions(this,
+                Arrays.asList(NagPackSuppression.builder().id(AWS_SOLUTIONS_IAM_5).reason(SUPPRESS_IN_ROLES_FOR_THE_SAKE_OF_SIMPLICITY).build(),
+                        NagPackSuppression.builder().id(AWS_SOLUTIONS_IAM_4).reason(AWS_SOLUTIONS_IAM_4_SUPPRESSION).build(),
+                        NagPackSuppression.builder().id("AwsSolutions-AS3").reason("AwsSolutions-AS3 Suppresions").build()), Boolean.TRUE);
+    }
+
+    public Vpc getVpc() {
+        return vpc;
+    }
+
+    public List<SolutionGuidanceFederatedK8SNestedStack> getMemberClusterStacks() {
+        return memberClusterStacks;
+    }
+
+    private void publishMemberCluster(int index, String clusterName, String memberRegion, SolutionGuidanceFederatedK8SNestedStack memberClusterStack) {
+        final Cluster cluster = memberClusterStack.getCluster();
+        CfnOutput.Builder.create(this, MEMBER_CLUSTER_OUTPUT + index + "Endpoint")
+                .value(cluster.getClusterEndpoint())
+                .build();
+        CfnOutput.Builder.create(this, MEMBER_CLUSTER_OUTPUT + index + "MastersRoleArn")
+                .value(memberClusterStack.getMastersRole().getRoleArn())
+                .build();
+        StringParameter.Builder.create(this, MEMBER_CLUSTER_OUTPUT + index + "Parameter")
+                .parameterName(MEMBER_PARAMETER_PATH + "/" + clusterName)
+                .stringValue(toJsonString(Map.of(
+                        "name", clusterName,
+                        "region", memberRegion,
+                        "endpoint", cluster.getClusterEndpoint(),
+                        "mastersRoleArn", memberClusterStack.getMastersRole().getRoleArn())))
+                .build();
+    }
+}
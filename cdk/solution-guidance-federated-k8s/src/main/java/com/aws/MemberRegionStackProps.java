@@ -0,0 +1,60 @@
+package com.aws;
+
+import org.jetbrains.annotations.Nullable;
+import software.amazon.awscdk.Environment;
+import software.amazon.awscdk.StackProps;
+
+import static com.aws.Constants.CDK_DEFAULT_ACCOUNT;
+
+public class MemberRegionStackProps implements StackProps {
+
+    private String memberRegion;
+    private SolutionConfig config;
+    private String managementHostRoleName;
+    private String dockerHubCacheRegion = "";
+
+    public MemberRegionStackProps memberRegion(String memberRegion) {
+        this.memberRegion = memberRegion;
+        return this;
+    }
+
+    public MemberRegionStackProps config(SolutionConfig config) {
+        this.config = config;
+        return this;
+    }
+
+    public MemberRegionStackProps managementHostRoleName(String managementHostRoleName) {
+        this.managementHostRoleName = managementHostRoleName;
+        return this;
+    }
+
+    public MemberRegionStackProps dockerHubCacheRegion(String dockerHubCacheRegion) {
+        this.dockerHubCacheRegion = dockerHubCacheRegion;
+        return this;
+    }
+
+    @Override
+    public @Nullable Environment getEnv() {
+        return Environment.builder()
+                .account(System.getenv(CDK_DEFAULT_ACCOUNT))
+                .region(memberRegion)
+                .build();
+    }
+
+    public String getMemberRegion() {
+        return memberRegion;
+    }
+
+    public SolutionConfig getConfig() {
+        return config;
+    }
+
+    public String getManagementHostRoleName() {
+        return managementHostRoleName;
+    }
+
+    public String getDockerHubCacheRegion() {
+        return dockerHubCacheRegion;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.aws;
+
+public enum NetworkProfile {
+    // NAT gateways as configured (one by default), all AWS API traffic goes through NAT
+    STANDARD(false, false),
+    // One NAT gateway per availability zone, egress never crosses zones
+    NAT_PER_AZ(true, false),
+    // S3 gateway endpoint and interface endpoints for the AWS APIs used by the nodes
+    VPC_ENDPOINTS(false, true),
+    // Both of the above
+    NAT_PER_AZ_VPC_ENDPOINTS(true, true);
+
+    private final boolean natPerAz;
+    private final boolean vpcEndpoints;
+
+    NetworkProfile(boolean natPerAz, boolean vpcEndpoints) {
+        this.natPerAz = natPerAz;
+        this.vpcEndpoints = vpcEndpoints;
+    }
+
+    public boolean isNatPerAz() {
+        return natPerAz;
+    }
+
+    public boolean isVpcEndpoints() {
+        return vpcEndpoints;
+    }
+}
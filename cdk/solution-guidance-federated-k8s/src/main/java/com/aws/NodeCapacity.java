@@ -0,0 +1,162 @@
+package com.aws;
+
+import software.amazon.awscdk.CfnOutput;
+import software.amazon.awscdk.services.autoscaling.AutoScalingGroup;
+import software.amazon.awscdk.services.autoscaling.BlockDevice;
+import software.amazon.awscdk.services.autoscaling.BlockDeviceVolume;
+import software.amazon.awscdk.services.autoscaling.EbsDeviceOptions;
+import software.amazon.awscdk.services.autoscaling.EbsDeviceVolumeType;
+import software.amazon.awscdk.services.autoscaling.InstancesDistribution;
+import software.amazon.awscdk.services.autoscaling.LaunchTemplateOverrides;
+import software.amazon.awscdk.services.autoscaling.MixedInstancesPolicy;
+import software.amazon.awscdk.services.autoscaling.PoolState;
+import software.amazon.awscdk.services.autoscaling.SpotAllocationStrategy;
+import software.amazon.awscdk.services.autoscaling.WarmPoolOptions;
+import software.amazon.awscdk.services.ec2.CfnLaunchTemplate;
+import software.amazon.awscdk.services.ec2.IMachineImage;
+import software.amazon.awscdk.services.ec2.InstanceArchitecture;
+import software.amazon.awscdk.services.ec2.ISecurityGroup;
+import software.amazon.awscdk.services.ec2.InstanceType;
+import software.amazon.awscdk.services.ec2.LaunchTemplate;
+import software.amazon.awscdk.services.ec2.MachineImage;
+import software.amazon.awscdk.services.ec2.OperatingSystemType;
+import software.amazon.awscdk.services.ec2.SsmParameterImageOptions;
+import software.amazon.awscdk.services.ec2.UserData;
+import software.amazon.awscdk.services.eks.AutoScalingGroupOptions;
+import software.amazon.awscdk.services.eks.Cluster;
+import software.amazon.awscdk.services.eks.EksOptimizedImage;
+import software.amazon.awscdk.services.eks.NodeType;
+import software.amazon.awscdk.services.iam.Role;
+import software.amazon.awscdk.services.iam.ServicePrincipal;
+import software.constructs.Construct;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.aws.Constants.*;
+
+// Image, data volume, warm pool, spot instances and join of the self-managed node groups of the Karmada and the member clusters
+final class NodeCapacity {
+
+    private NodeCapacity() {
+    }
+
+    static IMachineImage machineImage(NodeImage nodeImage, String kubernetesVersion, String instanceType) {
+        if (nodeImage == NodeImage.BOTTLEROCKET) {
+            String architecture = new InstanceType(instanceType).getArchitecture() == InstanceArchitecture.ARM_64 ? "arm64" : "x86_64";
+            // Bottlerocket reads TOML settings, the cluster appends them to the empty user data
+            return MachineImage.fromSsmParameter(String.format(BOTTLEROCKET_IMAGE_PARAMETER, kubernetesVersion, architecture),
+                    SsmParameterImageOptions.builder()
+                            .os(OperatingSystemType.LINUX)
+                            .userData(UserData.custom(""))
+                            .build());
+        }
+        return EksOptimizedImage.Builder
+                .create()
+                .kubernetesVersion(kubernetesVersion)
+                .nodeType(NodeType.STANDARD)
+                .build();
+    }
+
+    static BlockDevice dataVolume(NodeImage nodeImage, int volumeSize, int throughput) {
+        return BlockDevice.builder().deviceName(nodeImage.getDataDevice()).volume(BlockDeviceVolume.ebs(volumeSize, EbsDeviceOptions.builder()
+                .volumeType(EbsDeviceVolumeType.GP3)
+                .throughput(throughput)
+                .encrypted(Boolean.TRUE)
+                .build())).build();
+    }
+
+    // Spot instances of a member node group. A mixed instances group launches from a launch template, which carries
+    // what the group would otherwise set itself: image, role, security group and data volume. The instance type
+    // comes first, then the other pools of the same size, and price-capacity-optimized picks the pools least likely
+    // to be interrupted. The on-demand base keeps a few nodes out of the spot market
+    static MixedInstancesPolicy spotInstances(Construct scope, ISecurityGroup securityGroup, NodeImage nodeImage, String kubernetesVersion,
+                                              String instanceType, List<String> spotInstanceTypes, int volumeSize, int throughput,
+                                              int onDemandBase) {
+        IMachineImage machineImage = machineImage(nodeImage, kubernetesVersion, instanceType);
+        LaunchTemplate launchTemplate = LaunchTemplate.Builder.create(scope, CHILD_LAUNCH_TEMPLATE)
+                .machineImage(machineImage)
+                .userData(machineImage.getImage(scope).getUserData())
+                .role(Role.Builder.create(scope, CHILD_NODE_ROLE).assumedBy(new ServicePrincipal(EC2_SERVICE_PRINCIPAL)).build())
+                .securityGroup(securityGroup)
+                .blockDevices(Arrays.asList(software.amazon.awscdk.services.ec2.BlockDevice.builder()
+                        .deviceName(nodeImage.getDataDevice())
+                        .volume(software.amazon.awscdk.services.ec2.BlockDeviceVolume.ebs(volumeSize,
+                                software.amazon.awscdk.services.ec2.EbsDeviceOptions.builder()
+                                        .volumeType(software.amazon.awscdk.services.ec2.EbsDeviceVolumeType.GP3)
+                                        .encrypted(Boolean.TRUE)
+                                        .build()))
+                        .build()))
+                .build();
+        // the launch template options have no gp3 throughput
+        ((CfnLaunchTemplate) launchTemplate.getNode().getDefaultChild())
+                .addPropertyOverride("LaunchTemplateData.BlockDeviceMappings.0.Ebs.Throughput", throughput);
+
+        Set<String> instanceTypes = new LinkedHashSet<>();
+        instanceTypes.add(instanceType);
+        instanceTypes.addAll(spotInstanceTypes);
+        List<LaunchTemplateOverrides> overrides = new ArrayList<>();
+        instanceTypes.forEach(type -> overrides.add(LaunchTemplateOverrides.builder().instanceType(new InstanceType(type)).build()));
+        return MixedInstancesPolicy.builder()
+                .launchTemplate(launchTemplate)
+                .launchTemplateOverrides(overrides)
+                .instancesDistribution(InstancesDistribution.builder()
+                        .onDemandBaseCapacity(onDemandBase)
+                        .onDemandPercentageAboveBaseCapacity(0)
+                        .spotAllocationStrategy(SpotAllocationStrategy.PRICE_CAPACITY_OPTIMIZED)
+                        .build())
+                .build();
+    }
+
+    static void connect(Cluster cluster, AutoScalingGroup autoScalingGroup, NodeImage nodeImage, PodNetworking podNetworking,
+                        int maxPods, int warmPoolSize, PoolState warmPoolState) {
+        if (warmPoolSize > 0) {
+            deferJoinWhileWarm(autoScalingGroup);
+        }
+        cluster.connectAutoScalingGroupCapacity(autoScalingGroup, AutoScalingGroupOptions
+                .builder()
+                .machineImageType(nodeImage.getMachineImageType())
+                .bootstrapOptions(VpcCni.bootstrapOptions(podNetworking, maxPods))
+                .build());
+        if (nodeImage == NodeImage.BOTTLEROCKET && podNetworking.isPrefixDelegation()) {
+            // Ends up in the [settings.kubernetes] table, the last one the cluster writes
+            autoScalingGroup.addUserData("max-pods = " + maxPods);
+        }
+        if (warmPoolSize > 0) {
+            autoScalingGroup.addWarmPool(WarmPoolOptions.builder()
+                    .minSize(warmPoolSize)
+                    .poolState(warmPoolState)
+                    .build());
+        }
+    }
+
+    // Pre-initialized instances of all node groups of the stack, they are billed for their volumes while stopped
+    static void outputWarmPools(Construct scope, int warmPoolSize, PoolState warmPoolState, int groups) {
+        if (warmPoolSize > 0) {
+            CfnOutput.Builder.create(scope, WARM_POOL_OUTPUT)
+                    .description(String.format("Warm pool instances of the %d node groups, kept %s", groups, warmPoolState.name().toLowerCase()))
+                    .value(String.valueOf(warmPoolSize * groups))
+                    .build();
+        }
+    }
+
+    // Runs before the bootstrap. An instance launched into the warm pool stops or waits after this boot and would
+    // otherwise stay registered as a NotReady node, so it copies the user data to a per-boot script and skips the
+    // join until it is started into service, usually in seconds instead of a full boot and image pull
+    private static void deferJoinWhileWarm(AutoScalingGroup autoScalingGroup) {
+        autoScalingGroup.addUserData(
+                "TOKEN=$(curl -sf -X PUT http://169.254.169.254/latest/api/token -H 'X-aws-ec2-metadata-token-ttl-seconds: 300')",
+                "for attempt in $(seq 1 60); do",
+                "  LIFECYCLE_STATE=$(curl -sf -H \"X-aws-ec2-metadata-token: ${TOKEN}\" http://169.254.169.254/latest/meta-data/autoscaling/target-lifecycle-state) && break",
+                "  sleep 2",
+                "done",
+                "if [[ \"${LIFECYCLE_STATE}\" == Warmed:* ]]; then",
+                "  install -m 0755 \"$0\" " + WARM_POOL_JOIN_SCRIPT,
+                "  exit 0",
+                "fi",
+                "rm -f " + WARM_POOL_JOIN_SCRIPT);
+    }
+}
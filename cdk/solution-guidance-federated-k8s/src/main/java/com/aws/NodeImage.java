@@ -0,0 +1,33 @@
+package com.aws;
+
+import software.amazon.awscdk.services.eks.MachineImageType;
+
+public enum NodeImage {
+    // EKS optimized Amazon Linux 2, images and logs on the root volume (default)
+    AMAZON_LINUX_2(MachineImageType.AMAZON_LINUX_2, "AL2", "/dev/xvda"),
+    // Bottlerocket boots and joins faster from a minimal read-only OS volume, images go to its data volume
+    BOTTLEROCKET(MachineImageType.BOTTLEROCKET, "Bottlerocket", "/dev/xvdb");
+
+    private final MachineImageType machineImageType;
+    private final String karpenterAmiFamily;
+    private final String dataDevice;
+
+    NodeImage(MachineImageType machineImageType, String karpenterAmiFamily, String dataDevice) {
+        this.machineImageType = machineImageType;
+        this.karpenterAmiFamily = karpenterAmiFamily;
+        this.dataDevice = dataDevice;
+    }
+
+    public MachineImageType getMachineImageType() {
+        return machineImageType;
+    }
+
+    public String getKarpenterAmiFamily() {
+        return karpenterAmiFamily;
+    }
+
+    // Volume that holds the container images, sized and provisioned by nodeRootVolumeSize and nodeRootVolumeThroughput
+    public String getDataDevice() {
+        return dataDevice;
+    }
+}
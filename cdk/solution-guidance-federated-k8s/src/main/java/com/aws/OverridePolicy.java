@@ -0,0 +1,87 @@
+package com.aws;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// OverridePolicy changing the propagated resources per member cluster, either with JSON patches or by replacing the
+// registry of every container image, for example with a registry in the region of the cluster
+public final class OverridePolicy extends KarmadaPolicy {
+
+    private static final Set<String> OPERATORS = Set.of("add", "remove", "replace");
+
+    private final List<Map<String, Object>> overrideRules = new ArrayList<>();
+
+    private OverridePolicy(String name, String namespace) {
+        super("policy.karmada.io/v1alpha1", "OverridePolicy", name, namespace);
+    }
+
+    public static OverridePolicy namespaced(String name, String namespace) {
+        return new OverridePolicy(name, namespace);
+    }
+
+    public OverridePolicy resource(String apiVersion, String kind, String name) {
+        addResourceSelector(apiVersion, kind, name);
+        return this;
+    }
+
+    // JSON patch of the resource in the given clusters, the value is ignored by remove
+    public OverridePolicy plaintext(List<String> clusterNames, String path, String operator, Object value) {
+        Map<String, Object> overrider = new LinkedHashMap<>();
+        overrider.put("path", path);
+        overrider.put("operator", operator);
+        if (value != null) {
+            overrider.put("value", value);
+        }
+        return rule(clusterNames, Map.of("plaintext", List.of(overrider)));
+    }
+
+    public OverridePolicy imageRegistry(List<String> clusterNames, String registry) {
+        return rule(clusterNames, Map.of("imageOverrider", List.of(Map.of(
+                "component", "Registry",
+                "operator", "replace",
+                "value", registry))));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void validate(List<String> errors) {
+        validateResourceSelectors(errors);
+        if (overrideRules.isEmpty()) {
+            errors.add("at least one override rule is required");
+        }
+        for (Map<String, Object> rule : overrideRules) {
+            if (((List<String>) ((Map<String, Object>) rule.get("targetCluster")).get("clusterNames")).isEmpty()) {
+                errors.add("every override rule needs target clusters");
+            }
+            for (Map<String, Object> overrider : (List<Map<String, Object>>) ((Map<String, Object>) rule.get("overriders"))
+                    .getOrDefault("plaintext", List.of())) {
+                String path = (String) overrider.get("path");
+                if (path == null || !path.startsWith("/")) {
+                    errors.add("plaintext path " + path + " must be a JSON pointer");
+                }
+                if (!OPERATORS.contains(overrider.get("operator"))) {
+                    errors.add("plaintext operator " + overrider.get("operator") + " must be one of " + OPERATORS);
+                }
+                if (!"remove".equals(overrider.get("operator")) && !overrider.containsKey("value")) {
+                    errors.add("plaintext " + overrider.get("operator") + " of " + path + " needs a value");
+                }
+            }
+        }
+    }
+
+    @Override
+    Map<String, Object> spec() {
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("resourceSelectors", getResourceSelectors());
+        spec.put("overrideRules", overrideRules);
+        return spec;
+    }
+
+    private OverridePolicy rule(List<String> clusterNames, Map<String, Object> overriders) {
+        overrideRules.add(Map.of("targetCluster", Map.of("clusterNames", new ArrayList<>(clusterNames)), "overriders", overriders));
+        return this;
+    }
+}
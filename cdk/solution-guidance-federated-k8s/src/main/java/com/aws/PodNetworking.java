@@ -0,0 +1,26 @@
+package com.aws;
+
+public enum PodNetworking {
+    // One secondary address of the node subnet per pod, up to 29 pods on an m5.large (default)
+    SECONDARY_IP(false, false),
+    // /28 prefixes of the node subnet per ENI, up to maxPods pods per node
+    PREFIX_DELEGATION(true, false),
+    // Prefix delegation with the pod addresses taken from subnets of the secondary pod CIDR, one ENIConfig per zone
+    SECONDARY_CIDR(true, true);
+
+    private final boolean prefixDelegation;
+    private final boolean customNetworking;
+
+    PodNetworking(boolean prefixDelegation, boolean customNetworking) {
+        this.prefixDelegation = prefixDelegation;
+        this.customNetworking = customNetworking;
+    }
+
+    public boolean isPrefixDelegation() {
+        return prefixDelegation;
+    }
+
+    public boolean isCustomNetworking() {
+        return customNetworking;
+    }
+}
@@ -0,0 +1,154 @@
+package com.aws;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// PropagationPolicy, or ClusterPropagationPolicy for cluster scoped resources. Without cluster names the resources
+// propagate to every member cluster, without replica scheduling every cluster gets all replicas
+public final class PropagationPolicy extends KarmadaPolicy {
+
+    private final List<String> clusterNames = new ArrayList<>();
+    private final Map<String, Integer> staticWeights = new LinkedHashMap<>();
+    private String replicaSchedulingType;
+    private boolean dynamicWeight;
+    private boolean controlledWeights;
+    private Integer priority;
+    private Integer tolerationSeconds;
+
+    private PropagationPolicy(String kind, String name, String namespace) {
+        super("policy.karmada.io/v1alpha1", kind, name, namespace);
+    }
+
+    public static PropagationPolicy namespaced(String name, String namespace) {
+        return new PropagationPolicy("PropagationPolicy", name, namespace);
+    }
+
+    public static PropagationPolicy clusterScoped(String name) {
+        return new PropagationPolicy("ClusterPropagationPolicy", name, null);
+    }
+
+    // A null name selects every resource of the kind
+    public PropagationPolicy resource(String apiVersion, String kind, String name) {
+        addResourceSelector(apiVersion, kind, name);
+        return this;
+    }
+
+    public PropagationPolicy clusterNames(List<String> clusterNames) {
+        this.clusterNames.addAll(clusterNames);
+        return this;
+    }
+
+    public PropagationPolicy duplicated() {
+        this.replicaSchedulingType = "Duplicated";
+        return this;
+    }
+
+    // Divides the replicas in proportion to the weights of the clusters
+    public PropagationPolicy staticWeights(Map<String, Integer> staticWeights) {
+        this.replicaSchedulingType = "Divided";
+        this.staticWeights.putAll(staticWeights);
+        return this;
+    }
+
+    // Divides the replicas by the replicas the scheduler estimator of every cluster reports it can still run
+    public PropagationPolicy dynamicWeight() {
+        this.replicaSchedulingType = "Divided";
+        this.dynamicWeight = true;
+        return this;
+    }
+
+    // Lets the weight controller set the static weights from the free capacity, pending pods and api server latency
+    // of the clusters, see WeightController. Static weights are the initial weights, without them all are equal
+    public PropagationPolicy controlledWeights() {
+        this.replicaSchedulingType = "Divided";
+        this.controlledWeights = true;
+        addLabel(WEIGHT_CONTROLLER_LABEL, WEIGHT_CONTROLLER_ENABLED);
+        return this;
+    }
+
+    // Seconds the resources stay on a not ready or unreachable cluster before they move to the others, instead of
+    // the default tolerations of the Karmada webhook
+    public PropagationPolicy clusterTolerations(int tolerationSeconds) {
+        this.tolerationSeconds = tolerationSeconds;
+        return this;
+    }
+
+    // The policy with the highest priority wins when several match a resource
+    public PropagationPolicy priority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    @Override
+    void validate(List<String> errors) {
+        validateResourceSelectors(errors);
+        if (dynamicWeight && !staticWeights.isEmpty()) {
+            errors.add("static weights and a dynamic weight are exclusive");
+        }
+        if (controlledWeights && dynamicWeight) {
+            errors.add("controlled weights and a dynamic weight are exclusive");
+        }
+        if (controlledWeights && !"PropagationPolicy".equals(getKind())) {
+            errors.add("the weight controller only sets the weights of namespaced policies");
+        }
+        if (tolerationSeconds != null && tolerationSeconds < 0) {
+            errors.add("toleration seconds must not be negative");
+        }
+        staticWeights.forEach((clusterName, weight) -> {
+            if (weight == null || weight < 1) {
+                errors.add("weight of " + clusterName + " must be positive");
+            }
+            if (!clusterNames.isEmpty() && !clusterNames.contains(clusterName)) {
+                errors.add("weighted cluster " + clusterName + " is not one of " + clusterNames);
+            }
+        });
+    }
+
+    @Override
+    Map<String, Object> spec() {
+        Map<String, Object> placement = new LinkedHashMap<>();
+        if (!clusterNames.isEmpty()) {
+            placement.put("clusterAffinity", Map.of("clusterNames", clusterNames));
+        }
+        if (tolerationSeconds != null) {
+            List<Map<String, Object>> clusterTolerations = new ArrayList<>();
+            for (String taint : Arrays.asList(CLUSTER_NOT_READY_TAINT, CLUSTER_UNREACHABLE_TAINT)) {
+                clusterTolerations.add(Map.of("key", taint, "operator", "Exists", "effect", "NoExecute",
+                        "tolerationSeconds", tolerationSeconds));
+            }
+            placement.put("clusterTolerations", clusterTolerations);
+        }
+        if (replicaSchedulingType != null) {
+            Map<String, Object> replicaScheduling = new LinkedHashMap<>();
+            replicaScheduling.put("replicaSchedulingType", replicaSchedulingType);
+            if (dynamicWeight) {
+                replicaScheduling.put("replicaDivisionPreference", "Weighted");
+                replicaScheduling.put("weightPreference", Map.of("dynamicWeight", "AvailableReplicas"));
+            } else if (!staticWeights.isEmpty()) {
+                List<Map<String, Object>> staticWeightList = new ArrayList<>();
+                staticWeights.forEach((clusterName, weight) -> staticWeightList.add(Map.of(
+                        "targetCluster", Map.of("clusterNames", List.of(clusterName)),
+                        "weight", weight)));
+                replicaScheduling.put("replicaDivisionPreference", "Weighted");
+                replicaScheduling.put("weightPreference", Map.of("staticWeightList", staticWeightList));
+            } else if (controlledWeights) {
+                // equal weights until the controller sets them
+                replicaScheduling.put("replicaDivisionPreference", "Weighted");
+            }
+            placement.put("replicaScheduling", replicaScheduling);
+        }
+
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("resourceSelectors", getResourceSelectors());
+        if (priority != null) {
+            spec.put("priority", priority);
+        }
+        spec.put("placement", placement);
+        return spec;
+    }
+}
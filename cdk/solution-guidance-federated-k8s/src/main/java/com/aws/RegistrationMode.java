@@ -0,0 +1,15 @@
+package com.aws;
+
+public enum RegistrationMode {
+    // The management host joins the member clusters one after the other with karmadactl once they all exist (default)
+    SCRIPT,
+    // One CloudFormation custom resource per member cluster registers it as soon as Karmada is up
+    CUSTOM_RESOURCE,
+    // The registration custom resource of every member cluster installs karmada-agent in it with a service account
+    // token of the Karmada api server, the members dial in and the control plane keeps no connection to them
+    PULL;
+
+    boolean isCustomResource() {
+        return this != SCRIPT;
+    }
+}
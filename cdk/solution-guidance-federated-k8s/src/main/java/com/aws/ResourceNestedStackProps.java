@@ -2,14 +2,47 @@ package com.aws;
 
 
 import software.amazon.awscdk.NestedStackProps;
+import software.amazon.awscdk.services.autoscaling.PoolState;
 import software.amazon.awscdk.services.ec2.SecurityGroup;
 import software.amazon.awscdk.services.ec2.Vpc;
+import software.amazon.awscdk.services.iam.IRole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.aws.Constants.*;
 
 public class ResourceNestedStackProps implements NestedStackProps {
 
     private String clusterName;
     private Vpc vpc;
     private SecurityGroup securityGroup;
+    private IRole managementHostRole;
+    private String kubernetesVersion = MEMBER_KUBERNETES_VERSION;
+    private String vpcCidr = KARMADA_CIDR_BLOCK;
+    private String instanceType = NODE_INSTANCE_TYPE;
+    private int nodesNum = MEMBER_NODES_NUM;
+    private RegistrationMode registrationMode = RegistrationMode.SCRIPT;
+    private LoggingProfile loggingProfile = LoggingProfile.FULL;
+    private int logRetentionDays = LOG_RETENTION_DAYS;
+    private PodNetworking podNetworking = PodNetworking.SECONDARY_IP;
+    private int maxPods = MAX_PODS;
+    private Map<String, String> podSubnets = Collections.emptyMap();
+    private int nodeRootVolumeSize = NODE_ROOT_VOLUME_SIZE;
+    private NodeImage nodeImage = NodeImage.AMAZON_LINUX_2;
+    private int nodeRootVolumeThroughput = NODE_ROOT_VOLUME_THROUGHPUT;
+    private int warmPoolSize;
+    private PoolState warmPoolState = PoolState.STOPPED;
+    private int kubectlMemory = KUBECTL_MEMORY;
+    private String imageCacheRegion = "";
+    private String dockerHubCacheRegion = "";
+    private List<String> prePullImages = Collections.emptyList();
+    private boolean autoscaling;
+    private int maxNodesNum = MEMBER_MAX_NODES_NUM;
+    private boolean spot;
+    private List<String> spotInstanceTypes = MEMBER_SPOT_INSTANCE_TYPES;
+    private int onDemandBase = MEMBER_ON_DEMAND_BASE;
 
     public ResourceNestedStackProps clusterName(String clusterName) {
         this.clusterName = clusterName;
@@ -26,6 +59,131 @@ public class ResourceNestedStackProps implements NestedStackProps {
         return this;
     }
 
+    public ResourceNestedStackProps managementHostRole(IRole managementHostRole) {
+        this.managementHostRole = managementHostRole;
+        return this;
+    }
+
+    public ResourceNestedStackProps kubernetesVersion(String kubernetesVersion) {
+        this.kubernetesVersion = kubernetesVersion;
+        return this;
+    }
+
+    public ResourceNestedStackProps vpcCidr(String vpcCidr) {
+        this.vpcCidr = vpcCidr;
+        return this;
+    }
+
+    public ResourceNestedStackProps instanceType(String instanceType) {
+        this.instanceType = instanceType;
+        return this;
+    }
+
+    public ResourceNestedStackProps nodesNum(int nodesNum) {
+        this.nodesNum = nodesNum;
+        return this;
+    }
+
+    public ResourceNestedStackProps registrationMode(RegistrationMode registrationMode) {
+        this.registrationMode = registrationMode;
+        return this;
+    }
+
+    public ResourceNestedStackProps loggingProfile(LoggingProfile loggingProfile) {
+        this.loggingProfile = loggingProfile;
+        return this;
+    }
+
+    public ResourceNestedStackProps logRetentionDays(int logRetentionDays) {
+        this.logRetentionDays = logRetentionDays;
+        return this;
+    }
+
+    public ResourceNestedStackProps podNetworking(PodNetworking podNetworking) {
+        this.podNetworking = podNetworking;
+        return this;
+    }
+
+    public ResourceNestedStackProps maxPods(int maxPods) {
+        this.maxPods = maxPods;
+        return this;
+    }
+
+    public ResourceNestedStackProps podSubnets(Map<String, String> podSubnets) {
+        this.podSubnets = podSubnets;
+        return this;
+    }
+
+    public ResourceNestedStackProps nodeRootVolumeSize(int nodeRootVolumeSize) {
+        this.nodeRootVolumeSize = nodeRootVolumeSize;
+        return this;
+    }
+
+    public ResourceNestedStackProps nodeImage(NodeImage nodeImage) {
+        this.nodeImage = nodeImage;
+        return this;
+    }
+
+    public ResourceNestedStackProps nodeRootVolumeThroughput(int nodeRootVolumeThroughput) {
+        this.nodeRootVolumeThroughput = nodeRootVolumeThroughput;
+        return this;
+    }
+
+    public ResourceNestedStackProps warmPoolSize(int warmPoolSize) {
+        this.warmPoolSize = warmPoolSize;
+        return this;
+    }
+
+    public ResourceNestedStackProps warmPoolState(PoolState warmPoolState) {
+        this.warmPoolState = warmPoolState;
+        return this;
+    }
+
+    public ResourceNestedStackProps kubectlMemory(int kubectlMemory) {
+        this.kubectlMemory = kubectlMemory;
+        return this;
+    }
+
+    public ResourceNestedStackProps imageCacheRegion(String imageCacheRegion) {
+        this.imageCacheRegion = imageCacheRegion;
+        return this;
+    }
+
+    public ResourceNestedStackProps dockerHubCacheRegion(String dockerHubCacheRegion) {
+        this.dockerHubCacheRegion = dockerHubCacheRegion;
+        return this;
+    }
+
+    public ResourceNestedStackProps prePullImages(List<String> prePullImages) {
+        this.prePullImages = prePullImages;
+        return this;
+    }
+
+    public ResourceNestedStackProps autoscaling(boolean autoscaling) {
+        this.autoscaling = autoscaling;
+        return this;
+    }
+
+    public ResourceNestedStackProps maxNodesNum(int maxNodesNum) {
+        this.maxNodesNum = maxNodesNum;
+        return this;
+    }
+
+    public ResourceNestedStackProps spot(boolean spot) {
+        this.spot = spot;
+        return this;
+    }
+
+    public ResourceNestedStackProps spotInstanceTypes(List<String> spotInstanceTypes) {
+        this.spotInstanceTypes = spotInstanceTypes;
+        return this;
+    }
+
+    public ResourceNestedStackProps onDemandBase(int onDemandBase) {
+        this.onDemandBase = onDemandBase;
+        return this;
+    }
+
     public String getClusterName() {
         return clusterName;
     }
@@ -38,4 +196,103 @@ public class ResourceNestedStackProps implements NestedStackProps {
         return securityGroup;
     }
 
+    public IRole getManagementHostRole() {
+        return managementHostRole;
+    }
+
+    public String getKubernetesVersion() {
+        return kubernetesVersion;
+    }
+
+    public String getVpcCidr() {
+        return vpcCidr;
+    }
+
+    public String getInstanceType() {
+        return instanceType;
+    }
+
+    public int getNodesNum() {
+        return nodesNum;
+    }
+
+    public RegistrationMode getRegistrationMode() {
+        return registrationMode;
+    }
+
+    public LoggingProfile getLoggingProfile() {
+        return loggingProfile;
+    }
+
+    public int getLogRetentionDays() {
+        return logRetentionDays;
+    }
+
+    public PodNetworking getPodNetworking() {
+        return podNetworking;
+    }
+
+    public int getMaxPods() {
+        return maxPods;
+    }
+
+    public Map<String, String> getPodSubnets() {
+        return podSubnets;
+    }
+
+    public int getNodeRootVolumeSize() {
+        return nodeRootVolumeSize;
+    }
+
+    public NodeImage getNodeImage() {
+        return nodeImage;
+    }
+
+    public int getNodeRootVolumeThroughput() {
+        return nodeRootVolumeThroughput;
+    }
+
+    public int getWarmPoolSize() {
+        return warmPoolSize;
+    }
+
+    public PoolState getWarmPoolState() {
+        return warmPoolState;
+    }
+
+    public int getKubectlMemory() {
+        return kubectlMemory;
+    }
+
+    public String getImageCacheRegion() {
+        return imageCacheRegion;
+    }
+
+    public String getDockerHubCacheRegion() {
+        return dockerHubCacheRegion;
+    }
+
+    public List<String> getPrePullImages() {
+        return prePullImages;
+    }
+
+    public boolean isAutoscaling() {
+        return autoscaling;
+    }
+
+    public int getMaxNodesNum() {
+        return maxNodesNum;
+    }
+
+    public boolean isSpot() {
+        return spot;
+    }
+
+    public List<String> getSpotInstanceTypes() {
+        return spotInstanceTypes;
+    }
+
+    public int getOnDemandBase() {
+        return onDemandBase;
+    }
 }
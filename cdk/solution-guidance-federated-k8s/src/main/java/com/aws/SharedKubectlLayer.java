@@ -0,0 +1,25 @@
+package com.aws;
+
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.lambdalayer.kubectl.KubectlLayer;
+import software.constructs.Construct;
+import software.constructs.IConstruct;
+
+import static com.aws.Constants.KUBECTL_LAYER;
+
+// One kubectl layer per top level stack: every EKS cluster in the nested stacks below it reuses
+// the same layer asset instead of staging and hashing its own copy
+final class SharedKubectlLayer {
+
+    private SharedKubectlLayer() {
+    }
+
+    static KubectlLayer of(Construct scope) {
+        Stack rootStack = Stack.of(scope);
+        while (rootStack.getNestedStackParent() != null) {
+            rootStack = rootStack.getNestedStackParent();
+        }
+        IConstruct kubectlLayer = rootStack.getNode().tryFindChild(KUBECTL_LAYER);
+        return kubectlLayer != null ? (KubectlLayer) kubectlLayer : new KubectlLayer(rootStack, KUBECTL_LAYER);
+    }
+}
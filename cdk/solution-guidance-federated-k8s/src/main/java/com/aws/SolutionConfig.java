@@ -0,0 +1,1348 @@
+package com.aws;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awscdk.services.autoscaling.PoolState;
+import software.amazon.awscdk.services.ec2.InstanceArchitecture;
+import software.amazon.awscdk.services.ec2.InstanceType;
+import software.constructs.Node;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import static com.aws.Constants.*;
+
+// Capacity and sizing of the whole solution, loaded once from a JSON file and/or the CDK context.
+// Instances are immutable and validated on build, so a configuration that cannot be deployed fails at synth time.
+public final class SolutionConfig {
+
+    private static final Map<String, BiConsumer<Builder, Object>> SETTERS = createSetters();
+
+    private final String kubernetesVersion;
+    private final String memberKubernetesVersion;
+    private final String vpcCidr;
+    private final int publicSubnetMask;
+    private final int privateSubnetMask;
+    private final int natGateways;
+    private final NetworkProfile networkProfile;
+    private final String nodeInstanceType;
+    private final int nodesNum;
+    private final int nodeRootVolumeSize;
+    private final int memberClusterCount;
+    private final String memberInstanceType;
+    private final int memberNodesNum;
+    private final List<String> memberRegions;
+    private final String managementHostInstanceType;
+    private final int managementHostRootVolumeSize;
+    private final CapacityMode capacityMode;
+    private final List<String> karpenterInstanceFamilies;
+    private final List<String> karpenterCapacityTypes;
+    private final boolean etcdNodeGroup;
+    private final String etcdInstanceType;
+    private final int etcdNodesNum;
+    private final String etcdVolumeType;
+    private final int etcdVolumeIops;
+    private final int etcdVolumeThroughput;
+    private final RegistrationMode registrationMode;
+    private final ManagementHostBootstrap managementHostBootstrap;
+    private final String managementHostImageId;
+    private final String managementHostToolsPath;
+    private final String karmadaApiAllowedCidr;
+    private final boolean observability;
+    private final int karmadaApiLatencyP99Ms;
+    private final int etcdFsyncP99Ms;
+    private final int etcdCommitP99Ms;
+    private final int etcdLeaderChanges;
+    private final LoggingProfile loggingProfile;
+    private final int logRetentionDays;
+    private final int flowLogAggregationMinutes;
+    private final List<String> searchResources;
+    private final List<String> searchBackendAddresses;
+    private final String searchBackendSecret;
+    private final PodNetworking podNetworking;
+    private final String podCidr;
+    private final int maxPods;
+    private final NodeImage nodeImage;
+    private final int nodeRootVolumeThroughput;
+    private final int warmPoolSize;
+    private final PoolState warmPoolState;
+    private final int manifestBatches;
+    private final int kubectlMemory;
+    private final boolean imageCache;
+    private final String dockerHubSecretArn;
+    private final List<String> prePullImages;
+    private final boolean memberAutoscaling;
+    private final int memberMaxNodesNum;
+    private final boolean weightController;
+    private final int weightHysteresis;
+    private final int weightMaxStep;
+    private final int weightUpdateInterval;
+    private final boolean weightLatencyProbe;
+    private final boolean memberSpot;
+    private final List<String> memberSpotInstanceTypes;
+    private final int memberOnDemandBase;
+    private final int failoverSeconds;
+    private final String managementHostScriptsPath;
+
+    private SolutionConfig(Builder builder) {
+        this.kubernetesVersion = builder.kubernetesVersion;
+        this.memberKubernetesVersion = builder.memberKubernetesVersion;
+        this.vpcCidr = builder.vpcCidr;
+        this.publicSubnetMask = builder.publicSubnetMask;
+        this.privateSubnetMask = builder.privateSubnetMask;
+        this.natGateways = builder.natGateways;
+        this.networkProfile = builder.networkProfile;
+        this.nodeInstanceType = builder.nodeInstanceType;
+        this.nodesNum = builder.nodesNum;
+        this.nodeRootVolumeSize = builder.nodeRootVolumeSize;
+        this.memberClusterCount = builder.memberClusterCount;
+        this.memberInstanceType = builder.memberInstanceType;
+        this.memberNodesNum = builder.memberNodesNum;
+        this.memberRegions = Collections.unmodifiableList(new ArrayList<>(builder.memberRegions));
+        this.managementHostInstanceType = builder.managementHostInstanceType;
+        this.managementHostRootVolumeSize = builder.managementHostRootVolumeSize;
+        this.capacityMode = builder.capacityMode;
+        this.karpenterInstanceFamilies = Collections.unmodifiableList(new ArrayList<>(builder.karpenterInstanceFamilies));
+        this.karpenterCapacityTypes = Collections.unmodifiableList(new ArrayList<>(builder.karpenterCapacityTypes));
+        this.etcdNodeGroup = builder.etcdNodeGroup;
+        this.etcdInstanceType = builder.etcdInstanceType;
+        this.etcdNodesNum = builder.etcdNodesNum;
+        this.etcdVolumeType = builder.etcdVolumeType;
+        this.etcdVolumeIops = builder.etcdVolumeIops;
+        this.etcdVolumeThroughput = builder.etcdVolumeThroughput;
+        this.registrationMode = builder.registrationMode;
+        this.managementHostBootstrap = builder.managementHostBootstrap;
+        this.managementHostImageId = builder.managementHostImageId;
+        this.managementHostToolsPath = builder.managementHostToolsPath;
+        this.karmadaApiAllowedCidr = builder.karmadaApiAllowedCidr;
+        this.observability = builder.observability;
+        this.karmadaApiLatencyP99Ms = builder.karmadaApiLatencyP99Ms;
+        this.etcdFsyncP99Ms = builder.etcdFsyncP99Ms;
+        this.etcdCommitP99Ms = builder.etcdCommitP99Ms;
+        this.etcdLeaderChanges = builder.etcdLeaderChanges;
+        this.loggingProfile = builder.loggingProfile;
+        this.logRetentionDays = builder.logRetentionDays;
+        this.flowLogAggregationMinutes = builder.flowLogAggregationMinutes;
+        this.searchResources = Collections.unmodifiableList(new ArrayList<>(builder.searchResources));
+        this.searchBackendAddresses = Collections.unmodifiableList(new ArrayList<>(builder.searchBackendAddresses));
+        this.searchBackendSecret = builder.searchBackendSecret;
+        this.podNetworking = builder.podNetworking;
+        this.podCidr = builder.podCidr;
+        this.maxPods = builder.maxPods;
+        this.nodeImage = builder.nodeImage;
+        this.nodeRootVolumeThroughput = builder.nodeRootVolumeThroughput;
+        this.warmPoolSize = builder.warmPoolSize;
+        this.warmPoolState = builder.warmPoolState;
+        this.manifestBatches = builder.manifestBatches;
+        this.kubectlMemory = builder.kubectlMemory;
+        this.imageCache = builder.imageCache;
+        this.dockerHubSecretArn = builder.dockerHubSecretArn;
+        this.prePullImages = Collections.unmodifiableList(new ArrayList<>(builder.prePullImages));
+        this.memberAutoscaling = builder.memberAutoscaling;
+        this.memberMaxNodesNum = builder.memberMaxNodesNum;
+        this.weightController = builder.weightController;
+        this.weightHysteresis = builder.weightHysteresis;
+        this.weightMaxStep = builder.weightMaxStep;
+        this.weightUpdateInterval = builder.weightUpdateInterval;
+        this.weightLatencyProbe = builder.weightLatencyProbe;
+        this.memberSpot = builder.memberSpot;
+        this.memberSpotInstanceTypes = Collections.unmodifiableList(new ArrayList<>(builder.memberSpotInstanceTypes));
+        this.memberOnDemandBase = builder.memberOnDemandBase;
+        this.failoverSeconds = builder.failoverSeconds;
+        this.managementHostScriptsPath = builder.managementHostScriptsPath;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Defaults, then the JSON file named by the configFile context key, then individual context keys
+    public static Builder fromContext(Node node) {
+        Builder builder = builder();
+        Object configFile = node.tryGetContext(CONFIG_FILE_CONTEXT);
+        if (configFile != null) {
+            builder.apply(readFile(configFile.toString()));
+        }
+        Map<String, Object> context = new LinkedHashMap<>();
+        for (String key : SETTERS.keySet()) {
+            Object value = node.tryGetContext(key);
+            if (value != null) {
+                context.put(key, value);
+            }
+        }
+        return builder.apply(context);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readFile(String path) {
+        try {
+            return new ObjectMapper().readValue(new File(path), Map.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read configuration file " + path, e);
+        }
+    }
+
+    public Builder toBuilder() {
+        return builder()
+                .kubernetesVersion(kubernetesVersion)
+                .memberKubernetesVersion(memberKubernetesVersion)
+                .vpcCidr(vpcCidr)
+                .publicSubnetMask(publicSubnetMask)
+                .privateSubnetMask(privateSubnetMask)
+                .natGateways(natGateways)
+                .networkProfile(networkProfile)
+                .nodeInstanceType(nodeInstanceType)
+                .nodesNum(nodesNum)
+                .nodeRootVolumeSize(nodeRootVolumeSize)
+                .memberClusterCount(memberClusterCount)
+                .memberInstanceType(memberInstanceType)
+                .memberNodesNum(memberNodesNum)
+                .memberRegions(memberRegions)
+                .managementHostInstanceType(managementHostInstanceType)
+                .managementHostRootVolumeSize(managementHostRootVolumeSize)
+                .capacityMode(capacityMode)
+                .karpenterInstanceFamilies(karpenterInstanceFamilies)
+                .karpenterCapacityTypes(karpenterCapacityTypes)
+                .etcdNodeGroup(etcdNodeGroup)
+                .etcdInstanceType(etcdInstanceType)
+                .etcdNodesNum(etcdNodesNum)
+                .etcdVolumeType(etcdVolumeType)
+                .etcdVolumeIops(etcdVolumeIops)
+                .etcdVolumeThroughput(etcdVolumeThroughput)
+                .registrationMode(registrationMode)
+                .managementHostBootstrap(managementHostBootstrap)
+                .managementHostImageId(managementHostImageId)
+                .managementHostToolsPath(managementHostToolsPath)
+                .karmadaApiAllowedCidr(karmadaApiAllowedCidr)
+                .observability(observability)
+                .karmadaApiLatencyP99Ms(karmadaApiLatencyP99Ms)
+                .etcdFsyncP99Ms(etcdFsyncP99Ms)
+                .etcdCommitP99Ms(etcdCommitP99Ms)
+                .etcdLeaderChanges(etcdLeaderChanges)
+                .loggingProfile(loggingProfile)
+                .logRetentionDays(logRetentionDays)
+                .flowLogAggregationMinutes(flowLogAggregationMinutes)
+                .searchResources(searchResources)
+                .searchBackendAddresses(searchBackendAddresses)
+                .searchBackendSecret(searchBackendSecret)
+                .podNetworking(podNetworking)
+                .podCidr(podCidr)
+                .maxPods(maxPods)
+                .nodeImage(nodeImage)
+                .nodeRootVolumeThroughput(nodeRootVolumeThroughput)
+                .warmPoolSize(warmPoolSize)
+                .warmPoolState(warmPoolState)
+                .manifestBatches(manifestBatches)
+                .kubectlMemory(kubectlMemory)
+                .imageCache(imageCache)
+                .dockerHubSecretArn(dockerHubSecretArn)
+                .prePullImages(prePullImages)
+                .memberAutoscaling(memberAutoscaling)
+                .memberMaxNodesNum(memberMaxNodesNum)
+                .weightController(weightController)
+                .weightHysteresis(weightHysteresis)
+                .weightMaxStep(weightMaxStep)
+                .weightUpdateInterval(weightUpdateInterval)
+                .weightLatencyProbe(weightLatencyProbe)
+                .memberSpot(memberSpot)
+                .memberSpotInstanceTypes(memberSpotInstanceTypes)
+                .memberOnDemandBase(memberOnDemandBase)
+                .failoverSeconds(failoverSeconds)
+                .managementHostScriptsPath(managementHostScriptsPath);
+    }
+
+    // Nodes of the parent cluster fixed capacity, Karpenter mode keeps a smaller base for system pods
+    public int getParentNodesNum() {
+        return capacityMode == CapacityMode.KARPENTER ? KARPENTER_BASE_NODES_NUM : nodesNum;
+    }
+
+    // Node volumes keep the hot images below the kubelet image garbage collection threshold
+    public int getNodeVolumeSize() {
+        int imagesSize = NODE_ROOT_VOLUME_MIN_SIZE + prePullImages.size() * PRE_PULL_IMAGE_SIZE;
+        return Math.max(nodeRootVolumeSize, (imagesSize * 100 + IMAGE_GC_HIGH_THRESHOLD_PERCENT - 1) / IMAGE_GC_HIGH_THRESHOLD_PERCENT);
+    }
+
+    // NAT per AZ takes precedence over the configured number of NAT gateways
+    public int getNatGatewaysNum() {
+        return networkProfile.isNatPerAz() ? AVAILABILITY_ZONES_NUM : natGateways;
+    }
+
+    public String getKubernetesVersion() {
+        return kubernetesVersion;
+    }
+
+    public String getMemberKubernetesVersion() {
+        return memberKubernetesVersion;
+    }
+
+    public String getVpcCidr() {
+        return vpcCidr;
+    }
+
+    public int getPublicSubnetMask() {
+        return publicSubnetMask;
+    }
+
+    public int getPrivateSubnetMask() {
+        return privateSubnetMask;
+    }
+
+    public int getNatGateways() {
+        return natGateways;
+    }
+
+    public NetworkProfile getNetworkProfile() {
+        return networkProfile;
+    }
+
+    public String getNodeInstanceType() {
+        return nodeInstanceType;
+    }
+
+    public int getNodesNum() {
+        return nodesNum;
+    }
+
+    public int getNodeRootVolumeSize() {
+        return nodeRootVolumeSize;
+    }
+
+    public int getMemberClusterCount() {
+        return memberClusterCount;
+    }
+
+    public String getMemberInstanceType() {
+        return memberInstanceType;
+    }
+
+    public int getMemberNodesNum() {
+        return memberNodesNum;
+    }
+
+    public List<String> getMemberRegions() {
+        return memberRegions;
+    }
+
+    public boolean isMultiRegion() {
+        return !memberRegions.isEmpty();
+    }
+
+    // Member region VPCs get their own /16 so that they never overlap with the parent or each other
+    public String getMemberRegionCidr(String memberRegion) {
+        return String.format(MEMBER_REGION_CIDR_FORMAT, MEMBER_REGION_CIDR_FIRST_OCTET + memberRegions.indexOf(memberRegion));
+    }
+
+    public String getManagementHostInstanceType() {
+        return managementHostInstanceType;
+    }
+
+    public int getManagementHostRootVolumeSize() {
+        return managementHostRootVolumeSize;
+    }
+
+    public CapacityMode getCapacityMode() {
+        return capacityMode;
+    }
+
+    public List<String> getKarpenterInstanceFamilies() {
+        return karpenterInstanceFamilies;
+    }
+
+    public List<String> getKarpenterCapacityTypes() {
+        return karpenterCapacityTypes;
+    }
+
+    public boolean isEtcdNodeGroup() {
+        return etcdNodeGroup;
+    }
+
+    public String getEtcdInstanceType() {
+        return etcdInstanceType;
+    }
+
+    public int getEtcdNodesNum() {
+        return etcdNodesNum;
+    }
+
+    public String getEtcdVolumeType() {
+        return etcdVolumeType;
+    }
+
+    public int getEtcdVolumeIops() {
+        return etcdVolumeIops;
+    }
+
+    public int getEtcdVolumeThroughput() {
+        return etcdVolumeThroughput;
+    }
+
+    public RegistrationMode getRegistrationMode() {
+        return registrationMode;
+    }
+
+    public ManagementHostBootstrap getManagementHostBootstrap() {
+        return managementHostBootstrap;
+    }
+
+    public String getManagementHostImageId() {
+        return managementHostImageId;
+    }
+
+    public String getManagementHostToolsPath() {
+        return managementHostToolsPath;
+    }
+
+    public String getKarmadaApiAllowedCidr() {
+        return karmadaApiAllowedCidr;
+    }
+
+    public boolean isObservability() {
+        return observability;
+    }
+
+    public int getKarmadaApiLatencyP99Ms() {
+        return karmadaApiLatencyP99Ms;
+    }
+
+    public int getEtcdFsyncP99Ms() {
+        return etcdFsyncP99Ms;
+    }
+
+    public int getEtcdCommitP99Ms() {
+        return etcdCommitP99Ms;
+    }
+
+    public int getEtcdLeaderChanges() {
+        return etcdLeaderChanges;
+    }
+
+    public LoggingProfile getLoggingProfile() {
+        return loggingProfile;
+    }
+
+    public int getLogRetentionDays() {
+        return logRetentionDays;
+    }
+
+    public int getFlowLogAggregationMinutes() {
+        return flowLogAggregationMinutes;
+    }
+
+    public List<String> getSearchResources() {
+        return searchResources;
+    }
+
+    public List<String> getSearchBackendAddresses() {
+        return searchBackendAddresses;
+    }
+
+    public String getSearchBackendSecret() {
+        return searchBackendSecret;
+    }
+
+    public PodNetworking getPodNetworking() {
+        return podNetworking;
+    }
+
+    public String getPodCidr() {
+        return podCidr;
+    }
+
+    // Four subnets of the pod CIDR, one per availability zone and a spare one
+    public int getPodSubnetMask() {
+        return cidrMask(podCidr) + 2;
+    }
+
+    public int getMaxPods() {
+        return maxPods;
+    }
+
+    public NodeImage getNodeImage() {
+        return nodeImage;
+    }
+
+    public int getNodeRootVolumeThroughput() {
+        return nodeRootVolumeThroughput;
+    }
+
+    public int getWarmPoolSize() {
+        return warmPoolSize;
+    }
+
+    public PoolState getWarmPoolState() {
+        return warmPoolState;
+    }
+
+    public int getManifestBatches() {
+        return manifestBatches;
+    }
+
+    public int getKubectlMemory() {
+        return kubectlMemory;
+    }
+
+    public boolean isImageCache() {
+        return imageCache;
+    }
+
+    public String getDockerHubSecretArn() {
+        return dockerHubSecretArn;
+    }
+
+    public List<String> getPrePullImages() {
+        return prePullImages;
+    }
+
+    public boolean isMemberAutoscaling() {
+        return memberAutoscaling;
+    }
+
+    public int getMemberMaxNodesNum() {
+        return memberMaxNodesNum;
+    }
+
+    // Cluster Autoscaler grows the member node groups up to the maximum, fixed node groups stay at their size
+    public int getMemberMaxCapacity() {
+        return memberAutoscaling ? memberMaxNodesNum : memberNodesNum;
+    }
+
+    public boolean isWeightController() {
+        return weightController;
+    }
+
+    public int getWeightHysteresis() {
+        return weightHysteresis;
+    }
+
+    public int getWeightMaxStep() {
+        return weightMaxStep;
+    }
+
+    public int getWeightUpdateInterval() {
+        return weightUpdateInterval;
+    }
+
+    public boolean isWeightLatencyProbe() {
+        return weightLatencyProbe;
+    }
+
+    public boolean isMemberSpot() {
+        return memberSpot;
+    }
+
+    public List<String> getMemberSpotInstanceTypes() {
+        return memberSpotInstanceTypes;
+    }
+
+    public int getMemberOnDemandBase() {
+        return memberOnDemandBase;
+    }
+
+    public int getFailoverSeconds() {
+        return failoverSeconds;
+    }
+
+    public String getManagementHostScriptsPath() {
+        return managementHostScriptsPath;
+    }
+
+    private static Map<String, BiConsumer<Builder, Object>> createSetters() {
+        Map<String, BiConsumer<Builder, Object>> setters = new LinkedHashMap<>();
+        setters.put(KUBERNETES_VERSION_CONTEXT, (builder, value) -> builder.kubernetesVersion(value.toString()));
+        setters.put(MEMBER_KUBERNETES_VERSION_CONTEXT, (builder, value) -> builder.memberKubernetesVersion(value.toString()));
+        setters.put(VPC_CIDR_CONTEXT, (builder, value) -> builder.vpcCidr(value.toString()));
+        setters.put(PUBLIC_SUBNET_MASK_CONTEXT, (builder, value) -> builder.publicSubnetMask(toInt(value)));
+        setters.put(PRIVATE_SUBNET_MASK_CONTEXT, (builder, value) -> builder.privateSubnetMask(toInt(value)));
+        setters.put(NAT_GATEWAYS_CONTEXT, (builder, value) -> builder.natGateways(toInt(value)));
+        setters.put(NETWORK_PROFILE_CONTEXT, (builder, value) -> builder.networkProfile(NetworkProfile.valueOf(value.toString())));
+        setters.put(NODE_INSTANCE_TYPE_CONTEXT, (builder, value) -> builder.nodeInstanceType(value.toString()));
+        setters.put(NODES_NUM_CONTEXT, (builder, value) -> builder.nodesNum(toInt(value)));
+        setters.put(NODE_ROOT_VOLUME_SIZE_CONTEXT, (builder, value) -> builder.nodeRootVolumeSize(toInt(value)));
+        setters.put(MEMBER_CLUSTER_COUNT_CONTEXT, (builder, value) -> builder.memberClusterCount(toInt(value)));
+        setters.put(MEMBER_INSTANCE_TYPE_CONTEXT, (builder, value) -> builder.memberInstanceType(value.toString()));
+        setters.put(MEMBER_NODES_NUM_CONTEXT, (builder, value) -> builder.memberNodesNum(toInt(value)));
+        setters.put(MEMBER_REGIONS_CONTEXT, (builder, value) -> builder.memberRegions(toList(value)));
+        setters.put(MANAGEMENT_HOST_INSTANCE_TYPE_CONTEXT, (builder, value) -> builder.managementHostInstanceType(value.toString()));
+        setters.put(MANAGEMENT_HOST_ROOT_VOLUME_SIZE_CONTEXT, (builder, value) -> builder.managementHostRootVolumeSize(toInt(value)));
+        setters.put(CAPACITY_MODE_CONTEXT, (builder, value) -> builder.capacityMode(CapacityMode.valueOf(value.toString())));
+        setters.put(KARPENTER_INSTANCE_FAMILIES_CONTEXT, (builder, value) -> builder.karpenterInstanceFamilies(toList(value)));
+        setters.put(KARPENTER_CAPACITY_TYPES_CONTEXT, (builder, value) -> builder.karpenterCapacityTypes(toList(value)));
+        setters.put(ETCD_NODEGROUP_CONTEXT, (builder, value) -> builder.etcdNodeGroup(Boolean.parseBoolean(value.toString())));
+        setters.put(ETCD_INSTANCE_TYPE_CONTEXT, (builder, value) -> builder.etcdInstanceType(value.toString()));
+        setters.put(ETCD_NODES_NUM_CONTEXT, (builder, value) -> builder.etcdNodesNum(toInt(value)));
+        setters.put(ETCD_VOLUME_TYPE_CONTEXT, (builder, value) -> builder.etcdVolumeType(value.toString()));
+        setters.put(ETCD_VOLUME_IOPS_CONTEXT, (builder, value) -> builder.etcdVolumeIops(toInt(value)));
+        setters.put(ETCD_VOLUME_THROUGHPUT_CONTEXT, (builder, value) -> builder.etcdVolumeThroughput(toInt(value)));
+        setters.put(REGISTRATION_MODE_CONTEXT, (builder, value) -> builder.registrationMode(RegistrationMode.valueOf(value.toString())));
+        setters.put(MANAGEMENT_HOST_BOOTSTRAP_CONTEXT, (builder, value) -> builder.managementHostBootstrap(ManagementHostBootstrap.valueOf(value.toString())));
+        setters.put(MANAGEMENT_HOST_IMAGE_ID_CONTEXT, (builder, value) -> builder.managementHostImageId(value.toString()));
+        setters.put(MANAGEMENT_HOST_TOOLS_PATH_CONTEXT, (builder, value) -> builder.managementHostToolsPath(value.toString()));
+        setters.put(KARMADA_API_ALLOWED_CIDR_CONTEXT, (builder, value) -> builder.karmadaApiAllowedCidr(value.toString()));
+        setters.put(OBSERVABILITY_CONTEXT, (builder, value) -> builder.observability(Boolean.parseBoolean(value.toString())));
+        setters.put(KARMADA_API_LATENCY_P99_MS_CONTEXT, (builder, value) -> builder.karmadaApiLatencyP99Ms(toInt(value)));
+        setters.put(ETCD_FSYNC_P99_MS_CONTEXT, (builder, value) -> builder.etcdFsyncP99Ms(toInt(value)));
+        setters.put(ETCD_COMMIT_P99_MS_CONTEXT, (builder, value) -> builder.etcdCommitP99Ms(toInt(value)));
+        setters.put(ETCD_LEADER_CHANGES_CONTEXT, (builder, value) -> builder.etcdLeaderChanges(toInt(value)));
+        setters.put(LOGGING_PROFILE_CONTEXT, (builder, value) -> builder.loggingProfile(LoggingProfile.valueOf(value.toString())));
+        setters.put(LOG_RETENTION_DAYS_CONTEXT, (builder, value) -> builder.logRetentionDays(toInt(value)));
+        setters.put(FLOW_LOG_AGGREGATION_MINUTES_CONTEXT, (builder, value) -> builder.flowLogAggregationMinutes(toInt(value)));
+        setters.put(SEARCH_RESOURCES_CONTEXT, (builder, value) -> builder.searchResources(toList(value)));
+        setters.put(SEARCH_BACKEND_ADDRESSES_CONTEXT, (builder, value) -> builder.searchBackendAddresses(toList(value)));
+        setters.put(SEARCH_BACKEND_SECRET_CONTEXT, (builder, value) -> builder.searchBackendSecret(value.toString()));
+        setters.put(POD_NETWORKING_CONTEXT, (builder, value) -> builder.podNetworking(PodNetworking.valueOf(value.toString())));
+        setters.put(POD_CIDR_CONTEXT, (builder, value) -> builder.podCidr(value.toString()));
+        setters.put(MAX_PODS_CONTEXT, (builder, value) -> builder.maxPods(toInt(value)));
+        setters.put(NODE_IMAGE_CONTEXT, (builder, value) -> builder.nodeImage(NodeImage.valueOf(value.toString())));
+        setters.put(NODE_ROOT_VOLUME_THROUGHPUT_CONTEXT, (builder, value) -> builder.nodeRootVolumeThroughput(toInt(value)));
+        setters.put(WARM_POOL_SIZE_CONTEXT, (builder, value) -> builder.warmPoolSize(toInt(value)));
+        setters.put(WARM_POOL_STATE_CONTEXT, (builder, value) -> builder.warmPoolState(PoolState.valueOf(value.toString())));
+        setters.put(MANIFEST_BATCHES_CONTEXT, (builder, value) -> builder.manifestBatches(toInt(value)));
+        setters.put(KUBECTL_MEMORY_CONTEXT, (builder, value) -> builder.kubectlMemory(toInt(value)));
+        setters.put(IMAGE_CACHE_CONTEXT, (builder, value) -> builder.imageCache(Boolean.parseBoolean(value.toString())));
+        setters.put(DOCKER_HUB_SECRET_ARN_CONTEXT, (builder, value) -> builder.dockerHubSecretArn(value.toString()));
+        setters.put(PRE_PULL_IMAGES_CONTEXT, (builder, value) -> builder.prePullImages(toList(value)));
+        setters.put(MEMBER_AUTOSCALING_CONTEXT, (builder, value) -> builder.memberAutoscaling(Boolean.parseBoolean(value.toString())));
+        setters.put(MEMBER_MAX_NODES_NUM_CONTEXT, (builder, value) -> builder.memberMaxNodesNum(toInt(value)));
+        setters.put(WEIGHT_CONTROLLER_CONTEXT, (builder, value) -> builder.weightController(Boolean.parseBoolean(value.toString())));
+        setters.put(WEIGHT_HYSTERESIS_CONTEXT, (builder, value) -> builder.weightHysteresis(toInt(value)));
+        setters.put(WEIGHT_MAX_STEP_CONTEXT, (builder, value) -> builder.weightMaxStep(toInt(value)));
+        setters.put(WEIGHT_UPDATE_INTERVAL_CONTEXT, (builder, value) -> builder.weightUpdateInterval(toInt(value)));
+        setters.put(WEIGHT_LATENCY_PROBE_CONTEXT, (builder, value) -> builder.weightLatencyProbe(Boolean.parseBoolean(value.toString())));
+        setters.put(MEMBER_SPOT_CONTEXT, (builder, value) -> builder.memberSpot(Boolean.parseBoolean(value.toString())));
+        setters.put(MEMBER_SPOT_INSTANCE_TYPES_CONTEXT, (builder, value) -> builder.memberSpotInstanceTypes(toList(value)));
+        setters.put(MEMBER_ON_DEMAND_BASE_CONTEXT, (builder, value) -> builder.memberOnDemandBase(toInt(value)));
+        setters.put(FAILOVER_SECONDS_CONTEXT, (builder, value) -> builder.failoverSeconds(toInt(value)));
+        setters.put(MANAGEMENT_HOST_SCRIPTS_PATH_CONTEXT, (builder, value) -> builder.managementHostScriptsPath(value.toString()));
+        return Collections.unmodifiableMap(setters);
+    }
+
+    // Values come typed from JSON and cdk.json, or as strings from the command line
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+    }
+
+    private static List<String> toList(Object value) {
+        if (value instanceof List) {
+            return ((List<?>) value).stream().map(Object::toString).collect(Collectors.toList());
+        }
+        return Arrays.stream(value.toString().split(",")).map(String::trim).filter(item -> !item.isEmpty()).collect(Collectors.toList());
+    }
+
+    public static final class Builder {
+
+        private String kubernetesVersion = KUBERNETES_VERSION;
+        private String memberKubernetesVersion = MEMBER_KUBERNETES_VERSION;
+        private String vpcCidr = KARMADA_CIDR_BLOCK;
+        private int publicSubnetMask = PUBLIC_SUBNET_MASK;
+        private int privateSubnetMask = PRIVATE_SUBNET_MASK;
+        private int natGateways = NAT_GATEWAYS;
+        private NetworkProfile networkProfile = NetworkProfile.STANDARD;
+        private String nodeInstanceType = NODE_INSTANCE_TYPE;
+        private int nodesNum = KARMADA_NODES_NUM;
+        private int nodeRootVolumeSize = NODE_ROOT_VOLUME_SIZE;
+        private int memberClusterCount = DEFAULT_MEMBER_CLUSTER_COUNT;
+        private String memberInstanceType = NODE_INSTANCE_TYPE;
+        private int memberNodesNum = MEMBER_NODES_NUM;
+        private List<String> memberRegions = Collections.emptyList();
+        private String managementHostInstanceType = MANAGEMENT_HOST_INSTANCE_TYPE;
+        private int managementHostRootVolumeSize = MANAGEMENT_HOST_ROOT_VOLUME_SIZE;
+        private CapacityMode capacityMode = CapacityMode.FIXED_ASG;
+        private List<String> karpenterInstanceFamilies = KARPENTER_INSTANCE_FAMILIES;
+        private List<String> karpenterCapacityTypes = KARPENTER_CAPACITY_TYPES;
+        private boolean etcdNodeGroup;
+        private String etcdInstanceType = ETCD_INSTANCE_TYPE;
+        private int etcdNodesNum = ETCD_NODES_NUM;
+        private String etcdVolumeType = ETCD_VOLUME_TYPE;
+        private int etcdVolumeIops = ETCD_VOLUME_IOPS;
+        private int etcdVolumeThroughput = ETCD_VOLUME_THROUGHPUT;
+        private RegistrationMode registrationMode = RegistrationMode.SCRIPT;
+        private ManagementHostBootstrap managementHostBootstrap = ManagementHostBootstrap.GIT_CLONE;
+        private String managementHostImageId = "";
+        private String managementHostToolsPath = "";
+        private String karmadaApiAllowedCidr = KARMADA_API_ALLOWED_CIDR;
+        private boolean observability;
+        private int karmadaApiLatencyP99Ms = KARMADA_API_LATENCY_P99_MS;
+        private int etcdFsyncP99Ms = ETCD_FSYNC_P99_MS;
+        private int etcdCommitP99Ms = ETCD_COMMIT_P99_MS;
+        private int etcdLeaderChanges = ETCD_LEADER_CHANGES;
+        private LoggingProfile loggingProfile = LoggingProfile.FULL;
+        private int logRetentionDays = LOG_RETENTION_DAYS;
+        private int flowLogAggregationMinutes = FLOW_LOG_AGGREGATION_MINUTES;
+        private List<String> searchResources = SEARCH_RESOURCES;
+        private List<String> searchBackendAddresses = Collections.emptyList();
+        private String searchBackendSecret = "";
+        private PodNetworking podNetworking = PodNetworking.SECONDARY_IP;
+        private String podCidr = POD_CIDR_BLOCK;
+        private int maxPods = MAX_PODS;
+        private NodeImage nodeImage = NodeImage.AMAZON_LINUX_2;
+        private int nodeRootVolumeThroughput = NODE_ROOT_VOLUME_THROUGHPUT;
+        private int warmPoolSize;
+        private PoolState warmPoolState = PoolState.STOPPED;
+        private int manifestBatches = MANIFEST_BATCHES;
+        private int kubectlMemory = KUBECTL_MEMORY;
+        private boolean imageCache;
+        private String dockerHubSecretArn = "";
+        private List<String> prePullImages = Collections.emptyList();
+        private boolean memberAutoscaling;
+        private int memberMaxNodesNum = MEMBER_MAX_NODES_NUM;
+        private boolean weightController;
+        private int weightHysteresis = WEIGHT_HYSTERESIS;
+        private int weightMaxStep = WEIGHT_MAX_STEP;
+        private int weightUpdateInterval = WEIGHT_UPDATE_INTERVAL;
+        private boolean weightLatencyProbe;
+        private boolean memberSpot;
+        private List<String> memberSpotInstanceTypes = MEMBER_SPOT_INSTANCE_TYPES;
+        private int memberOnDemandBase = MEMBER_ON_DEMAND_BASE;
+        private int failoverSeconds;
+        private String managementHostScriptsPath = "";
+
+        private Builder() {
+        }
+
+        public Builder apply(Map<String, Object> values) {
+            values.forEach((key, value) -> {
+                BiConsumer<Builder, Object> setter = SETTERS.get(key);
+                if (setter == null) {
+                    throw new IllegalArgumentException("Unknown configuration key " + key + ", expected one of " + SETTERS.keySet());
+                }
+                try {
+                    setter.accept(this, value);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid value " + value + " for configuration key " + key, e);
+                }
+            });
+            return this;
+        }
+
+        public Builder kubernetesVersion(String kubernetesVersion) {
+            this.kubernetesVersion = kubernetesVersion;
+            return this;
+        }
+
+        public Builder memberKubernetesVersion(String memberKubernetesVersion) {
+            this.memberKubernetesVersion = memberKubernetesVersion;
+            return this;
+        }
+
+        public Builder vpcCidr(String vpcCidr) {
+            this.vpcCidr = vpcCidr;
+            return this;
+        }
+
+        public Builder publicSubnetMask(int publicSubnetMask) {
+            this.publicSubnetMask = publicSubnetMask;
+            return this;
+        }
+
+        public Builder privateSubnetMask(int privateSubnetMask) {
+            this.privateSubnetMask = privateSubnetMask;
+            return this;
+        }
+
+        public Builder natGateways(int natGateways) {
+            this.natGateways = natGateways;
+            return this;
+        }
+
+        public Builder networkProfile(NetworkProfile networkProfile) {
+            this.networkProfile = networkProfile;
+            return this;
+        }
+
+        public Builder nodeInstanceType(String nodeInstanceType) {
+            this.nodeInstanceType = nodeInstanceType;
+            return this;
+        }
+
+        public Builder nodesNum(int nodesNum) {
+            this.nodesNum = nodesNum;
+            return this;
+        }
+
+        public Builder nodeRootVolumeSize(int nodeRootVolumeSize) {
+            this.nodeRootVolumeSize = nodeRootVolumeSize;
+            return this;
+        }
+
+        public Builder memberClusterCount(int memberClusterCount) {
+            this.memberClusterCount = memberClusterCount;
+            return this;
+        }
+
+        public Builder memberInstanceType(String memberInstanceType) {
+            this.memberInstanceType = memberInstanceType;
+            return this;
+        }
+
+        public Builder memberNodesNum(int memberNodesNum) {
+            this.memberNodesNum = memberNodesNum;
+            return this;
+        }
+
+        public Builder memberRegions(List<String> memberRegions) {
+            this.memberRegions = memberRegions;
+            return this;
+        }
+
+        public Builder managementHostInstanceType(String managementHostInstanceType) {
+            this.managementHostInstanceType = managementHostInstanceType;
+            return this;
+        }
+
+        public Builder managementHostRootVolumeSize(int managementHostRootVolumeSize) {
+            this.managementHostRootVolumeSize = managementHostRootVolumeSize;
+            return this;
+        }
+
+        public Builder capacityMode(CapacityMode capacityMode) {
+            this.capacityMode = capacityMode;
+            return this;
+        }
+
+        public Builder karpenterInstanceFamilies(List<String> karpenterInstanceFamilies) {
+            this.karpenterInstanceFamilies = karpenterInstanceFamilies;
+            return this;
+        }
+
+        public Builder karpenterCapacityTypes(List<String> karpenterCapacityTypes) {
+            this.karpenterCapacityTypes = karpenterCapacityTypes;
+            return this;
+        }
+
+        public Builder etcdNodeGroup(boolean etcdNodeGroup) {
+            this.etcdNodeGroup = etcdNodeGroup;
+            return this;
+        }
+
+        public Builder etcdInstanceType(String etcdInstanceType) {
+            this.etcdInstanceType = etcdInstanceType;
+            return this;
+        }
+
+        public Builder etcdNodesNum(int etcdNodesNum) {
+            this.etcdNodesNum = etcdNodesNum;
+            return this;
+        }
+
+        public Builder etcdVolumeType(String etcdVolumeType) {
+            this.etcdVolumeType = etcdVolumeType;
+            return this;
+        }
+
+        public Builder etcdVolumeIops(int etcdVolumeIops) {
+            this.etcdVolumeIops = etcdVolumeIops;
+            return this;
+        }
+
+        public Builder etcdVolumeThroughput(int etcdVolumeThroughput) {
+            this.etcdVolumeThroughput = etcdVolumeThroughput;
+            return this;
+        }
+
+        public Builder registrationMode(RegistrationMode registrationMode) {
+            this.registrationMode = registrationMode;
+            return this;
+        }
+
+        public Builder managementHostBootstrap(ManagementHostBootstrap managementHostBootstrap) {
+            this.managementHostBootstrap = managementHostBootstrap;
+            return this;
+        }
+
+        public Builder managementHostImageId(String managementHostImageId) {
+            this.managementHostImageId = managementHostImageId;
+            return this;
+        }
+
+        public Builder managementHostToolsPath(String managementHostToolsPath) {
+            this.managementHostToolsPath = managementHostToolsPath;
+            return this;
+        }
+
+        public Builder karmadaApiAllowedCidr(String karmadaApiAllowedCidr) {
+            this.karmadaApiAllowedCidr = karmadaApiAllowedCidr;
+            return this;
+        }
+
+        public Builder observability(boolean observability) {
+            this.observability = observability;
+            return this;
+        }
+
+        public Builder karmadaApiLatencyP99Ms(int karmadaApiLatencyP99Ms) {
+            this.karmadaApiLatencyP99Ms = karmadaApiLatencyP99Ms;
+            return this;
+        }
+
+        public Builder etcdFsyncP99Ms(int etcdFsyncP99Ms) {
+            this.etcdFsyncP99Ms = etcdFsyncP99Ms;
+            return this;
+        }
+
+        public Builder etcdCommitP99Ms(int etcdCommitP99Ms) {
+            this.etcdCommitP99Ms = etcdCommitP99Ms;
+            return this;
+        }
+
+        public Builder etcdLeaderChanges(int etcdLeaderChanges) {
+            this.etcdLeaderChanges = etcdLeaderChanges;
+            return this;
+        }
+
+        public Builder loggingProfile(LoggingProfile loggingProfile) {
+            this.loggingProfile = loggingProfile;
+            return this;
+        }
+
+        public Builder logRetentionDays(int logRetentionDays) {
+            this.logRetentionDays = logRetentionDays;
+            return this;
+        }
+
+        public Builder flowLogAggregationMinutes(int flowLogAggregationMinutes) {
+            this.flowLogAggregationMinutes = flowLogAggregationMinutes;
+            return this;
+        }
+
+        public Builder searchResources(List<String> searchResources) {
+            this.searchResources = searchResources;
+            return this;
+        }
+
+        public Builder searchBackendAddresses(List<String> searchBackendAddresses) {
+            this.searchBackendAddresses = searchBackendAddresses;
+            return this;
+        }
+
+        public Builder searchBackendSecret(String searchBackendSecret) {
+            this.searchBackendSecret = searchBackendSecret;
+            return this;
+        }
+
+        public Builder podNetworking(PodNetworking podNetworking) {
+            this.podNetworking = podNetworking;
+            return this;
+        }
+
+        public Builder podCidr(String podCidr) {
+            this.podCidr = podCidr;
+            return this;
+        }
+
+        public Builder maxPods(int maxPods) {
+            this.maxPods = maxPods;
+            return this;
+        }
+
+        public Builder nodeImage(NodeImage nodeImage) {
+            this.nodeImage = nodeImage;
+            return this;
+        }
+
+        public Builder nodeRootVolumeThroughput(int nodeRootVolumeThroughput) {
+            this.nodeRootVolumeThroughput = nodeRootVolumeThroughput;
+            return this;
+        }
+
+        public Builder warmPoolSize(int warmPoolSize) {
+            this.warmPoolSize = warmPoolSize;
+            return this;
+        }
+
+        public Builder warmPoolState(PoolState warmPoolState) {
+            this.warmPoolState = warmPoolState;
+            return this;
+        }
+
+        public Builder manifestBatches(int manifestBatches) {
+            this.manifestBatches = manifestBatches;
+            return this;
+        }
+
+        public Builder kubectlMemory(int kubectlMemory) {
+            this.kubectlMemory = kubectlMemory;
+            return this;
+        }
+
+        public Builder imageCache(boolean imageCache) {
+            this.imageCache = imageCache;
+            return this;
+        }
+
+        public Builder dockerHubSecretArn(String dockerHubSecretArn) {
+            this.dockerHubSecretArn = dockerHubSecretArn;
+            return this;
+        }
+
+        public Builder prePullImages(List<String> prePullImages) {
+            this.prePullImages = prePullImages;
+            return this;
+        }
+
+        public Builder memberAutoscaling(boolean memberAutoscaling) {
+            this.memberAutoscaling = memberAutoscaling;
+            return this;
+        }
+
+        public Builder memberMaxNodesNum(int memberMaxNodesNum) {
+            this.memberMaxNodesNum = memberMaxNodesNum;
+            return this;
+        }
+
+        public Builder weightController(boolean weightController) {
+            this.weightController = weightController;
+            return this;
+        }
+
+        public Builder weightHysteresis(int weightHysteresis) {
+            this.weightHysteresis = weightHysteresis;
+            return this;
+        }
+
+        public Builder weightMaxStep(int weightMaxStep) {
+            this.weightMaxStep = weightMaxStep;
+            return this;
+        }
+
+        public Builder weightUpdateInterval(int weightUpdateInterval) {
+            this.weightUpdateInterval = weightUpdateInterval;
+            return this;
+        }
+
+        public Builder weightLatencyProbe(boolean weightLatencyProbe) {
+            this.weightLatencyProbe = weightLatencyProbe;
+            return this;
+        }
+
+        public Builder memberSpot(boolean memberSpot) {
+            this.memberSpot = memberSpot;
+            return this;
+        }
+
+        public Builder memberSpotInstanceTypes(List<String> memberSpotInstanceTypes) {
+            this.memberSpotInstanceTypes = memberSpotInstanceTypes;
+            return this;
+        }
+
+        public Builder memberOnDemandBase(int memberOnDemandBase) {
+            this.memberOnDemandBase = memberOnDemandBase;
+            return this;
+        }
+
+        public Builder failoverSeconds(int failoverSeconds) {
+            this.failoverSeconds = failoverSeconds;
+            return this;
+        }
+
+        public Builder managementHostScriptsPath(String managementHostScriptsPath) {
+            this.managementHostScriptsPath = managementHostScriptsPath;
+            return this;
+        }
+
+        public SolutionConfig build() {
+            SolutionConfig config = new SolutionConfig(this);
+            validate(config);
+            return config;
+        }
+    }
+
+    private static void validate(SolutionConfig config) {
+        List<String> errors = new ArrayList<>();
+        checkCidr(VPC_CIDR_CONTEXT, config.vpcCidr, errors);
+        checkCidr(POD_CIDR_CONTEXT, config.podCidr, errors);
+        checkCidr(KARMADA_API_ALLOWED_CIDR_CONTEXT, config.karmadaApiAllowedCidr, errors);
+        int vpcMask = cidrMask(config.vpcCidr);
+        if (vpcMask < 16 || vpcMask > 28) {
+            errors.add("vpcCidr " + config.vpcCidr + " must be an IPv4 CIDR block between /16 and /28");
+        }
+        checkSubnetMask(PUBLIC_SUBNET_MASK_CONTEXT, config.publicSubnetMask, vpcMask, errors);
+        checkSubnetMask(PRIVATE_SUBNET_MASK_CONTEXT, config.privateSubnetMask, vpcMask, errors);
+        long subnetsSize = AVAILABILITY_ZONES_NUM * (addresses(config.publicSubnetMask) + addresses(config.privateSubnetMask));
+        if (subnetsSize > addresses(vpcMask)) {
+            errors.add(AVAILABILITY_ZONES_NUM + " public /" + config.publicSubnetMask + " and " + AVAILABILITY_ZONES_NUM
+                    + " private /" + config.privateSubnetMask + " subnets do not fit in " + config.vpcCidr);
+        }
+
+        // Member clusters share the parent VPC unless they are spread over member regions with a VPC each
+        int memberNodes = config.memberClusterCount * config.getMemberMaxCapacity();
+        int parentNodes = config.getParentNodesNum() + (config.etcdNodeGroup ? config.etcdNodesNum : 0)
+                + (config.isMultiRegion() ? 0 : memberNodes);
+        checkNodeSubnets(config, parentNodes, errors);
+        if (config.isMultiRegion()) {
+            checkNodeSubnets(config, memberNodes, errors);
+            checkMemberRegions(config, errors);
+        }
+
+        if (config.natGateways < 0 || config.natGateways > AVAILABILITY_ZONES_NUM) {
+            errors.add("natGateways must be between 0 and " + AVAILABILITY_ZONES_NUM);
+        }
+        if (config.nodesNum < KARMADA_NODES_NUM) {
+            errors.add("nodesNum must be at least " + KARMADA_NODES_NUM + " for the Karmada high availability api server");
+        }
+        checkPositive(MEMBER_NODES_NUM_CONTEXT, config.memberNodesNum, errors);
+        if (config.memberAutoscaling && config.memberMaxNodesNum < config.memberNodesNum) {
+            errors.add(MEMBER_MAX_NODES_NUM_CONTEXT + " must be at least " + MEMBER_NODES_NUM_CONTEXT + " " + config.memberNodesNum);
+        }
+        checkPositive(ETCD_NODES_NUM_CONTEXT, config.etcdNodesNum, errors);
+        if (config.weightController) {
+            checkWeightController(config, errors);
+        }
+        if (config.nodeRootVolumeSize < NODE_ROOT_VOLUME_MIN_SIZE) {
+            errors.add(NODE_ROOT_VOLUME_SIZE_CONTEXT + " must be at least " + NODE_ROOT_VOLUME_MIN_SIZE + " GiB, the size of the node image");
+        }
+        if (config.nodeRootVolumeThroughput < NODE_ROOT_VOLUME_THROUGHPUT || config.nodeRootVolumeThroughput > NODE_ROOT_VOLUME_MAX_THROUGHPUT) {
+            errors.add(NODE_ROOT_VOLUME_THROUGHPUT_CONTEXT + " must be between " + NODE_ROOT_VOLUME_THROUGHPUT + " and "
+                    + NODE_ROOT_VOLUME_MAX_THROUGHPUT + " MiB/s with the gp3 baseline IOPS");
+        }
+        checkWarmPool(config, errors);
+        if (config.memberSpot) {
+            checkMemberSpot(config, errors);
+        }
+        if (config.failoverSeconds != 0 && (config.failoverSeconds < MIN_FAILOVER_SECONDS || config.failoverSeconds > MAX_FAILOVER_SECONDS)) {
+            errors.add(FAILOVER_SECONDS_CONTEXT + " must be 0 for the Karmada defaults or between " + MIN_FAILOVER_SECONDS + " and " + MAX_FAILOVER_SECONDS);
+        }
+        checkPositive(MANAGEMENT_HOST_ROOT_VOLUME_SIZE_CONTEXT, config.managementHostRootVolumeSize, errors);
+        checkPositive(KARMADA_API_LATENCY_P99_MS_CONTEXT, config.karmadaApiLatencyP99Ms, errors);
+        checkPositive(ETCD_FSYNC_P99_MS_CONTEXT, config.etcdFsyncP99Ms, errors);
+        checkPositive(ETCD_COMMIT_P99_MS_CONTEXT, config.etcdCommitP99Ms, errors);
+        checkPositive(ETCD_LEADER_CHANGES_CONTEXT, config.etcdLeaderChanges, errors);
+        if (config.memberClusterCount < 0) {
+            errors.add("memberClusterCount must not be negative");
+        }
+        if (ETCD_VOLUME_TYPE.equals(config.etcdVolumeType)
+                && (config.etcdVolumeIops < 3000 || config.etcdVolumeIops > 16000
+                || config.etcdVolumeThroughput < 125 || config.etcdVolumeThroughput > 1000)) {
+            errors.add("gp3 etcd volumes support 3000-16000 IOPS and 125-1000 MiB/s throughput");
+        }
+        if (config.capacityMode == CapacityMode.KARPENTER
+                && (config.karpenterInstanceFamilies.isEmpty() || config.karpenterCapacityTypes.isEmpty())) {
+            errors.add("Karpenter capacity needs at least one instance family and one capacity type");
+        }
+
+        if (!config.managementHostImageId.isEmpty() && !config.managementHostImageId.matches("ami-[0-9a-f]{8,17}")) {
+            errors.add("managementHostImageId " + config.managementHostImageId + " is not an AMI id");
+        }
+        if (!config.managementHostToolsPath.isEmpty()
+                && (config.managementHostBootstrap != ManagementHostBootstrap.S3_ASSET || !new File(config.managementHostToolsPath).isDirectory())) {
+            errors.add("managementHostToolsPath must be a directory and needs the " + ManagementHostBootstrap.S3_ASSET + " bootstrap");
+        }
+        if (!config.managementHostScriptsPath.isEmpty() && !new File(config.managementHostScriptsPath).isDirectory()) {
+            errors.add(MANAGEMENT_HOST_SCRIPTS_PATH_CONTEXT + " " + config.managementHostScriptsPath + " must be a directory");
+        }
+
+        if (!LOG_RETENTION_DAYS_LIST.contains(config.logRetentionDays)) {
+            errors.add("logRetentionDays must be one of " + LOG_RETENTION_DAYS_LIST);
+        }
+        if (config.flowLogAggregationMinutes != 1 && config.flowLogAggregationMinutes != 10) {
+            errors.add("flowLogAggregationMinutes must be 1 or 10");
+        }
+
+        config.searchResources.stream().filter(resource -> !resource.matches(SEARCH_RESOURCE_PATTERN))
+                .forEach(resource -> errors.add("searchResources " + resource + " must be apiVersion/Kind, e.g. apps/v1/Deployment"));
+        config.searchBackendAddresses.stream().filter(address -> !address.matches("https?://\\S+"))
+                .forEach(address -> errors.add("searchBackendAddresses " + address + " must be an http or https URL"));
+        if (config.searchResources.isEmpty() && !config.searchBackendAddresses.isEmpty()) {
+            errors.add("searchBackendAddresses need at least one of searchResources");
+        }
+
+        if (!config.dockerHubSecretArn.isEmpty() && (!config.imageCache
+                || !config.dockerHubSecretArn.matches("arn:[\\w-]+:secretsmanager:[\\w-]+:\\d{12}:secret:ecr-pullthroughcache/\\S+"))) {
+            errors.add(DOCKER_HUB_SECRET_ARN_CONTEXT + " must be the ARN of an ecr-pullthroughcache/ secret and needs " + IMAGE_CACHE_CONTEXT);
+        }
+        if (config.manifestBatches < 1 || config.manifestBatches > MAX_MANIFEST_BATCHES) {
+            errors.add(MANIFEST_BATCHES_CONTEXT + " must be between 1 and " + MAX_MANIFEST_BATCHES);
+        }
+        if (config.kubectlMemory < MIN_KUBECTL_MEMORY || config.kubectlMemory > MAX_KUBECTL_MEMORY) {
+            errors.add(KUBECTL_MEMORY_CONTEXT + " must be between " + MIN_KUBECTL_MEMORY + " and " + MAX_KUBECTL_MEMORY + " MiB");
+        }
+        if (config.maxPods < 1 || config.maxPods > MAX_PODS_LIMIT) {
+            errors.add(MAX_PODS_CONTEXT + " must be between 1 and " + MAX_PODS_LIMIT);
+        }
+        if (config.podNetworking.isCustomNetworking()) {
+            checkPodCidr(config, errors);
+        }
+
+        int allowedCidrMask = cidrMask(config.karmadaApiAllowedCidr);
+        if (allowedCidrMask < 0 || allowedCidrMask > 32) {
+            errors.add("karmadaApiAllowedCidr " + config.karmadaApiAllowedCidr + " must be an IPv4 CIDR block");
+        }
+
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid configuration: " + String.join("; ", errors));
+        }
+    }
+
+    // Every node in a private subnet takes its own address plus one per pod from the VPC CNI, or enough /28 prefixes for
+    // maxPods pods with prefix delegation. With custom networking the pod addresses come from the pod subnets instead
+    private static void checkNodeSubnets(SolutionConfig config, int nodes, List<String> errors) {
+        if (!config.podNetworking.isPrefixDelegation()) {
+            checkSubnets(nodes, NODE_IP_ADDRESSES, config.privateSubnetMask, "private", "lower " + PRIVATE_SUBNET_MASK_CONTEXT, errors);
+            return;
+        }
+        int podAddresses = (config.maxPods + PREFIX_IP_ADDRESSES - 1) / PREFIX_IP_ADDRESSES * PREFIX_IP_ADDRESSES;
+        if (config.podNetworking.isCustomNetworking()) {
+            checkSubnets(nodes, 1, config.privateSubnetMask, "private", "lower " + PRIVATE_SUBNET_MASK_CONTEXT, errors);
+            checkSubnets(nodes, podAddresses, config.getPodSubnetMask(), "pod", "use a larger " + POD_CIDR_CONTEXT + " or lower " + MAX_PODS_CONTEXT, errors);
+        } else {
+            checkSubnets(nodes, 1 + podAddresses, config.privateSubnetMask, "private",
+                    "lower " + PRIVATE_SUBNET_MASK_CONTEXT + " or " + MAX_PODS_CONTEXT + ", or use " + PodNetworking.SECONDARY_CIDR, errors);
+        }
+    }
+
+    private static void checkSubnets(int nodes, int nodeAddresses, int subnetMask, String subnetName, String remedy, List<String> errors) {
+        long nodesPerZone = (nodes + AVAILABILITY_ZONES_NUM - 1) / AVAILABILITY_ZONES_NUM;
+        long subnetAddresses = addresses(subnetMask) - SUBNET_RESERVED_IPS;
+        if (nodesPerZone * nodeAddresses > subnetAddresses) {
+            errors.add(nodes + " nodes need " + nodesPerZone * nodeAddresses + " addresses per availability zone but a " + subnetName + " /"
+                    + subnetMask + " subnet has " + subnetAddresses + ", " + remedy);
+        }
+    }
+
+    private static void checkMemberRegions(SolutionConfig config, List<String> errors) {
+        if (config.memberRegions.stream().distinct().count() != config.memberRegions.size()) {
+            errors.add("memberRegions " + config.memberRegions + " must not contain duplicates");
+        }
+        if (MEMBER_REGION_CIDR_FIRST_OCTET + config.memberRegions.size() > 255) {
+            errors.add("at most " + (256 - MEMBER_REGION_CIDR_FIRST_OCTET) + " member regions are supported");
+            return;
+        }
+        for (String memberRegion : config.memberRegions) {
+            String memberRegionCidr = config.getMemberRegionCidr(memberRegion);
+            if (overlaps(config.vpcCidr, memberRegionCidr)) {
+                errors.add("vpcCidr " + config.vpcCidr + " overlaps the " + memberRegion + " VPC " + memberRegionCidr);
+            }
+        }
+    }
+
+    // Warm instances boot once and stop before they join the cluster, only the Amazon Linux user data can defer the
+    // join to the next start. Hibernation needs launch templates, the node groups use launch configurations
+    private static void checkWarmPool(SolutionConfig config, List<String> errors) {
+        if (config.warmPoolSize < 0) {
+            errors.add(WARM_POOL_SIZE_CONTEXT + " must not be negative");
+        }
+        if (config.warmPoolSize > 0 && config.nodeImage != NodeImage.AMAZON_LINUX_2) {
+            errors.add("warm pools need " + NodeImage.AMAZON_LINUX_2 + " nodes");
+        }
+        if (config.warmPoolState == PoolState.HIBERNATED) {
+            errors.add(WARM_POOL_STATE_CONTEXT + " must be " + PoolState.STOPPED + " or " + PoolState.RUNNING);
+        }
+    }
+
+    // The spot instance types share the node image of the member instance type
+    private static void checkMemberSpot(SolutionConfig config, List<String> errors) {
+        if (config.warmPoolSize > 0) {
+            errors.add("warm pools cannot launch the spot instances of " + MEMBER_SPOT_CONTEXT);
+        }
+        if (config.memberSpotInstanceTypes.isEmpty()) {
+            errors.add(MEMBER_SPOT_INSTANCE_TYPES_CONTEXT + " must not be empty");
+        }
+        InstanceArchitecture architecture = new InstanceType(config.memberInstanceType).getArchitecture();
+        config.memberSpotInstanceTypes.stream()
+                .filter(instanceType -> new InstanceType(instanceType).getArchitecture() != architecture)
+                .forEach(instanceType -> errors.add("spot instance type " + instanceType + " does not have the architecture of " + config.memberInstanceType));
+        if (config.memberOnDemandBase < 0) {
+            errors.add(MEMBER_ON_DEMAND_BASE_CONTEXT + " must not be negative");
+        }
+    }
+
+    // The controller reads the Karmada api server credentials that the custom resource registration publishes
+    private static void checkWeightController(SolutionConfig config, List<String> errors) {
+        if (config.registrationMode != RegistrationMode.CUSTOM_RESOURCE) {
+            errors.add(WEIGHT_CONTROLLER_CONTEXT + " needs " + REGISTRATION_MODE_CONTEXT + " " + RegistrationMode.CUSTOM_RESOURCE);
+        }
+        if (config.weightHysteresis < 1 || config.weightHysteresis > WEIGHT_SCALE / 2) {
+            errors.add(WEIGHT_HYSTERESIS_CONTEXT + " must be between 1 and " + WEIGHT_SCALE / 2);
+        }
+        if (config.weightMaxStep < 1 || config.weightMaxStep > WEIGHT_SCALE) {
+            errors.add(WEIGHT_MAX_STEP_CONTEXT + " must be between 1 and " + WEIGHT_SCALE);
+        }
+        if (config.weightUpdateInterval < 1 || config.weightUpdateInterval > MAX_WEIGHT_UPDATE_INTERVAL) {
+            errors.add(WEIGHT_UPDATE_INTERVAL_CONTEXT + " must be between 1 and " + MAX_WEIGHT_UPDATE_INTERVAL + " minutes");
+        }
+    }
+
+    // The pod CIDR is added to every VPC, one subnet per availability zone
+    private static void checkPodCidr(SolutionConfig config, List<String> errors) {
+        int podMask = cidrMask(config.podCidr);
+        if (podMask < 16 || podMask > 24) {
+            errors.add(POD_CIDR_CONTEXT + " " + config.podCidr + " must be an IPv4 CIDR block between /16 and /24");
+            return;
+        }
+        List<String> vpcCidrs = new ArrayList<>();
+        vpcCidrs.add(config.vpcCidr);
+        config.memberRegions.forEach(memberRegion -> vpcCidrs.add(config.getMemberRegionCidr(memberRegion)));
+        vpcCidrs.stream().filter(vpcCidr -> overlaps(config.podCidr, vpcCidr))
+                .forEach(vpcCidr -> errors.add(POD_CIDR_CONTEXT + " " + config.podCidr + " overlaps the VPC " + vpcCidr));
+    }
+
+    // An invalid CIDR overlaps nothing, checkCidr reports it
+    private static boolean overlaps(String cidr, String otherCidr) {
+        int mask = Math.min(cidrMask(cidr), cidrMask(otherCidr));
+        if (mask < 0) {
+            return false;
+        }
+        long network = mask == 0 ? 0 : ~((1L << (32 - mask)) - 1) & 0xFFFFFFFFL;
+        try {
+            return (address(cidr) & network) == (address(otherCidr) & network);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void checkCidr(String key, String cidr, List<String> errors) {
+        try {
+            address(cidr);
+        } catch (NumberFormatException e) {
+            errors.add(key + " " + cidr + " is not a valid CIDR");
+        }
+    }
+
+    private static long address(String cidr) {
+        String[] octets = cidr.split("/")[0].split("\\.");
+        if (octets.length != 4) {
+            throw new NumberFormatException("Not an IPv4 address: " + cidr);
+        }
+        long address = 0;
+        for (String octet : octets) {
+            int value = Integer.parseInt(octet);
+            if (value < 0 || value > 255) {
+                throw new NumberFormatException("Not an IPv4 octet: " + octet);
+            }
+            address = (address << 8) + value;
+        }
+        return address;
+    }
+
+    private static int cidrMask(String cidr) {
+        String[] parts = cidr.split("/");
+        try {
+            return parts.length == 2 && parts[0].split("\\.").length == 4 ? Integer.parseInt(parts[1]) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void checkSubnetMask(String key, int mask, int vpcMask, List<String> errors) {
+        if (mask < Math.max(vpcMask, 16) || mask > 28) {
+            errors.add(key + " /" + mask + " must be between the VPC mask and /28");
+        }
+    }
+
+    private static void checkPositive(String key, int value, List<String> errors) {
+        if (value < 1) {
+            errors.add(key + " must be at least 1");
+        }
+    }
+
+    private static long addresses(int mask) {
+        return 1L << (32 - mask);
+    }
+}
@@ -8,12 +8,17 @@ import software.amazon.awscdk.App;
 import software.amazon.awscdk.Aspects;
 import software.amazon.awscdk.StackProps;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+
+import static com.aws.Constants.MEMBER_REGION_STACK;
 
 public final class SolutionGuidanceFederatedK8SApp {
 
     private static final String DESCRIPTION = "Guidance for Federated Kubernetes on AWS (SO9472)";
     private static final String SOLUTION_GUIDANCE_FEDERATED_K_8_S_STACK = "SolutionGuidanceFederatedK8SStack";
+    private static final String NAG_VERBOSE_CONTEXT = "nagVerbose";
 
     public static void main(final String[] args) {
         App app = new App();
@@ -21,11 +26,31 @@ public final class SolutionGuidanceFederatedK8SApp {
         StackProps stackProps = StackProps.builder()
                 .description(DESCRIPTION)
                 .build();
+        createStack(app, stackProps);
+        app.synth();
+    }
+
+    static SolutionGuidanceFederatedK8SStack createStack(final App app, final StackProps stackProps) {
         SolutionGuidanceFederatedK8SStack solutionGuidanceFederatedK8SStack = new SolutionGuidanceFederatedK8SStack(app, SOLUTION_GUIDANCE_FEDERATED_K_8_S_STACK, stackProps);
-        Aspects.of(app).add(new AwsSolutionsChecks(NagPackProps.builder().verbose(Boolean.TRUE).build()));
+        Object nagVerbose = app.getNode().tryGetContext(NAG_VERBOSE_CONTEXT);
+        Aspects.of(app).add(new AwsSolutionsChecks(NagPackProps.builder().verbose(nagVerbose == null || Boolean.parseBoolean(nagVerbose.toString())).build()));
         NagPackSuppression iam5Suppresssion = NagPackSuppression.builder().id("AwsSolutions-IAM5").reason("Suppress * in roles for the sake of simplicity").build();
         NagSuppressions.addStackSuppressions(solutionGuidanceFederatedK8SStack,
                 Arrays.asList(iam5Suppresssion));
-        app.synth();
+        createMemberRegionStacks(app, solutionGuidanceFederatedK8SStack);
+        return solutionGuidanceFederatedK8SStack;
+    }
+
+    // One stack per member region, next to (not inside) the parent stack so that each deploys to its own region
+    static List<MemberRegionStack> createMemberRegionStacks(final App app, final SolutionGuidanceFederatedK8SStack parentStack) {
+        List<MemberRegionStack> memberRegionStacks = new ArrayList<>();
+        for (String memberRegion : parentStack.getConfig().getMemberRegions()) {
+            memberRegionStacks.add(new MemberRegionStack(app, MEMBER_REGION_STACK + "-" + memberRegion, new MemberRegionStackProps()
+                    .memberRegion(memberRegion)
+                    .config(parentStack.getConfig())
+                    .managementHostRoleName(parentStack.getManagementHostRoleName())
+                    .dockerHubCacheRegion(parentStack.getDockerHubCacheRegion())));
+        }
+        return memberRegionStacks;
     }
 }
@@ -1,49 +1,88 @@
 package com.aws;
 
+import io.github.cdklabs.cdknag.NagPackSuppression;
+import io.github.cdklabs.cdknag.NagSuppressions;
+import software.amazon.awscdk.CustomResource;
 import software.amazon.awscdk.NestedStack;
-import software.amazon.awscdk.lambdalayer.kubectl.KubectlLayer;
+import software.amazon.awscdk.Size;
 import software.amazon.awscdk.services.autoscaling.AutoScalingGroup;
 import software.amazon.awscdk.services.autoscaling.UpdatePolicy;
 import software.amazon.awscdk.services.ec2.*;
 import software.amazon.awscdk.services.eks.*;
 import software.amazon.awscdk.services.iam.*;
+import software.amazon.awscdk.services.logs.LogRetention;
 import software.constructs.Construct;
 
 import java.util.Arrays;
+import java.util.Map;
 
 import static com.aws.Constants.*;
 import static com.aws.Constants.CHILD_EKSASG;
 
 public class SolutionGuidanceFederatedK8SNestedStack extends NestedStack {
 
+    private Cluster cluster;
+    private Role mastersRole;
+
     public SolutionGuidanceFederatedK8SNestedStack(final Construct parent, final String id, final ResourceNestedStackProps props) {
         super(parent, id, props);
-        Role mastersRole = Role.Builder.create(this, MASTERS_ROLE_CHILD_CLUSTER)
+        if (props.isSpot()) {
+            // the cluster adds its security group to the launch template of the node group instead of rejecting it
+            this.getNode().setContext(GENERATE_LAUNCH_TEMPLATE_FLAG, Boolean.TRUE);
+        }
+        this.mastersRole = Role.Builder.create(this, MASTERS_ROLE_CHILD_CLUSTER)
 //                .assumedBy(new ArnPrincipal(ARN_AWS_IAM_USER))
                 .assumedBy(new ServicePrincipal("eks.amazonaws.com"))
-                .roleName(MASTERS_ROLE_CHILD_CLUSTER)
+                .roleName(MASTERS_ROLE_CHILD_CLUSTER + "-" + props.getClusterName())
                 .build();
-        createChildCluster(props.getClusterName(), props.getVpc(), props.getSecurityGroup(), mastersRole);
+        SecurityGroup securityGroup = props.getSecurityGroup() != null ? props.getSecurityGroup() : createSecurityGroup(props.getClusterName(), props.getVpc(), props.getVpcCidr());
+        this.cluster = createChildCluster(props, securityGroup, mastersRole);
+        if (props.getManagementHostRole() != null) {
+            grantManagementHostAccess(cluster, props.getManagementHostRole());
+        }
+        if (props.getRegistrationMode().isCustomResource()) {
+            registerToKarmada(cluster, props.getClusterName(), props.getRegistrationMode());
+        }
+        if (!props.getPrePullImages().isEmpty()) {
+            cluster.addManifest(PRE_PULL, ImageCache.prePullDaemonSet(props.getPrePullImages(),
+                    props.getImageCacheRegion(), props.getDockerHubCacheRegion()));
+        }
+
+        NagSuppressions.addStackSuppressions(this,
+                Arrays.asList(NagPackSuppression.builder().id("AwsSolutions-EKS1").reason("AwsSolutions-EKS1 Suppression").build()));
+        NagSuppressions.addStackSuppressions(this,
+                Arrays.asList(NagPackSuppression.builder().id("AwsSolutions-L1").reason("AwsSolutions-L1 Suppression").build()), Boolean.TRUE);
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public Role getMastersRole() {
+        return mastersRole;
     }
 
-    private void createChildCluster(final String clusterName, final Vpc vpc, final SecurityGroup securityGroup, Role mastersRole) {
+    private Cluster createChildCluster(final ResourceNestedStackProps props, final SecurityGroup securityGroup, Role mastersRole) {
+        final String clusterName = props.getClusterName();
+        final Vpc vpc = props.getVpc();
         Cluster cluster = Cluster.Builder.create(this, clusterName)
                 .clusterName(clusterName)
                 .vpc(vpc)
                 .securityGroup(securityGroup)
-                .version(KubernetesVersion.V1_27)
-                .kubectlLayer(new KubectlLayer(this, KUBECTL_LAYER_1))
-                .defaultCapacityInstance(InstanceType.of(InstanceClass.M5, InstanceSize.LARGE))
+                .version(KubernetesVersion.of(props.getKubernetesVersion()))
+                .kubectlLayer(SharedKubectlLayer.of(this))
+                .kubectlMemory(Size.mebibytes(props.getKubectlMemory()))
+                .defaultCapacityInstance(new InstanceType(props.getInstanceType()))
                 .defaultCapacityType(DefaultCapacityType.NODEGROUP)
-                .clusterLogging(Arrays.asList(ClusterLoggingTypes.API,
-                        ClusterLoggingTypes.AUDIT,
-                        ClusterLoggingTypes.AUTHENTICATOR,
-                        ClusterLoggingTypes.CONTROLLER_MANAGER,
-                        ClusterLoggingTypes.SCHEDULER))
+                .clusterLogging(props.getLoggingProfile().getLogTypes())
                 .defaultCapacity(0)
                 .mastersRole(mastersRole)
                 .outputMastersRoleArn(Boolean.TRUE)
                 .build();
+        LogRetention logRetention = ClusterLogging.configure(this, clusterName, props.getLoggingProfile(), props.getLogRetentionDays());
+        if (logRetention != null) {
+            cluster.getNode().addDependency(logRetention);
+        }
 
         mastersRole.addManagedPolicy(ManagedPolicy.fromAwsManagedPolicyName(ADMINISTRATOR_ACCESS));
         mastersRole.addToPolicy(PolicyStatement.Builder.create()
@@ -52,31 +91,114 @@ public class SolutionGuidanceFederatedK8SNestedStack extends NestedStack {
                 .build());
         mastersRole.grantAssumeRole(cluster.getAdminRole());
 
-        AutoScalingGroup eksAsg = AutoScalingGroup.Builder
+        AutoScalingGroup eksAsg = createAutoScalingGroup(props, securityGroup);
+
+        CfnAddon vpcCniAddon = VpcCni.configure(this, cluster, props.getPodNetworking(), props.getPodSubnets(),
+                Arrays.asList(cluster.getClusterSecurityGroupId(), securityGroup.getSecurityGroupId()));
+        if (vpcCniAddon != null) {
+            eksAsg.getNode().addDependency(vpcCniAddon);
+        }
+        NodeCapacity.connect(cluster, eksAsg, props.getNodeImage(), props.getPodNetworking(), props.getMaxPods(),
+                props.getWarmPoolSize(), props.getWarmPoolState());
+        if (!props.getImageCacheRegion().isEmpty()) {
+            ImageCache.grantPullThrough(eksAsg.getRole());
+        }
+        if (props.isSpot()) {
+            addNodeTerminationHandler(cluster, props);
+        }
+        if (props.isAutoscaling()) {
+            new MemberAutoscaling(this, MEMBER_AUTOSCALING, cluster, clusterName, eksAsg, props.getKubernetesVersion(),
+                    props.getImageCacheRegion(), props.getDockerHubCacheRegion());
+        }
+        return cluster;
+    }
+
+    private AutoScalingGroup createAutoScalingGroup(ResourceNestedStackProps props, SecurityGroup securityGroup) {
+        AutoScalingGroup.Builder builder = AutoScalingGroup.Builder
                 .create(this, CHILD_EKSASG)
-                .autoScalingGroupName(CHILD_EKSASG)
-                .vpc(vpc)
-                .securityGroup(securityGroup)
+                .autoScalingGroupName(CHILD_EKSASG + "-" + props.getClusterName())
+                .vpc(props.getVpc())
                 .vpcSubnets(SubnetSelection.builder().subnetType(SubnetType.PRIVATE_WITH_EGRESS).build())
-                .minCapacity(3)
-                .maxCapacity(3)
-                .instanceType(
-                        InstanceType.of(InstanceClass.M5,
-                                InstanceSize.LARGE))
-                .machineImage(
-                        EksOptimizedImage.Builder
-                                .create()
-                                .kubernetesVersion(
-                                        KubernetesVersion.V1_27.getVersion())
-                                .nodeType(NodeType.STANDARD)
-                                .build())
-                .updatePolicy(UpdatePolicy.rollingUpdate())
+                .minCapacity(props.getNodesNum())
+                // up to the Cluster Autoscaler maximum, plus the warm pool to scale out into
+                .maxCapacity((props.isAutoscaling() ? props.getMaxNodesNum() : props.getNodesNum()) + props.getWarmPoolSize())
+                .updatePolicy(UpdatePolicy.rollingUpdate());
+        if (props.isSpot()) {
+            // a rebalance recommendation launches the replacement node before the interruption notice
+            return builder
+                    .mixedInstancesPolicy(NodeCapacity.spotInstances(this, securityGroup, props.getNodeImage(), props.getKubernetesVersion(),
+                            props.getInstanceType(), props.getSpotInstanceTypes(), props.getNodeRootVolumeSize(),
+                            props.getNodeRootVolumeThroughput(), props.getOnDemandBase()))
+                    .capacityRebalance(Boolean.TRUE)
+                    .build();
+        }
+        return builder
+                .securityGroup(securityGroup)
+                .blockDevices(Arrays.asList(NodeCapacity.dataVolume(props.getNodeImage(), props.getNodeRootVolumeSize(),
+                        props.getNodeRootVolumeThroughput())))
+                .instanceType(new InstanceType(props.getInstanceType()))
+                .machineImage(NodeCapacity.machineImage(props.getNodeImage(), props.getKubernetesVersion(), props.getInstanceType()))
                 .build();
+    }
+
+    // Cordons and drains a spot node on its rebalance recommendation or interruption notice, from the instance
+    // metadata of every node, so its pods are rescheduled while the node is still running
+    private void addNodeTerminationHandler(Cluster cluster, ResourceNestedStackProps props) {
+        cluster.addHelmChart(NODE_TERMINATION_HANDLER, HelmChartOptions.builder()
+                .chart(NODE_TERMINATION_HANDLER)
+                .repository(NODE_TERMINATION_HANDLER_REPOSITORY)
+                .version(NODE_TERMINATION_HANDLER_VERSION)
+                .namespace("kube-system")
+                .values(Map.of(
+                        "image", Map.of("repository", ImageCache.rewrite(NODE_TERMINATION_HANDLER_IMAGE,
+                                props.getImageCacheRegion(), props.getDockerHubCacheRegion())),
+                        "enableSpotInterruptionDraining", Boolean.TRUE,
+                        "enableRebalanceMonitoring", Boolean.TRUE,
+                        "enableRebalanceDraining", Boolean.TRUE,
+                        "enableScheduledEventDraining", Boolean.TRUE))
+                .build());
+    }
 
-        cluster.connectAutoScalingGroupCapacity(eksAsg, AutoScalingGroupOptions
-                .builder()
+    private SecurityGroup createSecurityGroup(String clusterName, Vpc vpc, String vpcCidr) {
+        SecurityGroup memberClusterSecurityGroup = new SecurityGroup(this, CHILD_SG, SecurityGroupProps.builder()
+                .vpc(vpc)
+                .securityGroupName(CHILD_SG + "-" + clusterName)
+                .allowAllOutbound(Boolean.TRUE)
                 .build());
+        memberClusterSecurityGroup.addIngressRule(Peer.ipv4(vpcCidr), Port.tcp(HTTPS_PORT), SG_DESCRIPTION);
+        return memberClusterSecurityGroup;
     }
 
+    private void grantManagementHostAccess(Cluster cluster, IRole managementHostRole) {
+        // The management host registers the member cluster to Karmada, so it needs to reach the member API server
+        // aws-auth only accepts roles defined in this stack, so the role is imported by ARN
+        cluster.getAwsAuth().addMastersRole(Role.fromRoleArn(this, MANAGEMENT_HOST_ROLE, managementHostRole.getRoleArn(),
+                FromRoleArnOptions.builder().mutable(Boolean.FALSE).build()));
+        Policy.Builder.create(this, MANAGEMENT_HOST_MEMBER_ACCESS)
+                .roles(Arrays.asList(managementHostRole))
+                .statements(Arrays.asList(PolicyStatement.Builder
+                        .create()
+                        .effect(Effect.ALLOW)
+                        .resources(Arrays.asList(cluster.getClusterArn()))
+                        .actions(EKS_POLICIES_LIST)
+                        .build()))
+                .build();
+    }
 
+    // Registration runs in CloudFormation next to the cluster, so every member joins Karmada on its own. In pull mode
+    // it installs karmada-agent through the member api server instead of handing the member credentials to Karmada
+    private void registerToKarmada(Cluster cluster, String clusterName, RegistrationMode registrationMode) {
+        KarmadaRegistrationProvider provider = KarmadaRegistrationProvider.of(this);
+        cluster.getAwsAuth().addMastersRole(Role.fromRoleArn(this, KARMADA_REGISTRATION_ROLE, provider.getRole().getRoleArn(),
+                FromRoleArnOptions.builder().mutable(Boolean.FALSE).build()));
+        CustomResource registration = CustomResource.Builder.create(this, KARMADA_REGISTRATION)
+                .serviceToken(provider.getServiceToken())
+                .resourceType(KARMADA_REGISTRATION_RESOURCE_TYPE)
+                .properties(Map.of(CLUSTER_NAME_PROPERTY, clusterName,
+                        ENDPOINT_PROPERTY, cluster.getClusterEndpoint(),
+                        CERTIFICATE_AUTHORITY_PROPERTY, cluster.getClusterCertificateAuthorityData(),
+                        SYNC_MODE_PROPERTY, registrationMode == RegistrationMode.PULL ? PULL_SYNC_MODE : PUSH_SYNC_MODE))
+                .build();
+        registration.getNode().addDependency(cluster.getAwsAuth());
+    }
 }
@@ -3,11 +3,96 @@ package com.aws;
 import org.jetbrains.annotations.Nullable;
 import software.amazon.awscdk.StackProps;
 
+import java.util.Collections;
+import java.util.List;
+
 public class SolutionGuidanceFederatedK8SProps implements StackProps {
 
+    private Integer memberClusterCount;
+    private CapacityMode capacityMode;
+    private List<String> karpenterInstanceFamilies;
+    private List<String> karpenterCapacityTypes;
+    private Boolean etcdNodeGroup;
+    private PodNetworking podNetworking;
+    private SolutionConfig config;
+    private List<KarmadaPolicy> karmadaPolicies = Collections.emptyList();
+
+    public SolutionGuidanceFederatedK8SProps memberClusterCount(Integer memberClusterCount) {
+        this.memberClusterCount = memberClusterCount;
+        return this;
+    }
+
+    public SolutionGuidanceFederatedK8SProps capacityMode(CapacityMode capacityMode) {
+        this.capacityMode = capacityMode;
+        return this;
+    }
+
+    public SolutionGuidanceFederatedK8SProps karpenterInstanceFamilies(List<String> karpenterInstanceFamilies) {
+        this.karpenterInstanceFamilies = karpenterInstanceFamilies;
+        return this;
+    }
+
+    public SolutionGuidanceFederatedK8SProps karpenterCapacityTypes(List<String> karpenterCapacityTypes) {
+        this.karpenterCapacityTypes = karpenterCapacityTypes;
+        return this;
+    }
+
+    public SolutionGuidanceFederatedK8SProps etcdNodeGroup(Boolean etcdNodeGroup) {
+        this.etcdNodeGroup = etcdNodeGroup;
+        return this;
+    }
+
+    public SolutionGuidanceFederatedK8SProps podNetworking(PodNetworking podNetworking) {
+        this.podNetworking = podNetworking;
+        return this;
+    }
+
+    public SolutionGuidanceFederatedK8SProps config(SolutionConfig config) {
+        this.config = config;
+        return this;
+    }
+
+    // Applied to the Karmada api server in manifestBatches custom resources, needs CUSTOM_RESOURCE or PULL registration
+    public SolutionGuidanceFederatedK8SProps karmadaPolicies(List<KarmadaPolicy> karmadaPolicies) {
+        this.karmadaPolicies = karmadaPolicies;
+        return this;
+    }
+
     @Override
     public @Nullable String getDescription() {
         return StackProps.super.getDescription();
     }
 
+    public Integer getMemberClusterCount() {
+        return memberClusterCount;
+    }
+
+    public CapacityMode getCapacityMode() {
+        return capacityMode;
+    }
+
+    public List<String> getKarpenterInstanceFamilies() {
+        return karpenterInstanceFamilies;
+    }
+
+    public List<String> getKarpenterCapacityTypes() {
+        return karpenterCapacityTypes;
+    }
+
+    public Boolean getEtcdNodeGroup() {
+        return etcdNodeGroup;
+    }
+
+    public PodNetworking getPodNetworking() {
+        return podNetworking;
+    }
+
+    public SolutionConfig getConfig() {
+        return config;
+    }
+
+    public List<KarmadaPolicy> getKarmadaPolicies() {
+        return karmadaPolicies;
+    }
+
 }
@@ -5,11 +5,17 @@ import io.github.cdklabs.cdknag.NagSuppressions;
 import software.amazon.awscdk.Stack;
 import software.amazon.awscdk.StackProps;
 import software.amazon.awscdk.services.ec2.*;
+import software.amazon.awscdk.services.eks.Cluster;
+import software.amazon.awscdk.services.ssm.StringParameter;
 import software.constructs.Construct;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.aws.Constants.*;
 
@@ -18,6 +24,10 @@ public class SolutionGuidanceFederatedK8SStack extends Stack {
     private final Vpc vpc;
     private final String accountId;
     private final String region;
+    private final SolutionConfig config;
+    private final KarmadaClusterStack karmadaClusterStack;
+    private final List<SolutionGuidanceFederatedK8SNestedStack> memberClusterStacks = new ArrayList<>();
+    private final ManagementHostStack managementHostStack;
 
     public SolutionGuidanceFederatedK8SStack(final Construct parent, final String id) {
         this(parent, id, null);
@@ -28,26 +38,144 @@ public class SolutionGuidanceFederatedK8SStack extends Stack {
 
         this.accountId = getEnvVariable(CDK_DEFAULT_ACCOUNT, ACCOUNT_ID);
         this.region = getEnvVariable(CDK_DEFAULT_ACCOUNT1, DEFAULT_REGION);
+        final SolutionGuidanceFederatedK8SProps solutionProps = props instanceof SolutionGuidanceFederatedK8SProps ? (SolutionGuidanceFederatedK8SProps) props : new SolutionGuidanceFederatedK8SProps();
+        this.config = resolveConfig(solutionProps);
+        // A member region stack there would collide with this one on the topology parameter, the secret replica and
+        // the image cache rule prefixes
+        if (config.getMemberRegions().contains(this.region)) {
+            throw new IllegalArgumentException(MEMBER_REGIONS_CONTEXT + " " + config.getMemberRegions()
+                    + " must not contain the deployment region " + this.region);
+        }
 
-        final SubnetConfiguration publicSubnetConfiguration = createSubnetConfiguration(KARMADA_PUBLIC_1, 20, Boolean.FALSE);
-        final SubnetConfiguration privateSubnetConfiguration = createSubnetConfiguration(KARMADA_PRIVATE_1, 24, Boolean.TRUE);
-        this.vpc = createVPC(publicSubnetConfiguration, privateSubnetConfiguration);
+        this.vpc = SolutionVpc.create(this, config.getVpcCidr(), this.region, config);
+        final Map<String, String> podSubnets = config.getPodNetworking().isCustomNetworking()
+                ? SolutionVpc.createPodSubnets(this, vpc, config) : Collections.emptyMap();
+
+        if (config.isImageCache()) {
+            new ImageCache(this, IMAGE_CACHE, config.getDockerHubSecretArn());
+        }
+        final String imageCacheRegion = config.isImageCache() ? this.region : "";
 
         KarmadaClusterProps karmadaClusterProps = new KarmadaClusterProps().vpc(vpc)
                 .region(this.region)
-                .accountId(this.accountId);
-        KarmadaClusterStack karmadaClusterStack = new KarmadaClusterStack(this, KARMADA_CLUSTER_STACK, karmadaClusterProps);
+                .accountId(this.accountId)
+                .kubernetesVersion(config.getKubernetesVersion())
+                .vpcCidr(config.getVpcCidr())
+                .nodeInstanceType(config.getNodeInstanceType())
+                .nodesNum(config.getParentNodesNum())
+                .nodeRootVolumeSize(config.getNodeVolumeSize())
+                .nodeImage(config.getNodeImage())
+                .nodeRootVolumeThroughput(config.getNodeRootVolumeThroughput())
+                .warmPoolSize(config.getWarmPoolSize())
+                .warmPoolState(config.getWarmPoolState())
+                .capacityMode(config.getCapacityMode())
+                .karpenterInstanceFamilies(config.getKarpenterInstanceFamilies())
+                .karpenterCapacityTypes(config.getKarpenterCapacityTypes())
+                .etcdNodeGroup(config.isEtcdNodeGroup())
+                .etcdInstanceType(config.getEtcdInstanceType())
+                .etcdNodesNum(config.getEtcdNodesNum())
+                .etcdVolumeType(config.getEtcdVolumeType())
+                .etcdVolumeIops(config.getEtcdVolumeIops())
+                .etcdVolumeThroughput(config.getEtcdVolumeThroughput())
+                .managementHostRoleName(getManagementHostRoleName())
+                .memberRegions(config.getMemberRegions())
+                .registrationMode(config.getRegistrationMode())
+                .karmadaApiAllowedCidr(config.getKarmadaApiAllowedCidr())
+                .observability(config.isObservability())
+                .karmadaApiLatencyP99Ms(config.getKarmadaApiLatencyP99Ms())
+                .etcdFsyncP99Ms(config.getEtcdFsyncP99Ms())
+                .etcdCommitP99Ms(config.getEtcdCommitP99Ms())
+                .etcdLeaderChanges(config.getEtcdLeaderChanges())
+                .loggingProfile(config.getLoggingProfile())
+                .logRetentionDays(config.getLogRetentionDays())
+                .searchBackendSecret(config.getSearchBackendSecret())
+                .podNetworking(config.getPodNetworking())
+                .maxPods(config.getMaxPods())
+                .imageCache(config.isImageCache())
+                .podSubnets(podSubnets)
+                .karmadaManifests(solutionProps.getKarmadaPolicies().stream().map(KarmadaPolicy::toManifest).collect(Collectors.toList()))
+                .manifestBatches(config.getManifestBatches())
+                .weightController(config.isWeightController())
+                .weightHysteresis(config.getWeightHysteresis())
+                .weightMaxStep(config.getWeightMaxStep())
+                .weightUpdateInterval(config.getWeightUpdateInterval())
+                .weightLatencyProbe(config.isWeightLatencyProbe())
+                .kubectlMemory(config.getKubectlMemory());
+        this.karmadaClusterStack = new KarmadaClusterStack(this, KARMADA_CLUSTER_STACK, karmadaClusterProps);
+
+        // Member clusters only depend on the parent stack resources and never on each other,
+        // so CloudFormation creates all of them concurrently. With member regions, the deployment region only runs
+        // Karmada and every member cluster is in a member region stack, see SolutionGuidanceFederatedK8SApp
+        if (!config.isMultiRegion()) {
+            for (int i = 1; i <= config.getMemberClusterCount(); i++) {
+                ResourceNestedStackProps resourceNestedStackProps = new ResourceNestedStackProps()
+                        .clusterName(CHILD_CLUSTER + "-" + i)
+                        .vpc(vpc)
+                        .vpcCidr(config.getVpcCidr())
+                        .kubernetesVersion(config.getMemberKubernetesVersion())
+                        .instanceType(config.getMemberInstanceType())
+                        .nodesNum(config.getMemberNodesNum())
+                        .autoscaling(config.isMemberAutoscaling())
+                        .maxNodesNum(config.getMemberMaxNodesNum())
+                        .spot(config.isMemberSpot())
+                        .spotInstanceTypes(config.getMemberSpotInstanceTypes())
+                        .onDemandBase(config.getMemberOnDemandBase())
+                        .nodeRootVolumeSize(config.getNodeVolumeSize())
+                        .nodeImage(config.getNodeImage())
+                        .nodeRootVolumeThroughput(config.getNodeRootVolumeThroughput())
+                        .warmPoolSize(config.getWarmPoolSize())
+                        .warmPoolState(config.getWarmPoolState())
+                        .kubectlMemory(config.getKubectlMemory())
+                        .managementHostRole(karmadaClusterStack.getManagementHostRole())
+                        .registrationMode(config.getRegistrationMode())
+                        .loggingProfile(config.getLoggingProfile())
+                        .logRetentionDays(config.getLogRetentionDays())
+                        .podNetworking(config.getPodNetworking())
+                        .maxPods(config.getMaxPods())
+                        .imageCacheRegion(imageCacheRegion)
+                        .dockerHubCacheRegion(getDockerHubCacheRegion())
+                        .prePullImages(config.getPrePullImages())
+                        .podSubnets(podSubnets);
+                memberClusterStacks.add(new SolutionGuidanceFederatedK8SNestedStack(this, CHILD_CLUSTERNESTED_STACK_ID + i, resourceNestedStackProps));
+            }
+        }
+        NodeCapacity.outputWarmPools(this, config.getWarmPoolSize(), config.getWarmPoolState(), 1 + memberClusterStacks.size());
 
         ManagementHostProps managementHostProps = new ManagementHostProps()
                 .managementHostRole(karmadaClusterStack.getManagementHostRole())
                 .region(this.region)
                 .mastersRoleARN(karmadaClusterStack.getMastersRoleARN())
                 .cluster(karmadaClusterStack.getKarmadaCluster())
+                .memberClusterCount(config.getMemberClusterCount())
+                .memberRegions(String.join(",", config.getMemberRegions()))
+                .instanceType(config.getManagementHostInstanceType())
+                .rootVolumeSize(config.getManagementHostRootVolumeSize())
+                .bootstrap(config.getManagementHostBootstrap())
+                .imageId(config.getManagementHostImageId())
+                .toolsPath(config.getManagementHostToolsPath())
+                .scriptsPath(config.getManagementHostScriptsPath())
+                .etcdNodeSelector(karmadaClusterStack.getEtcdNodeSelector())
+                .etcdStorageClassName(karmadaClusterStack.getEtcdStorageClassName())
+                .registrationMode(config.getRegistrationMode())
+                .karmadaApiSecretId(karmadaClusterStack.getKarmadaApiSecretName())
+                .karmadaApiDnsName(karmadaClusterStack.getKarmadaApiLoadBalancer().getDnsName())
+                .karmadaApiAddresses(karmadaClusterStack.getKarmadaApiLoadBalancer().getAddresses())
+                .searchResources(String.join(",", config.getSearchResources()))
+                .searchBackendAddresses(String.join(",", config.getSearchBackendAddresses()))
+                .searchBackendSecret(config.getSearchBackendSecret())
+                .imageCacheRegistry(config.isImageCache() ? ImageCache.registry(this.region) : "")
+                .dockerHubMirror(getDockerHubCacheRegion().isEmpty() ? "" : ImageCache.registry(this.region) + "/" + IMAGE_CACHE_DOCKER_HUB_PREFIX)
+                .federatedHpa(config.isMemberAutoscaling())
+                .failoverSeconds(config.getFailoverSeconds())
                 .vpc(vpc);
-        new ManagementHostStack(this, MANAGEMENT_HOST_STACK, managementHostProps);
-
-//        ResourceNestedStackProps resourceNestedStackProps = new ResourceNestedStackProps().clusterName(CHILD_CLUSTER).vpc(vpc).securityGroup(securityGroup);
-//        new SolutionGuidanceFederatedK8SNestedStack(this, CHILD_CLUSTERNESTED_STACK_ID, resourceNestedStackProps);
+        this.managementHostStack = new ManagementHostStack(this, MANAGEMENT_HOST_STACK, managementHostProps);
+        // The management host reads the topology on boot
+        managementHostStack.getNode().addDependency(publishTopology());
+        // A management host that registers the member clusters itself must wait for all of them, custom resource
+        // registration, in push or pull mode, instead waits for Karmada, so the host must not wait for the members
+        if (!config.getRegistrationMode().isCustomResource()) {
+            memberClusterStacks.forEach(memberClusterStack -> managementHostStack.getNode().addDependency(memberClusterStack));
+        }
 
         NagSuppressions.addStackSuppressions(this,
                 Arrays.asList(NagPackSuppression.builder().id(AWS_SOLUTIONS_IAM_5).reason(SUPPRESS_IN_ROLES_FOR_THE_SAKE_OF_SIMPLICITY).build(),
@@ -55,36 +183,77 @@ public class SolutionGuidanceFederatedK8SStack extends Stack {
                         NagPackSuppression.builder().id("AwsSolutions-AS3").reason("AwsSolutions-AS3 Suppresions").build()), Boolean.TRUE);
     }
 
+    private StringParameter publishTopology() {
+        Cluster karmadaCluster = karmadaClusterStack.getKarmadaCluster();
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("clusterName", KARMADA_CLUSTER);
+        attributes.put("clusterEndpoint", karmadaCluster.getClusterEndpoint());
+        attributes.put("oidcIssuer", karmadaCluster.getClusterOpenIdConnectIssuerUrl());
+        attributes.put("mastersRoleArn", karmadaClusterStack.getMastersRoleARN());
+        attributes.put("managementHostRoleArn", karmadaClusterStack.getManagementHostRole().getRoleArn());
+        return SolutionVpc.publishTopology(this, vpc, config.getVpcCidr(), attributes);
+    }
+
     private static String getEnvVariable(String CDK_DEFAULT_ACCOUNT, String accountId) {
         return System.getenv(CDK_DEFAULT_ACCOUNT) != null ? System.getenv(CDK_DEFAULT_ACCOUNT) : accountId;
     }
 
+    // Member region stacks import the management host role by name, so it needs a fixed one
+    public String getManagementHostRoleName() {
+        return config.isMultiRegion() ? MANAGEMENT_HOST_ROLE + "-" + region : null;
+    }
+
+    // Explicit props win over the configuration file and context
+    private SolutionConfig resolveConfig(SolutionGuidanceFederatedK8SProps props) {
+        SolutionConfig.Builder builder = props.getConfig() != null ? props.getConfig().toBuilder() : SolutionConfig.fromContext(this.getNode());
+        if (props.getMemberClusterCount() != null) {
+            builder.memberClusterCount(props.getMemberClusterCount());
+        }
+        if (props.getCapacityMode() != null) {
+            builder.capacityMode(props.getCapacityMode());
+        }
+        if (props.getKarpenterInstanceFamilies() != null) {
+            builder.karpenterInstanceFamilies(props.getKarpenterInstanceFamilies());
+        }
+        if (props.getKarpenterCapacityTypes() != null) {
+            builder.karpenterCapacityTypes(props.getKarpenterCapacityTypes());
+        }
+        if (props.getEtcdNodeGroup() != null) {
+            builder.etcdNodeGroup(props.getEtcdNodeGroup());
+        }
+        if (props.getPodNetworking() != null) {
+            builder.podNetworking(props.getPodNetworking());
+        }
+        return builder.build();
+    }
+
+    // Docker Hub images are only cached in the deployment region, where the credential secret is
+    public String getDockerHubCacheRegion() {
+        return config.isImageCache() && !config.getDockerHubSecretArn().isEmpty() ? region : "";
+    }
+
+    public String getDeploymentRegion() {
+        return region;
+    }
+
     public Vpc getVpc() {
         return vpc;
     }
 
-    private SubnetConfiguration createSubnetConfiguration(final String subnetName, Number cidrMask, Boolean privateSubnet) {
-        return SubnetConfiguration.builder()
-                .cidrMask(cidrMask)
-                .name(subnetName)
-                .subnetType(privateSubnet ? SubnetType.PRIVATE_WITH_EGRESS : SubnetType.PUBLIC)
-                .build();
+    public SolutionConfig getConfig() {
+        return config;
+    }
+
+    public KarmadaClusterStack getKarmadaClusterStack() {
+        return karmadaClusterStack;
+    }
+
+    public List<SolutionGuidanceFederatedK8SNestedStack> getMemberClusterStacks() {
+        return memberClusterStacks;
     }
 
-    private Vpc createVPC(SubnetConfiguration publicSubnet, SubnetConfiguration privateSubnet) {
-        Map<String, FlowLogOptions> flowLog = new HashMap<>();
-        flowLog.put(FLOW_LOG_CLOUD_WATCH, FlowLogOptions.builder()
-                .trafficType(FlowLogTrafficType.REJECT)
-                .maxAggregationInterval(FlowLogMaxAggregationInterval.ONE_MINUTE)
-                .build());
-        return Vpc.Builder.create(this, KARMADA_VPC)
-                .ipAddresses(IpAddresses.cidr(KARMADA_CIDR_BLOCK))
-                .vpcName(KARMADA_VPC)
-                .flowLogs(flowLog)
-                .availabilityZones(Arrays.asList(this.region + REGION_AZA, this.region + REGION_AZB, this.region + REGION_AZC))
-                .natGateways(1)
-                .subnetConfiguration(Arrays.asList(publicSubnet, privateSubnet))
-                .build();
+    public ManagementHostStack getManagementHostStack() {
+        return managementHostStack;
     }
 
 }
@@ -0,0 +1,188 @@
+package com.aws;
+
+import software.amazon.awscdk.CfnOutput;
+import software.amazon.awscdk.Fn;
+import software.amazon.awscdk.RemovalPolicy;
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.services.ec2.CfnVPCCidrBlock;
+import software.amazon.awscdk.services.ec2.FlowLogDestination;
+import software.amazon.awscdk.services.ec2.FlowLogFileFormat;
+import software.amazon.awscdk.services.ec2.FlowLogMaxAggregationInterval;
+import software.amazon.awscdk.services.ec2.FlowLogOptions;
+import software.amazon.awscdk.services.ec2.FlowLogTrafficType;
+import software.amazon.awscdk.services.ec2.GatewayVpcEndpointAwsService;
+import software.amazon.awscdk.services.ec2.GatewayVpcEndpointOptions;
+import software.amazon.awscdk.services.ec2.InterfaceVpcEndpointAwsService;
+import software.amazon.awscdk.services.ec2.InterfaceVpcEndpointOptions;
+import software.amazon.awscdk.services.ec2.ISubnet;
+import software.amazon.awscdk.services.ec2.IpAddresses;
+import software.amazon.awscdk.services.ec2.PrivateSubnet;
+import software.amazon.awscdk.services.ec2.S3DestinationOptions;
+import software.amazon.awscdk.services.ec2.SubnetConfiguration;
+import software.amazon.awscdk.services.ec2.SubnetSelection;
+import software.amazon.awscdk.services.ec2.SubnetType;
+import software.amazon.awscdk.services.ec2.Vpc;
+import software.amazon.awscdk.services.logs.CfnLogGroup;
+import software.amazon.awscdk.services.logs.LogGroup;
+import software.amazon.awscdk.services.ssm.StringParameter;
+import software.constructs.Construct;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.aws.Constants.*;
+
+// VPC layout shared by the parent stack and the member region stacks
+final class SolutionVpc {
+
+    private SolutionVpc() {
+    }
+
+    static Vpc create(Construct scope, String cidr, String region, SolutionConfig config) {
+        final SubnetConfiguration publicSubnetConfiguration = createSubnetConfiguration(KARMADA_PUBLIC_1, config.getPublicSubnetMask(), Boolean.FALSE);
+        final SubnetConfiguration privateSubnetConfiguration = createSubnetConfiguration(KARMADA_PRIVATE_1, config.getPrivateSubnetMask(), Boolean.TRUE);
+        Vpc vpc = createVPC(scope, cidr, region, config.getNatGatewaysNum(), publicSubnetConfiguration, privateSubnetConfiguration,
+                createFlowLogs(scope, config));
+        if (config.getNetworkProfile().isVpcEndpoints()) {
+            addVpcEndpoints(vpc);
+        }
+        return vpc;
+    }
+
+    // Secondary CIDR with one private subnet per availability zone for the pod ENIs of custom networking. Pod traffic
+    // that leaves the VPC is translated to the node address by the VPC CNI and routed through the node subnet, so the
+    // pod subnets only need the local routes
+    static Map<String, String> createPodSubnets(Construct scope, Vpc vpc, SolutionConfig config) {
+        CfnVPCCidrBlock podCidr = CfnVPCCidrBlock.Builder.create(scope, POD_CIDR)
+                .vpcId(vpc.getVpcId())
+                .cidrBlock(config.getPodCidr())
+                .build();
+        List<String> cidrs = Fn.cidr(config.getPodCidr(), AVAILABILITY_ZONES_NUM, String.valueOf(32 - config.getPodSubnetMask()));
+        Map<String, String> podSubnets = new LinkedHashMap<>();
+        for (int i = 0; i < vpc.getAvailabilityZones().size(); i++) {
+            String availabilityZone = vpc.getAvailabilityZones().get(i);
+            PrivateSubnet subnet = PrivateSubnet.Builder.create(scope, POD_SUBNET + (i + 1))
+                    .vpcId(vpc.getVpcId())
+                    .availabilityZone(availabilityZone)
+                    .cidrBlock(Fn.select(i, cidrs))
+                    .build();
+            subnet.getNode().addDependency(podCidr);
+            podSubnets.put(availabilityZone, subnet.getSubnetId());
+        }
+        return podSubnets;
+    }
+
+    // VPC and subnets per availability zone, plus the given attributes, as stack outputs and as one JSON parameter,
+    // so that the deployment scripts resolve the whole topology with a single read instead of describing every subnet
+    static StringParameter publishTopology(Stack stack, Vpc vpc, String vpcCidr, Map<String, String> attributes) {
+        Map<String, Object> topology = new LinkedHashMap<>();
+        topology.put("vpcId", vpc.getVpcId());
+        topology.put("vpcName", KARMADA_VPC);
+        topology.put("vpcCidr", vpcCidr);
+        topology.put("region", stack.getRegion());
+        topology.put("publicSubnets", publishSubnets(stack, vpc.getPublicSubnets(), PUBLIC_SUBNET_OUTPUT));
+        topology.put("privateSubnets", publishSubnets(stack, vpc.getPrivateSubnets(), PRIVATE_SUBNET_OUTPUT));
+        topology.putAll(attributes);
+
+        CfnOutput.Builder.create(stack, VPC_ID_OUTPUT)
+                .value(vpc.getVpcId())
+                .build();
+        attributes.forEach((key, value) -> CfnOutput.Builder.create(stack, Character.toUpperCase(key.charAt(0)) + key.substring(1))
+                .value(value)
+                .build());
+        StringParameter parameter = StringParameter.Builder.create(stack, TOPOLOGY_PARAMETER)
+                .parameterName(TOPOLOGY_PARAMETER_NAME)
+                .description("VPC topology and cluster attributes of the " + stack.getStackName() + " stack")
+                .stringValue(stack.toJsonString(topology))
+                .build();
+        CfnOutput.Builder.create(stack, TOPOLOGY_PARAMETER + "Name")
+                .value(parameter.getParameterName())
+                .build();
+        return parameter;
+    }
+
+    private static Map<String, String> publishSubnets(Stack stack, List<ISubnet> subnets, String outputPrefix) {
+        Map<String, String> subnetsByZone = new LinkedHashMap<>();
+        for (int i = 0; i < subnets.size(); i++) {
+            ISubnet subnet = subnets.get(i);
+            subnetsByZone.put(subnet.getAvailabilityZone(), subnet.getSubnetId());
+            CfnOutput.Builder.create(stack, outputPrefix + (i + 1))
+                    .description(outputPrefix + " in " + subnet.getAvailabilityZone())
+                    .value(subnet.getSubnetId())
+                    .build();
+        }
+        return subnetsByZone;
+    }
+
+    private static SubnetConfiguration createSubnetConfiguration(final String subnetName, Number cidrMask, Boolean privateSubnet) {
+        return SubnetConfiguration.builder()
+                .cidrMask(cidrMask)
+                .name(subnetName)
+                .subnetType(privateSubnet ? SubnetType.PRIVATE_WITH_EGRESS : SubnetType.PUBLIC)
+                .build();
+    }
+
+    private static Vpc createVPC(Construct scope, String cidr, String region, int natGateways, SubnetConfiguration publicSubnet,
+                                 SubnetConfiguration privateSubnet, Map<String, FlowLogOptions> flowLogs) {
+        return Vpc.Builder.create(scope, KARMADA_VPC)
+                .ipAddresses(IpAddresses.cidr(cidr))
+                .vpcName(KARMADA_VPC)
+                .flowLogs(flowLogs)
+                .availabilityZones(Arrays.asList(region + REGION_AZA, region + REGION_AZB, region + REGION_AZC))
+                .natGateways(natGateways)
+                .subnetConfiguration(Arrays.asList(publicSubnet, privateSubnet))
+                .build();
+    }
+
+    // Rejected traffic only. With the audit archive the records go to S3 as hourly partitioned Parquet files for bulk
+    // queries, otherwise to a CloudWatch log group with the configured retention
+    private static Map<String, FlowLogOptions> createFlowLogs(Construct scope, SolutionConfig config) {
+        FlowLogDestination destination;
+        if (config.getLoggingProfile().isAuditArchive()) {
+            destination = FlowLogDestination.toS3(LogArchive.of(scope).getBucket(), FLOW_LOG_PREFIX, S3DestinationOptions.builder()
+                    .fileFormat(FlowLogFileFormat.PARQUET)
+                    .hiveCompatiblePartitions(Boolean.TRUE)
+                    .perHourPartition(Boolean.TRUE)
+                    .build());
+        } else {
+            LogGroup logGroup = LogGroup.Builder.create(scope, FLOW_LOG_GROUP)
+                    .removalPolicy(RemovalPolicy.DESTROY)
+                    .build();
+            ((CfnLogGroup) logGroup.getNode().getDefaultChild()).setRetentionInDays(config.getLogRetentionDays());
+            destination = FlowLogDestination.toCloudWatchLogs(logGroup);
+        }
+        Map<String, FlowLogOptions> flowLogs = new HashMap<>();
+        flowLogs.put(config.getLoggingProfile().isAuditArchive() ? FLOW_LOG_S3 : FLOW_LOG_CLOUD_WATCH, FlowLogOptions.builder()
+                .trafficType(FlowLogTrafficType.REJECT)
+                .destination(destination)
+                .maxAggregationInterval(config.getFlowLogAggregationMinutes() == 1
+                        ? FlowLogMaxAggregationInterval.ONE_MINUTE : FlowLogMaxAggregationInterval.TEN_MINUTES)
+                .build());
+        return flowLogs;
+    }
+
+    // Image pulls, credentials and node bootstrap calls stay inside the VPC instead of going through NAT
+    private static void addVpcEndpoints(Vpc vpc) {
+        vpc.addGatewayEndpoint(S3_GATEWAY_ENDPOINT, GatewayVpcEndpointOptions.builder()
+                .service(GatewayVpcEndpointAwsService.S3)
+                .subnets(Arrays.asList(SubnetSelection.builder().subnetType(SubnetType.PUBLIC).build(),
+                        SubnetSelection.builder().subnetType(SubnetType.PRIVATE_WITH_EGRESS).build()))
+                .build());
+        Map<String, InterfaceVpcEndpointAwsService> services = new LinkedHashMap<>();
+        services.put("Ecr", InterfaceVpcEndpointAwsService.ECR);
+        services.put("EcrDocker", InterfaceVpcEndpointAwsService.ECR_DOCKER);
+        services.put("Sts", InterfaceVpcEndpointAwsService.STS);
+        services.put("Ec2", InterfaceVpcEndpointAwsService.EC2);
+        services.put("Eks", InterfaceVpcEndpointAwsService.EKS);
+        services.put("Logs", InterfaceVpcEndpointAwsService.CLOUDWATCH_LOGS);
+        services.put("Ssm", InterfaceVpcEndpointAwsService.SSM);
+        services.forEach((name, service) -> vpc.addInterfaceEndpoint(INTERFACE_ENDPOINT + name, InterfaceVpcEndpointOptions.builder()
+                .service(service)
+                .privateDnsEnabled(Boolean.TRUE)
+                .subnets(SubnetSelection.builder().subnetType(SubnetType.PRIVATE_WITH_EGRESS).onePerAz(Boolean.TRUE).build())
+                .build()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.aws;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// User data template compiled once per resource and shared by every stack instance. Placeholders are
+// either bare tokens (e.g. MASTER_ROLE_ARN) or ${key}; a ${key} without a value is kept as is so that
+// shell variables in the template are left untouched.
+final class UserDataTemplate {
+
+    private static final Map<String, UserDataTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    private static final String KEY_PATTERN = "\\$\\{([A-Za-z0-9_.-]+)}";
+
+    private final List<String> literals;
+    private final List<String> keys;
+    private final List<String> placeholders;
+
+    private UserDataTemplate(List<String> literals, List<String> keys, List<String> placeholders) {
+        this.literals = literals;
+        this.keys = keys;
+        this.placeholders = placeholders;
+    }
+
+    static UserDataTemplate fromResource(String resourceName, List<String> bareKeys) {
+        return TEMPLATES.computeIfAbsent(resourceName + bareKeys, key -> compile(readResource(resourceName), bareKeys));
+    }
+
+    static UserDataTemplate compile(String template, List<String> bareKeys) {
+        // longest token first so that a token never shadows a longer one sharing its prefix
+        String bareKeysPattern = bareKeys.stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"));
+        Pattern pattern = Pattern.compile(bareKeys.isEmpty() ? KEY_PATTERN : KEY_PATTERN + "|(" + bareKeysPattern + ")");
+
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        Matcher matcher = pattern.matcher(template);
+        int position = 0;
+        while (matcher.find()) {
+            literals.add(template.substring(position, matcher.start()));
+            keys.add(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+            placeholders.add(matcher.group());
+            position = matcher.end();
+        }
+        literals.add(template.substring(position));
+        return new UserDataTemplate(Collections.unmodifiableList(literals), Collections.unmodifiableList(keys), Collections.unmodifiableList(placeholders));
+    }
+
+    String render(Map<String, String> values) {
+        StringBuilder rendered = new StringBuilder();
+        for (int i = 0; i < keys.size(); i++) {
+            rendered.append(literals.get(i)).append(values.getOrDefault(keys.get(i), placeholders.get(i)));
+        }
+        return rendered.append(literals.get(keys.size())).toString();
+    }
+
+    List<String> getKeys() {
+        return keys;
+    }
+
+    private static String readResource(String resourceName) {
+        try (InputStream inputStream = UserDataTemplate.class.getClassLoader().getResourceAsStream(resourceName)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Resource " + resourceName + " not found");
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n").stripTrailing();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
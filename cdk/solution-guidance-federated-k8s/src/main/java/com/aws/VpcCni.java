@@ -0,0 +1,67 @@
+package com.aws;
+
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.services.eks.BootstrapOptions;
+import software.amazon.awscdk.services.eks.CfnAddon;
+import software.amazon.awscdk.services.eks.Cluster;
+import software.amazon.awscdk.services.eks.KubernetesManifest;
+import software.constructs.Construct;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.aws.Constants.*;
+
+// VPC CNI add-on of a cluster for the pod networking modes beyond the default secondary addresses. Nodes must join
+// after it is configured, otherwise they start with single secondary addresses and too few pods for their max pods
+final class VpcCni {
+
+    private VpcCni() {
+    }
+
+    // null with the default pod networking, the cluster keeps the aws-node daemon set it was created with
+    static CfnAddon configure(Construct scope, Cluster cluster, PodNetworking podNetworking, Map<String, String> podSubnets,
+                              List<String> securityGroupIds) {
+        if (!podNetworking.isPrefixDelegation()) {
+            return null;
+        }
+        Map<String, String> env = new LinkedHashMap<>();
+        env.put("ENABLE_PREFIX_DELEGATION", "true");
+        env.put("WARM_PREFIX_TARGET", "1");
+        if (podNetworking.isCustomNetworking()) {
+            env.put("AWS_VPC_K8S_CNI_CUSTOM_NETWORK_CFG", "true");
+            env.put("ENI_CONFIG_LABEL_DEF", ZONE_LABEL);
+        }
+        CfnAddon addon = CfnAddon.Builder.create(scope, VPC_CNI_ADDON)
+                .addonName(VPC_CNI)
+                .clusterName(cluster.getClusterName())
+                .resolveConflicts(OVERWRITE)
+                .configurationValues(Stack.of(scope).toJsonString(Map.of("env", env)))
+                .build();
+        if (podNetworking.isCustomNetworking()) {
+            addon.getNode().addDependency(createEniConfigs(cluster, podSubnets, securityGroupIds));
+        }
+        return addon;
+    }
+
+    // The node max pods follows the prefixes instead of the ENI addresses of the instance type
+    static BootstrapOptions bootstrapOptions(PodNetworking podNetworking, int maxPods) {
+        return podNetworking.isPrefixDelegation()
+                ? BootstrapOptions.builder().useMaxPods(Boolean.FALSE).kubeletExtraArgs("--max-pods=" + maxPods).build()
+                : null;
+    }
+
+    // One ENIConfig per availability zone, named after the zone, so every node picks the pod subnet of its zone
+    @SuppressWarnings("unchecked")
+    private static KubernetesManifest createEniConfigs(Cluster cluster, Map<String, String> podSubnets, List<String> securityGroupIds) {
+        return cluster.addManifest(ENI_CONFIGS, podSubnets.entrySet().stream()
+                .map(podSubnet -> Map.<String, Object>of(
+                        "apiVersion", "crd.k8s.amazonaws.com/v1alpha1",
+                        "kind", "ENIConfig",
+                        "metadata", Map.of("name", podSubnet.getKey()),
+                        "spec", Map.of("subnet", podSubnet.getValue(), "securityGroups", securityGroupIds)))
+                .toArray(Map[]::new));
+    }
+}
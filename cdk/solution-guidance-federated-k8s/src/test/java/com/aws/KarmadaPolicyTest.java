@@ -0,0 +1,151 @@
+package com.aws;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KarmadaPolicyTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPropagationPolicy() throws JsonProcessingException {
+        Map<String, Object> manifest = PropagationPolicy.namespaced("nginx", "default")
+                .resource("apps/v1", "Deployment", "nginx")
+                .clusterNames(List.of("member-1", "member-2"))
+                .staticWeights(Map.of("member-1", 2))
+                .toManifest();
+
+        assertEquals("PropagationPolicy", manifest.get("kind"));
+        Map<String, Object> spec = (Map<String, Object>) manifest.get("spec");
+        assertEquals(List.of(Map.of("apiVersion", "apps/v1", "kind", "Deployment", "name", "nginx", "namespace", "default")),
+                spec.get("resourceSelectors"));
+        Map<String, Object> replicaScheduling = (Map<String, Object>) ((Map<String, Object>) spec.get("placement")).get("replicaScheduling");
+        assertEquals("Divided", replicaScheduling.get("replicaSchedulingType"));
+        assertEquals(Map.of("staticWeightList", List.of(Map.of("targetCluster", Map.of("clusterNames", List.of("member-1")), "weight", 2))),
+                replicaScheduling.get("weightPreference"));
+
+        Map<String, Object> controlled = PropagationPolicy.namespaced("nginx", "default")
+                .resource("apps/v1", "Deployment", "nginx")
+                .controlledWeights()
+                .toManifest();
+        assertEquals(Map.of("federated-k8s.aws/weight-controller", "enabled"), ((Map<String, Object>) controlled.get("metadata")).get("labels"));
+        assertTrue(new ObjectMapper().writeValueAsString(controlled).contains("\"replicaDivisionPreference\":\"Weighted\""));
+
+        Map<String, Object> tolerating = PropagationPolicy.namespaced("nginx", "default")
+                .resource("apps/v1", "Deployment", "nginx")
+                .clusterTolerations(10)
+                .toManifest();
+        List<Map<String, Object>> tolerations = (List<Map<String, Object>>) ((Map<String, Object>) ((Map<String, Object>) tolerating.get("spec"))
+                .get("placement")).get("clusterTolerations");
+        assertEquals(List.of("cluster.karmada.io/not-ready", "cluster.karmada.io/unreachable"),
+                tolerations.stream().map(toleration -> toleration.get("key")).collect(Collectors.toList()));
+        assertEquals(10, tolerations.get(1).get("tolerationSeconds"));
+
+        Map<String, Object> clusterPolicy = PropagationPolicy.clusterScoped("crds")
+                .resource("apiextensions.k8s.io/v1", "CustomResourceDefinition", null)
+                .duplicated()
+                .toManifest();
+        assertEquals("ClusterPropagationPolicy", clusterPolicy.get("kind"));
+        assertEquals(Map.of("name", "crds"), clusterPolicy.get("metadata"));
+    }
+
+    @Test
+    public void testInvalidPoliciesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PropagationPolicy.namespaced("Nginx", "default")
+                .resource("apps/v1", "Deployment", "nginx").toManifest());
+        assertThrows(IllegalArgumentException.class, () -> PropagationPolicy.namespaced("nginx", "default").toManifest());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> PropagationPolicy.namespaced("nginx", "default")
+                .resource("apps/v1", "Deployment", "nginx")
+                .clusterNames(List.of("member-1"))
+                .staticWeights(Map.of("member-3", 1))
+                .toManifest());
+        assertTrue(exception.getMessage().contains("member-3"), exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> OverridePolicy.namespaced("nginx", "default")
+                .resource("apps/v1", "Deployment", "nginx")
+                .plaintext(List.of("member-1"), "spec/replicas", "set", 1)
+                .toManifest());
+        assertThrows(IllegalArgumentException.class, () -> PropagationPolicy.namespaced("nginx", "default")
+                .resource("apps/v1", "Deployment", "nginx")
+                .dynamicWeight()
+                .controlledWeights()
+                .toManifest());
+        assertThrows(IllegalArgumentException.class, () -> FederatedHpa.namespaced("nginx", "default")
+                .scaleTarget("apps/v1", "Deployment", "nginx")
+                .replicas(4, 2)
+                .cpuUtilization(60)
+                .toManifest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOverridePolicyAndFederatedHpa() throws JsonProcessingException {
+        Map<String, Object> overridePolicy = OverridePolicy.namespaced("nginx", "default")
+                .resource("apps/v1", "Deployment", "nginx")
+                .imageRegistry(List.of("member-1"), "123456789012.dkr.ecr.eu-west-2.amazonaws.com")
+                .plaintext(List.of("member-2"), "/metadata/annotations/region", "add", "eu-west-1")
+                .toManifest();
+        List<Map<String, Object>> rules = (List<Map<String, Object>>) ((Map<String, Object>) overridePolicy.get("spec")).get("overrideRules");
+        assertEquals(2, rules.size());
+        assertTrue(new ObjectMapper().writeValueAsString(rules.get(0)).contains("\"component\":\"Registry\""));
+
+        Map<String, Object> federatedHpa = FederatedHpa.namespaced("nginx", "default")
+                .scaleTarget("apps/v1", "Deployment", "nginx")
+                .replicas(2, 10)
+                .cpuUtilization(60)
+                .toManifest();
+        assertEquals("autoscaling.karmada.io/v1alpha1", federatedHpa.get("apiVersion"));
+        assertTrue(new ObjectMapper().writeValueAsString(federatedHpa).contains("\"averageUtilization\":60"));
+    }
+
+    @Test
+    public void testManifestBatches() {
+        ManifestBatcher batcher = new ManifestBatcher(3)
+                .addAll(policies(0, 10))
+                .add(Map.of("apiVersion", "v1", "kind", "Namespace", "metadata", Map.of("name", "apps")));
+
+        assertEquals(List.of("apps"), batcher.getNamespaces().stream()
+                .map(namespace -> ((Map<?, ?>) namespace.get("metadata")).get("name")).collect(Collectors.toList()));
+        List<List<Map<String, Object>>> batches = batcher.getBatches();
+        assertEquals(3, batches.size());
+        assertEquals(10, batches.stream().mapToInt(List::size).sum());
+        assertEquals(1, new ManifestBatcher(3).add(Map.of("kind", "StorageClass")).getBatches().stream()
+                .mapToInt(List::size).sum());
+    }
+
+    // An update deletes what a batch no longer has, so inserting or removing a policy must not move the others
+    @Test
+    public void testManifestBatchesAreStable() {
+        List<List<Map<String, Object>>> before = new ManifestBatcher(4).addAll(policies(1, 20)).getBatches();
+        List<Map<String, Object>> inserted = policies(0, 20);
+        List<List<Map<String, Object>>> after = new ManifestBatcher(4).addAll(inserted).getBatches();
+        List<List<Map<String, Object>>> removed = new ManifestBatcher(4).addAll(inserted.subList(2, 20)).getBatches();
+
+        for (int i = 0; i < 4; i++) {
+            List<String> keys = keys(after.get(i));
+            for (String key : keys(before.get(i))) {
+                assertTrue(keys.contains(key), key + " left batch " + i);
+            }
+            assertTrue(keys.containsAll(keys(removed.get(i))));
+        }
+        assertEquals(20, after.stream().mapToInt(List::size).sum());
+        assertEquals(1, after.stream().filter(batch -> keys(batch).contains(ManifestBatcher.key(inserted.get(0)))).count());
+    }
+
+    private static List<Map<String, Object>> policies(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> PropagationPolicy.namespaced("app-" + i, "apps")
+                .resource("apps/v1", "Deployment", "app-" + i).toManifest()).collect(Collectors.toList());
+    }
+
+    private static List<String> keys(List<Map<String, Object>> batch) {
+        return batch.stream().map(ManifestBatcher::key).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,148 @@
+package com.aws;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awscdk.App;
+import software.amazon.awscdk.assertions.Template;
+import software.amazon.awscdk.services.autoscaling.PoolState;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SolutionConfigTest {
+
+    @Test
+    public void testContextOverridesConfigFile(@TempDir Path tempDir) throws IOException {
+        Path configFile = tempDir.resolve("config.json");
+        Files.write(configFile, ("{\"nodeInstanceType\": \"m6i.xlarge\", \"nodesNum\": 5, \"memberClusterCount\": 4,"
+                + " \"karpenterInstanceFamilies\": [\"c7g\"]}").getBytes(StandardCharsets.UTF_8));
+        App app = App.Builder.create().context(Map.of("configFile", configFile.toString(), "memberClusterCount", "1")).build();
+
+        SolutionConfig config = SolutionConfig.fromContext(app.getNode()).build();
+
+        assertEquals("m6i.xlarge", config.getNodeInstanceType());
+        assertEquals(5, config.getNodesNum());
+        assertEquals(1, config.getMemberClusterCount());
+        assertEquals(Arrays.asList("c7g"), config.getKarpenterInstanceFamilies());
+        assertEquals(Constants.PRIVATE_SUBNET_MASK, config.getPrivateSubnetMask());
+    }
+
+    @Test
+    public void testUnknownKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().apply(Map.of("nodeCount", 3)));
+    }
+
+    @Test
+    public void testPrivateSubnetsTooSmallForNodes() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> SolutionConfig.builder().memberClusterCount(20).build());
+        assertTrue(exception.getMessage().contains("privateSubnetMask"), exception.getMessage());
+
+        SolutionConfig.builder().memberClusterCount(20).privateSubnetMask(21).build();
+    }
+
+    @Test
+    public void testPodNetworkingAddresses() {
+        // 3 nodes per zone with 7 prefixes each do not fit in the default private /24 subnets
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> SolutionConfig.builder().podNetworking(PodNetworking.PREFIX_DELEGATION).build());
+        assertTrue(exception.getMessage().contains("339 addresses"), exception.getMessage());
+        SolutionConfig.builder().podNetworking(PodNetworking.PREFIX_DELEGATION).privateSubnetMask(22).build();
+
+        SolutionConfig config = SolutionConfig.builder().podNetworking(PodNetworking.SECONDARY_CIDR).build();
+        assertEquals(18, config.getPodSubnetMask());
+        assertThrows(IllegalArgumentException.class,
+                () -> SolutionConfig.builder().podNetworking(PodNetworking.SECONDARY_CIDR).podCidr("10.1.128.0/17").build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().maxPods(300).build());
+    }
+
+    @Test
+    public void testWarmPoolNodes() {
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().warmPoolSize(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().warmPoolSize(2).nodeImage(NodeImage.BOTTLEROCKET).build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().warmPoolSize(2).warmPoolState(PoolState.HIBERNATED).build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().nodeRootVolumeSize(10).build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().nodeRootVolumeThroughput(1000).build());
+
+        SolutionConfig config = SolutionConfig.builder().apply(Map.of("warmPoolSize", "2", "warmPoolState", "RUNNING")).build();
+        assertEquals(PoolState.RUNNING, config.getWarmPoolState());
+        assertEquals(30, SolutionConfig.builder().build().getNodeRootVolumeSize());
+    }
+
+    @Test
+    public void testImageCache() {
+        String secretArn = "arn:aws:secretsmanager:eu-west-2:123456789012:secret:ecr-pullthroughcache/docker-hub-AbCdEf";
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().dockerHubSecretArn(secretArn).build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().imageCache(true)
+                .dockerHubSecretArn("arn:aws:secretsmanager:eu-west-2:123456789012:secret:docker-hub").build());
+        SolutionConfig config = SolutionConfig.builder().apply(Map.of("imageCache", "true", "dockerHubSecretArn", secretArn,
+                "prePullImages", "nginx:1.25, quay.io/prometheus/node-exporter:v1.7.0")).build();
+        assertEquals(2, config.getPrePullImages().size());
+        assertEquals(30, config.getNodeVolumeSize());
+        assertEquals(48, SolutionConfig.builder().prePullImages(Collections.nCopies(20, "nginx")).build().getNodeVolumeSize());
+
+        assertTrue(ImageCache.rewrite("registry.k8s.io/pause:3.9", "eu-west-1", "").endsWith("/k8s/pause:3.9"));
+        assertTrue(ImageCache.rewrite("nginx:1.25", "eu-west-1", "eu-west-2").endsWith("/docker-hub/library/nginx:1.25"));
+        assertTrue(ImageCache.rewrite("docker.io/bitnami/redis", "eu-west-1", "eu-west-2").endsWith("/docker-hub/bitnami/redis"));
+        assertEquals("nginx:1.25", ImageCache.rewrite("nginx:1.25", "eu-west-1", ""));
+        assertEquals("ghcr.io/org/app", ImageCache.rewrite("ghcr.io/org/app", "eu-west-1", "eu-west-2"));
+        assertEquals("registry.k8s.io/pause:3.9", ImageCache.rewrite("registry.k8s.io/pause:3.9", "", ""));
+    }
+
+    @Test
+    public void testSubnetsMustFitInVpc() {
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().vpcCidr("10.1.0.0/20").build());
+    }
+
+    @Test
+    public void testMalformedCidrsAreReported() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder()
+                .vpcCidr("10.x.0.0/16")
+                .memberRegions(Arrays.asList("eu-west-2"))
+                .build());
+        assertTrue(exception.getMessage().contains("vpcCidr 10.x.0.0/16 is not a valid CIDR"), exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder()
+                .podNetworking(PodNetworking.SECONDARY_CIDR).podCidr("100.64.0.300/16").build());
+        assertTrue(exception.getMessage().contains("podCidr 100.64.0.300/16 is not a valid CIDR"), exception.getMessage());
+    }
+
+    @Test
+    public void testSearchResourcesMustBeApiVersionAndKind() {
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().apply(Map.of("searchResources", "Deployment")).build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().searchBackendAddresses(Arrays.asList("search.example.com")).build());
+
+        assertEquals(Arrays.asList("apps/v1/Deployment", "v1/Service"),
+                SolutionConfig.builder().apply(Map.of("searchResources", "apps/v1/Deployment, v1/Service")).build().getSearchResources());
+    }
+
+    @Test
+    public void testConfigFlowsIntoStacks() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(1)
+                        .nodeInstanceType("m6i.xlarge")
+                        .nodesNum(4)
+                        .nodeRootVolumeSize(50)
+                        .memberNodesNum(2)
+                        .natGateways(3)
+                        .build()));
+
+        Template.fromStack(stack).resourceCountIs("AWS::EC2::NatGateway", 3);
+        Template karmadaCluster = Template.fromStack(stack.getKarmadaClusterStack());
+        karmadaCluster.hasResourceProperties("AWS::AutoScaling::AutoScalingGroup", Map.of("MinSize", "4", "MaxSize", "4"));
+        karmadaCluster.hasResourceProperties("AWS::AutoScaling::LaunchConfiguration", Map.of("InstanceType", "m6i.xlarge",
+                "BlockDeviceMappings", Arrays.asList(Map.of("DeviceName", "/dev/xvda", "Ebs", Map.of("VolumeSize", 50, "VolumeType", "gp3", "Throughput", 125)))));
+        Template.fromStack(stack.getMemberClusterStacks().get(0))
+                .hasResourceProperties("AWS::AutoScaling::AutoScalingGroup", Map.of("MinSize", "2", "MaxSize", "2"));
+    }
+}
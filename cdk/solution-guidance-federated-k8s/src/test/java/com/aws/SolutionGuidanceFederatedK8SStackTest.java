@@ -1,8 +1,32 @@
 package com.aws;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import software.amazon.awscdk.App;
+import software.amazon.awscdk.NestedStack;
+import software.amazon.awscdk.Stack;
+import software.amazon.awscdk.assertions.Match;
 import software.amazon.awscdk.assertions.Template;
+import software.amazon.awscdk.services.logs.RetentionDays;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.aws.Constants.CHILD_CLUSTERNESTED_STACK_ID;
+import static com.aws.Constants.LOG_RETENTION_DAYS_LIST;
+import static com.aws.Constants.MANAGEMENT_HOST_SCRIPTS_PATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class SolutionGuidanceFederatedK8SStackTest {
 
@@ -12,4 +36,636 @@ public class SolutionGuidanceFederatedK8SStackTest {
         SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test");
         Template template = Template.fromStack(stack);
     }
+
+    @Test
+    public void testMemberClusterStacksHaveNoCrossDependencies() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().memberClusterCount(3));
+        Template template = Template.fromStack(stack);
+
+        Map<String, Map<String, Object>> nestedStacks = template.findResources("AWS::CloudFormation::Stack");
+        List<String> memberStackIds = nestedStacks.keySet().stream()
+                .filter(logicalId -> logicalId.startsWith(CHILD_CLUSTERNESTED_STACK_ID))
+                .collect(Collectors.toList());
+        assertEquals(3, memberStackIds.size());
+
+        for (String memberStackId : memberStackIds) {
+            List<?> dependsOn = (List<?>) nestedStacks.get(memberStackId).getOrDefault("DependsOn", Collections.emptyList());
+            for (String otherMemberStackId : memberStackIds) {
+                assertFalse(dependsOn.contains(otherMemberStackId), memberStackId + " depends on " + otherMemberStackId);
+            }
+        }
+    }
+
+    @Test
+    public void testCustomResourceRegistration() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(2)
+                        .registrationMode(RegistrationMode.CUSTOM_RESOURCE)
+                        .build()));
+        Template template = Template.fromStack(stack);
+
+        // one shared provider, no host dependency on the members
+        template.resourceCountIs("AWS::Lambda::Function", 5);
+        // the shaded handler jar reads the secret itself, without the parameters and secrets extension layer
+        template.hasResourceProperties("AWS::Lambda::Function", Map.of("Handler", "com.aws.KarmadaRegistrationHandler::isComplete",
+                "Layers", Match.absent()));
+        template.findResources("AWS::CloudFormation::Stack").forEach((logicalId, nestedStack) -> {
+            if (logicalId.startsWith("ManagementHostStack")) {
+                assertFalse(nestedStack.getOrDefault("DependsOn", Collections.emptyList()).toString().contains(CHILD_CLUSTERNESTED_STACK_ID));
+            }
+        });
+        Template.fromStack(stack.getMemberClusterStacks().get(1)).hasResourceProperties("Custom::KarmadaRegistration",
+                Map.of("ClusterName", "karmada-eks-cluster-member-2", "SyncMode", "Push"));
+        Template.fromStack(stack.getKarmadaClusterStack()).hasResourceProperties("AWS::SecretsManager::Secret",
+                Map.of("Name", "karmada/apiserver"));
+    }
+
+    @Test
+    public void testScriptRegistration() {
+        App app = new App();
+        // the default registration mode
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(1)
+                        .build()));
+
+        Template.fromStack(stack.getMemberClusterStacks().get(0)).resourceCountIs("Custom::KarmadaRegistration", 0);
+        Template.fromStack(stack.getKarmadaClusterStack()).resourceCountIs("AWS::SecretsManager::Secret", 0);
+    }
+
+    @Test
+    public void testPullRegistration() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(2)
+                        .registrationMode(RegistrationMode.PULL)
+                        .build()));
+
+        // the registration custom resource of every member installs its agent, so the host does not wait for the members
+        Template.fromStack(stack.getMemberClusterStacks().get(0)).resourceCountIs("Custom::KarmadaRegistration", 1);
+        Template.fromStack(stack.getMemberClusterStacks().get(1)).hasResourceProperties("Custom::KarmadaRegistration",
+                Map.of("ClusterName", "karmada-eks-cluster-member-2", "SyncMode", "Pull"));
+        Template.fromStack(stack.getKarmadaClusterStack()).resourceCountIs("AWS::SecretsManager::Secret", 1);
+        Template.fromStack(stack).findResources("AWS::CloudFormation::Stack").forEach((logicalId, nestedStack) -> {
+            if (logicalId.startsWith("ManagementHostStack")) {
+                assertFalse(nestedStack.getOrDefault("DependsOn", Collections.emptyList()).toString().contains(CHILD_CLUSTERNESTED_STACK_ID));
+            }
+        });
+        assertTrue(Template.fromStack(stack.getManagementHostStack()).toJSON().toString().contains("-j PULL"));
+    }
+
+    @Test
+    public void testKarmadaSearch() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(0)
+                        .searchResources(Arrays.asList("apps/v1/Deployment", "v1/Service"))
+                        .searchBackendAddresses(Arrays.asList("https://search.example.com"))
+                        .searchBackendSecret("karmada/search")
+                        .build()));
+
+        String userData = Template.fromStack(stack.getManagementHostStack()).toJSON().toString();
+        assertTrue(userData.contains("-Q 'apps/v1/Deployment,v1/Service' -O 'https://search.example.com' -P 'karmada/search'"), userData);
+        String policies = Template.fromStack(stack.getKarmadaClusterStack()).findResources("AWS::IAM::Policy").toString();
+        assertTrue(policies.contains(":secret:karmada/search-??????"), policies);
+    }
+
+    @Test
+    public void testS3AssetBootstrap() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(0)
+                        .managementHostBootstrap(ManagementHostBootstrap.S3_ASSET)
+                        .build()));
+        Template template = Template.fromStack(stack.getManagementHostStack());
+
+        template.hasResource("AWS::EC2::Instance", Map.of(
+                "CreationPolicy", Map.of("ResourceSignal", Map.of("Count", 1, "Timeout", "PT30M")),
+                "Metadata", Match.objectLike(Map.of("AWS::CloudFormation::Init", Match.anyValue()))));
+        template.resourceCountIs("AWS::CloudFormation::WaitCondition", 1);
+        // the seconds, not the {"boot":"<seconds>"} data of the wait condition
+        template.hasOutput("ManagementHostBootSeconds", Map.of("Value", Match.objectLike(Map.of("Fn::Select", Match.arrayWith(List.of(3))))));
+        String userData = template.findResources("AWS::EC2::Instance").toString();
+        assertTrue(userData.contains("[[ -f /var/lib/cfn-init-done ]] || BOOT_FAILURE="), userData);
+        assertTrue(userData.contains("\\\"Status\\\":\\\"FAILURE\\\""), userData);
+        // found from the CDK app directory, not the working directory
+        Path scriptsPath = AppDirectory.resolve(MANAGEMENT_HOST_SCRIPTS_PATH);
+        assertEquals("eks-karmada-deploy", scriptsPath.getFileName().toString());
+        String checksums = ManagementHostStack.checksums(scriptsPath);
+        assertTrue(checksums.matches("(?s)([0-9a-f]{64}  \\S+\n)+"), checksums);
+        assertTrue(checksums.contains("  deploy-karmada-run.sh\n"), checksums);
+    }
+
+    @Test
+    public void testGitCloneBootstrap() {
+        App app = new App();
+        // the default bootstrap
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(0)
+                        .build()));
+        Template template = Template.fromStack(stack.getManagementHostStack());
+
+        template.hasResource("AWS::EC2::Instance", Map.of("CreationPolicy", Match.absent()));
+        template.resourceCountIs("AWS::CloudFormation::WaitCondition", 1);
+    }
+
+    @Test
+    public void testKarmadaApiLoadBalancer() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(0)
+                        .karmadaApiAllowedCidr("203.0.113.0/24")
+                        .build()));
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+
+        template.resourceCountIs("AWS::EC2::EIP", 3);
+        template.hasResourceProperties("AWS::ElasticLoadBalancingV2::LoadBalancer", Map.of(
+                "Type", "network",
+                "Scheme", "internet-facing",
+                "Subnets", Match.absent(),
+                "SubnetMappings", Match.arrayWith(Arrays.asList(Match.objectLike(Map.of("AllocationId", Match.anyValue())))),
+                "LoadBalancerAttributes", Match.arrayWith(Arrays.asList(Map.of("Key", "load_balancing.cross_zone.enabled", "Value", "true")))));
+        template.hasResourceProperties("AWS::ElasticLoadBalancingV2::TargetGroup", Map.of(
+                "TargetType", "ip",
+                "Port", 5443,
+                "HealthCheckIntervalSeconds", 10,
+                "TargetGroupAttributes", Match.arrayWith(Arrays.asList(
+                        Map.of("Key", "deregistration_delay.timeout_seconds", "Value", "30"),
+                        Map.of("Key", "deregistration_delay.connection_termination.enabled", "Value", "true")))));
+        template.hasResourceProperties("AWS::EC2::SecurityGroup", Map.of("SecurityGroupIngress", Arrays.asList(
+                Match.objectLike(Map.of("CidrIp", "203.0.113.0/24", "FromPort", 32443)))));
+        template.resourcePropertiesCountIs("AWS::EC2::SecurityGroup", Map.of("SecurityGroupIngress", Match.arrayWith(Arrays.asList(
+                Match.objectLike(Map.of("CidrIp", "0.0.0.0/0", "FromPort", 32443))))), 0);
+        template.hasResourceProperties("Custom::AWSCDK-EKS-HelmChart", Map.of("Chart", "aws-load-balancer-controller"));
+        // The binding references the target group, so its manifest is a Fn::Join
+        assertTrue(template.findResources("Custom::AWSCDK-EKS-KubernetesResource").toString().contains("\"kind\":\"TargetGroupBinding\""));
+        template.hasOutput("KarmadaApiServerDnsName", Match.anyValue());
+        template.hasOutput("KarmadaApiServerAddresses", Match.anyValue());
+    }
+
+    @Test
+    public void testTopologyParameter() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().memberClusterCount(0));
+        Template template = Template.fromStack(stack);
+
+        template.hasResourceProperties("AWS::SSM::Parameter", Map.of("Name", "/karmada/topology"));
+        assertTrue(template.findResources("AWS::SSM::Parameter").toString().contains("privateSubnets"));
+        template.hasOutput("VpcId", Map.of());
+        template.hasOutput("PublicSubnet1", Map.of());
+        template.hasOutput("PrivateSubnet3", Map.of());
+        template.hasOutput("OidcIssuer", Map.of());
+        assertTrue(Template.fromStack(stack.getKarmadaClusterStack()).findResources("AWS::IAM::Policy").toString()
+                .contains(":parameter/karmada/topology"));
+    }
+
+    @Test
+    public void testObservability() throws JsonProcessingException {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(0)
+                        .observability(true)
+                        .karmadaApiLatencyP99Ms(500)
+                        .build()));
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+
+        // plain statistics of the p99 gauges, CloudWatch has no percentiles of the exported histograms
+        template.resourceCountIs("AWS::CloudWatch::Alarm", 4);
+        template.hasResourceProperties("AWS::CloudWatch::Alarm", Map.of(
+                "MetricName", "apiserver_request_duration_seconds_p99",
+                "Namespace", "Karmada",
+                "Statistic", "Maximum",
+                "Threshold", 0.5));
+        template.hasResourceProperties("AWS::CloudWatch::Alarm", Map.of(
+                "MetricName", "etcd_disk_wal_fsync_duration_seconds_p99",
+                "Threshold", 0.01));
+        template.hasResourceProperties("AWS::CloudWatch::Alarm", Map.of(
+                "MetricName", "etcd_server_leader_changes_seen_total_15m",
+                "ComparisonOperator", "GreaterThanOrEqualToThreshold"));
+        template.resourceCountIs("AWS::CloudWatch::Dashboard", 1);
+        template.hasResourceProperties("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("aws-otel-collector")));
+        assertFalse(template.toJSON().toString().contains("ExtendedStatistic"));
+
+        // every alarm metric is a gauge recorded from the histogram buckets and selected by the exporter
+        ObjectMapper mapper = new ObjectMapper();
+        String rules = mapper.writeValueAsString(KarmadaObservability.recordingRules());
+        String collector = mapper.writeValueAsString(KarmadaObservability.collectorConfig());
+        for (Object alarm : template.findResources("AWS::CloudWatch::Alarm").values()) {
+            String metricName = (String) ((Map<?, ?>) ((Map<?, ?>) alarm).get("Properties")).get("MetricName");
+            assertTrue(rules.contains("\"record\":\"" + metricName + "\""), metricName);
+            assertTrue(collector.contains("\"" + metricName + "\""), metricName);
+        }
+        assertTrue(rules.contains("histogram_quantile(0.99, sum by (le) (rate(apiserver_request_duration_seconds_bucket{verb!~\\\"WATCH|CONNECT\\\"}[5m])))"), rules);
+        assertTrue(mapper.writeValueAsString(KarmadaObservability.prometheusConfig()).contains("apiserver_request_duration_seconds)(_bucket|_sum|_count)?"));
+
+        // opt-in
+        SolutionGuidanceFederatedK8SStack disabled = new SolutionGuidanceFederatedK8SStack(new App(), "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(0)
+                        .build()));
+        Template.fromStack(disabled.getKarmadaClusterStack()).resourceCountIs("AWS::CloudWatch::Alarm", 0);
+        assertFalse(Template.fromStack(disabled.getKarmadaClusterStack()).toJSON().toString().contains("/aws/karmada/metrics"));
+    }
+
+    @Test
+    public void testAuditLogArchive() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(1)
+                        .loggingProfile(LoggingProfile.AUDIT_ARCHIVE)
+                        .logRetentionDays(7)
+                        .build()));
+        Template template = Template.fromStack(stack);
+        Template karmadaTemplate = Template.fromStack(stack.getKarmadaClusterStack());
+
+        template.resourceCountIs("AWS::S3::Bucket", 1);
+        template.hasResourceProperties("AWS::EC2::FlowLog", Map.of(
+                "LogDestinationType", "s3",
+                "MaxAggregationInterval", 600,
+                "DestinationOptions", Map.of("fileFormat", "parquet", "hiveCompatiblePartitions", true, "perHourPartition", true)));
+        // the group may already exist from before the logging profile, so only its retention is managed
+        karmadaTemplate.hasResourceProperties("Custom::LogRetention", Map.of(
+                "LogGroupName", "/aws/eks/karmada-eks-cluster-parent/cluster",
+                "RetentionInDays", 7));
+        karmadaTemplate.resourceCountIs("AWS::Logs::LogGroup", 0);
+        karmadaTemplate.hasResourceProperties("AWS::Logs::SubscriptionFilter", Map.of("FilterPattern", "{ $.kind = \"Event\" }"));
+        karmadaTemplate.hasResourceProperties("AWS::KinesisFirehose::DeliveryStream", Map.of(
+                "ExtendedS3DestinationConfiguration", Match.objectLike(Map.of(
+                        "CompressionFormat", "GZIP",
+                        "Prefix", "audit/cluster=karmada-eks-cluster-parent/year=!{timestamp:yyyy}/month=!{timestamp:MM}/day=!{timestamp:dd}/hour=!{timestamp:HH}/"))));
+        Template.fromStack(stack.getMemberClusterStacks().get(0)).resourceCountIs("AWS::KinesisFirehose::DeliveryStream", 1);
+
+        SolutionGuidanceFederatedK8SStack noAudit = new SolutionGuidanceFederatedK8SStack(new App(), "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(0)
+                        .loggingProfile(LoggingProfile.NO_AUDIT)
+                        .build()));
+        Template noAuditTemplate = Template.fromStack(noAudit.getKarmadaClusterStack());
+        assertFalse(noAuditTemplate.findResources("Custom::AWSCDK-EKS-Cluster").toString().contains("audit"));
+        noAuditTemplate.resourceCountIs("AWS::KinesisFirehose::DeliveryStream", 0);
+        Template.fromStack(noAudit).hasResourceProperties("AWS::Logs::LogGroup", Map.of("RetentionInDays", 30));
+    }
+
+    @Test
+    public void testLogRetentionDays() {
+        // every allowed value has its own retention, whatever the declaration order of RetentionDays
+        assertEquals(LOG_RETENTION_DAYS_LIST.size(), LOG_RETENTION_DAYS_LIST.stream().map(ClusterLogging::retention).distinct().count());
+        assertEquals(RetentionDays.THREE_YEARS, ClusterLogging.retention(1096));
+        assertEquals(RetentionDays.TEN_YEARS, ClusterLogging.retention(3653));
+        assertThrows(IllegalArgumentException.class, () -> ClusterLogging.retention(1461));
+    }
+
+    @Test
+    public void testKubectlLayerIsSharedByAllClusters() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().memberClusterCount(2));
+
+        Template.fromStack(stack).resourceCountIs("AWS::Lambda::LayerVersion", 1);
+        Template.fromStack(stack.getMemberClusterStacks().get(0)).resourceCountIs("AWS::Lambda::LayerVersion", 0);
+    }
+
+    @Test
+    public void testFixedAutoScalingGroupCapacityMode() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().memberClusterCount(0));
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+
+        template.hasResourceProperties("AWS::AutoScaling::AutoScalingGroup", Map.of("MinSize", "3", "MaxSize", "3"));
+        template.resourcePropertiesCountIs("Custom::AWSCDK-EKS-HelmChart", Map.of("Chart", "karpenter"), 0);
+    }
+
+    @Test
+    public void testKarpenterCapacityMode() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().memberClusterCount(0)
+                        .capacityMode(CapacityMode.KARPENTER)
+                        .karpenterInstanceFamilies(Arrays.asList("m7g", "c7g")));
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+
+        template.hasResourceProperties("AWS::AutoScaling::AutoScalingGroup", Map.of("MinSize", "2", "MaxSize", "2"));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-HelmChart", Map.of("Chart", "karpenter", "Namespace", "karpenter"));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("\"kind\":\"NodePool\"")));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("\"values\":\\[\"m7g\",\"c7g\"\\]")));
+        // etcd is pinned to on-demand nodes of its own NodePool, which are neither consolidated nor replaced
+        template.hasResourceProperties("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("\"name\":\"karmada-etcd-node-pool\"")));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("\"labels\":\\{\"karmada.io/etcd\":\"true\"\\}")));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("\"budgets\":\\[\\{\"nodes\":\"0\"\\}\\]")));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("\"values\":\\[\"on-demand\"\\]")));
+        assertEquals("karmada.io/etcd=true", stack.getKarmadaClusterStack().getEtcdNodeSelector());
+    }
+
+    @Test
+    public void testEtcdNodegroup() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().memberClusterCount(0).etcdNodeGroup(true));
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+
+        template.hasResourceProperties("AWS::EKS::Nodegroup", Map.of(
+                "CapacityType", "ON_DEMAND",
+                "Labels", Map.of("karmada.io/etcd", "true"),
+                "Taints", List.of(Map.of("Key", "karmada.io/etcd", "Value", "true", "Effect", "PREFER_NO_SCHEDULE")),
+                "ScalingConfig", Map.of("MinSize", 3, "MaxSize", 3, "DesiredSize", 3)));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("\"name\":\"ebs-sc-etcd\"")));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("\"iops\":\"6000\"")));
+        assertEquals("karmada.io/etcd=true", stack.getKarmadaClusterStack().getEtcdNodeSelector());
+        assertEquals("ebs-sc-etcd", stack.getKarmadaClusterStack().getEtcdStorageClassName());
+
+        // without the etcd nodes the provisioned volumes are not created and etcd keeps the default class
+        SolutionGuidanceFederatedK8SStack shared = new SolutionGuidanceFederatedK8SStack(new App(), "test",
+                new SolutionGuidanceFederatedK8SProps().memberClusterCount(0));
+        Template.fromStack(shared.getKarmadaClusterStack()).resourcePropertiesCountIs("Custom::AWSCDK-EKS-KubernetesResource",
+                Map.of("Manifest", Match.stringLikeRegexp("\"name\":\"ebs-sc-etcd\"")), 0);
+        assertEquals("ebs-sc", shared.getKarmadaClusterStack().getEtcdStorageClassName());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"STANDARD,1,0", "NAT_PER_AZ,3,0", "VPC_ENDPOINTS,1,8", "NAT_PER_AZ_VPC_ENDPOINTS,3,8"})
+    public void testNetworkProfile(NetworkProfile networkProfile, int natGateways, int vpcEndpoints) {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(0)
+                        .networkProfile(networkProfile)
+                        .build()));
+        Template template = Template.fromStack(stack);
+
+        template.resourceCountIs("AWS::EC2::NatGateway", natGateways);
+        template.resourceCountIs("AWS::EC2::VPCEndpoint", vpcEndpoints);
+        if (networkProfile.isVpcEndpoints()) {
+            template.hasResourceProperties("AWS::EC2::VPCEndpoint", Map.of("VpcEndpointType", "Gateway"));
+        }
+    }
+
+    @Test
+    public void testPrefixDelegation() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(1)
+                        .privateSubnetMask(22)
+                        .podNetworking(PodNetworking.PREFIX_DELEGATION)
+                        .build()));
+
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+        template.hasResourceProperties("AWS::EKS::Addon", Map.of("AddonName", "vpc-cni",
+                "ConfigurationValues", Match.stringLikeRegexp("\"ENABLE_PREFIX_DELEGATION\":\"true\"")));
+        template.hasResource("AWS::AutoScaling::AutoScalingGroup", Map.of("DependsOn", Match.arrayWith(Arrays.asList(Match.stringLikeRegexp("vpccniaddon")))));
+        assertTrue(template.toJSON().toString().contains("--max-pods=110"));
+        assertTrue(Template.fromStack(stack.getMemberClusterStacks().get(0)).toJSON().toString().contains("--max-pods=110"));
+        Template.fromStack(stack).resourceCountIs("AWS::EC2::VPCCidrBlock", 0);
+    }
+
+    @Test
+    public void testSecondaryCidrPodSubnets() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().memberClusterCount(1).podNetworking(PodNetworking.SECONDARY_CIDR));
+
+        Template template = Template.fromStack(stack);
+        template.hasResourceProperties("AWS::EC2::VPCCidrBlock", Map.of("CidrBlock", "100.64.0.0/16"));
+        template.resourceCountIs("AWS::EC2::Subnet", 9);
+        Template memberCluster = Template.fromStack(stack.getMemberClusterStacks().get(0));
+        memberCluster.hasResourceProperties("AWS::EKS::Addon", Map.of("AddonName", "vpc-cni",
+                "ConfigurationValues", Match.stringLikeRegexp("\"ENI_CONFIG_LABEL_DEF\":\"topology.kubernetes.io/zone\"")));
+        // the manifest joins the pod subnet ids passed from the parent stack
+        String manifests = memberCluster.toJSON().toString();
+        assertTrue(manifests.contains("\"kind\":\"ENIConfig\""));
+        assertTrue(manifests.contains("\"name\":\"eu-west-2c\""));
+    }
+
+    @Test
+    public void testWarmPool() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(2)
+                        .warmPoolSize(2)
+                        .build()));
+
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+        template.hasResourceProperties("AWS::AutoScaling::WarmPool", Map.of("MinSize", 2, "PoolState", "Stopped"));
+        template.hasResourceProperties("AWS::AutoScaling::AutoScalingGroup", Map.of("MinSize", "3", "MaxSize", "5"));
+        assertTrue(template.toJSON().toString().contains("autoscaling/target-lifecycle-state"));
+        Template.fromStack(stack.getMemberClusterStacks().get(1)).resourceCountIs("AWS::AutoScaling::WarmPool", 1);
+        Template.fromStack(stack).hasOutput("WarmPoolCapacity", Map.of("Value", "6"));
+    }
+
+    @Test
+    public void testBottlerocketNodes() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(1)
+                        .nodeImage(NodeImage.BOTTLEROCKET)
+                        .nodeRootVolumeThroughput(250)
+                        .build()));
+
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+        template.hasResourceProperties("AWS::AutoScaling::LaunchConfiguration", Map.of("BlockDeviceMappings", Arrays.asList(
+                Map.of("DeviceName", "/dev/xvdb", "Ebs", Map.of("VolumeSize", 30, "Throughput", 250)))));
+        assertTrue(template.toJSON().toString().contains("/aws/service/bottlerocket/aws-k8s-"));
+        assertTrue(template.toJSON().toString().contains("[settings.kubernetes]"));
+        template.resourceCountIs("AWS::AutoScaling::WarmPool", 0);
+    }
+
+    @Test
+    public void testKarmadaPoliciesAreBatched() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps()
+                        .config(SolutionConfig.builder()
+                                .memberClusterCount(1)
+                                .registrationMode(RegistrationMode.CUSTOM_RESOURCE)
+                                .manifestBatches(3)
+                                .kubectlMemory(2048)
+                                .build())
+                        .karmadaPolicies(IntStream.range(0, 200).mapToObj(i -> PropagationPolicy.namespaced("app-" + i, "default")
+                                .resource("apps/v1", "Deployment", "app-" + i)
+                                .dynamicWeight())
+                                .collect(Collectors.toList())));
+
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+        template.resourceCountIs("Custom::KarmadaManifests", 3);
+        template.hasResourceProperties("Custom::KarmadaManifests", Map.of("ManifestsName", Match.stringLikeRegexp("KarmadaManifests[0-2]"),
+                "Manifests", Match.stringLikeRegexp("\"name\":\"app-199\"")));
+        Stack kubectlProvider = (Stack) stack.getKarmadaClusterStack().getNode().findAll().stream()
+                .filter(construct -> construct instanceof NestedStack && construct.getNode().getId().contains("KubectlProvider"))
+                .findFirst().orElseThrow();
+        Template.fromStack(kubectlProvider).hasResourceProperties("AWS::Lambda::Function", Map.of("MemorySize", 2048));
+
+        assertThrows(IllegalArgumentException.class, () -> new SolutionGuidanceFederatedK8SStack(new App(), "test",
+                new SolutionGuidanceFederatedK8SProps()
+                        .config(SolutionConfig.builder().registrationMode(RegistrationMode.SCRIPT).build())
+                        .karmadaPolicies(List.of(PropagationPolicy.clusterScoped("crds")
+                                .resource("apiextensions.k8s.io/v1", "CustomResourceDefinition", null)))));
+    }
+
+    @Test
+    public void testImageCache() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = SolutionGuidanceFederatedK8SApp.createStack(app,
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(1)
+                        .memberRegions(Arrays.asList("us-east-1"))
+                        .imageCache(true)
+                        .dockerHubSecretArn("arn:aws:secretsmanager:eu-west-2:123456789012:secret:ecr-pullthroughcache/docker-hub-AbCdEf")
+                        .prePullImages(Arrays.asList("nginx:1.25", "registry.k8s.io/kube-proxy:v1.29.0"))
+                        .build()));
+
+        Template.fromStack(stack).resourceCountIs("AWS::ECR::PullThroughCacheRule", 4);
+        Template.fromStack(stack).hasResourceProperties("AWS::ECR::PullThroughCacheRule",
+                Map.of("EcrRepositoryPrefix", "docker-hub", "UpstreamRegistry", "docker-hub"));
+        String karmadaTemplate = Template.fromStack(stack.getKarmadaClusterStack()).toJSON().toString();
+        assertTrue(karmadaTemplate.contains("ecr:BatchImportUpstreamImage"));
+        String managementHostTemplate = Template.fromStack(stack.getManagementHostStack()).toJSON().toString();
+        assertTrue(managementHostTemplate.contains("/docker-hub' "), managementHostTemplate);
+
+        MemberRegionStack memberRegionStack = (MemberRegionStack) app.getNode().findChild("SolutionGuidanceFederatedK8SMembers-us-east-1");
+        Template.fromStack(memberRegionStack).resourceCountIs("AWS::ECR::PullThroughCacheRule", 3);
+        Template memberTemplate = Template.fromStack(memberRegionStack.getMemberClusterStacks().get(0));
+        String manifest = memberTemplate.toJSON().toString();
+        assertTrue(manifest.contains("image-pre-pull"), manifest);
+        assertTrue(manifest.contains(".dkr.ecr.us-east-1."), manifest);
+        assertTrue(manifest.contains("/k8s/kube-proxy:v1.29.0"), manifest);
+        assertTrue(manifest.contains(".dkr.ecr.eu-west-2."), manifest);
+        assertTrue(manifest.contains("/docker-hub/library/nginx:1.25"), manifest);
+        assertTrue(manifest.contains("ecr:BatchImportUpstreamImage"));
+    }
+
+    @Test
+    public void testMemberAutoscaling() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(2)
+                        .memberAutoscaling(true)
+                        .memberMaxNodesNum(5)
+                        .build()));
+
+        Template template = Template.fromStack(stack.getMemberClusterStacks().get(1));
+        template.hasResourceProperties("AWS::AutoScaling::AutoScalingGroup", Map.of("MinSize", "3", "MaxSize", "5",
+                "Tags", Match.arrayWith(Arrays.asList(Map.of("Key", "k8s.io/cluster-autoscaler/karmada-eks-cluster-member-2",
+                        "PropagateAtLaunch", Boolean.TRUE, "Value", "owned")))));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-HelmChart", Map.of("Chart", "metrics-server"));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-HelmChart", Map.of("Chart", "cluster-autoscaler"));
+        String templateJson = template.toJSON().toString();
+        assertTrue(templateJson.contains("autoscaling:SetDesiredCapacity"));
+        assertTrue(templateJson.contains("v1.27.3"));
+        assertTrue(templateJson.contains("\"clusterName\":\"karmada-eks-cluster-member-2\""));
+        String managementHostTemplate = Template.fromStack(stack.getManagementHostStack()).toJSON().toString();
+        assertTrue(managementHostTemplate.contains(" -A -u -t"), managementHostTemplate);
+
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().memberAutoscaling(true).memberMaxNodesNum(2).build());
+    }
+
+    @Test
+    public void testSpotMembers() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(2)
+                        .memberSpot(true)
+                        .failoverSeconds(30)
+                        .build()));
+
+        Template template = Template.fromStack(stack.getMemberClusterStacks().get(0));
+        template.hasResourceProperties("AWS::AutoScaling::AutoScalingGroup", Map.of("CapacityRebalance", Boolean.TRUE,
+                "MixedInstancesPolicy", Match.objectLike(Map.of("InstancesDistribution", Map.of(
+                        "OnDemandBaseCapacity", 1,
+                        "OnDemandPercentageAboveBaseCapacity", 0,
+                        "SpotAllocationStrategy", "price-capacity-optimized")))));
+        template.hasResourceProperties("AWS::EC2::LaunchTemplate", Map.of("LaunchTemplateData", Match.objectLike(Map.of(
+                "BlockDeviceMappings", Arrays.asList(Match.objectLike(Map.of("Ebs", Match.objectLike(Map.of("VolumeType", "gp3", "Throughput", 125))))),
+                "UserData", Match.anyValue(),
+                // the member and the cluster security group
+                "SecurityGroupIds", Arrays.asList(Match.anyValue(), Match.anyValue())))));
+        template.hasResourceProperties("Custom::AWSCDK-EKS-HelmChart", Map.of("Chart", "aws-node-termination-handler"));
+        String templateJson = template.toJSON().toString();
+        assertTrue(templateJson.contains("m5a.large"));
+        assertTrue(templateJson.contains("\"enableRebalanceDraining\":true"), templateJson);
+        String managementHostTemplate = Template.fromStack(stack.getManagementHostStack()).toJSON().toString();
+        assertTrue(managementHostTemplate.contains(" -F 30 -u -t"), managementHostTemplate);
+
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().memberSpot(true).warmPoolSize(1).build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().memberSpot(true)
+                .memberSpotInstanceTypes(Arrays.asList("m5.large", "m6g.large")).build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().failoverSeconds(5).build());
+    }
+
+    @Test
+    public void testWeightController() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = new SolutionGuidanceFederatedK8SStack(app, "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .registrationMode(RegistrationMode.CUSTOM_RESOURCE)
+                        .weightController(true)
+                        .weightMaxStep(20)
+                        .build()));
+
+        Template template = Template.fromStack(stack.getKarmadaClusterStack());
+        template.hasResourceProperties("AWS::Lambda::Function", Map.of("Handler", "com.aws.WeightControllerHandler::handleRequest",
+                "Layers", Match.absent(),
+                "Environment", Map.of("Variables", Match.objectLike(Map.of("KARMADA_API_SECRET", "karmada/apiserver",
+                        "WEIGHT_MAX_STEP", "20", "WEIGHT_UPDATE_INTERVAL", "5")))));
+        template.hasResourceProperties("AWS::Events::Rule", Map.of("ScheduleExpression", "rate(1 minute)"));
+
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().weightController(true).build());
+        assertThrows(IllegalArgumentException.class, () -> SolutionConfig.builder().weightController(true)
+                .registrationMode(RegistrationMode.CUSTOM_RESOURCE).weightHysteresis(0).build());
+    }
+
+    @Test
+    public void testMemberRegionStacks() {
+        App app = new App();
+        SolutionGuidanceFederatedK8SStack stack = SolutionGuidanceFederatedK8SApp.createStack(app,
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberClusterCount(1)
+                        .memberRegions(Arrays.asList("us-east-1", "ap-southeast-1"))
+                        .build()));
+        assertEquals(0, stack.getMemberClusterStacks().size());
+        Template.fromStack(stack.getKarmadaClusterStack()).hasResourceProperties("AWS::IAM::Role",
+                Map.of("RoleName", Match.stringLikeRegexp("ManagementHostRole-")));
+
+        MemberRegionStack memberRegionStack = (MemberRegionStack) app.getNode().findChild("SolutionGuidanceFederatedK8SMembers-ap-southeast-1");
+        assertEquals("ap-southeast-1", memberRegionStack.getRegion());
+        Template template = Template.fromStack(memberRegionStack);
+        template.hasResourceProperties("AWS::EC2::VPC", Map.of("CidrBlock", "10.101.0.0/16"));
+        template.hasResourceProperties("AWS::SSM::Parameter", Map.of("Name", "/karmada/members/karmada-member-ap-southeast-1-1"));
+        assertFalse(template.toJSON().toString().contains("Fn::ImportValue"));
+
+        // cross-region references would fail here
+        app.synth();
+
+        // the deployment region already has the parent stack, its topology parameter and image cache rules
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new SolutionGuidanceFederatedK8SStack(new App(), "test",
+                new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                        .memberRegions(Arrays.asList("us-east-1", stack.getDeploymentRegion()))
+                        .build())));
+        assertTrue(exception.getMessage().contains("deployment region " + stack.getDeploymentRegion()), exception.getMessage());
+    }
 }
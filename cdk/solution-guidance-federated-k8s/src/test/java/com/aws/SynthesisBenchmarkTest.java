@@ -0,0 +1,51 @@
+package com.aws;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import software.amazon.awscdk.App;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Synth time and heap for growing fleets, run with: mvn test -Pbenchmark
+@Tag("benchmark")
+public class SynthesisBenchmarkTest {
+
+    private static final Path REPORT = Paths.get("target", "benchmark", "synth-benchmark.csv");
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20, 50})
+    public void synthesizeMemberClusters(int memberClusterCount) throws IOException {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+
+        App app = new App();
+        // Large fleets need bigger private subnets than the default /24
+        SolutionGuidanceFederatedK8SApp.createStack(app, new SolutionGuidanceFederatedK8SProps().config(SolutionConfig.builder()
+                .memberClusterCount(memberClusterCount)
+                .privateSubnetMask(20)
+                .build()));
+        app.synth();
+
+        long wallTimeMillis = (System.nanoTime() - start) / 1_000_000;
+        long heapUsedMiB = Math.max(0, runtime.totalMemory() - runtime.freeMemory() - heapBefore) / (1024 * 1024);
+        report(memberClusterCount, wallTimeMillis, heapUsedMiB);
+    }
+
+    private static void report(int memberClusterCount, long wallTimeMillis, long heapUsedMiB) throws IOException {
+        String line = memberClusterCount + "," + wallTimeMillis + "," + heapUsedMiB + System.lineSeparator();
+        System.out.print("synth members=" + memberClusterCount + " wallTimeMillis=" + wallTimeMillis + " heapUsedMiB=" + heapUsedMiB + System.lineSeparator());
+        Files.createDirectories(REPORT.getParent());
+        if (!Files.exists(REPORT)) {
+            Files.write(REPORT, ("memberClusters,wallTimeMillis,heapUsedMiB" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(REPORT, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+}
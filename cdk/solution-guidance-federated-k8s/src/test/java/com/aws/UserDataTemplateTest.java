@@ -0,0 +1,37 @@
+package com.aws;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static com.aws.Constants.USER_DATA_FILE;
+import static com.aws.Constants.USER_DATA_KEYS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserDataTemplateTest {
+
+    @Test
+    public void testRender() {
+        UserDataTemplate template = UserDataTemplate.compile("aws eks --region REGION --role-arn MASTER_ROLE_ARN\necho ${clusterName} ${HOME}",
+                Arrays.asList("MASTER_ROLE_ARN", "REGION"));
+
+        assertEquals(Arrays.asList("REGION", "MASTER_ROLE_ARN", "clusterName", "HOME"), template.getKeys());
+        assertEquals("aws eks --region eu-west-2 --role-arn arn:aws:iam::1:role/r\necho karmada ${HOME}",
+                template.render(Map.of("REGION", "eu-west-2", "MASTER_ROLE_ARN", "arn:aws:iam::1:role/r", "clusterName", "karmada")));
+    }
+
+    @Test
+    public void testResourceTemplateIsCached() {
+        UserDataTemplate template = UserDataTemplate.fromResource(USER_DATA_FILE, USER_DATA_KEYS);
+
+        assertSame(template, UserDataTemplate.fromResource(USER_DATA_FILE, USER_DATA_KEYS));
+        String rendered = template.render(Map.of("MASTER_ROLE_ARN", "role", "REGION", "eu-west-2", "MEMBER_CLUSTER_NUM", "2"));
+        assertTrue(rendered.startsWith("#!/bin/bash"));
+        assertFalse(rendered.contains("MASTER_ROLE_ARN"));
+        assertTrue(rendered.contains("-r eu-west-2") && rendered.contains("-s 2"));
+    }
+}
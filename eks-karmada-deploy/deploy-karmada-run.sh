@@ -30,10 +30,13 @@ echo_green "${uni_right_triangle} Prepare some parameters\n"
         EKS_VERSION="$(aws eks describe-addon-versions --region "${REGION}" --output json | jq -r ".addons[] | .addonVersions[] | .compatibilities[] | .clusterVersion" | sort | uniq | tail -1)"
     fi
 
-    VPCID="$(aws ec2 describe-vpcs --region "${REGION}" --filter "Name=tag:Name,Values=*${VPC_NAME}*" --query "Vpcs[].VpcId" --output text)"
-    [[ -z "${VPCID}" ]] && { echo_red "\t${uni_x} VPC ${VPC_NAME} not found, exiting\n"; exit 5; }
+    # The topology published by the CDK application, otherwise discover the VPC and its subnets
+    if ! get_topology; then
+        VPCID="$(aws ec2 describe-vpcs --region "${REGION}" --filter "Name=tag:Name,Values=*${VPC_NAME}*" --query "Vpcs[].VpcId" --output text)"
+        [[ -z "${VPCID}" ]] && { echo_red "\t${uni_x} VPC ${VPC_NAME} not found, exiting\n"; exit 5; }
+        get_subnets
+    fi
     echo_orange "\t${uni_check} VPC ID: ${VPCID}\n"
-    get_subnets
     echo_orange "\t${uni_check} Private Subnets: ${PRIVATE_SUBNETS}\n"
     echo_orange "\t${uni_check} Public Subnets: ${PUBLIC_SUBNETS}\n"
     ACCOUNTID="$(aws sts get-caller-identity --query "Account" --output text)"
@@ -47,14 +50,42 @@ echo_green "${uni_right_triangle} Creating the Karmada parent cluster\n"
 echo_green "${uni_right_triangle} Deploy the EBS addon for Karmada HA\n"
     eks_deploy_ebs "${CLUSTERS_NAME}-parent"
 
-echo_green "${uni_right_triangle} Deploy Karmada Load Balancer\n"
-    eks_lb_deploy "${CLUSTERS_NAME}-parent"
+if [[ -z ${KARMADA_LB} ]]; then
+    echo_green "${uni_right_triangle} Deploy Karmada Load Balancer\n"
+        eks_lb_deploy "${CLUSTERS_NAME}-parent"
+fi
     echo_orange "\t${uni_check} Karmada Load Balancer DNS name: ${KARMADA_LB}\n"
 
 echo_green "${uni_right_triangle} Deploy Karmada Control Plane\n"
     eks_karmada_deploy "${CLUSTERS_NAME}-parent"
 
-if [[ ${MEMBER_CLUSTER_NUM} -ge 1 ]]; then
+if [[ -n ${FAILOVER_SECONDS} ]]; then
+    echo_green "${uni_right_triangle} Tune the Karmada cluster failover\n"
+        eks_karmada_failover_tune "${CLUSTERS_NAME}-parent"
+fi
+
+if [[ -n ${KARMADA_API_SECRET_ID} ]]; then
+    echo_green "${uni_right_triangle} Publish the Karmada api server credentials\n"
+        eks_karmada_publish_credentials "${CLUSTERS_NAME}-parent"
+fi
+
+# with the credentials published, the CDK custom resources register the members in pull mode too
+if [[ ( ${REGISTRATION_MODE} == "CUSTOM_RESOURCE" || ( ${REGISTRATION_MODE} == "PULL" && -n ${KARMADA_API_SECRET_ID} ) ) && ${MEMBER_CLUSTER_NUM} -ge 1 ]]; then
+    # every CDK member cluster registers itself, one per member region and index
+    member_regions=(${MEMBER_REGIONS//,/ })
+    echo_green "${uni_right_triangle} Waiting for the member clusters registered by CloudFormation\n"
+        eks_karmada_wait_members $(( MEMBER_CLUSTER_NUM * (${#member_regions[@]} > 0 ? ${#member_regions[@]} : 1) ))
+
+elif [[ -n ${MEMBER_REGIONS} && ${MEMBER_CLUSTER_NUM} -ge 1 ]]; then
+    echo_green "${uni_right_triangle} Discovering the Karmada member clusters in ${MEMBER_REGIONS}\n"
+        eks_discover_member_clusters
+
+    for member_cluster in "${MEMBER_CLUSTERS[@]}"; do
+        echo_green "${uni_right_triangle} Registering the Karmada member cluster ${member_cluster} to Karmada\n"
+            eks_karmada_register "${member_cluster}" "${CLUSTERS_NAME}-parent"
+    done
+
+elif [[ ${MEMBER_CLUSTER_NUM} -ge 1 ]]; then
     echo_green "${uni_right_triangle} Creating the Karmada member clusters\n"
         for i in $(seq 1 "${MEMBER_CLUSTER_NUM}"); do
             eks_create_cluster "${CLUSTERS_NAME}-member-${i}"
@@ -65,13 +96,35 @@ if [[ ${MEMBER_CLUSTER_NUM} -ge 1 ]]; then
         for i in $(seq 1 "${MEMBER_CLUSTER_NUM}"); do
             echo_green "${uni_right_triangle} Registering the Karmada member cluster ${CLUSTERS_NAME}-member-${i} to Karmada\n"
                 eks_karmada_register "${CLUSTERS_NAME}-member-${i}" "${CLUSTERS_NAME}-parent"
+            MEMBER_CLUSTERS+=("${CLUSTERS_NAME}-member-${i}")
         done
-
-        echo_green "${uni_right_triangle} Deploy demo workload with Karmada\n"
-            eks_karmada_demo_deploy "${CLUSTERS_NAME}-member-1" "${CLUSTERS_NAME}-member-2" "${CLUSTERS_NAME}-parent"
     fi
 fi
 
+# every registered member gets a scheduler estimator, so that replicas are divided by the capacity left in the members
+if [[ ${#MEMBER_CLUSTERS[@]} -ge 1 ]]; then
+    echo_green "${uni_right_triangle} Deploying the Karmada scheduler estimators\n"
+        eks_karmada_estimator_enable "${CLUSTERS_NAME}-parent"
+        for member_cluster in "${MEMBER_CLUSTERS[@]}"; do
+            eks_karmada_estimator_deploy "${member_cluster}" "${CLUSTERS_NAME}-parent"
+        done
+fi
+
+if [[ ${#MEMBER_CLUSTERS[@]} -ge 1 && -n ${SEARCH_RESOURCES} ]]; then
+    echo_green "${uni_right_triangle} Deploying Karmada search\n"
+        eks_karmada_search_deploy "${CLUSTERS_NAME}-parent"
+fi
+
+if [[ ${#MEMBER_CLUSTERS[@]} -ge 1 && ${FEDERATED_HPA} == "true" ]]; then
+    echo_green "${uni_right_triangle} Deploying the Karmada metrics adapter\n"
+        eks_karmada_metrics_adapter_deploy "${CLUSTERS_NAME}-parent"
+fi
+
+if [[ ${#MEMBER_CLUSTERS[@]} -ge 2 ]]; then
+    echo_green "${uni_right_triangle} Deploy demo workload with Karmada\n"
+        eks_karmada_demo_deploy "${MEMBER_CLUSTERS[0]}" "${MEMBER_CLUSTERS[1]}" "${CLUSTERS_NAME}-parent"
+fi
+
 echo_green "${uni_right_triangle} Switching to the Karmada parent cluster context\n"
     eks_set_context "${CLUSTERS_NAME}-parent"
 
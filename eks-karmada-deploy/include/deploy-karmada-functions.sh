@@ -120,52 +120,48 @@ function install_awscli () {
     command -v aws > /dev/null && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
 }
 
+function get_topology () {
+    # function that reads the VPC and its subnets from the topology parameter published by the CDK application,
+    # a single call instead of describing the VPC, its route tables and every subnet
+    local topology
+
+    topology=$(aws ssm get-parameter --region "${REGION}" --name "${TOPOLOGY_PARAMETER}" --query "Parameter.Value" --output text 2> /dev/null) || return 1
+    [[ "$(jq -r '.vpcName' <<< "${topology}")" == *"${VPC_NAME}"* ]] || return 1
+
+    VPCID=$(jq -r '.vpcId' <<< "${topology}")
+    PUBLIC_SUBNETS=$(jq -r '.publicSubnets | [.[]] | join(",")' <<< "${topology}")
+    PRIVATE_SUBNETS=$(jq -r '.privateSubnets | [.[]] | join(",")' <<< "${topology}")
+    [[ -n "${VPCID}" && -n "${PUBLIC_SUBNETS}" && -n "${PRIVATE_SUBNETS}" ]]
+}
+
 function get_subnets () {
     # function that gets the public and private subnets of the VPC
-    # Initialize two local array variables to store the subnet IDs
-    local publicsubnets=() 
-    local privatesubnets=()
-
+    # a subnet is public when its route table, explicitly associated or the main one, routes to an internet gateway
     local subnets
-    local associated_subnets
-    local igw
-    local igw_routes
-    local main_route
-    
-    # Get all subnets in the VPC
-    subnets=$(aws ec2 describe-subnets --region "${REGION}" --filters "Name=vpc-id,Values=${VPCID}" --query 'Subnets[].SubnetId' --output text)
-    # Get all subnets with explicit associations in route tables
-    associated_subnets=$(aws ec2 describe-route-tables --region "${REGION}" --filters "Name=vpc-id,Values=${VPCID}" --query 'RouteTables[].Associations[].SubnetId' --output text)
-    
-    # Get internet gateways in the VPC
-    igw=$(aws ec2 describe-internet-gateways --region "${REGION}" --filters "Name=attachment.vpc-id,Values=${VPCID}" --query 'InternetGateways[].InternetGatewayId' --output text)
-    # Get route tables in the VPC with an igw attached
-    igw_routes=$(aws ec2 describe-route-tables --region "${REGION}" --filters "Name=vpc-id,Values=${VPCID}" --query "RouteTables[?Routes[?GatewayId==\`${igw}\`]].RouteTableId" --output text)
-    # Get the main route table for the explicit rules
-    main_route=$(aws ec2 describe-route-tables --region "${REGION}" --filters "Name=vpc-id,Values=${VPCID}" --query "RouteTables[?Associations[?Main==\`true\`]].RouteTableId" --output text)
-
-    # Loop through subnets
-    for subnet in ${subnets}; do
-        # Check if the subnet has an explicit association with a route table
-        if [[ "${associated_subnets}" =~ ${subnet} ]]; then
-            # the subnet has an explicit association, check if it is associated with a public route table
-            [[ "${igw_routes}" =~ $(aws ec2 describe-route-tables --region "${REGION}" --filters "Name=association.subnet-id,Values=${subnet}" --query 'RouteTables[].RouteTableId' --output text) ]] && publicsubnets+=("${subnet}") || privatesubnets+=("${subnet}") 
-        else
-            # the subnet has no explicit association, it is implicitly associated with the main route table
-            # if the main route table has an igw attached then the subnet is public, else it's private
-            grep -qw "${main_route}" <<< "${igw_routes}" && publicsubnets+=("${subnet}") || privatesubnets+=("${subnet}")
-        fi
-    done
-
-    # check that we have private and public subnets available and build lists in csv format
-    [[ ${#privatesubnets[@]} -le 0 ]] && { echo_red "\t${uni_x} No private subnets found, exiting\n"; exit 5; } || PRIVATE_SUBNETS=$(echo "${privatesubnets[@]}" | tr ' ' ',')
-    [[ ${#publicsubnets[@]} -le 0 ]] && { echo_red "\t${uni_x} No public subnets found, exiting\n"; exit 5; }  || PUBLIC_SUBNETS=$(echo "${publicsubnets[@]}" | tr ' ' ',')
+    local route_tables
+    local publicsubnets
+    local privatesubnets
+    local nomapip
+
+    # Two calls for the whole VPC, the subnets are classified locally
+    subnets=$(aws ec2 describe-subnets --region "${REGION}" --filters "Name=vpc-id,Values=${VPCID}" --query 'Subnets[].{id:SubnetId,mapip:MapPublicIpOnLaunch}' --output json)
+    route_tables=$(aws ec2 describe-route-tables --region "${REGION}" --filters "Name=vpc-id,Values=${VPCID}" --query 'RouteTables[].{associations:Associations,routes:Routes}' --output json)
+
+    publicsubnets=$(jq -r --argjson tables "${route_tables}" '
+        ([$tables[] | select(any(.routes[]; (.GatewayId // "") | startswith("igw-")))]) as $public
+        | ([$public[].associations[] | .SubnetId // empty]) as $explicit
+        | (any($public[].associations[]; .Main == true)) as $mainpublic
+        | ([$tables[].associations[] | .SubnetId // empty]) as $associated
+        | [.[] | select((.id | IN($explicit[])) or ($mainpublic and (.id | IN($associated[]) | not))) | .id] | join(",")' <<< "${subnets}")
+    privatesubnets=$(jq -r --arg public "${publicsubnets}" '($public | split(",")) as $p | [.[] | select(.id | IN($p[]) | not) | .id] | join(",")' <<< "${subnets}")
+
+    # check that we have private and public subnets available, lists are in csv format
+    [[ -z ${privatesubnets} ]] && { echo_red "\t${uni_x} No private subnets found, exiting\n"; exit 5; } || PRIVATE_SUBNETS=${privatesubnets}
+    [[ -z ${publicsubnets} ]] && { echo_red "\t${uni_x} No public subnets found, exiting\n"; exit 5; }  || PUBLIC_SUBNETS=${publicsubnets}
 
     # check that public subnets have map ip on launch
-    for subnet in "${publicsubnets[@]}"; do
-        aws ec2 describe-subnets --region "${REGION}" --filters "Name=subnet-id,Values=${subnet}" --query 'Subnets[].MapPublicIpOnLaunch' --output text | grep -iqw "true"
-        [[ $? -eq 0 ]] || { echo_red "\t${uni_x} Public subnet ${subnet} does not have map ip on launch, exiting\n"; exit 5; }
-    done
+    nomapip=$(jq -r --arg public "${publicsubnets}" '($public | split(",")) as $p | [.[] | select((.id | IN($p[])) and (.mapip | not)) | .id] | join(",")' <<< "${subnets}")
+    [[ -z ${nomapip} ]] || { echo_red "\t${uni_x} Public subnet ${nomapip} does not have map ip on launch, exiting\n"; exit 5; }
 }
 
 function eks_create_cluster () {
@@ -173,7 +169,7 @@ function eks_create_cluster () {
     # Check if the cluster already exists
     echo_orange "\t${uni_circle_quarter} check if cluster ${1} exists"
 
-    [[ $(aws eks list-clusters --region "${REGION}" --output text | grep -c "${1}") -ge 1 ]] && { echo_green " ${uni_check}\n"; return 1; } || echo_red " ${uni_x}\n"
+    [[ $(aws eks list-clusters --region "${REGION}" --output text | grep -c "${1}") -ge 1 ]] && { echo_green " ${uni_check}\n"; eks_ensure_kubeconfig "${1}"; return 1; } || echo_red " ${uni_x}\n"
 
     # If the cluster does not exist, create it
     echo_orange "\t${uni_circle_quarter} deploy cluster ${1} (this will take several minutes)\n"
@@ -191,12 +187,44 @@ function eks_create_cluster () {
     [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_orange " ${uni_x}\n"; exit 5; }
 }
 
+function eks_ensure_kubeconfig () {
+    # function that adds a kube config context for a cluster created outside this script (e.g. by the CDK application)
+    # existing contexts are kept as they may use a specific role, the optional second parameter is the cluster region
+    # the context is the cluster name or the cluster ARN aws eks update-kubeconfig writes, member-1 must not match member-10
+    kubectl config get-contexts -o name 2> /dev/null | grep -qxE "(arn:.*:cluster/)?${1}" && return 0
+
+    echo_orange "\t${uni_circle_quarter} update kube config for ${1}"
+    aws eks update-kubeconfig --region "${2:-${REGION}}" --name "${1}" > /dev/null
+    [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_orange " ${uni_x}\n"; exit 5; }
+}
+
+function eks_discover_member_clusters () {
+    # function that waits for the member clusters of the CDK member region stacks and adds them to the kube config
+    # every member region stack publishes one SSM parameter per member cluster, in its own region
+    local region clusters cluster
+    MEMBER_CLUSTERS=()
+    for region in ${MEMBER_REGIONS//,/ }; do
+        echo_orange "\t${uni_circle_quarter} wait for ${MEMBER_CLUSTER_NUM} member clusters in ${region}"
+        for i in $(seq 1 120); do
+            clusters=$(aws ssm get-parameters-by-path --region "${region}" --path "${MEMBER_PARAMETER_PATH}" --query "Parameters[].Value" --output json 2> /dev/null | jq -r '.[] | fromjson | .name')
+            [[ $(echo "${clusters}" | grep -c .) -ge ${MEMBER_CLUSTER_NUM} ]] && break
+            sleep 30
+        done
+        [[ $(echo "${clusters}" | grep -c .) -ge ${MEMBER_CLUSTER_NUM} ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+
+        for cluster in ${clusters}; do
+            eks_ensure_kubeconfig "${cluster}" "${region}"
+            MEMBER_CLUSTERS+=("${cluster}")
+        done
+    done
+}
+
 function eks_set_context () {
     # function that sets the right context
     local desirable_context
     # Get the desirable context from the config file and use it
     echo_orange "\t${uni_circle_quarter} switching to the right context"
-    desirable_context=$(kubectl config view -o json | jq -r '.contexts[]?.name' | grep "${1}")
+    desirable_context=$(kubectl config get-contexts -o name | grep -xE "(arn:.*:cluster/)?${1}" | head -1)
     kubectl config use-context "${desirable_context}" > /dev/null
     [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_orange " ${uni_x}\n"; exit 5; }
 }
@@ -314,23 +342,14 @@ function eks_lb_deploy () {
     } > /tmp/$$.karmada-lb.json
 
     kubectl apply -f /tmp/$$.karmada-lb.json > /dev/null
-    [[ $? -eq 0 ]] && { sleep 30; echo_green " ${uni_check}\n"; rm -f /tmp/$$.karmada-lb.json; } || { echo_red " ${uni_x}\n"; rm -f /tmp/$$.karmada-lb.json; exit 5; }
-    
-    # Wait for the load balancer to be available
-    echo_orange "\t${uni_circle_quarter} Waiting for the load balancer to become ready"  
-    LB_ARN=$(aws elbv2 describe-load-balancers --region "${REGION}" | jq -r '.LoadBalancers[].LoadBalancerArn' | xargs -I {} aws elbv2 describe-tags --region "${REGION}" --resource-arns {} --query "TagDescriptions[?Tags[?Key=='kubernetes.io/service-name'&&Value=='karmada-system/karmada-service-loadbalancer']].ResourceArn" --output text | tail -1)
-    LB_STATUS=$(aws elbv2 describe-load-balancers --region "${REGION}" --load-balancer-arns "${LB_ARN}" --query 'LoadBalancers[].State.Code' --output text)
-    # Keep checking until load balancer status is active
-    while [ "$LB_STATUS" != "active" ]
-    do
-        echo_orange "."
-        sleep 10
-        LB_STATUS=$(aws elbv2 describe-load-balancers --region "${REGION}" --load-balancer-arns "${LB_ARN}" --query 'LoadBalancers[].State.Code' --output text)
-        [[ "$LB_STATUS" == "active" ]] && echo_green " ${uni_check}\n"
-    done
+    [[ $? -eq 0 ]] && { echo_green " ${uni_check}\n"; rm -f /tmp/$$.karmada-lb.json; } || { echo_red " ${uni_x}\n"; rm -f /tmp/$$.karmada-lb.json; exit 5; }
 
-    # Define the KARMADA_LB variable
+    # Wait for the load balancer to be available, its name is the first label of the DNS name without the trailing hash
+    echo_orange "\t${uni_circle_quarter} Waiting for the load balancer to become ready"
+    kubectl wait -n karmada-system service/karmada-service-loadbalancer --for=jsonpath='{.status.loadBalancer.ingress[0].hostname}' --timeout=10m > /dev/null
     KARMADA_LB=$(kubectl get svc -n karmada-system karmada-service-loadbalancer -o=jsonpath='{.status.loadBalancer.ingress[0].hostname}')
+    aws elbv2 wait load-balancer-available --region "${REGION}" --names "$(echo "${KARMADA_LB%%.*}" | sed 's/-[^-]*$//')"
+    [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
 }
 
 function eks_karmada_plugin_install () {
@@ -381,16 +400,25 @@ function eks_karmada_deploy () {
     # This is required for the init phase and internal karmada sync operations. All user-facing operation go through the load balancer DNS name
     echo_orange "\t${uni_circle_quarter} deploy Karmada api server\n"
 
-    karmada_lb_ip=$(resolve_ip "${KARMADA_LB}")
+    # Elastic IP addresses of a CDK load balancer are stable, the first one is advertised and all of them are in the certificate
+    [[ -n ${KARMADA_LB_ADDRESSES} ]] && karmada_lb_ip="${KARMADA_LB_ADDRESSES%%,*}" || karmada_lb_ip=$(resolve_ip "${KARMADA_LB}")
     [[ -z ${karmada_lb_ip} ]] && { echo_red " ${uni_x} Could not determine the load balancer IP address\n"; exit 5; }
     kubectl karmada init \
      --karmada-apiserver-advertise-address "${karmada_lb_ip}" \
+     ${KARMADA_LB_ADDRESSES:+--cert-external-ip "${KARMADA_LB_ADDRESSES}"} \
      --karmada-apiserver-replicas 3 --etcd-replicas 3 \
-     --etcd-storage-mode PVC --storage-classes-name ebs-sc \
+     --etcd-storage-mode PVC --storage-classes-name "${ETCD_STORAGE_CLASS}" \
+     ${ETCD_NODE_SELECTOR:+--etcd-node-selector-labels "${ETCD_NODE_SELECTOR}"} \
      --cert-external-dns="*.elb.${REGION}.amazonaws.com" \
+     ${IMAGE_CACHE_REGISTRY:+--kube-image-registry "${IMAGE_CACHE_REGISTRY}/k8s"} \
+     ${DOCKER_HUB_MIRROR:+--private-image-registry "${DOCKER_HUB_MIRROR}/karmada" --etcd-init-image "${DOCKER_HUB_MIRROR}/library/alpine:3.19.1"} \
      --karmada-data "${KARMADA_HOME}" --karmada-pki="${KARMADA_HOME}/pki"
     
     [[ $? -eq 0 ]] && { echo_orange "\t${uni_circle_quarter} deploy Karmada api server"; echo_green " ${uni_check}\n"; } || { echo_orange "\t${uni_circle_quarter} deploy Karmada api server"; echo_red " ${uni_x}\n"; exit 5; }
+
+    # Clients use the load balancer DNS name, which resolves to every availability zone, instead of the single advertised address
+    kubectl config set-cluster "$(kubectl config view --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" -o jsonpath='{.clusters[0].name}')" \
+     --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" --server "https://${KARMADA_LB}:32443" > /dev/null
 }
 
 function eks_karmada_register () {
@@ -403,6 +431,8 @@ function eks_karmada_register () {
     echo_orange "\t${uni_circle_quarter} check if ${1} is already registered to Karmada cluster"
     [[ $(kubectl --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" get clusters | grep -c "${1}") -ge 1 ]] && { echo_green " ${uni_check}\n"; return 0; } || { echo_red " ${uni_x}\n"; }
 
+    [[ ${REGISTRATION_MODE} == "PULL" ]] && { eks_karmada_register_pull "${1}" "${2}"; return 0; }
+
     # Ensure we are working in the right context
     eks_set_context "${1}"
 
@@ -411,6 +441,194 @@ function eks_karmada_register () {
     [[ $? -eq 0 ]] && { echo_green " ${uni_check}\n"; } || { echo_red " ${uni_x}\n"; exit 5; }
 }
 
+function eks_karmada_register_pull () {
+    # function that registers an eks cluster to karmada in pull mode
+    # karmada-agent runs in the member cluster and dials in to the Karmada api server load balancer with a short lived
+    # bootstrap token, so the Karmada control plane never connects to the member
+    local register_command token ca_cert_hash
+
+    echo_orange "\t${uni_circle_quarter} create a bootstrap token for ${1}"
+    register_command=$(kubectl karmada token create --print-register-command --ttl 1h \
+     --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config")
+    token=$(echo "${register_command}" | sed -n 's/.*--token \([^ ]*\).*/\1/p')
+    ca_cert_hash=$(echo "${register_command}" | sed -n 's/.*--discovery-token-ca-cert-hash \([^ ]*\).*/\1/p')
+    [[ -n ${token} && -n ${ca_cert_hash} ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+
+    # Ensure we are working in the right context
+    eks_set_context "${1}"
+
+    echo_orange "\t${uni_circle_quarter} install karmada-agent in ${1}"
+    kubectl karmada register "${KARMADA_LB}:32443" \
+     --token "${token}" --discovery-token-ca-cert-hash "${ca_cert_hash}" \
+     --cluster-name "${1}" > /dev/null
+    [[ $? -eq 0 ]] && { echo_green " ${uni_check}\n"; } || { echo_red " ${uni_x}\n"; exit 5; }
+
+    # karmada-search leaves out the pull mode clusters by this label, see eks_karmada_search_deploy
+    kubectl --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" label cluster "${1}" federated-k8s.aws/sync-mode=Pull --overwrite > /dev/null
+}
+
+function eks_karmada_registrar_rbac () {
+    # function that prints the roles of the registration service account, whose token the CDK handlers read from
+    # Secrets Manager: only what the registration, manifests and weight controller handlers create or change, instead
+    # of cluster-admin. RBAC only lets it grant the karmada-agent of a pull member rights it holds itself, hence the
+    # leases, works and events
+    local verbs='"get", "list", "watch", "create", "update", "patch", "delete"'
+    echo '{ "apiVersion":"v1", "kind":"List", "items":['
+    echo '  { "apiVersion":"rbac.authorization.k8s.io/v1", "kind":"ClusterRole", "metadata":{ "name":"karmada-registrar" }, "rules":['
+    echo '    { "apiGroups":[""], "resources":["namespaces"], "verbs":['"${verbs}"'] },'
+    echo '    { "apiGroups":["cluster.karmada.io"], "resources":["clusters"], "verbs":['"${verbs}"'] },'
+    echo '    { "apiGroups":["cluster.karmada.io"], "resources":["clusters/status", "clusters/proxy"], "verbs":["get", "update", "patch"] },'
+    echo '    { "apiGroups":["rbac.authorization.k8s.io"], "resources":["clusterroles", "clusterrolebindings", "rolebindings"], "verbs":['"${verbs}"'] },'
+    echo '    { "apiGroups":["coordination.k8s.io"], "resources":["leases"], "verbs":['"${verbs}"'] },'
+    echo '    { "apiGroups":["work.karmada.io"], "resources":["works"], "verbs":['"${verbs}"'] },'
+    echo '    { "apiGroups":["work.karmada.io"], "resources":["works/status"], "verbs":["get", "update", "patch"] },'
+    echo '    { "apiGroups":["", "events.k8s.io"], "resources":["events"], "verbs":["create", "update", "patch"] },'
+    echo '    { "apiGroups":["policy.karmada.io"], "resources":["propagationpolicies", "clusterpropagationpolicies", "overridepolicies", "clusteroverridepolicies"], "verbs":['"${verbs}"'] },'
+    echo '    { "apiGroups":["autoscaling.karmada.io"], "resources":["federatedhpas"], "verbs":['"${verbs}"'] } ] },'
+    echo '  { "apiVersion":"rbac.authorization.k8s.io/v1", "kind":"ClusterRoleBinding", "metadata":{ "name":"karmada-registrar" },'
+    echo '    "roleRef":{ "apiGroup":"rbac.authorization.k8s.io", "kind":"ClusterRole", "name":"karmada-registrar" },'
+    echo '    "subjects":[ { "kind":"ServiceAccount", "name":"karmada-registrar", "namespace":"karmada-system" } ] },'
+    echo '  { "apiVersion":"rbac.authorization.k8s.io/v1", "kind":"Role", "metadata":{ "name":"karmada-registrar", "namespace":"karmada-cluster" }, "rules":['
+    echo '    { "apiGroups":[""], "resources":["secrets", "serviceaccounts"], "verbs":['"${verbs}"'] } ] },'
+    echo '  { "apiVersion":"rbac.authorization.k8s.io/v1", "kind":"RoleBinding", "metadata":{ "name":"karmada-registrar", "namespace":"karmada-cluster" },'
+    echo '    "roleRef":{ "apiGroup":"rbac.authorization.k8s.io", "kind":"Role", "name":"karmada-registrar" },'
+    echo '    "subjects":[ { "kind":"ServiceAccount", "name":"karmada-registrar", "namespace":"karmada-system" } ] } ] }'
+}
+
+function eks_karmada_publish_credentials () {
+    # function that stores the Karmada api server endpoint, CA, a registration token and the karmada-agent image
+    # in Secrets Manager, the CDK registration custom resources wait for this secret to register the member clusters
+    local karmada_config="${KARMADA_HOME}/karmada-apiserver.config"
+    local server ca token agent_image
+
+    echo_orange "\t${uni_circle_quarter} create the Karmada registration service account"
+    kubectl --kubeconfig "${karmada_config}" create serviceaccount karmada-registrar -n karmada-system --dry-run=client -o yaml | kubectl --kubeconfig "${karmada_config}" apply -f - > /dev/null
+    kubectl --kubeconfig "${karmada_config}" create namespace karmada-cluster --dry-run=client -o yaml | kubectl --kubeconfig "${karmada_config}" apply -f - > /dev/null
+    eks_karmada_registrar_rbac | kubectl --kubeconfig "${karmada_config}" apply -f - > /dev/null
+    {   echo '{ "apiVersion":"v1", "kind":"Secret", "type":"kubernetes.io/service-account-token",'
+        echo '  "metadata":{ "name":"karmada-registrar", "namespace":"karmada-system",'
+        echo '    "annotations":{ "kubernetes.io/service-account.name":"karmada-registrar" } } }'
+    } | kubectl --kubeconfig "${karmada_config}" apply -f - > /dev/null
+    for i in $(seq 1 30); do
+      token=$(kubectl --kubeconfig "${karmada_config}" get secret karmada-registrar -n karmada-system -o jsonpath='{.data.token}' 2> /dev/null | base64 -d)
+      [[ -n ${token} ]] && break
+      sleep 2
+    done
+    [[ -n ${token} ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+
+    # karmada-agent of the same release as the control plane, for the members registered in pull mode
+    eks_set_context "${1}"
+    agent_image=$(kubectl get deployment karmada-controller-manager -n karmada-system -o jsonpath='{.spec.template.spec.containers[0].image}' | sed 's#karmada-controller-manager#karmada-agent#')
+
+    echo_orange "\t${uni_circle_quarter} publish the Karmada api server credentials to ${KARMADA_API_SECRET_ID}"
+    server=$(kubectl config view --kubeconfig "${karmada_config}" --minify -o jsonpath='{.clusters[0].cluster.server}')
+    ca=$(kubectl config view --kubeconfig "${karmada_config}" --minify --raw -o jsonpath='{.clusters[0].cluster.certificate-authority-data}')
+    aws secretsmanager put-secret-value --region "${REGION}" --secret-id "${KARMADA_API_SECRET_ID}" \
+     --secret-string "$(jq -n --arg server "${server}" --arg ca "${ca}" --arg token "${token}" --arg agent_image "${agent_image}" '{server: $server, caData: $ca, token: $token, agentImage: $agent_image}')" > /dev/null
+    [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+}
+
+function eks_karmada_wait_members () {
+    # function that waits for the member clusters registered by the CDK custom resources to be ready in Karmada
+    local expected="${1}" clusters
+    MEMBER_CLUSTERS=()
+    echo_orange "\t${uni_circle_quarter} wait for ${expected} ready member clusters"
+    for i in $(seq 1 120); do
+      clusters=$(kubectl --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" get clusters -o json 2> /dev/null | jq -r '.items[] | select(any(.status.conditions[]?; .type == "Ready" and .status == "True")) | .metadata.name' | sort)
+      [[ $(echo "${clusters}" | grep -c .) -ge ${expected} ]] && break
+      sleep 30
+    done
+    [[ $(echo "${clusters}" | grep -c .) -ge ${expected} ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+    for cluster in ${clusters}; do
+      MEMBER_CLUSTERS+=("${cluster}")
+    done
+}
+
+function eks_karmada_estimator_enable () {
+    # function that makes the Karmada scheduler query the scheduler estimators, karmada init may already set the flag
+    local args
+    eks_set_context "${1}"
+
+    echo_orange "\t${uni_circle_quarter} enable the scheduler estimators in the Karmada scheduler"
+    args=$(kubectl get deployment karmada-scheduler -n karmada-system -o jsonpath='{.spec.template.spec.containers[0].command}' 2> /dev/null)
+    [[ "${args}" == *"--enable-scheduler-estimator=true"* ]] && { echo_green " ${uni_check}\n"; return 0; }
+    kubectl patch deployment karmada-scheduler -n karmada-system --type json \
+     -p '[{"op":"add","path":"/spec/template/spec/containers/0/command/-","value":"--enable-scheduler-estimator=true"}]' > /dev/null
+    [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+}
+
+function eks_karmada_failover_tune () {
+    # function that makes Karmada move the replicas of a member that stops reporting within FAILOVER_SECONDS:
+    # a third to notice it, a third before it is tainted and the rest the policies tolerate the taint by default,
+    # graceful eviction keeps the old replicas until the new ones are up
+    local grace=$(( FAILOVER_SECONDS / 3 > 15 ? FAILOVER_SECONDS / 3 : 15 ))
+    local eviction=$(( FAILOVER_SECONDS / 3 > 5 ? FAILOVER_SECONDS / 3 : 5 ))
+    local toleration=$(( FAILOVER_SECONDS - grace - eviction > 0 ? FAILOVER_SECONDS - grace - eviction : 0 ))
+    eks_set_context "${1}"
+
+    echo_orange "\t${uni_circle_quarter} enable Failover and GracefulEviction, detect a not ready member in ${grace}s and evict after ${eviction}s"
+    eks_karmada_set_flags karmada-controller-manager "--feature-gates=Failover=true,GracefulEviction=true" \
+     "--cluster-status-update-frequency=5s" "--cluster-monitor-period=2s" "--cluster-lease-duration=${grace}s" \
+     "--cluster-monitor-grace-period=${grace}s" "--cluster-startup-grace-period=$(( grace * 2 ))s" \
+     "--failover-eviction-timeout=${eviction}s" "--graceful-eviction-timeout=$(( FAILOVER_SECONDS * 4 ))s"
+    [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+
+    echo_orange "\t${uni_circle_quarter} tolerate not ready and unreachable members for ${toleration}s by default"
+    eks_karmada_set_flags karmada-webhook "--default-not-ready-toleration-seconds=${toleration}" \
+     "--default-unreachable-toleration-seconds=${toleration}"
+    [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+}
+
+function eks_karmada_set_flags () {
+    # function that sets flags of the first container of a karmada-system deployment, replacing the values karmada init set
+    local deployment="${1}"; shift
+    local command
+    command=$(kubectl get deployment "${deployment}" -n karmada-system -o jsonpath='{.spec.template.spec.containers[0].command}') || return 1
+    for flag in "$@"; do
+      command=$(echo "${command}" | jq -c --arg flag "${flag}" 'map(select(startswith(($flag | split("=")[0]) + "=") | not)) + [$flag]')
+    done
+    kubectl patch deployment "${deployment}" -n karmada-system --type json \
+     -p "[{\"op\":\"replace\",\"path\":\"/spec/template/spec/containers/0/command\",\"value\":${command}}]" > /dev/null
+}
+
+function eks_karmada_estimator_deploy () {
+    # function that deploys the karmada-scheduler-estimator of a member cluster to the parent cluster
+    # the estimator runs in the parent cluster, it reaches the member with the token Karmada registered it with, as the
+    # exec based EKS kube config cannot be used from a pod
+    local karmada_config="${KARMADA_HOME}/karmada-apiserver.config"
+    local member_config="/tmp/$$.${1}.kubeconfig"
+    local server secret_namespace secret_name token ca
+
+    eks_set_context "${2}"
+    echo_orange "\t${uni_circle_quarter} check if the scheduler estimator of ${1} exists"
+    kubectl get deployment "karmada-scheduler-estimator-${1}" -n karmada-system > /dev/null 2>&1 && { echo_green " ${uni_check}\n"; return 0; } || echo_red " ${uni_x}\n"
+
+    # Karmada keeps no credentials of pull mode members, the scheduler estimates their replicas from the resource
+    # summary karmada-agent reports instead
+    if [[ $(kubectl --kubeconfig "${karmada_config}" get cluster "${1}" -o jsonpath='{.spec.syncMode}') == "Pull" ]]; then
+        echo_orange "\t${uni_circle_quarter} ${1} is in pull mode, skip the scheduler estimator"; echo_green " ${uni_check}\n"; return 0
+    fi
+
+    echo_orange "\t${uni_circle_quarter} deploy the scheduler estimator of ${1}"
+    server=$(kubectl --kubeconfig "${karmada_config}" get cluster "${1}" -o jsonpath='{.spec.apiEndpoint}')
+    secret_namespace=$(kubectl --kubeconfig "${karmada_config}" get cluster "${1}" -o jsonpath='{.spec.secretRef.namespace}')
+    secret_name=$(kubectl --kubeconfig "${karmada_config}" get cluster "${1}" -o jsonpath='{.spec.secretRef.name}')
+    token=$(kubectl --kubeconfig "${karmada_config}" get secret "${secret_name}" -n "${secret_namespace}" -o jsonpath='{.data.token}' | base64 -d)
+    ca=$(kubectl --kubeconfig "${karmada_config}" get secret "${secret_name}" -n "${secret_namespace}" -o jsonpath='{.data.caBundle}')
+    [[ -z ${server} || -z ${token} ]] && { echo_red " ${uni_x} No Karmada credentials for ${1}\n"; exit 5; }
+
+    kubectl config set-cluster "${1}" --kubeconfig "${member_config}" --server "${server}" > /dev/null
+    kubectl config set "clusters.${1}.certificate-authority-data" "${ca}" --kubeconfig "${member_config}" > /dev/null
+    kubectl config set-credentials "${1}" --kubeconfig "${member_config}" --token "${token}" > /dev/null
+    kubectl config set-context "${1}" --kubeconfig "${member_config}" --cluster "${1}" --user "${1}" > /dev/null
+
+    kubectl karmada addons enable karmada-scheduler-estimator -C "${1}" \
+     --member-kubeconfig "${member_config}" --member-context "${1}" \
+     ${DOCKER_HUB_MIRROR:+--private-image-registry "${DOCKER_HUB_MIRROR}/karmada"} \
+     --karmada-kubeconfig "${karmada_config}" > /dev/null
+    [[ $? -eq 0 ]] && { echo_green " ${uni_check}\n"; rm -f "${member_config}"; } || { echo_red " ${uni_x}\n"; rm -f "${member_config}"; exit 5; }
+}
+
 function eks_karmada_demo_deploy () {
     # function to demo multi-cluster scheduling with Karmada
     # for the demo purpose we will use only 2 member clusters
@@ -423,11 +641,16 @@ function eks_karmada_demo_deploy () {
         echo_green " ${uni_check}\n";
     else
         echo_red " ${uni_x}\n";
-        # Create propagation deployment (karmada-demo-nginx) to use two clusters with equal weight
+        # Create propagation deployment (karmada-demo-nginx) to divide the replicas between two clusters
         echo_orange "\t${uni_circle_quarter} create propagation policy for demo nginx deployment to two member cluster"
         {   echo '{ "apiVersion":"policy.karmada.io/v1alpha1",'
             echo '   "kind":"PropagationPolicy",'
+            # the weight controller, when deployed, sets the static weights from the capacity left in the members
+            if [[ ${REPLICA_DIVISION} == "AvailableReplicas" ]]; then
             echo '   "metadata": { "name":"sample-propagation" },'
+            else
+            echo '   "metadata": { "name":"sample-propagation", "labels":{ "federated-k8s.aws/weight-controller":"enabled" } },'
+            fi
             echo '   "spec":{'
             echo '      "resourceSelectors":[{ "apiVersion":"apps/v1", "kind":"Deployment", "name":"karmada-demo-nginx" }],'
             echo '      "placement":{'
@@ -437,9 +660,14 @@ function eks_karmada_demo_deploy () {
             echo '               "replicaDivisionPreference":"Weighted",'
             echo '               "replicaSchedulingType":"Divided",'
             echo '               "weightPreference":{'
+            # AvailableReplicas weighs every cluster by the replicas its scheduler estimator reports it can still run
+            if [[ ${REPLICA_DIVISION} == "AvailableReplicas" ]]; then
+            echo '                  "dynamicWeight":"AvailableReplicas"'
+            else
             echo '                  "staticWeightList":[{'
             echo "                     \"targetCluster\":{ \"clusterNames\":[\"${1}\", \"${2}\"]},"
             echo '                     "weight":1}]'
+            fi
             echo '                }'
             echo '            }'
             echo '        }'
@@ -458,12 +686,95 @@ function eks_karmada_demo_deploy () {
     else
         echo_red " ${uni_x}\n";
         echo_orange "\t${uni_circle_quarter} deploying 4 nginx pods across two clusters"
-        kubectl --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" create deployment karmada-demo-nginx --image nginx --replicas=4 > /dev/null
+        # the estimators count replicas by the resource requests of the pods, the image comes from the Docker Hub cache when there is one
+        kubectl --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" create deployment karmada-demo-nginx --image "${DOCKER_HUB_MIRROR:+${DOCKER_HUB_MIRROR}/library/}nginx" --replicas=4 --dry-run=client -o json \
+         | jq '.spec.template.spec.containers[0].resources.requests = {"cpu":"100m","memory":"128Mi"}' \
+         | kubectl --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" create -f - > /dev/null
         [[ $? -eq 0 ]] && { sleep 10; echo_green " ${uni_check}\n"; } || { echo_red " ${uni_x}\n"; exit 5; }
     fi
 
+    # the FederatedHPA scales the demo on the CPU utilization of its pods in both members, the propagation policy divides the replicas
+    if [[ ${FEDERATED_HPA} == "true" ]]; then
+        echo_orange "\t${uni_circle_quarter} create FederatedHPA for demo nginx deployment"
+        jq -n '{apiVersion: "autoscaling.karmada.io/v1alpha1", kind: "FederatedHPA", metadata: {name: "karmada-demo-nginx"},
+          spec: {scaleTargetRef: {apiVersion: "apps/v1", kind: "Deployment", name: "karmada-demo-nginx"}, minReplicas: 2, maxReplicas: 20,
+                 metrics: [{type: "Resource", resource: {name: "cpu", target: {type: "Utilization", averageUtilization: 60}}}]}}' \
+         | kubectl --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" apply -f - > /dev/null
+        [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || echo_red " ${uni_x}\n"
+    fi
+
     echo_orange "\t${uni_circle_quarter} check from parent cluster the deployment across the two member clusters\n"
-    kubectl karmada --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" get pods
+    # karmada-search answers from its cache when it caches pods, instead of a live request to every member
+    if [[ ",${SEARCH_RESOURCES}," == *",v1/Pod,"* && ${REGISTRATION_MODE} != "PULL" ]]; then
+        kubectl --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" \
+         --server "https://${KARMADA_LB}:32443/apis/search.karmada.io/v1alpha1/proxying/karmada/proxy" \
+         get pods -l app=karmada-demo-nginx \
+         -o custom-columns='CLUSTER:.metadata.annotations.resource\.karmada\.io/cached-from-cluster,NAME:.metadata.name,STATUS:.status.phase'
+    else
+        kubectl karmada --kubeconfig "${KARMADA_HOME}/karmada-apiserver.config" get pods
+    fi
+}
+
+function eks_karmada_metrics_adapter_deploy () {
+    # function that deploys karmada-metrics-adapter, which serves the metrics of the member clusters to the FederatedHPA controller
+    local karmada_config="${KARMADA_HOME}/karmada-apiserver.config"
+    eks_set_context "${1}"
+
+    echo_orange "\t${uni_circle_quarter} check if karmada-metrics-adapter exists"
+    if kubectl get deployment karmada-metrics-adapter -n karmada-system > /dev/null 2>&1; then
+        echo_green " ${uni_check}\n"
+    else
+        echo_red " ${uni_x}\n"
+        echo_orange "\t${uni_circle_quarter} deploy karmada-metrics-adapter"
+        kubectl karmada addons enable karmada-metrics-adapter --karmada-kubeconfig "${karmada_config}" \
+         ${DOCKER_HUB_MIRROR:+--private-image-registry "${DOCKER_HUB_MIRROR}/karmada"} > /dev/null
+        [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+    fi
+}
+
+function eks_karmada_search_deploy () {
+    # function that deploys karmada-search with a ResourceRegistry caching the SEARCH_RESOURCES of the member clusters,
+    # multi-cluster queries are then answered from one cache, or from an OpenSearch backend, instead of every member
+    local karmada_config="${KARMADA_HOME}/karmada-apiserver.config"
+    local selectors clusters backend="null" credentials
+    eks_set_context "${1}"
+
+    echo_orange "\t${uni_circle_quarter} check if karmada-search exists"
+    if kubectl get deployment karmada-search -n karmada-system > /dev/null 2>&1; then
+        echo_green " ${uni_check}\n"
+    else
+        echo_red " ${uni_x}\n"
+        echo_orange "\t${uni_circle_quarter} deploy karmada-search"
+        kubectl karmada addons enable karmada-search --karmada-kubeconfig "${karmada_config}" \
+         ${DOCKER_HUB_MIRROR:+--private-image-registry "${DOCKER_HUB_MIRROR}/karmada"} > /dev/null
+        [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+    fi
+
+    if [[ -n ${SEARCH_BACKEND_SECRET} ]]; then
+        echo_orange "\t${uni_circle_quarter} copy the OpenSearch credentials from ${SEARCH_BACKEND_SECRET}"
+        credentials=$(aws secretsmanager get-secret-value --region "${REGION}" --secret-id "${SEARCH_BACKEND_SECRET}" --query SecretString --output text)
+        kubectl --kubeconfig "${karmada_config}" create secret generic karmada-search-opensearch -n karmada-system \
+         --from-literal=username="$(echo "${credentials}" | jq -r '.username')" \
+         --from-literal=password="$(echo "${credentials}" | jq -r '.password')" \
+         --dry-run=client -o json | kubectl --kubeconfig "${karmada_config}" apply -f - > /dev/null
+        [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
+    fi
+    if [[ -n ${SEARCH_BACKEND_ADDRESSES} ]]; then
+        backend=$(jq -n --arg addresses "${SEARCH_BACKEND_ADDRESSES}" --arg secret "${SEARCH_BACKEND_SECRET}" \
+         '{openSearch: ({addresses: ($addresses | split(","))} + (if $secret == "" then {} else {secretRef: {namespace: "karmada-system", name: "karmada-search-opensearch"}} end))}')
+    fi
+
+    # karmada-search reaches the members with the credentials of push mode clusters only. The pull mode clusters carry
+    # the sync mode label, the selector also matches the push members registered later. An empty list of cluster names
+    # would select every cluster
+    echo_orange "\t${uni_circle_quarter} cache ${SEARCH_RESOURCES} of the member clusters"
+    clusters='{"labelSelector": {"matchExpressions": [{"key": "federated-k8s.aws/sync-mode", "operator": "NotIn", "values": ["Pull"]}]}}'
+    selectors=$(echo "${SEARCH_RESOURCES}" | tr ',' '\n' | jq -R -s -c 'split("\n") | map(select(length > 0) | capture("^(?<apiVersion>.+)/(?<kind>[^/]+)$"))')
+    jq -n --argjson clusters "${clusters}" --argjson selectors "${selectors}" --argjson backend "${backend}" \
+     '{apiVersion: "search.karmada.io/v1alpha1", kind: "ResourceRegistry", metadata: {name: "karmada-search-cache"},
+       spec: ({targetCluster: $clusters, resourceSelectors: $selectors} + (if $backend == null then {} else {backendStore: $backend} end))}' \
+     | kubectl --kubeconfig "${karmada_config}" apply -f - > /dev/null
+    [[ $? -eq 0 ]] && echo_green " ${uni_check}\n" || { echo_red " ${uni_x}\n"; exit 5; }
 }
 
 function eks_karmada_summary () {
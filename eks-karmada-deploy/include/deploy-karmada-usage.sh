@@ -14,9 +14,26 @@ CLUSTER_CPU_ARCH="x86_64"
 MEMBER_CLUSTER_NUM=2
 KARMADA_HOME="${HOME}/.karmada"
 CLUSTER_NAMES="" # to be used only for cleanup operations
+ETCD_NODE_SELECTOR="" # node selector labels for the Karmada etcd pods, e.g. karmada.io/etcd=true
+ETCD_STORAGE_CLASS="ebs-sc" # storage class for the Karmada etcd persistent volumes
+MEMBER_REGIONS="" # comma separated regions of member clusters deployed by the CDK member region stacks
+MEMBER_PARAMETER_PATH="/karmada/members" # SSM path where the CDK member region stacks publish their member clusters
+TOPOLOGY_PARAMETER="/karmada/topology" # SSM parameter where the CDK application publishes the VPC and subnets of a region
+REGISTRATION_MODE="SCRIPT" # SCRIPT joins the member clusters with karmadactl, PULL installs karmada-agent in them, CUSTOM_RESOURCE leaves it to the CDK custom resources
+KARMADA_API_SECRET_ID="" # Secrets Manager secret where the Karmada api server credentials are published for the CDK custom resources
+KARMADA_LB="" # DNS name of a Karmada api server load balancer deployed by the CDK application, skips the load balancer service
+KARMADA_LB_ADDRESSES="" # comma separated Elastic IP addresses of that load balancer, one per availability zone
+SEARCH_RESOURCES="apps/v1/Deployment,v1/Pod" # comma separated apiVersion/Kind that karmada-search caches from the member clusters, empty skips karmada-search
+SEARCH_BACKEND_ADDRESSES="" # comma separated OpenSearch URLs that karmada-search indexes the cached resources in, instead of memory
+SEARCH_BACKEND_SECRET="" # Secrets Manager secret with the username and password of that OpenSearch cluster
+IMAGE_CACHE_REGISTRY="" # ECR registry with the pull through cache rules of the CDK application, the Kubernetes images of Karmada are pulled through it
+DOCKER_HUB_MIRROR="" # ECR pull through cache of Docker Hub, the Karmada images and the demo application are pulled through it
+FEDERATED_HPA="false" # deploy karmada-metrics-adapter and scale the demo with a FederatedHPA, the CDK application installs metrics-server and Cluster Autoscaler in the members
+REPLICA_DIVISION="AvailableReplicas" # AvailableReplicas divides the demo replicas by the capacity of the members, StaticWeight equally
+FAILOVER_SECONDS="" # seconds after which Karmada moves the replicas of a not ready member cluster to the others, empty keeps the Karmada defaults (minutes)
 
 # Let's parse any command line parameters
-while getopts ":e:v:r:c:n:p:m:a:s:k:dhztuw" opt; do
+while getopts ":e:v:r:c:n:p:m:a:s:k:E:S:R:j:K:l:i:D:Q:O:P:I:H:F:Adhztuw" opt; do
   case $opt in
     e) EKS_VERSION="${OPTARG}";;
     v) VPC_NAME="${OPTARG}";;
@@ -29,6 +46,24 @@ while getopts ":e:v:r:c:n:p:m:a:s:k:dhztuw" opt; do
     a) CLUSTER_CPU_ARCH="${OPTARG}";;
     s) MEMBER_CLUSTER_NUM="${OPTARG}";;
     k) KARMADA_HOME="${OPTARG}/.karmada";;
+    E) ETCD_NODE_SELECTOR="${OPTARG}";;
+    S) ETCD_STORAGE_CLASS="${OPTARG}";;
+    R) MEMBER_REGIONS="${OPTARG}";;
+    j) REGISTRATION_MODE="${OPTARG}";;
+    K) KARMADA_API_SECRET_ID="${OPTARG}";;
+    l) KARMADA_LB="${OPTARG}";;
+    i) KARMADA_LB_ADDRESSES="${OPTARG}";;
+    Q) SEARCH_RESOURCES="${OPTARG}";;
+    O) SEARCH_BACKEND_ADDRESSES="${OPTARG}";;
+    P) SEARCH_BACKEND_SECRET="${OPTARG}";;
+    I) IMAGE_CACHE_REGISTRY="${OPTARG}";;
+    H) DOCKER_HUB_MIRROR="${OPTARG}";;
+    D) REPLICA_DIVISION="${OPTARG}";
+        [[ ${REPLICA_DIVISION} != "AvailableReplicas" && ${REPLICA_DIVISION} != "StaticWeight" ]] && { echo_red "The replica division must be AvailableReplicas or StaticWeight\n"; exit 1;} ;;
+    F) FAILOVER_SECONDS="${OPTARG}";
+        [[ -n ${FAILOVER_SECONDS} && ! ${FAILOVER_SECONDS} =~ ^[0-9]+$ ]] && { echo_red "The failover seconds must be a number\n"; exit 1;}
+        [[ ${FAILOVER_SECONDS} == "0" ]] && FAILOVER_SECONDS="" ;;
+    A) FEDERATED_HPA="true";;
     u) UNATTENDED="true";;
     z) SKIP_UTILS="true";;
     t) SKIP_USAGE="true";;
@@ -48,6 +83,21 @@ while getopts ":e:v:r:c:n:p:m:a:s:k:dhztuw" opt; do
         echo "  -a Cluster CPU architecture       (default: x86_64)"
         echo "  -s Number of member cluster       (default: 2)"
         echo "  -k Karmada home directory         (default: ~ --- this results in your karmada config to be in ~/.karmada directory)"
+        echo "  -E Karmada etcd node selector     (default: none --- e.g. karmada.io/etcd=true for the etcd node group or the etcd NodePool of Karpenter)"
+        echo "  -S Karmada etcd storage class     (default: ebs-sc)"
+        echo "  -R Member cluster regions         (default: none --- comma separated regions of member clusters already deployed by the CDK application, -s is then the number per region)"
+        echo "  -j Member registration mode       (default: SCRIPT --- PULL installs karmada-agent in the members, CUSTOM_RESOURCE waits for the member clusters registered by the CDK application)"
+        echo "  -K Karmada api server secret      (default: none --- Secrets Manager secret read by the CDK registration custom resources)"
+        echo "  -l Karmada load balancer DNS name (default: none --- load balancer deployed by the CDK application instead of a load balancer service)"
+        echo "  -i Karmada load balancer IPs      (default: none --- comma separated Elastic IP addresses of the -l load balancer)"
+        echo "  -Q Karmada search resources      (default: apps/v1/Deployment,v1/Pod --- comma separated apiVersion/Kind cached from all member clusters, empty to skip karmada-search)"
+        echo "  -O Karmada search OpenSearch URLs (default: none --- comma separated, karmada-search keeps the cache in memory without them)"
+        echo "  -P Karmada search OpenSearch auth (default: none --- Secrets Manager secret with username and password)"
+        echo "  -I ECR image cache registry       (default: none --- registry of the CDK pull through cache rules, Kubernetes images are pulled from <registry>/k8s)"
+        echo "  -H Docker Hub mirror              (default: none --- ECR pull through cache of Docker Hub for the Karmada and demo images)"
+        echo "  -D Demo replica division          (default: AvailableReplicas --- by the capacity the scheduler estimators report, StaticWeight for equal weights)"
+        echo "  -F Cluster failover seconds       (default: none --- Karmada failover settings that move the replicas of a not ready member within these seconds)"
+        echo "  -A FederatedHPA                   (deploy karmada-metrics-adapter and a FederatedHPA for the demo, the member clusters need metrics-server)"
         echo "  -u Unattended installation        (do not ask for confirmation, to allow unattended deployment)"
         echo ""
         echo "  -w No member clusters and demo    (deploy only parent EKS cluster and Karmada control plane )"
@@ -75,6 +125,10 @@ echo -n "  Cluster nodes CPUs: "; echo_orange "${CLUSTER_VCPUS}\n"
 echo -n "  Cluster nodes memory: "; echo_orange "${CLUSTER_MEMORY}\n"
 echo -n "  Cluster CPU arch: "; echo_orange "${CLUSTER_CPU_ARCH}\n"
 echo -n "  Number of karmada member clusters: "; echo_orange "${MEMBER_CLUSTER_NUM}\n"
+[[ -n ${MEMBER_REGIONS} ]] && { echo -n "  Member cluster regions: "; echo_orange "${MEMBER_REGIONS}\n"; }
+echo -n "  Member registration mode: "; echo_orange "${REGISTRATION_MODE}\n"
+[[ -n ${FAILOVER_SECONDS} ]] && { echo -n "  Cluster failover seconds: "; echo_orange "${FAILOVER_SECONDS}\n"; }
+[[ -n ${SEARCH_RESOURCES} ]] && { echo -n "  Karmada search resources: "; echo_orange "${SEARCH_RESOURCES}\n"; }
 echo -n "  Karmada HOME dir: "; echo_orange "${KARMADA_HOME}\n\n"
 echo "Please note that depending on the number of clusters you are deploying,"
 echo "this script may take a while to complete (expect 20+ minutes per cluster)."
\ No newline at end of file